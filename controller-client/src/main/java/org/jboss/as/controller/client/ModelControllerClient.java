@@ -28,6 +28,7 @@ import java.net.InetAddress;
 import java.util.concurrent.CancellationException;
 
 import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.MultiplexedConnection;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -78,6 +79,16 @@ public interface ModelControllerClient extends Closeable {
         public static ModelControllerClient create(final Type type, final Connection connection) {
             return new ExistingConnectionModelControllerClient(type, connection);
         }
+
+        /**
+         * Create client instance which opens a new channel on a multiplexed connection for each request
+         * @param type The type to connect to
+         * @param connection the multiplexed connection
+         * @return A domain client
+         */
+        public static ModelControllerClient create(final Type type, final MultiplexedConnection connection) {
+            return new MultiplexedConnectionModelControllerClient(type, connection);
+        }
     }
 
     enum Type {
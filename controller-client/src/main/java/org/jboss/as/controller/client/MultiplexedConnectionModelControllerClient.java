@@ -0,0 +1,44 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.client;
+
+import org.jboss.as.protocol.MultiplexedConnection;
+import org.jboss.as.protocol.mgmt.ManagementRequestConnectionStrategy;
+
+/**
+ * A client which opens a new channel on a shared {@link MultiplexedConnection} for each request, so that
+ * any number of requests can be in progress at once.
+ */
+class MultiplexedConnectionModelControllerClient extends AbstractModelControllerClient {
+    private final MultiplexedConnection connection;
+
+    public MultiplexedConnectionModelControllerClient(Type type, MultiplexedConnection connection) {
+        super(type);
+        this.connection = connection;
+    }
+
+    @Override
+    ManagementRequestConnectionStrategy getConnectionStrategy() {
+        return new ManagementRequestConnectionStrategy.MultiplexedConnectionStrategy(connection);
+    }
+}
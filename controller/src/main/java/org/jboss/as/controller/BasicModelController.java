@@ -44,6 +44,7 @@ import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.common.CommonDescriptions;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.NewConfigurationPersister;
+import org.jboss.as.controller.persistence.WriteBehindConfigurationPersister;
 import org.jboss.as.controller.registry.ModelNodeRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
@@ -58,8 +59,14 @@ public class BasicModelController implements ModelController {
     private static final Logger log = Logger.getLogger("org.jboss.as.controller");
 
     private final ModelNodeRegistration registry;
-    private final ModelNode model;
     private final NewConfigurationPersister configurationPersister;
+    /** Serializes writers; readers never take this lock. */
+    private final Object writeLock = new Object();
+    /**
+     * The currently published model. A published model is never modified; writers apply their changes to a
+     * private copy and then publish that copy, so readers always observe a consistent snapshot without locking.
+     */
+    private volatile ModelNode model;
 
 
     /**
@@ -155,10 +162,7 @@ public class BasicModelController implements ModelController {
                 subModel = new ModelNode();
             } else if (operationHandler instanceof ModelQueryOperationHandler) {
                 // or model update operation handler...
-                final ModelNode model = this.model;
-                synchronized (model) {
-                    subModel = address.navigate(model, false).clone();
-                }
+                subModel = address.navigate(this.model, false).clone();
             } else {
                 subModel = null;
             }
@@ -173,13 +177,14 @@ public class BasicModelController implements ModelController {
 
                 @Override
                 public void handleResultComplete(final ModelNode compensatingOperation) {
-                    final ModelNode model = BasicModelController.this.model;
-                    synchronized (model) {
+                    synchronized (writeLock) {
+                        final ModelNode model = BasicModelController.this.model.clone();
                         if (operationHandler instanceof ModelRemoveOperationHandler) {
                             address.remove(model);
                         } else {
                             address.navigate(model, true).set(subModel);
                         }
+                        BasicModelController.this.model = model;
                         persistConfiguration(model);
                     }
                     handler.handleResultComplete(compensatingOperation);
@@ -221,9 +226,10 @@ public class BasicModelController implements ModelController {
      * access to controller internals not meant to be exposed via an
      * {@link OperationContext}.
      * <p>
-     * This default implementation registers a handler for the
+     * This default implementation registers handlers for the
      * {@link CommonDescriptions#getReadConfigAsXmlOperation(Locale) read-config-as-xml}
-     * operation.
+     * and {@link CommonDescriptions#getWriteConfigOperation(Locale) write-config}
+     * operations.
      * </p>
      */
     protected void registerInternalOperations() {
@@ -231,6 +237,8 @@ public class BasicModelController implements ModelController {
         // via the ModelController or OperationContext interfaces.
         XmlMarshallingHandler handler = new XmlMarshallingHandler();
         this.registry.registerOperationHandler(CommonDescriptions.READ_CONFIG_AS_XML, handler, handler, false);
+        WriteConfigHandler writeHandler = new WriteConfigHandler();
+        this.registry.registerOperationHandler(CommonDescriptions.WRITE_CONFIG, writeHandler, writeHandler, false);
     }
 
     /**
@@ -265,10 +273,30 @@ public class BasicModelController implements ModelController {
         return registry;
     }
 
+    /**
+     * Get the currently published model. Once the controller is in use the returned node must be treated as
+     * read-only, since concurrent readers may be navigating it; use {@link #updateModel(ModelUpdate)} to change it.
+     *
+     * @return the current model snapshot
+     */
     protected ModelNode getModel() {
         return model;
     }
 
+    /**
+     * Apply a change to the model outside of the normal operation execution path. The update is applied to a copy
+     * of the current model, which is then published in place of it. The change is not persisted.
+     *
+     * @param update the update to apply
+     */
+    protected void updateModel(final ModelUpdate update) {
+        synchronized (writeLock) {
+            final ModelNode model = this.model.clone();
+            update.update(model);
+            this.model = model;
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public ModelNode execute(final ModelNode operation) throws OperationFailedException {
@@ -385,6 +413,44 @@ public class BasicModelController implements ModelController {
         }
     }
 
+    /**
+     * A direct change to the model, applied via {@link BasicModelController#updateModel(ModelUpdate)}.
+     */
+    protected interface ModelUpdate {
+
+        /**
+         * Apply the change.
+         *
+         * @param model a private copy of the current model, which will be published once this method returns
+         */
+        void update(ModelNode model);
+    }
+
+    private class WriteConfigHandler implements OperationHandler, DescriptionProvider {
+
+        private final String[] EMPTY = new String[0];
+
+        @Override
+        public ModelNode getModelDescription(Locale locale) {
+            return CommonDescriptions.getWriteConfigOperation(locale);
+        }
+
+        @Override
+        public Cancellable execute(OperationContext context, ModelNode operation, ResultHandler resultHandler) {
+            try {
+                // without a write-behind persister every change has been written already
+                final boolean written = configurationPersister instanceof WriteBehindConfigurationPersister
+                        && ((WriteBehindConfigurationPersister) configurationPersister).flush();
+                resultHandler.handleResultFragment(EMPTY, new ModelNode().set(written));
+                resultHandler.handleResultComplete(null);
+            } catch (ConfigurationPersistenceException e) {
+                log.errorf(e, "Failed to write configuration");
+                resultHandler.handleFailed(new ModelNode().set(e.getLocalizedMessage()));
+            }
+            return Cancellable.NULL;
+        }
+    }
+
     private class XmlMarshallingHandler implements ModelQueryOperationHandler, DescriptionProvider {
 
         private final String[] EMPTY = new String[0];
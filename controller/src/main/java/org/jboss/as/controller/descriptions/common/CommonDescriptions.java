@@ -191,6 +191,18 @@ public class CommonDescriptions {
         return root;
     }
 
+    public static final String WRITE_CONFIG = "write-config";
+    public static ModelNode getWriteConfigOperation(Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+        final ModelNode root = new ModelNode();
+        root.get(OPERATION_NAME).set(WRITE_CONFIG);
+        root.get(DESCRIPTION).set(bundle.getString(WRITE_CONFIG));
+        root.get(REQUEST_PROPERTIES).setEmptyObject();
+        root.get(REPLY_PROPERTIES, TYPE).set(ModelType.BOOLEAN);
+        root.get(REPLY_PROPERTIES, DESCRIPTION).set(bundle.getString(WRITE_CONFIG + ".response"));
+        return root;
+    }
+
     public static ModelNode getSubsystemDescribeOperation(final Locale locale) {
         final ResourceBundle bundle = getResourceBundle(locale);
         final ModelNode root = new ModelNode();
@@ -22,8 +22,13 @@
 
 package org.jboss.as.controller.persistence;
 
+import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.xml.stream.XMLOutputFactory;
@@ -36,6 +41,9 @@ import org.jboss.staxmapper.XMLMapper;
 
 /**
  * Abstract superclass for {@link ExtensibleConfigurationPersister} implementations.
+ * <p>
+ * The XML text written for each subsystem is cached, and written as is rather than regenerated on the next
+ * marshalling pass if the subsystem's model has not changed in the meantime.
  *
  * @author Brian Stansberry
  */
@@ -43,9 +51,13 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
 
     private static final Logger log = Logger.getLogger("org.jboss.as.controller");
 
+    private static final String ENCODING = "UTF-8";
+
     private final XMLElementWriter<ModelMarshallingContext> rootDeparser;
     private final Map<String, XMLElementWriter<SubsystemMarshallingContext>> subsystemWriters = new HashMap<String, XMLElementWriter<SubsystemMarshallingContext>>();
     private final Map<String, XMLElementWriter<SubsystemMarshallingContext>> subsystemDeploymentWriters = new HashMap<String, XMLElementWriter<SubsystemMarshallingContext>>();
+    /** The subsystem text written by the last successful marshalling pass, reused for unchanged subsystems. */
+    private volatile Map<String, List<CachingSubsystemXmlWriter.Fragment>> subsystemFragments = Collections.emptyMap();
 
     /**
      * Construct a new instance.
@@ -60,6 +72,8 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
     public void registerSubsystemWriter(String name, XMLElementWriter<SubsystemMarshallingContext> deparser) {
         synchronized (subsystemWriters) {
             subsystemWriters.put(name, deparser);
+            // cached text may not match what the new writer produces
+            subsystemFragments = new HashMap<String, List<CachingSubsystemXmlWriter.Fragment>>();
         }
     }
 
@@ -74,10 +88,15 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
     @Override
     public void marshallAsXml(final ModelNode model, final OutputStream output) throws ConfigurationPersistenceException {
         final XMLMapper mapper = XMLMapper.Factory.create();
+        final Map<String, List<CachingSubsystemXmlWriter.Fragment>> previousFragments = subsystemFragments;
+        final CachingSubsystemXmlWriter.Pass pass = new CachingSubsystemXmlWriter.Pass(previousFragments);
         try {
             XMLStreamWriter streamWriter = null;
             try {
-                streamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(output);
+                // the document is written with placeholders for the subsystems, which are then filled in;
+                // a stream writer writes UTF-8 unless told otherwise
+                final ByteArrayOutputStream document = new ByteArrayOutputStream();
+                streamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(document);
                 ModelMarshallingContext extensibleModel = new ModelMarshallingContext() {
 
                     @Override
@@ -87,9 +106,14 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
 
                     @Override
                     public XMLElementWriter<SubsystemMarshallingContext> getSubsystemWriter(String extensionName) {
+                        final XMLElementWriter<SubsystemMarshallingContext> writer;
                         synchronized (subsystemWriters) {
-                            return subsystemWriters.get(extensionName);
+                            writer = subsystemWriters.get(extensionName);
+                        }
+                        if (writer == null) {
+                            return null;
                         }
+                        return new CachingSubsystemXmlWriter(extensionName, writer, pass);
                     }
 
                     @Override
@@ -101,6 +125,14 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
                 };
                 mapper.deparseDocument(rootDeparser, extensibleModel, streamWriter);
                 streamWriter.close();
+                final Writer writer = new OutputStreamWriter(output, ENCODING);
+                pass.writeDocument(document.toString(ENCODING), writer);
+                writer.flush();
+                synchronized (subsystemWriters) {
+                    if (subsystemFragments == previousFragments) {
+                        subsystemFragments = pass.getFragments();
+                    }
+                }
             } finally {
                 safeClose(streamWriter);
             }
@@ -0,0 +1,275 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+
+/**
+ * A subsystem writer which caches the XML text written for each subsystem model, so that a marshalling pass only
+ * runs the writers of subsystems whose model has changed since the previous pass.
+ * <p>
+ * A stream writer cannot be handed text which is already serialized, so an unchanged subsystem is represented in
+ * the document by an empty placeholder element, which the formatting writer lays out exactly as it would the
+ * subsystem's own element. A changed subsystem is written by the real subsystem writer as usual, between two marker
+ * elements. Once the document is complete, {@link Pass#writeDocument(String, Writer)} replaces each placeholder
+ * with the cached text, and takes the text between each pair of markers as the cached text for the next pass.
+ *
+ * @see AbstractConfigurationPersister#marshallAsXml(ModelNode, java.io.OutputStream)
+ */
+final class CachingSubsystemXmlWriter implements XMLElementWriter<SubsystemMarshallingContext> {
+
+    private static final String PLACEHOLDER = "cached-subsystem-";
+    private static final String START = "subsystem-start-";
+    private static final String END = "subsystem-end-";
+
+    private final String subsystemName;
+    private final XMLElementWriter<SubsystemMarshallingContext> delegate;
+    private final Pass pass;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param subsystemName the name of the subsystem
+     * @param delegate the real subsystem writer
+     * @param pass the marshalling pass
+     */
+    CachingSubsystemXmlWriter(final String subsystemName, final XMLElementWriter<SubsystemMarshallingContext> delegate, final Pass pass) {
+        this.subsystemName = subsystemName;
+        this.delegate = delegate;
+        this.pass = pass;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void writeContent(final XMLExtendedStreamWriter streamWriter, final SubsystemMarshallingContext context) throws XMLStreamException {
+        final ModelNode model = context.getModelNode();
+        final String defaultNamespace = streamWriter.getNamespaceContext().getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX);
+        final Fragment cached = pass.find(subsystemName, model, defaultNamespace);
+        if (cached != null) {
+            streamWriter.writeEmptyElement(PLACEHOLDER + pass.add(subsystemName, cached, false));
+        } else {
+            final int index = pass.add(subsystemName, new Fragment(model.clone(), defaultNamespace), true);
+            streamWriter.writeEmptyElement(START + index);
+            delegate.writeContent(streamWriter, context);
+            streamWriter.writeEmptyElement(END + index);
+        }
+    }
+
+    /**
+     * The XML text written for a subsystem model.
+     */
+    static final class Fragment {
+        private final ModelNode model;
+        private final String defaultNamespace;
+        private String indentation;
+        private String text;
+
+        Fragment(final ModelNode model, final String defaultNamespace) {
+            this.model = model;
+            this.defaultNamespace = defaultNamespace;
+        }
+
+        boolean matches(final ModelNode model, final String defaultNamespace) {
+            return (this.defaultNamespace == null ? defaultNamespace == null : this.defaultNamespace.equals(defaultNamespace))
+                && this.model.equals(model);
+        }
+
+        String getText(final String indentation) {
+            if (this.indentation.equals(indentation)) {
+                return text;
+            }
+            // the subsystem has moved to a different depth in the document
+            return text.replace("\n" + this.indentation, "\n" + indentation);
+        }
+    }
+
+    /**
+     * A single marshalling pass.  Fragments are looked up in those of the previous pass, and every fragment used
+     * or written on this pass is kept for the next one, so fragments of removed subsystems (or of superseded
+     * subsystem models) are dropped after a single pass.
+     */
+    static final class Pass {
+        private final Map<String, List<Fragment>> previous;
+        private final Map<String, List<Fragment>> fragments = new HashMap<String, List<Fragment>>();
+        private final List<Fragment> entries = new ArrayList<Fragment>();
+        private final List<Boolean> written = new ArrayList<Boolean>();
+        private int writtenCount;
+
+        /**
+         * Construct a new instance.
+         *
+         * @param previous the fragments of the previous pass, keyed by subsystem name
+         */
+        Pass(final Map<String, List<Fragment>> previous) {
+            this.previous = previous;
+        }
+
+        Fragment find(final String subsystemName, final ModelNode model, final String defaultNamespace) {
+            final Fragment fragment = find(previous.get(subsystemName), model, defaultNamespace);
+            // the same subsystem model may appear more than once in a document, e.g. in several profiles
+            return fragment != null ? fragment : find(fragments.get(subsystemName), model, defaultNamespace);
+        }
+
+        int add(final String subsystemName, final Fragment fragment, final boolean write) {
+            List<Fragment> list = fragments.get(subsystemName);
+            if (list == null) {
+                list = new ArrayList<Fragment>(1);
+                fragments.put(subsystemName, list);
+            }
+            if (!list.contains(fragment)) {
+                list.add(fragment);
+            }
+            if (write) {
+                writtenCount++;
+            }
+            entries.add(fragment);
+            written.add(Boolean.valueOf(write));
+            return entries.size() - 1;
+        }
+
+        /**
+         * Write the document, replacing each placeholder with the cached text of its subsystem, and removing the
+         * markers around each subsystem which was written on this pass.
+         *
+         * @param document the document containing the placeholders and markers
+         * @param output the output
+         * @throws XMLStreamException if a placeholder or marker is missing from the document
+         * @throws IOException if the output cannot be written
+         */
+        void writeDocument(final String document, final Writer output) throws XMLStreamException, IOException {
+            int pos = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                final Fragment fragment = entries.get(i);
+                final int start;
+                final int after;
+                final String text;
+                if (written.get(i).booleanValue()) {
+                    start = findElement(document, START + i, pos);
+                    final int end = findElement(document, END + i, start);
+                    int textStart = skipElement(document, START + i, start);
+                    int textEnd = end;
+                    while (textStart < textEnd && Character.isWhitespace(document.charAt(textStart))) {
+                        textStart++;
+                    }
+                    while (textEnd > textStart && Character.isWhitespace(document.charAt(textEnd - 1))) {
+                        textEnd--;
+                    }
+                    fragment.indentation = getIndentation(document, start);
+                    fragment.text = text = document.substring(textStart, textEnd);
+                    after = skipElement(document, END + i, end);
+                } else {
+                    start = findElement(document, PLACEHOLDER + i, pos);
+                    text = fragment.getText(getIndentation(document, start));
+                    after = skipElement(document, PLACEHOLDER + i, start);
+                }
+                int before = start;
+                if (text.length() == 0) {
+                    // nothing was written, so nor should the line break and indentation before it be
+                    while (before > pos && Character.isWhitespace(document.charAt(before - 1))) {
+                        before--;
+                    }
+                }
+                output.write(document, pos, before - pos);
+                output.write(text);
+                pos = after;
+            }
+            output.write(document, pos, document.length() - pos);
+        }
+
+        /**
+         * Get the fragments used or written on this pass, for use by the next pass.
+         *
+         * @return the fragments, keyed by subsystem name
+         */
+        Map<String, List<Fragment>> getFragments() {
+            return fragments;
+        }
+
+        /**
+         * Get the number of subsystems whose writer was run on this pass.
+         *
+         * @return the number of subsystems written
+         */
+        int getWrittenCount() {
+            return writtenCount;
+        }
+
+        private static Fragment find(final List<Fragment> candidates, final ModelNode model, final String defaultNamespace) {
+            if (candidates != null) {
+                for (Fragment candidate : candidates) {
+                    if (candidate.matches(model, defaultNamespace)) {
+                        return candidate;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    private static int findElement(final String document, final String name, final int from) throws XMLStreamException {
+        int pos = from;
+        for (;;) {
+            final int start = document.indexOf("<" + name, pos);
+            if (start == -1) {
+                throw new XMLStreamException("No element " + name + " in the document");
+            }
+            final int next = start + name.length() + 1;
+            // don't mistake the element for one whose number has more digits
+            if (next < document.length() && !Character.isDigit(document.charAt(next))) {
+                return start;
+            }
+            pos = next;
+        }
+    }
+
+    private static int skipElement(final String document, final String name, final int start) {
+        int end = document.indexOf('>', start) + 1;
+        final String endTag = "</" + name + ">";
+        if (document.startsWith(endTag, end)) {
+            end += endTag.length();
+        }
+        return end;
+    }
+
+    private static String getIndentation(final String document, final int start) {
+        final int lineStart = document.lastIndexOf('\n', start - 1) + 1;
+        for (int i = lineStart; i < start; i++) {
+            if (!Character.isWhitespace(document.charAt(i))) {
+                return "";
+            }
+        }
+        return document.substring(lineStart, start);
+    }
+}
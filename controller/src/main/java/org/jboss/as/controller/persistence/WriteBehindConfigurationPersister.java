@@ -0,0 +1,190 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.jboss.staxmapper.XMLElementWriter;
+
+/**
+ * A configuration persister which defers storing to a delegate persister until no further changes have been
+ * made for a quiet period, so that a burst of updates results in a single write of the configuration. Only the
+ * most recent model is written; intermediate models are discarded.
+ * <p>
+ * Pending changes can be written synchronously by calling {@link #flush()}, and are always written by
+ * {@link #shutdown()}.
+ */
+public class WriteBehindConfigurationPersister implements ExtensibleConfigurationPersister {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.controller");
+
+    /** A write is never postponed for longer than this many quiet periods, even if updates keep arriving. */
+    private static final int MAX_QUIET_PERIODS = 10;
+
+    private final ExtensibleConfigurationPersister delegate;
+    private final long quietPeriod;
+    private final ScheduledExecutorService executor;
+    private final Runnable flushTask = new Runnable() {
+        public void run() {
+            try {
+                flush();
+            } catch (ConfigurationPersistenceException e) {
+                log.warnf(e, "Failed to persist configuration change: %s", e);
+            }
+        }
+    };
+
+    // protected by this
+    private ModelNode pending;
+    private long pendingSince;
+    private ScheduledFuture<?> scheduled;
+    private boolean shutdown;
+
+    // serializes writes to the delegate, so that a later model is never overwritten by an earlier one
+    private final Object flushLock = new Object();
+
+    /**
+     * Construct a new instance.
+     *
+     * @param delegate the persister which actually stores the configuration
+     * @param quietPeriod the time without further updates to wait before storing
+     * @param unit the time unit of {@code quietPeriod}
+     */
+    public WriteBehindConfigurationPersister(final ExtensibleConfigurationPersister delegate, final long quietPeriod, final TimeUnit unit) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate is null");
+        }
+        if (quietPeriod <= 0) {
+            throw new IllegalArgumentException("quietPeriod must be greater than zero");
+        }
+        this.delegate = delegate;
+        this.quietPeriod = unit.toNanos(quietPeriod);
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "Configuration Persister");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.executor = executor;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void store(final ModelNode model) throws ConfigurationPersistenceException {
+        synchronized (this) {
+            if (shutdown) {
+                // nothing will flush it any more, so write through
+                pending = null;
+            } else {
+                final long now = System.nanoTime();
+                if (pending == null) {
+                    pendingSince = now;
+                }
+                pending = model;
+                if (scheduled == null || now - pendingSince < MAX_QUIET_PERIODS * quietPeriod) {
+                    if (scheduled != null) {
+                        scheduled.cancel(false);
+                    }
+                    scheduled = executor.schedule(flushTask, quietPeriod, TimeUnit.NANOSECONDS);
+                }
+                return;
+            }
+        }
+        synchronized (flushLock) {
+            delegate.store(model);
+        }
+    }
+
+    /**
+     * Synchronously store the most recent model passed to {@link #store(ModelNode)}, if it has not been stored yet.
+     *
+     * @return {@code true} if a model was stored, {@code false} if no change was pending
+     * @throws ConfigurationPersistenceException if the delegate persister fails to store the model
+     */
+    public boolean flush() throws ConfigurationPersistenceException {
+        synchronized (flushLock) {
+            final ModelNode model;
+            synchronized (this) {
+                model = pending;
+                pending = null;
+                if (scheduled != null) {
+                    scheduled.cancel(false);
+                    scheduled = null;
+                }
+            }
+            if (model == null) {
+                return false;
+            }
+            delegate.store(model);
+            return true;
+        }
+    }
+
+    /**
+     * Store any pending changes and stop deferring writes. Subsequent calls to {@link #store(ModelNode)} write
+     * through to the delegate persister.
+     *
+     * @throws ConfigurationPersistenceException if the delegate persister fails to store the pending model
+     */
+    public void shutdown() throws ConfigurationPersistenceException {
+        synchronized (this) {
+            shutdown = true;
+        }
+        executor.shutdown();
+        flush();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void marshallAsXml(final ModelNode model, final OutputStream output) throws ConfigurationPersistenceException {
+        delegate.marshallAsXml(model, output);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<ModelNode> load() throws ConfigurationPersistenceException {
+        return delegate.load();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void registerSubsystemWriter(final String name, final XMLElementWriter<SubsystemMarshallingContext> writer) {
+        delegate.registerSubsystemWriter(name, writer);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void registerSubsystemDeploymentWriter(final String name, final XMLElementWriter<SubsystemMarshallingContext> writer) {
+        delegate.registerSubsystemDeploymentWriter(name, writer);
+    }
+}
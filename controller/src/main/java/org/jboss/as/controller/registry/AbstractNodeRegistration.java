@@ -74,10 +74,19 @@ abstract class AbstractNodeRegistration implements ModelNodeRegistration {
      */
     @Override
     public final OperationHandler getOperationHandler(final PathAddress pathAddress, final String operationName) {
-        return getHandler(pathAddress.iterator(), operationName);
+        return getHandler(pathAddress, 0, operationName);
     }
 
-    abstract OperationHandler getHandler(ListIterator<PathElement> iterator, String operationName);
+    /**
+     * Get a handler at a specific address.  Lookups walk the address by index rather than with an iterator, since
+     * they are done for every executed operation.
+     *
+     * @param pathAddress the address
+     * @param index the index of the first element of {@code pathAddress} below this node
+     * @param operationName the operation name
+     * @return the operation handler, or {@code null} if none match
+     */
+    abstract OperationHandler getHandler(PathAddress pathAddress, int index, String operationName);
 
     @Override
     public AttributeAccess getAttributeAccess(final PathAddress address, final String attributeName) {
@@ -137,10 +146,10 @@ abstract class AbstractNodeRegistration implements ModelNodeRegistration {
     abstract Set<PathElement> getChildAddresses(Iterator<PathElement> iterator);
 
     public ProxyController getProxyController(final PathAddress address) {
-        return getProxyController(address.iterator());
+        return getProxyController(address, 0);
     }
 
-    abstract ProxyController getProxyController(Iterator<PathElement> iterator);
+    abstract ProxyController getProxyController(PathAddress address, int index);
 
     public Set<ProxyController> getProxyControllers(PathAddress address){
         Set<ProxyController> controllers = new HashSet<ProxyController>();
@@ -34,6 +34,7 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.jboss.as.controller.OperationHandler;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
@@ -79,19 +80,17 @@ final class ConcreteNodeRegistration extends AbstractNodeRegistration {
     }
 
     @Override
-    OperationHandler getHandler(final ListIterator<PathElement> iterator, final String operationName) {
-        final OperationEntry entry = operationsUpdater.get(this, operationName);
+    OperationHandler getHandler(final PathAddress pathAddress, final int index, final String operationName) {
+        final OperationEntry entry = operations.get(operationName);
         if (entry != null && entry.isInherited()) {
             return entry.getOperationHandler();
         }
-        if (! iterator.hasNext()) {
+        if (index == pathAddress.size()) {
             return entry == null ? null : entry.getOperationHandler();
         }
-        final PathElement next = iterator.next();
-        final String key = next.getKey();
-        final Map<String, NodeSubregistry> snapshot = childrenUpdater.get(this);
-        final NodeSubregistry subregistry = snapshot.get(key);
-        return subregistry == null ? null : subregistry.getHandler(iterator, next.getValue(), operationName);
+        final PathElement next = pathAddress.getElement(index);
+        final NodeSubregistry subregistry = children.get(next.getKey());
+        return subregistry == null ? null : subregistry.getHandler(pathAddress, index + 1, next.getValue(), operationName);
     }
 
     @Override
@@ -299,14 +298,14 @@ final class ConcreteNodeRegistration extends AbstractNodeRegistration {
     }
 
     @Override
-    ProxyController getProxyController(Iterator<PathElement> iterator) {
-        if (iterator.hasNext()) {
-            final PathElement next = iterator.next();
+    ProxyController getProxyController(final PathAddress address, final int index) {
+        if (index < address.size()) {
+            final PathElement next = address.getElement(index);
             final NodeSubregistry subregistry = children.get(next.getKey());
             if (subregistry == null) {
                 return null;
             }
-            return subregistry.getProxyController(iterator, next.getValue());
+            return subregistry.getProxyController(address, index + 1, next.getValue());
         } else {
             return null;
         }
@@ -31,6 +31,7 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.jboss.as.controller.OperationHandler;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
@@ -83,15 +84,15 @@ final class NodeSubregistry {
         childRegistriesUpdater.remove(this, elementValue);
     }
 
-    OperationHandler getHandler(final ListIterator<PathElement> iterator, final String child, final String operationName) {
-        final Map<String, AbstractNodeRegistration> snapshot = childRegistriesUpdater.get(this);
+    OperationHandler getHandler(final PathAddress pathAddress, final int index, final String child, final String operationName) {
+        final Map<String, AbstractNodeRegistration> snapshot = childRegistries;
         final AbstractNodeRegistration childRegistry = snapshot.get(child);
         if (childRegistry != null) {
-            return childRegistry.getHandler(iterator, operationName);
+            return childRegistry.getHandler(pathAddress, index, operationName);
         } else {
             final AbstractNodeRegistration wildcardRegistry = snapshot.get("*");
             if (wildcardRegistry != null) {
-                return wildcardRegistry.getHandler(iterator, operationName);
+                return wildcardRegistry.getHandler(pathAddress, index, operationName);
             } else {
                 return null;
             }
@@ -201,14 +202,14 @@ final class NodeSubregistry {
         return childRegistry.getChildAddresses(iterator);
     }
 
-    ProxyController getProxyController(final Iterator<PathElement> iterator, final String child) {
+    ProxyController getProxyController(final PathAddress address, final int index, final String child) {
         final Map<String, AbstractNodeRegistration> snapshot = childRegistries;
         AbstractNodeRegistration childRegistry = snapshot.get(child);
         if (childRegistry == null) {
             //Don't handle '*' for now
             return null;
         }
-        return childRegistry.getProxyController(iterator);
+        return childRegistry.getProxyController(address, index);
     }
 
     void getProxyControllers(final Iterator<PathElement> iterator, final String child, Set<ProxyController> controllers) {
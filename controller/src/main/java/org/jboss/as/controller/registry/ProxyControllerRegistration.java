@@ -29,6 +29,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.jboss.as.controller.OperationHandler;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
@@ -46,7 +47,7 @@ final class ProxyControllerRegistration extends AbstractNodeRegistration {
     }
 
     @Override
-    OperationHandler getHandler(final ListIterator<PathElement> iterator, final String operationName) {
+    OperationHandler getHandler(final PathAddress pathAddress, final int index, final String operationName) {
         return null;
     }
 
@@ -121,7 +122,7 @@ final class ProxyControllerRegistration extends AbstractNodeRegistration {
     }
 
     @Override
-    ProxyController getProxyController(Iterator<PathElement> iterator) {
+    ProxyController getProxyController(final PathAddress address, final int index) {
         return proxyController;
     }
 
@@ -31,6 +31,7 @@ import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.ResultHandler;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.MultiplexedConnection;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -63,6 +64,15 @@ class ModelControllerClientToModelControllerAdapter implements ModelController {
         client = ModelControllerClient.Factory.create(type, connection);
     }
 
+    /**
+     * Create a new model controller adapter which opens a new channel on a multiplexed connection for each operation
+     *
+     * @param connection the multiplexed connection
+     */
+    ModelControllerClientToModelControllerAdapter(final ModelControllerClient.Type type, final MultiplexedConnection connection) {
+        client = ModelControllerClient.Factory.create(type, connection);
+    }
+
     @Override
     public Cancellable execute(final ModelNode operation, final ResultHandler handler) {
         return new CancellableAdapter(client.execute(operation, new ResultHandlerAdapter(handler)));
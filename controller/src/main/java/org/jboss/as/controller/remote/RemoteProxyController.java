@@ -33,6 +33,7 @@ import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.ResultHandler;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.MultiplexedConnection;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -79,6 +80,21 @@ public class RemoteProxyController implements ProxyController {
         return new RemoteProxyController(new ModelControllerClientToModelControllerAdapter(type, connection), proxyNodeAddress);
     }
 
+    /**
+     * Create a new model controller adapter which opens a new channel on a multiplexed connection for each
+     * operation, so that operations on the remote model controller do not wait for each other
+     *
+     * @param type the type of controller being connected to
+     * @param connection the multiplexed connection
+     * @param proxyNodeAddress the address in the host ModelController where this proxy controller applies to
+     */
+    public static ProxyController create(final ModelControllerClient.Type type, final MultiplexedConnection connection, final PathAddress proxyNodeAddress) {
+        if (connection == null) {
+            throw new IllegalArgumentException("Null connection");
+        }
+        return new RemoteProxyController(new ModelControllerClientToModelControllerAdapter(type, connection), proxyNodeAddress);
+    }
+
     private RemoteProxyController(ModelController delegate, PathAddress proxyNodeAddress) {
         this.delegate = delegate;
         this.proxyNodeAddress = proxyNodeAddress;
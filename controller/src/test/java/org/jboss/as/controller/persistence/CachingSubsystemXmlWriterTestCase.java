@@ -0,0 +1,285 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.persistence;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+import org.jboss.staxmapper.XMLMapper;
+import org.junit.Test;
+
+/**
+ * Tests that {@link AbstractConfigurationPersister} writes exactly the same bytes when it reuses the cached
+ * text of unchanged subsystems as when every subsystem writer is run.
+ */
+public class CachingSubsystemXmlWriterTestCase {
+
+    private static final String ROOT_NAMESPACE = "urn:test:root:1.0";
+    private static final String PREFIXED_NAMESPACE = "urn:test:prefixed:1.0";
+
+    @Test
+    public void testUnchangedSubsystemsAreNotRewritten() throws Exception {
+        final TestPersister persister = new TestPersister();
+        final ModelNode model = createModel();
+        assertEquals(4, marshallAndCompare(persister, model));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, marshallAndCompare(persister, model));
+        }
+    }
+
+    @Test
+    public void testChangedSubsystemsAreRewritten() throws Exception {
+        final TestPersister persister = new TestPersister();
+        final ModelNode model = createModel();
+        marshallAndCompare(persister, model);
+
+        model.get("profile", "subsystem", "threads", "child", "core").set("32");
+        assertEquals(1, marshallAndCompare(persister, model));
+
+        // an empty subsystem which gains content, and a new subsystem
+        model.get("profile", "subsystem", "empty", "child", "first").set("1");
+        model.get("profile", "subsystem", "naming", "child", "jndi").set("java:/");
+        assertEquals(2, marshallAndCompare(persister, model));
+
+        // only the text of the last pass is kept, so a subsystem which reverts to older content is written again
+        model.get("profile", "subsystem", "threads", "child", "core").set("16");
+        assertEquals(1, marshallAndCompare(persister, model));
+        assertEquals(0, marshallAndCompare(persister, model));
+    }
+
+    @Test
+    public void testRemovedSubsystem() throws Exception {
+        final TestPersister persister = new TestPersister();
+        final ModelNode model = createModel();
+        marshallAndCompare(persister, model);
+
+        final ModelNode subsystems = new ModelNode();
+        for (String name : model.get("profile", "subsystem").keys()) {
+            if (!name.equals("logging")) {
+                subsystems.get(name).set(model.get("profile", "subsystem", name));
+            }
+        }
+        model.get("profile", "subsystem").set(subsystems);
+        assertEquals(0, marshallAndCompare(persister, model));
+    }
+
+    @Test
+    public void testRegisteredWriterReplacesCachedText() throws Exception {
+        final TestPersister persister = new TestPersister();
+        final ModelNode model = createModel();
+        marshallAndCompare(persister, model);
+
+        persister.registerSubsystemWriter("threads", new TestSubsystemWriter(persister, "urn:test:threads:2.0"));
+        assertEquals(4, marshallAndCompare(persister, model));
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        persister.marshallAsXml(model, output);
+        assertTrue(output.toString("UTF-8").contains("urn:test:threads:2.0"));
+    }
+
+    private static ModelNode createModel() {
+        final ModelNode model = new ModelNode();
+        model.get("name").set("test");
+        model.get("profile", "name").set("default");
+        final ModelNode subsystems = model.get("profile", "subsystem");
+        subsystems.get("logging", "child", "console").set("INFO");
+        subsystems.get("logging", "child", "file").set("DEBUG");
+        subsystems.get("logging", "text").set("Log <everything>\nthat matters & nothing else");
+        subsystems.get("threads", "child", "core").set("16");
+        subsystems.get("threads", "child", "max").set("64");
+        subsystems.get("empty").setEmptyObject();
+        subsystems.get("prefixed", "child", "value").set("\"quoted\"");
+        model.get("interface", "public").set("127.0.0.1");
+        return model;
+    }
+
+    /**
+     * Marshall the model with the persister, and check the result is exactly that of running every subsystem writer.
+     *
+     * @return the number of subsystem writers run by the persister
+     */
+    private static int marshallAndCompare(final TestPersister persister, final ModelNode model) throws Exception {
+        final byte[] expected = marshallDirectly(persister, model);
+        final int writes = persister.getWriteCount();
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        persister.marshallAsXml(model, output);
+        assertArrayEquals(expected, output.toByteArray());
+        return persister.getWriteCount() - writes;
+    }
+
+    /**
+     * Marshall the model the way the persister did before subsystem text was cached.
+     */
+    private static byte[] marshallDirectly(final TestPersister persister, final ModelNode model) throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final XMLStreamWriter streamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(output);
+        XMLMapper.Factory.create().deparseDocument(new RootWriter(), new ModelMarshallingContext() {
+            @Override
+            public ModelNode getModelNode() {
+                return model;
+            }
+
+            @Override
+            public XMLElementWriter<SubsystemMarshallingContext> getSubsystemWriter(final String extensionName) {
+                return persister.getSubsystemWriter(extensionName);
+            }
+
+            @Override
+            public XMLElementWriter<SubsystemMarshallingContext> getSubsystemDeploymentWriter(final String extensionName) {
+                return null;
+            }
+        }, streamWriter);
+        streamWriter.close();
+        return output.toByteArray();
+    }
+
+    private static class TestPersister extends AbstractConfigurationPersister {
+
+        private final Map<String, XMLElementWriter<SubsystemMarshallingContext>> writers = new HashMap<String, XMLElementWriter<SubsystemMarshallingContext>>();
+        private int writeCount;
+
+        TestPersister() {
+            super(new RootWriter());
+            for (String name : new String[] {"logging", "threads", "empty", "naming"}) {
+                registerSubsystemWriter(name, new TestSubsystemWriter(this, "urn:test:" + name + ":1.0"));
+            }
+            registerSubsystemWriter("prefixed", new TestSubsystemWriter(this, PREFIXED_NAMESPACE));
+        }
+
+        @Override
+        public void registerSubsystemWriter(final String name, final XMLElementWriter<SubsystemMarshallingContext> deparser) {
+            super.registerSubsystemWriter(name, deparser);
+            writers.put(name, deparser);
+        }
+
+        XMLElementWriter<SubsystemMarshallingContext> getSubsystemWriter(final String name) {
+            return writers.get(name);
+        }
+
+        synchronized int getWriteCount() {
+            return writeCount;
+        }
+
+        synchronized void written() {
+            writeCount++;
+        }
+
+        @Override
+        public void store(final ModelNode model) {
+        }
+
+        @Override
+        public List<ModelNode> load() {
+            return new ArrayList<ModelNode>();
+        }
+    }
+
+    /**
+     * Writes the model much as the standalone configuration parser does.
+     */
+    private static class RootWriter implements XMLElementWriter<ModelMarshallingContext> {
+
+        @Override
+        public void writeContent(final XMLExtendedStreamWriter writer, final ModelMarshallingContext context) throws XMLStreamException {
+            final ModelNode model = context.getModelNode();
+            writer.writeStartDocument();
+            writer.writeStartElement("server");
+            writer.writeAttribute("name", model.get("name").asString());
+            writer.writeDefaultNamespace(ROOT_NAMESPACE);
+            writer.writeNamespace("p", PREFIXED_NAMESPACE);
+
+            writer.writeStartElement("profile");
+            writer.writeAttribute("name", model.get("profile", "name").asString());
+            final String defaultNamespace = writer.getNamespaceContext().getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX);
+            for (String name : model.get("profile", "subsystem").keys()) {
+                try {
+                    final XMLElementWriter<SubsystemMarshallingContext> subsystemWriter = context.getSubsystemWriter(name);
+                    if (subsystemWriter != null) {
+                        subsystemWriter.writeContent(writer, new SubsystemMarshallingContext(model.get("profile", "subsystem", name), writer));
+                    }
+                } finally {
+                    writer.setDefaultNamespace(defaultNamespace);
+                }
+            }
+            writer.writeEndElement();
+
+            writer.writeStartElement("interfaces");
+            for (String name : model.get("interface").keys()) {
+                writer.writeEmptyElement("interface");
+                writer.writeAttribute("name", name);
+                writer.writeAttribute("address", model.get("interface", name).asString());
+            }
+            writer.writeEndElement();
+
+            writer.writeEndElement();
+            writer.writeEndDocument();
+        }
+    }
+
+    private static class TestSubsystemWriter implements XMLElementWriter<SubsystemMarshallingContext> {
+
+        private final TestPersister persister;
+        private final String namespace;
+
+        TestSubsystemWriter(final TestPersister persister, final String namespace) {
+            this.persister = persister;
+            this.namespace = namespace;
+        }
+
+        @Override
+        public void writeContent(final XMLExtendedStreamWriter writer, final SubsystemMarshallingContext context) throws XMLStreamException {
+            persister.written();
+            final ModelNode model = context.getModelNode();
+            if (!model.hasDefined("child")) {
+                context.startSubsystemElement(namespace, true);
+                return;
+            }
+            context.startSubsystemElement(namespace, false);
+            for (String name : model.get("child").keys()) {
+                writer.writeStartElement("child");
+                writer.writeAttribute("name", name);
+                writer.writeAttribute("value", model.get("child", name).asString());
+                writer.writeEndElement();
+            }
+            if (model.hasDefined("text")) {
+                writer.writeStartElement("description");
+                writer.writeCharacters(model.get("text").asString());
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.persistence;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of {@link WriteBehindConfigurationPersister}.
+ */
+public class WriteBehindConfigurationPersisterTestCase {
+
+    @Test
+    public void testBurstIsCoalesced() throws Exception {
+        final RecordingPersister delegate = new RecordingPersister();
+        final WriteBehindConfigurationPersister persister = new WriteBehindConfigurationPersister(delegate, 200, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < 50; i++) {
+            persister.store(new ModelNode().set(i));
+        }
+        assertEquals(0, delegate.getStored().size());
+
+        assertTrue(delegate.awaitStore(10, TimeUnit.SECONDS));
+        final List<ModelNode> stored = delegate.getStored();
+        assertEquals(1, stored.size());
+        assertEquals(49, stored.get(0).asInt());
+        persister.shutdown();
+    }
+
+    @Test
+    public void testFlushAndShutdown() throws Exception {
+        final RecordingPersister delegate = new RecordingPersister();
+        final WriteBehindConfigurationPersister persister = new WriteBehindConfigurationPersister(delegate, 1, TimeUnit.HOURS);
+        persister.store(new ModelNode().set(1));
+        assertTrue(persister.flush());
+        assertEquals(1, delegate.getStored().size());
+
+        // nothing pending, so nothing further is written
+        assertFalse(persister.flush());
+        assertEquals(1, delegate.getStored().size());
+
+        persister.store(new ModelNode().set(2));
+        persister.shutdown();
+        assertEquals(2, delegate.getStored().size());
+        assertEquals(2, delegate.getStored().get(1).asInt());
+
+        // writes through after shutdown
+        persister.store(new ModelNode().set(3));
+        assertEquals(3, delegate.getStored().size());
+    }
+
+    private static class RecordingPersister extends AbstractConfigurationPersister {
+
+        private final List<ModelNode> stored = new ArrayList<ModelNode>();
+        private final CountDownLatch firstStore = new CountDownLatch(1);
+
+        RecordingPersister() {
+            super(null);
+        }
+
+        @Override
+        public synchronized void store(final ModelNode model) {
+            stored.add(model);
+            firstStore.countDown();
+        }
+
+        @Override
+        public List<ModelNode> load() {
+            return new ArrayList<ModelNode>();
+        }
+
+        boolean awaitStore(final long timeout, final TimeUnit unit) throws InterruptedException {
+            return firstStore.await(timeout, unit);
+        }
+
+        synchronized List<ModelNode> getStored() {
+            return new ArrayList<ModelNode>(stored);
+        }
+    }
+}
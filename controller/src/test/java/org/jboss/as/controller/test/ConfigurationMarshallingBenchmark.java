@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jboss.as.controller.persistence.AbstractConfigurationPersister;
+import org.jboss.as.controller.persistence.ModelMarshallingContext;
+import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+import org.jboss.staxmapper.XMLMapper;
+
+/**
+ * Measures the rate at which {@link AbstractConfigurationPersister#marshallAsXml(ModelNode, OutputStream)} writes a
+ * configuration with many subsystems when one subsystem changes between writes, against running every subsystem
+ * writer on each write. This is not run as part of the unit tests; run it directly with {@code [seconds]} as argument.
+ */
+public class ConfigurationMarshallingBenchmark {
+
+    private static final int SUBSYSTEMS = 40;
+    private static final int CHILDREN = 50;
+
+    public static void main(final String[] args) throws Exception {
+        final int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+
+        final ModelNode model = new ModelNode();
+        final Map<String, XMLElementWriter<SubsystemMarshallingContext>> writers = new HashMap<String, XMLElementWriter<SubsystemMarshallingContext>>();
+        final BenchmarkPersister persister = new BenchmarkPersister();
+        for (int i = 0; i < SUBSYSTEMS; i++) {
+            final String name = "subsystem" + i;
+            for (int j = 0; j < CHILDREN; j++) {
+                model.get("subsystem", name, "child" + j).set("value" + j);
+            }
+            final XMLElementWriter<SubsystemMarshallingContext> writer = new SubsystemWriter("urn:benchmark:" + name + ":1.0");
+            writers.put(name, writer);
+            persister.registerSubsystemWriter(name, writer);
+        }
+
+        // warm up
+        run(persister, writers, model, Math.max(1, seconds / 3), true);
+        run(persister, writers, model, Math.max(1, seconds / 3), false);
+        final long cached = run(persister, writers, model, seconds, true);
+        final long direct = run(persister, writers, model, seconds, false);
+        System.out.printf("cached: %d writes/s%n", cached / seconds);
+        System.out.printf("direct: %d writes/s%n", direct / seconds);
+    }
+
+    private static long run(final AbstractConfigurationPersister persister, final Map<String, XMLElementWriter<SubsystemMarshallingContext>> writers,
+            final ModelNode model, final int seconds, final boolean cached) throws Exception {
+        final long end = System.nanoTime() + seconds * 1000000000L;
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long count = 0;
+        while (System.nanoTime() < end) {
+            model.get("subsystem", "subsystem" + (count % SUBSYSTEMS), "child0").set("value" + count);
+            output.reset();
+            if (cached) {
+                persister.marshallAsXml(model, output);
+            } else {
+                marshallDirectly(writers, model, output);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private static void marshallDirectly(final Map<String, XMLElementWriter<SubsystemMarshallingContext>> writers, final ModelNode model,
+            final OutputStream output) throws XMLStreamException {
+        final XMLStreamWriter streamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(output);
+        XMLMapper.Factory.create().deparseDocument(new RootWriter(), new ModelMarshallingContext() {
+            @Override
+            public ModelNode getModelNode() {
+                return model;
+            }
+
+            @Override
+            public XMLElementWriter<SubsystemMarshallingContext> getSubsystemWriter(final String extensionName) {
+                return writers.get(extensionName);
+            }
+
+            @Override
+            public XMLElementWriter<SubsystemMarshallingContext> getSubsystemDeploymentWriter(final String extensionName) {
+                return null;
+            }
+        }, streamWriter);
+        streamWriter.close();
+    }
+
+    private static class BenchmarkPersister extends AbstractConfigurationPersister {
+
+        BenchmarkPersister() {
+            super(new RootWriter());
+        }
+
+        @Override
+        public void store(final ModelNode model) {
+        }
+
+        @Override
+        public List<ModelNode> load() {
+            return new ArrayList<ModelNode>();
+        }
+    }
+
+    private static class RootWriter implements XMLElementWriter<ModelMarshallingContext> {
+
+        @Override
+        public void writeContent(final XMLExtendedStreamWriter writer, final ModelMarshallingContext context) throws XMLStreamException {
+            final ModelNode model = context.getModelNode();
+            writer.writeStartDocument();
+            writer.writeStartElement("server");
+            writer.writeDefaultNamespace("urn:benchmark:1.0");
+            writer.writeStartElement("profile");
+            final String defaultNamespace = writer.getNamespaceContext().getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX);
+            for (String name : model.get("subsystem").keys()) {
+                try {
+                    context.getSubsystemWriter(name).writeContent(writer, new SubsystemMarshallingContext(model.get("subsystem", name), writer));
+                } finally {
+                    writer.setDefaultNamespace(defaultNamespace);
+                }
+            }
+            writer.writeEndElement();
+            writer.writeEndElement();
+            writer.writeEndDocument();
+        }
+    }
+
+    private static class SubsystemWriter implements XMLElementWriter<SubsystemMarshallingContext> {
+
+        private final String namespace;
+
+        SubsystemWriter(final String namespace) {
+            this.namespace = namespace;
+        }
+
+        @Override
+        public void writeContent(final XMLExtendedStreamWriter writer, final SubsystemMarshallingContext context) throws XMLStreamException {
+            final ModelNode model = context.getModelNode();
+            context.startSubsystemElement(namespace, false);
+            for (String name : model.keys()) {
+                writer.writeStartElement("property");
+                writer.writeAttribute("name", name);
+                writer.writeAttribute("value", model.get(name).asString());
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+        }
+    }
+}
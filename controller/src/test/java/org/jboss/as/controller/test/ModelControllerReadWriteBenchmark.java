@@ -0,0 +1,189 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.test;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.BasicModelController;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.descriptions.common.CommonProviders;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.operations.global.WriteAttributeHandlers;
+import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
+import org.jboss.as.controller.persistence.NewConfigurationPersister;
+import org.jboss.as.controller.registry.AttributeAccess.Storage;
+import org.jboss.as.controller.registry.ModelNodeRegistration;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Measures {@code read-resource} throughput of a {@link BasicModelController} while a writer thread continuously
+ * applies {@code write-attribute} operations. This is not run as part of the unit tests; run it directly with
+ * {@code [readers] [writers] [seconds]} as arguments.
+ */
+public class ModelControllerReadWriteBenchmark {
+
+    private static final int SUBSYSTEMS = 30;
+    private static final int CHILDREN = 20;
+
+    public static void main(final String[] args) throws Exception {
+        final int readers = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        final int writers = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        final int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        final BenchmarkModelController controller = new BenchmarkModelController();
+        final ModelNode read = new ModelNode();
+        read.get(OP).set(READ_RESOURCE_OPERATION);
+        read.get(OP_ADDR).add("subsystem", "subsystem0");
+        read.get(RECURSIVE).set(true);
+
+        // warm up
+        run(controller, read, readers, writers, Math.max(1, seconds / 3));
+        final long[] result = run(controller, read, readers, writers, seconds);
+        System.out.printf("readers=%d writers=%d: %d reads/s, %d writes/s%n", readers, writers, result[0] / seconds, result[1] / seconds);
+    }
+
+    private static long[] run(final BasicModelController controller, final ModelNode read, final int readers, final int writers, final int seconds) throws InterruptedException {
+        final AtomicLong reads = new AtomicLong();
+        final AtomicLong writes = new AtomicLong();
+        final CountDownLatch start = new CountDownLatch(1);
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds + 1);
+        final Thread[] threads = new Thread[readers + writers];
+        for (int i = 0; i < readers; i++) {
+            threads[i] = new Thread(new Runnable() {
+                public void run() {
+                    awaitQuietly(start);
+                    long count = 0;
+                    try {
+                        while (System.nanoTime() < end) {
+                            controller.execute(read);
+                            count++;
+                        }
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                    reads.addAndGet(count);
+                }
+            });
+        }
+        for (int i = readers; i < threads.length; i++) {
+            final int writer = i - readers;
+            threads[i] = new Thread(new Runnable() {
+                public void run() {
+                    awaitQuietly(start);
+                    long count = 0;
+                    try {
+                        while (System.nanoTime() < end) {
+                            final ModelNode write = new ModelNode();
+                            write.get(OP).set(WRITE_ATTRIBUTE_OPERATION);
+                            write.get(OP_ADDR).add("subsystem", "subsystem" + (count % SUBSYSTEMS));
+                            write.get(NAME).set("attr");
+                            write.get(VALUE).set(writer + ":" + count);
+                            controller.execute(write);
+                            count++;
+                        }
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                    writes.addAndGet(count);
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return new long[] { reads.get(), writes.get() };
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ModelNode createModel() {
+        final ModelNode model = new ModelNode();
+        for (int i = 0; i < SUBSYSTEMS; i++) {
+            final ModelNode subsystem = model.get("subsystem", "subsystem" + i);
+            subsystem.get("attr").set("initial");
+            for (int j = 0; j < CHILDREN; j++) {
+                subsystem.get("child", "child" + j, "value").set(j);
+            }
+        }
+        return model;
+    }
+
+    private static class BenchmarkModelController extends BasicModelController {
+
+        private static final DescriptionProvider NULL_PROVIDER = new DescriptionProvider() {
+            @Override
+            public ModelNode getModelDescription(final Locale locale) {
+                return new ModelNode();
+            }
+        };
+
+        BenchmarkModelController() {
+            super(createModel(), new NullConfigurationPersister(), NULL_PROVIDER);
+            final ModelNodeRegistration root = getRegistry();
+            root.registerOperationHandler(READ_RESOURCE_OPERATION, GlobalOperationHandlers.READ_RESOURCE, CommonProviders.READ_RESOURCE_PROVIDER, true);
+            root.registerOperationHandler(WRITE_ATTRIBUTE_OPERATION, GlobalOperationHandlers.WRITE_ATTRIBUTE, CommonProviders.WRITE_ATTRIBUTE_PROVIDER, true);
+            final ModelNodeRegistration subsystem = root.registerSubModel(PathElement.pathElement("subsystem"), NULL_PROVIDER);
+            subsystem.registerReadWriteAttribute("attr", null, WriteAttributeHandlers.WriteAttributeOperationHandler.INSTANCE, Storage.CONFIGURATION);
+            subsystem.registerSubModel(PathElement.pathElement("child"), NULL_PROVIDER);
+        }
+    }
+
+    private static class NullConfigurationPersister implements NewConfigurationPersister {
+
+        @Override
+        public void store(final ModelNode model) throws ConfigurationPersistenceException {
+        }
+
+        @Override
+        public void marshallAsXml(final ModelNode model, final OutputStream output) throws ConfigurationPersistenceException {
+        }
+
+        @Override
+        public List<ModelNode> load() throws ConfigurationPersistenceException {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.test;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+
+import java.util.Locale;
+
+import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.registry.ModelNodeRegistration;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Measures the rate at which {@link ModelNodeRegistration#getOperationHandler(PathAddress, String)} and
+ * {@link ModelNodeRegistration#getProxyController(PathAddress)} resolve deep addresses through wildcard
+ * registrations. This is not run as part of the unit tests; run it directly with {@code [seconds]} as argument.
+ */
+public class OperationHandlerLookupBenchmark {
+
+    private static final DescriptionProvider NULL_PROVIDER = new DescriptionProvider() {
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            return new ModelNode();
+        }
+    };
+
+    private static final OperationHandler NULL_HANDLER = new OperationHandler() {
+        @Override
+        public Cancellable execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
+            return Cancellable.NULL;
+        }
+    };
+
+    public static void main(final String[] args) {
+        final int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+
+        final ModelNodeRegistration root = ModelNodeRegistration.Factory.create(NULL_PROVIDER);
+        root.registerOperationHandler(READ_RESOURCE_OPERATION, NULL_HANDLER, NULL_PROVIDER, true);
+        for (int i = 0; i < 30; i++) {
+            final ModelNodeRegistration subsystem = root.registerSubModel(PathElement.pathElement("subsystem", "subsystem" + i), NULL_PROVIDER);
+            subsystem.registerOperationHandler(ADD, NULL_HANDLER, NULL_PROVIDER, false);
+        }
+        final ModelNodeRegistration web = root.registerSubModel(PathElement.pathElement("subsystem", "web"), NULL_PROVIDER);
+        final ModelNodeRegistration connector = web.registerSubModel(PathElement.pathElement("connector"), NULL_PROVIDER);
+        final ModelNodeRegistration ssl = connector.registerSubModel(PathElement.pathElement("configuration", "ssl"), NULL_PROVIDER);
+        ssl.registerOperationHandler(ADD, NULL_HANDLER, NULL_PROVIDER, false);
+
+        final PathAddress address = PathAddress.pathAddress(PathElement.pathElement("subsystem", "web"),
+                PathElement.pathElement("connector", "http"), PathElement.pathElement("configuration", "ssl"));
+
+        // warm up
+        run(root, address, Math.max(1, seconds / 3));
+        final long ops = run(root, address, seconds);
+        System.out.printf("%d lookups/s%n", ops / seconds);
+    }
+
+    private static long run(final ModelNodeRegistration root, final PathAddress address, final int seconds) {
+        final long end = System.nanoTime() + seconds * 1000000000L;
+        long count = 0;
+        int found = 0;
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < 1000; i++) {
+                if (root.getProxyController(address) == null && root.getOperationHandler(address, ADD) != null) {
+                    found++;
+                }
+                if (root.getOperationHandler(address, READ_RESOURCE_OPERATION) != null) {
+                    found++;
+                }
+            }
+            count += 2000;
+        }
+        if (found != count) {
+            throw new IllegalStateException("Lookup failed");
+        }
+        return count;
+    }
+}
@@ -24,6 +24,7 @@ package org.jboss.as.server.deployment.api;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
 
 /**
  * Repository for deployment content.
@@ -52,4 +53,36 @@ public interface DeploymentRepository {
      * @return {@code true} if the repository has content with the given hash
      */
     boolean hasDeploymentContent(byte[] hash);
+
+    /**
+     * Removes content that is not referenced by any of the given hashes. Content added, or added again, within
+     * the grace period is kept, so content uploaded for a deployment that has not been added yet is not removed.
+     *
+     * @param referencedHashes the hashes of the content still in use. Cannot be {@code null}
+     * @param gracePeriod the time in milliseconds for which newly added content is kept
+     *
+     * @return the number of bytes reclaimed
+     */
+    long removeUnreferencedContent(Collection<byte[]> referencedHashes, long gracePeriod);
+
+    /**
+     * Gets the total size of the content stored in the repository.
+     *
+     * @return the size in bytes
+     */
+    long getContentSize();
+
+    /**
+     * Gets the number of content entries stored in the repository.
+     *
+     * @return the number of entries
+     */
+    int getContentCount();
+
+    /**
+     * Gets the number of bytes reclaimed by removing unreferenced content since the repository was created.
+     *
+     * @return the number of bytes reclaimed
+     */
+    long getReclaimedBytes();
 }
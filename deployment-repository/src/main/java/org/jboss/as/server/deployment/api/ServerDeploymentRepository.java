@@ -23,6 +23,7 @@
 package org.jboss.as.server.deployment.api;
 
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 
 import org.jboss.msc.service.ServiceName;
@@ -54,4 +55,14 @@ public interface ServerDeploymentRepository extends DeploymentRepository {
      * @throws IOException
      */
     Closeable mountDeploymentContent(String name, String runtimeName, byte[] deploymentHash, VirtualFile mountPoint) throws IOException;
+
+    /**
+     * Gets the directory in which data derived from the content with the given hash, such as annotation indexes, can
+     * be cached.  Since content is identified by its hash, the cached data stays valid for as long as the content is
+     * in the repository, and it is removed together with the content.  The directory is not created by this method.
+     *
+     * @param deploymentHash internal identification hash, or {@code null} for an internal deployment
+     * @return the cache directory, or {@code null} if the content cannot have cached data
+     */
+    File getDeploymentCacheDir(byte[] deploymentHash);
 }
@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.impl;
+
+import java.util.Collection;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.server.deployment.api.DeploymentRepository;
+import org.jboss.logging.Logger;
+
+/**
+ * Removes the content of a {@link DeploymentRepository} which is no longer referenced, periodically on a daemon thread.
+ */
+public final class ContentRemovalScheduler {
+    private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
+
+    /**
+     * Constant that holds the name of the system property for specifying how often, in milliseconds, unreferenced
+     * deployment content is removed.
+     *
+     * <p>Defaults to ten minutes.
+     */
+    public static final String CONTENT_REMOVAL_INTERVAL = "jboss.deployment.content.removal.interval";
+
+    /**
+     * Constant that holds the name of the system property for specifying how long, in milliseconds, newly uploaded
+     * deployment content is kept when nothing refers to it yet.
+     *
+     * <p>Defaults to ten minutes.
+     */
+    public static final String CONTENT_REMOVAL_GRACE_PERIOD = "jboss.deployment.content.removal.grace.period";
+
+    private static final long DEFAULT_INTERVAL = 10 * 60 * 1000L;
+    private static final long DEFAULT_GRACE_PERIOD = 10 * 60 * 1000L;
+
+    /**
+     * The content still in use.
+     */
+    public interface ReferencedContent {
+
+        /**
+         * Gets the hashes of the content still in use.
+         *
+         * @return the hashes, or {@code null} if they are not known yet, in which case no content is removed
+         */
+        Collection<byte[]> getReferencedContent();
+    }
+
+    private final DeploymentRepository repository;
+    private final ReferencedContent referencedContent;
+    private final long interval;
+    private final long gracePeriod;
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * Creates a new scheduler.
+     *
+     * @param repository the repository to remove content from
+     * @param referencedContent the content still in use
+     * @param interval the time in milliseconds between removals
+     * @param gracePeriod the time in milliseconds for which newly added content is kept
+     */
+    public ContentRemovalScheduler(final DeploymentRepository repository, final ReferencedContent referencedContent, final long interval, final long gracePeriod) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        if (gracePeriod < 0) {
+            throw new IllegalArgumentException("gracePeriod is negative");
+        }
+        this.repository = repository;
+        this.referencedContent = referencedContent;
+        this.interval = interval;
+        this.gracePeriod = gracePeriod;
+    }
+
+    /**
+     * Gets the removal interval configured by the {@link #CONTENT_REMOVAL_INTERVAL} property.
+     *
+     * @param props the properties
+     * @return the interval in milliseconds
+     */
+    public static long getInterval(final Properties props) {
+        return getTimeFromProperty(CONTENT_REMOVAL_INTERVAL, props, DEFAULT_INTERVAL, 1);
+    }
+
+    /**
+     * Gets the grace period configured by the {@link #CONTENT_REMOVAL_GRACE_PERIOD} property.
+     *
+     * @param props the properties
+     * @return the grace period in milliseconds
+     */
+    public static long getGracePeriod(final Properties props) {
+        return getTimeFromProperty(CONTENT_REMOVAL_GRACE_PERIOD, props, DEFAULT_GRACE_PERIOD, 0);
+    }
+
+    /**
+     * Starts removing content, first after one interval has passed.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "Deployment content removal");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                try {
+                    removeUnreferencedContent();
+                } catch (RuntimeException e) {
+                    log.errorf(e, "Failed to remove unreferenced deployment content");
+                }
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops removing content.
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    void removeUnreferencedContent() {
+        final Collection<byte[]> referenced = referencedContent.getReferencedContent();
+        if (referenced != null) {
+            repository.removeUnreferencedContent(referenced, gracePeriod);
+        }
+    }
+
+    private static long getTimeFromProperty(final String name, final Properties props, final long defaultValue, final long minimum) {
+        final String value = props.getProperty(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        final long result;
+        try {
+            result = Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid value for " + name + ": " + value);
+        }
+        if (result < minimum) {
+            throw new IllegalStateException("Invalid value for " + name + ": " + value);
+        }
+        return result;
+    }
+}
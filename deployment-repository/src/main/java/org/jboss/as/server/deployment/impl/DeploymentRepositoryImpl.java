@@ -22,16 +22,26 @@
 
 package org.jboss.as.server.deployment.impl;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.DigestOutputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.as.server.deployment.api.DeploymentRepository;
 import org.jboss.logging.Logger;
@@ -44,8 +54,17 @@ public class DeploymentRepositoryImpl implements DeploymentRepository {
     private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
 
     protected static final String CONTENT = "content";
+    /** Directory next to the content holding data derived from it */
+    protected static final String CACHE = "cache";
+    private static final int BUFFER_SIZE = 65536;
     private final File repoRoot;
-    private final MessageDigest messageDigest;
+    /** Content being moved into the repository, keyed by hash; uploads of the same content wait for each other. */
+    private final ConcurrentMap<String, CountDownLatch> contentInProgress = new ConcurrentHashMap<String, CountDownLatch>();
+    private final AtomicLong contentSize = new AtomicLong();
+    private final AtomicInteger contentCount = new AtomicInteger();
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+    /** Whether the size and count have been established by walking the repository */
+    private volatile boolean scanned;
 
     protected DeploymentRepositoryImpl(File repoRoot) {
         if (repoRoot == null)
@@ -63,11 +82,8 @@ public class DeploymentRepositoryImpl implements DeploymentRepository {
         }
         this.repoRoot = repoRoot;
 
-        try {
-            this.messageDigest = MessageDigest.getInstance("SHA-1");
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
-        }
+        // fail early if the digest is unavailable
+        createMessageDigest();
     }
 
     @Override
@@ -75,19 +91,33 @@ public class DeploymentRepositoryImpl implements DeploymentRepository {
 
         log.debugf("Adding content with name %s", name);
 
-        byte[] sha1Bytes = null;
+        // each upload has a digest of its own, so uploads of distinct content proceed in parallel
+        final MessageDigest messageDigest = createMessageDigest();
+        if (stream instanceof FileInputStream) {
+            // the content can be read again, so hash it first and only copy it if the repository does not have it
+            final FileChannel in = ((FileInputStream) stream).getChannel();
+            final long start = in.position();
+            final long size = in.size() - start;
+            digest(in, start, size, messageDigest);
+            final byte[] sha1Bytes = messageDigest.digest();
+            addContent(name, sha1Bytes, new ContentWriter() {
+                public void write(final FileChannel out) throws IOException {
+                    long count = 0;
+                    while (count < size) {
+                        count += in.transferTo(start + count, size - count, out);
+                    }
+                }
+            }, null);
+            in.position(start + size);
+            return sha1Bytes;
+        }
+
         File tmp = File.createTempFile(name, "tmp", repoRoot);
-        FileOutputStream fos = new FileOutputStream(tmp);
-        synchronized (messageDigest) {
-            messageDigest.reset();
+        boolean ok = false;
+        try {
+            FileOutputStream fos = new FileOutputStream(tmp);
             try {
-                DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                BufferedInputStream bis = new BufferedInputStream(stream);
-                byte[] bytes = new byte[8192];
-                int read;
-                while ((read = bis.read(bytes)) > -1) {
-                    dos.write(bytes, 0, read);
-                }
+                copyAndDigest(Channels.newChannel(stream), fos.getChannel(), messageDigest);
             }
             finally {
                 try {
@@ -95,21 +125,241 @@ public class DeploymentRepositoryImpl implements DeploymentRepository {
                 } catch (Exception ignored) {
                 }
             }
-            sha1Bytes = messageDigest.digest();
-        }
-        File realFile = getDeploymentContentFile(sha1Bytes, true);
-        if (realFile.exists()) {
-            // we've already got this content
-            if (!tmp.delete()) {
+            final byte[] sha1Bytes = messageDigest.digest();
+            addContent(name, sha1Bytes, null, tmp);
+            ok = true;
+            return sha1Bytes;
+        } finally {
+            if (!ok && tmp.exists() && !tmp.delete()) {
                 tmp.deleteOnExit();
             }
-            log.debugf("Content with name %s was already present in repository at location %s", name, realFile.getAbsolutePath());
-        } else {
-            moveTempToPermanent(tmp, realFile);
-            log.infof("Content with name %s added at location %s", name, realFile.getAbsolutePath());
         }
+    }
+
+    /**
+     * Move content into the repository unless it is already there.  Only one upload of any given content is moved
+     * into place at a time; a concurrent upload of the same content waits for it to finish, and then finds the
+     * content present.
+     *
+     * @param name the name of the content
+     * @param sha1Bytes the hash of the content
+     * @param writer writes the content to a temporary file, or {@code null} if {@code tmp} already holds the content
+     * @param tmp the temporary file holding the content, or {@code null} if {@code writer} supplies it
+     */
+    private void addContent(String name, byte[] sha1Bytes, ContentWriter writer, File tmp) throws IOException {
+        final String key = HashUtil.bytesToHexString(sha1Bytes);
+        final CountDownLatch latch = new CountDownLatch(1);
+        CountDownLatch other;
+        while ((other = contentInProgress.putIfAbsent(key, latch)) != null) {
+            try {
+                other.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for content " + key);
+            }
+        }
+        try {
+            File realFile = getDeploymentContentFile(sha1Bytes, true);
+            if (realFile.exists()) {
+                // we've already got this content; restart its grace period so it is not removed before it is used
+                realFile.setLastModified(System.currentTimeMillis());
+                if (tmp != null && !tmp.delete()) {
+                    tmp.deleteOnExit();
+                }
+                log.debugf("Content with name %s was already present in repository at location %s", name, realFile.getAbsolutePath());
+            } else {
+                if (tmp == null) {
+                    tmp = File.createTempFile(name, "tmp", repoRoot);
+                    FileOutputStream fos = new FileOutputStream(tmp);
+                    boolean ok = false;
+                    try {
+                        writer.write(fos.getChannel());
+                        ok = true;
+                    } finally {
+                        try {
+                            fos.close();
+                        } catch (Exception ignored) {
+                        }
+                        if (!ok && !tmp.delete()) {
+                            tmp.deleteOnExit();
+                        }
+                    }
+                }
+                moveTempToPermanent(tmp, realFile);
+                contentSize.addAndGet(realFile.length());
+                contentCount.incrementAndGet();
+                log.infof("Content with name %s added at location %s", name, realFile.getAbsolutePath());
+            }
+        } finally {
+            contentInProgress.remove(key, latch);
+            latch.countDown();
+        }
+    }
+
+    @Override
+    public long removeUnreferencedContent(Collection<byte[]> referencedHashes, long gracePeriod) {
+        if (referencedHashes == null)
+            throw new IllegalArgumentException("referencedHashes is null");
+        final Set<String> referenced = new HashSet<String>();
+        for (byte[] hash : referencedHashes) {
+            referenced.add(HashUtil.bytesToHexString(hash));
+        }
+        return walkContent(referenced, System.currentTimeMillis() - gracePeriod);
+    }
+
+    @Override
+    public long getContentSize() {
+        ensureScanned();
+        return contentSize.get();
+    }
 
-        return sha1Bytes;
+    @Override
+    public int getContentCount() {
+        ensureScanned();
+        return contentCount.get();
+    }
+
+    @Override
+    public long getReclaimedBytes() {
+        return reclaimedBytes.get();
+    }
+
+    private void ensureScanned() {
+        if (!scanned) {
+            walkContent(null, 0L);
+        }
+    }
+
+    /**
+     * Walk the content directories, recounting the size and number of entries.  Content uploaded while the walk is
+     * in progress may be missed by the counts until the next walk.
+     *
+     * @param referenced the hashes of content to keep, or {@code null} to remove nothing
+     * @param cutoff content last modified at or after this time is kept
+     * @return the number of bytes reclaimed
+     */
+    private synchronized long walkContent(Set<String> referenced, long cutoff) {
+        long size = 0;
+        int count = 0;
+        long reclaimed = 0;
+        final File[] bases = repoRoot.listFiles();
+        if (bases != null) {
+            for (File base : bases) {
+                final File[] hashDirs = base.getName().length() == 2 ? base.listFiles() : null;
+                if (hashDirs == null) {
+                    continue;
+                }
+                for (File hashDir : hashDirs) {
+                    if (!hashDir.isDirectory()) {
+                        continue;
+                    }
+                    final String key = base.getName() + hashDir.getName();
+                    final File content = new File(hashDir, CONTENT);
+                    if (referenced != null && !referenced.contains(key) && content.lastModified() < cutoff) {
+                        final long removed = removeContent(key, hashDir, content, cutoff);
+                        if (removed >= 0) {
+                            reclaimed += removed;
+                            continue;
+                        }
+                    }
+                    if (content.exists()) {
+                        size += content.length();
+                        count++;
+                    }
+                }
+                if (referenced != null) {
+                    // only succeeds if the directory is empty; an upload recreates it if needed
+                    base.delete();
+                }
+            }
+        }
+        contentSize.set(size);
+        contentCount.set(count);
+        scanned = true;
+        reclaimedBytes.addAndGet(reclaimed);
+        return reclaimed;
+    }
+
+    /**
+     * Remove a content entry, unless it is being uploaded again or was refreshed by a recent upload.
+     *
+     * @return the number of bytes removed, or {@code -1} if the content was kept
+     */
+    private long removeContent(String key, File hashDir, File content, long cutoff) {
+        final CountDownLatch latch = new CountDownLatch(1);
+        if (contentInProgress.putIfAbsent(key, latch) != null) {
+            return -1;
+        }
+        try {
+            final long length = content.length();
+            if (content.exists()) {
+                if (content.lastModified() >= cutoff) {
+                    return -1;
+                }
+                if (!content.delete()) {
+                    log.warnf("Cannot remove unreferenced content at location %s", content.getAbsolutePath());
+                    return -1;
+                }
+            }
+            deleteRecursively(new File(hashDir, CACHE));
+            if (!hashDir.delete()) {
+                log.debugf("Cannot remove directory %s", hashDir.getAbsolutePath());
+            }
+            log.infof("Removed unreferenced content at location %s", content.getAbsolutePath());
+            return length;
+        } finally {
+            contentInProgress.remove(key, latch);
+            latch.countDown();
+        }
+    }
+
+    private static void deleteRecursively(File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Digest file content through a direct buffer.  The file is not memory mapped, since a mapping pins the file
+     * until it is garbage collected.
+     */
+    private static void digest(final FileChannel in, final long start, final long size, final MessageDigest messageDigest) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long position = start;
+        int read;
+        while (position < start + size && (read = in.read(buffer, position)) != -1) {
+            position += read;
+            buffer.flip();
+            messageDigest.update(buffer);
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Copy and digest content of unknown length in a single pass through a direct buffer.
+     */
+    private static void copyAndDigest(final ReadableByteChannel in, final FileChannel out, final MessageDigest messageDigest) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        while (in.read(buffer) != -1) {
+            buffer.flip();
+            messageDigest.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            buffer.clear();
+        }
     }
 
     @Override
@@ -135,7 +385,8 @@ public class DeploymentRepositoryImpl implements DeploymentRepository {
             validateDir(base);
         }
         File hashDir = new File(base, partB);
-        if (validate && !hashDir.exists() && !hashDir.mkdirs()) {
+        // another upload may be creating the same directory
+        if (validate && !hashDir.mkdirs() && !hashDir.isDirectory()) {
             throw new IllegalStateException("Cannot create directory " + hashDir.getAbsolutePath());
         }
         File content = new File(hashDir, CONTENT);
@@ -145,7 +396,7 @@ public class DeploymentRepositoryImpl implements DeploymentRepository {
 
     private void validateDir(File dir) {
         if (!dir.exists()) {
-            if (!dir.mkdirs()) {
+            if (!dir.mkdirs() && !dir.isDirectory()) {
                 throw new IllegalStateException("Cannot create directory " + dir.getAbsolutePath());
             }
         } else if (!dir.isDirectory()) {
@@ -159,26 +410,18 @@ public class DeploymentRepositoryImpl implements DeploymentRepository {
 
         if (!tmpFile.renameTo(permanentFile)) {
             FileOutputStream fos = null;
-            BufferedOutputStream bos = null;
             FileInputStream fis = null;
             try {
                 fos = new FileOutputStream(permanentFile);
-                bos = new BufferedOutputStream(fos);
                 fis = new FileInputStream(tmpFile);
-                BufferedInputStream bis = new BufferedInputStream(fis);
-                byte[] bytes = new byte[8192];
-                int read;
-                while ((read = bis.read(bytes)) > -1) {
-                    bos.write(bytes, 0, read);
+                final FileChannel in = fis.getChannel();
+                final long size = in.size();
+                long count = 0;
+                while (count < size) {
+                    count += in.transferTo(count, size - count, fos.getChannel());
                 }
             }
             finally {
-                try {
-                    if (bos != null) {
-                        bos.close();
-                    }
-                } catch (Exception ignored) {
-                }
                 try {
                     if (fos != null) {
                         fos.close();
@@ -198,4 +441,8 @@ public class DeploymentRepositoryImpl implements DeploymentRepository {
             }
         }
     }
+
+    private interface ContentWriter {
+        void write(FileChannel out) throws IOException;
+    }
 }
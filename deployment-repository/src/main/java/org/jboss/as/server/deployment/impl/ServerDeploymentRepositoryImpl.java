@@ -82,6 +82,14 @@ public class ServerDeploymentRepositoryImpl extends DeploymentRepositoryImpl imp
         }
     }
 
+    @Override
+    public File getDeploymentCacheDir(byte[] deploymentHash) {
+        if (deploymentHash == null) {
+            return null;
+        }
+        return new File(getDeploymentContentFile(deploymentHash).getParentFile(), CACHE);
+    }
+
     @Override
     public void start(StartContext context) throws StartException {
         try {
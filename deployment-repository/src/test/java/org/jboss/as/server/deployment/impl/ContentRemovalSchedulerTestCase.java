@@ -0,0 +1,141 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.server.deployment.api.DeploymentRepository;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of {@link ContentRemovalScheduler}.
+ */
+public class ContentRemovalSchedulerTestCase {
+
+    @Test
+    public void testScheduledRemovalUsesGracePeriod() throws Exception {
+        final RecordingRepository repository = new RecordingRepository(2);
+        final Collection<byte[]> referenced = Collections.singleton(new byte[] {1});
+        final ContentRemovalScheduler scheduler = new ContentRemovalScheduler(repository, new FixedContent(referenced), 10, 12345);
+        scheduler.start();
+        try {
+            assertTrue(repository.removals.await(5, TimeUnit.SECONDS));
+        } finally {
+            scheduler.stop();
+        }
+        assertSame(referenced, repository.referencedHashes);
+        assertEquals(12345, repository.gracePeriod);
+    }
+
+    @Test
+    public void testNothingRemovedWhileReferencesUnknown() {
+        final RecordingRepository repository = new RecordingRepository(1);
+        new ContentRemovalScheduler(repository, new FixedContent(null), 10, 0).removeUnreferencedContent();
+        assertEquals(1, repository.removals.getCount());
+    }
+
+    @Test
+    public void testProperties() {
+        final Properties props = new Properties();
+        assertEquals(10 * 60 * 1000L, ContentRemovalScheduler.getInterval(props));
+        assertEquals(10 * 60 * 1000L, ContentRemovalScheduler.getGracePeriod(props));
+
+        props.setProperty(ContentRemovalScheduler.CONTENT_REMOVAL_INTERVAL, "5000");
+        props.setProperty(ContentRemovalScheduler.CONTENT_REMOVAL_GRACE_PERIOD, " 0 ");
+        assertEquals(5000, ContentRemovalScheduler.getInterval(props));
+        assertEquals(0, ContentRemovalScheduler.getGracePeriod(props));
+
+        props.setProperty(ContentRemovalScheduler.CONTENT_REMOVAL_INTERVAL, "0");
+        try {
+            ContentRemovalScheduler.getInterval(props);
+            fail("zero interval accepted");
+        } catch (IllegalStateException expected) {
+        }
+        props.setProperty(ContentRemovalScheduler.CONTENT_REMOVAL_GRACE_PERIOD, "ten");
+        try {
+            ContentRemovalScheduler.getGracePeriod(props);
+            fail("invalid grace period accepted");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    private static class FixedContent implements ContentRemovalScheduler.ReferencedContent {
+        private final Collection<byte[]> referenced;
+
+        FixedContent(final Collection<byte[]> referenced) {
+            this.referenced = referenced;
+        }
+
+        public Collection<byte[]> getReferencedContent() {
+            return referenced;
+        }
+    }
+
+    private static class RecordingRepository implements DeploymentRepository {
+        private final CountDownLatch removals;
+        private volatile Collection<byte[]> referencedHashes;
+        private volatile long gracePeriod;
+
+        RecordingRepository(final int removals) {
+            this.removals = new CountDownLatch(removals);
+        }
+
+        public byte[] addDeploymentContent(final String name, final String runtimeName, final InputStream stream) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean hasDeploymentContent(final byte[] hash) {
+            return false;
+        }
+
+        public long removeUnreferencedContent(final Collection<byte[]> referencedHashes, final long gracePeriod) {
+            this.referencedHashes = referencedHashes;
+            this.gracePeriod = gracePeriod;
+            removals.countDown();
+            return 0;
+        }
+
+        public long getContentSize() {
+            return 0;
+        }
+
+        public int getContentCount() {
+            return 0;
+        }
+
+        public long getReclaimedBytes() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Uploads content to a {@link DeploymentRepositoryImpl} from many threads at once.
+ */
+public class DeploymentRepositoryImplTestCase {
+
+    private static final int THREADS = 8;
+    private static final int ARTIFACTS = 32;
+
+    private File root;
+    private DeploymentRepositoryImpl repository;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        root = File.createTempFile("repository", "test");
+        root.delete();
+        root.mkdirs();
+        repository = new DeploymentRepositoryImpl(root);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        delete(root);
+    }
+
+    @Test
+    public void testParallelUploadOfDistinctContent() throws Exception {
+        final Random random = new Random(123L);
+        final List<byte[]> contents = new ArrayList<byte[]>();
+        final List<Future<byte[]>> hashes = new ArrayList<Future<byte[]>>();
+        for (int i = 0; i < ARTIFACTS; i++) {
+            final byte[] content = new byte[random.nextInt(200000) + 1];
+            random.nextBytes(content);
+            contents.add(content);
+            hashes.add(executor.submit(upload("test" + i + ".jar", content, i % 2 == 0)));
+        }
+        for (int i = 0; i < ARTIFACTS; i++) {
+            final byte[] hash = hashes.get(i).get();
+            assertTrue(Arrays.equals(sha1(contents.get(i)), hash));
+            assertTrue(repository.hasDeploymentContent(hash));
+        }
+        assertNoTempFiles();
+    }
+
+    @Test
+    public void testParallelUploadOfIdenticalContent() throws Exception {
+        final byte[] content = new byte[500000];
+        new Random(456L).nextBytes(content);
+        final List<Future<byte[]>> hashes = new ArrayList<Future<byte[]>>();
+        for (int i = 0; i < ARTIFACTS; i++) {
+            hashes.add(executor.submit(upload("same" + i + ".jar", content, i % 2 == 0)));
+        }
+        final byte[] expected = sha1(content);
+        for (Future<byte[]> hash : hashes) {
+            assertTrue(Arrays.equals(expected, hash.get()));
+        }
+        final File contentDir = repository.getDeploymentContentFile(expected).getParentFile();
+        assertEquals(1, contentDir.listFiles().length);
+        assertEquals(content.length, repository.getDeploymentContentFile(expected).length());
+        assertNoTempFiles();
+    }
+
+    @Test
+    public void testRemoveUnreferencedContent() throws Exception {
+        final byte[] referenced = upload("referenced.jar", new byte[] { 1, 2, 3 }, false).call();
+        final byte[] unreferenced = upload("unreferenced.jar", new byte[] { 4, 5 }, false).call();
+        final byte[] recent = upload("recent.jar", new byte[] { 6 }, false).call();
+        assertEquals(3, repository.getContentCount());
+        assertEquals(6, repository.getContentSize());
+
+        final long old = System.currentTimeMillis() - 60000;
+        repository.getDeploymentContentFile(referenced).setLastModified(old);
+        repository.getDeploymentContentFile(unreferenced).setLastModified(old);
+        // cached data derived from the content is removed with it
+        final File cache = new File(repository.getDeploymentContentFile(unreferenced).getParentFile(), DeploymentRepositoryImpl.CACHE);
+        assertTrue(cache.mkdirs());
+        new FileOutputStream(new File(cache, "index")).close();
+
+        assertEquals(2, repository.removeUnreferencedContent(Collections.singletonList(referenced), 30000));
+        assertTrue(repository.hasDeploymentContent(referenced));
+        assertFalse(repository.hasDeploymentContent(unreferenced));
+        assertFalse(repository.getDeploymentContentFile(unreferenced).getParentFile().exists());
+        assertTrue(repository.hasDeploymentContent(recent));
+        assertEquals(2, repository.getContentCount());
+        assertEquals(4, repository.getContentSize());
+        assertEquals(2, repository.getReclaimedBytes());
+
+        // uploading content again restarts its grace period
+        repository.getDeploymentContentFile(recent).setLastModified(old);
+        upload("recent.jar", new byte[] { 6 }, false).call();
+        assertEquals(0, repository.removeUnreferencedContent(Collections.singletonList(referenced), 30000));
+        assertTrue(repository.hasDeploymentContent(recent));
+        assertEquals(1, repository.removeUnreferencedContent(Collections.singletonList(referenced), -1000));
+        assertEquals(1, repository.getContentCount());
+        assertNoTempFiles();
+    }
+
+    private Callable<byte[]> upload(final String name, final byte[] content, final boolean fromFile) {
+        return new Callable<byte[]>() {
+            public byte[] call() throws Exception {
+                final InputStream stream;
+                if (fromFile) {
+                    final File file = new File(root.getParentFile(), root.getName() + "-" + name);
+                    final FileOutputStream fos = new FileOutputStream(file);
+                    try {
+                        fos.write(content);
+                    } finally {
+                        fos.close();
+                    }
+                    file.deleteOnExit();
+                    stream = new FileInputStream(file);
+                } else {
+                    stream = new ByteArrayInputStream(content);
+                }
+                try {
+                    return repository.addDeploymentContent(name, name, stream);
+                } finally {
+                    stream.close();
+                }
+            }
+        };
+    }
+
+    private void assertNoTempFiles() {
+        for (File file : root.listFiles()) {
+            assertTrue("Unexpected file " + file, file.isDirectory());
+        }
+    }
+
+    private static byte[] sha1(final byte[] content) throws Exception {
+        return MessageDigest.getInstance("SHA-1").digest(content);
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -37,6 +37,7 @@ public enum Attribute {
     RELATIVE_TO(CommonAttributes.RELATIVE_TO),
     SCAN_ENABLED(CommonAttributes.SCAN_ENABLED),
     SCAN_INTERVAL(CommonAttributes.SCAN_INTERVAL),
+    FULL_SCAN_INTERVAL(CommonAttributes.FULL_SCAN_INTERVAL),
     ;
 
     private final String name;
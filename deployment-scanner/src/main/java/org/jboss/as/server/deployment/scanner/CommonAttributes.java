@@ -32,6 +32,7 @@ interface CommonAttributes {
     String RELATIVE_TO = "relative-to";
     String SCAN_ENABLED = "scan-enabled";
     String SCAN_INTERVAL = "scan-interval";
+    String FULL_SCAN_INTERVAL = "full-scan-interval";
     String DEPLOYMENT_SCANNER = "deployment-scanner";
 
 }
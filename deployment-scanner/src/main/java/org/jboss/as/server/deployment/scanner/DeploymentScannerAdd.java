@@ -61,6 +61,7 @@ class DeploymentScannerAdd implements ModelAddOperationHandler, RuntimeOperation
         final String path = operation.require(CommonAttributes.PATH).asString();
         final boolean enabled = operation.get(CommonAttributes.SCAN_ENABLED).asBoolean(true);
         final int interval = operation.get(CommonAttributes.SCAN_INTERVAL).asInt(5000);
+        final int fullScanInterval = operation.get(CommonAttributes.FULL_SCAN_INTERVAL).asInt(0);
         String relativeTo = null;
         if(operation.has(CommonAttributes.RELATIVE_TO)) {
             relativeTo = operation.get(CommonAttributes.RELATIVE_TO).asString();
@@ -74,13 +75,14 @@ class DeploymentScannerAdd implements ModelAddOperationHandler, RuntimeOperation
             final RuntimeOperationContext runtimeContext = (RuntimeOperationContext) context;
 
             final ServiceTarget serviceTarget = runtimeContext.getServiceTarget();
-            DeploymentScannerService.addService(serviceTarget, name, relativeTo, path, interval, TimeUnit.MILLISECONDS, enabled);
+            DeploymentScannerService.addService(serviceTarget, name, relativeTo, path, interval, fullScanInterval, TimeUnit.MILLISECONDS, enabled);
         }
 
         final ModelNode subModel = context.getSubModel();
         subModel.get(CommonAttributes.PATH).set(path);
         subModel.get(CommonAttributes.SCAN_ENABLED).set(enabled);
         subModel.get(CommonAttributes.SCAN_INTERVAL).set(interval);
+        if(fullScanInterval > 0) subModel.get(CommonAttributes.FULL_SCAN_INTERVAL).set(fullScanInterval);
         if(relativeTo != null) subModel.get(CommonAttributes.RELATIVE_TO).set(relativeTo);
 
         resultHandler.handleResultComplete(compensatingOperation);
@@ -140,6 +140,10 @@ public class DeploymentScannerExtension implements Extension {
                         writer.writeAttribute(Attribute.SCAN_INTERVAL.getLocalName(),
                                 configuration.get(CommonAttributes.SCAN_INTERVAL).asString());
                     }
+                    if (has(configuration, CommonAttributes.FULL_SCAN_INTERVAL)) {
+                        writer.writeAttribute(Attribute.FULL_SCAN_INTERVAL.getLocalName(),
+                                configuration.get(CommonAttributes.FULL_SCAN_INTERVAL).asString());
+                    }
                     if (configuration.has(CommonAttributes.RELATIVE_TO)) {
                         writer.writeAttribute(Attribute.RELATIVE_TO.getLocalName(),
                                 configuration.get(CommonAttributes.RELATIVE_TO).asString());
@@ -192,6 +196,7 @@ public class DeploymentScannerExtension implements Extension {
             // Handle attributes
             boolean enabled = true;
             int interval = 0;
+            int fullScanInterval = 0;
             String path = null;
             String name = DEFAULT_SCANNER_NAME;
             String relativeTo = null;
@@ -217,6 +222,10 @@ public class DeploymentScannerExtension implements Extension {
                         interval = Integer.parseInt(value);
                         break;
                     }
+                    case FULL_SCAN_INTERVAL: {
+                        fullScanInterval = Integer.parseInt(value);
+                        break;
+                    }
                     case SCAN_ENABLED: {
                         enabled = Boolean.parseBoolean(value);
                         break;
@@ -239,6 +248,7 @@ public class DeploymentScannerExtension implements Extension {
             operation.get(CommonAttributes.PATH).set(path);
             operation.get(CommonAttributes.SCAN_INTERVAL).set(interval);
             operation.get(CommonAttributes.SCAN_ENABLED).set(enabled);
+            if(fullScanInterval > 0) operation.get(CommonAttributes.FULL_SCAN_INTERVAL).set(fullScanInterval);
             if(relativeTo != null) operation.get(CommonAttributes.RELATIVE_TO).set(relativeTo);
             list.add(operation);
         }
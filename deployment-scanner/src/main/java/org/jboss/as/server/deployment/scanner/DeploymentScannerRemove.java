@@ -57,7 +57,7 @@ class DeploymentScannerRemove implements ModelRemoveOperationHandler, RuntimeOpe
         final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
         final String name = address.getLastElement().getValue();
 
-        final ModelNode subModel = new ModelNode();
+        final ModelNode subModel = context.getSubModel();
 
         final ModelNode compensatingOperation = new ModelNode();
         compensatingOperation.get(OP).set(ADD);
@@ -65,6 +65,9 @@ class DeploymentScannerRemove implements ModelRemoveOperationHandler, RuntimeOpe
         compensatingOperation.get(CommonAttributes.PATH).set(subModel.get(CommonAttributes.PATH));
         compensatingOperation.get(CommonAttributes.SCAN_ENABLED).set(subModel.get(CommonAttributes.SCAN_ENABLED));
         compensatingOperation.get(CommonAttributes.SCAN_INTERVAL).set(subModel.get(CommonAttributes.SCAN_INTERVAL));
+        if (subModel.hasDefined(CommonAttributes.FULL_SCAN_INTERVAL)) {
+            compensatingOperation.get(CommonAttributes.FULL_SCAN_INTERVAL).set(subModel.get(CommonAttributes.FULL_SCAN_INTERVAL));
+        }
         compensatingOperation.get(CommonAttributes.RELATIVE_TO).set(subModel.get(CommonAttributes.RELATIVE_TO));
 
         if(context instanceof RuntimeOperationContext) {
@@ -51,6 +51,7 @@ import org.jboss.msc.value.InjectedValue;
 public class DeploymentScannerService implements Service<DeploymentScanner> {
 
     private long interval;
+    private long fullScanInterval;
     private TimeUnit unit = TimeUnit.MILLISECONDS;
     private boolean enabled;
 
@@ -74,11 +75,12 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
      * @param relativeTo the relative to
      * @param path the path
      * @param scanInterval the scan interval
+     * @param fullScanInterval the interval between full scans, or {@code 0} if every scan is a full scan
      * @param scanEnabled scan enabled
      * @return
      */
-    public static void addService(final ServiceTarget serviceTarget, final String name, final String relativeTo, final String path, final int scanInterval, TimeUnit unit, final boolean scanEnabled) {
-        final DeploymentScannerService service = new DeploymentScannerService(scanInterval, unit, scanEnabled);
+    public static void addService(final ServiceTarget serviceTarget, final String name, final String relativeTo, final String path, final int scanInterval, final int fullScanInterval, TimeUnit unit, final boolean scanEnabled) {
+        final DeploymentScannerService service = new DeploymentScannerService(scanInterval, fullScanInterval, unit, scanEnabled);
         final ServiceName serviceName = getServiceName(name);
         final ServiceName pathService = serviceName.append("path");
 
@@ -99,8 +101,9 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
             .install();
     }
 
-    DeploymentScannerService(final long interval, final TimeUnit unit, final boolean enabled) {
+    DeploymentScannerService(final long interval, final long fullScanInterval, final TimeUnit unit, final boolean enabled) {
         this.interval = interval;
+        this.fullScanInterval = fullScanInterval;
         this.unit = unit;
         this.enabled = enabled;
     }
@@ -112,7 +115,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
         try {
             final String pathName = pathValue.getValue();
 
-            final FileSystemDeploymentService scanner = new FileSystemDeploymentService(new File(pathName), unit.toMillis(interval), serverControllerValue.getValue(), scheduledExecutorValue.getValue(), deploymentRepositoryValue.getValue());
+            final FileSystemDeploymentService scanner = new FileSystemDeploymentService(new File(pathName), unit.toMillis(interval), unit.toMillis(fullScanInterval), serverControllerValue.getValue(), scheduledExecutorValue.getValue(), deploymentRepositoryValue.getValue());
 
             if(enabled) {
                 scanner.startScanner();
@@ -72,6 +72,8 @@ class FileSystemDeploymentService implements DeploymentScanner {
     private static final Set<String> ARCHIVES = new HashSet<String>(Arrays.asList(".jar", ".war", ".ear", ".rar", ".sar", ".beans"));
     private static final Logger log = Logger.getLogger("org.jboss.as.deployment");
     private static final String DEPLOYED = ".deployed";
+    /** The coarsest file timestamp resolution we expect; a directory modified this recently may change again unnoticed */
+    private static final long TIMESTAMP_RESOLUTION = 2000;
 
     private File deploymentDir;
     private long scanInterval = 0;
@@ -79,6 +81,12 @@ class FileSystemDeploymentService implements DeploymentScanner {
     private ScheduledFuture<?> scanTask;
     private final Lock scanLock = new ReentrantLock();
     private Set<String> deployed = new HashSet<String>();
+    private final long fullScanInterval;
+    private long lastFullScan;
+    /** What was found in each directory when it was last listed, if scans between full scans are incremental */
+    private final Map<File, DirectoryState> directories = new HashMap<File, DirectoryState>();
+    /** Content files whose size and timestamp have not yet been seen unchanged by two consecutive scans */
+    private Map<File, ContentState> pendingContent = new HashMap<File, ContentState>();
 
 //    private final ServerModel serverModel;
     private final ScheduledExecutorService scheduledExecutor;
@@ -88,7 +96,17 @@ class FileSystemDeploymentService implements DeploymentScanner {
     //TODO Extenalize filter config
     private FileFilter filter = new ExtensibleFilter();
 
-    FileSystemDeploymentService(final File deploymentDir, final long scanInterval, final ServerController serverController, final ScheduledExecutorService scheduledExecutor, DeploymentRepository deploymentRepository) throws OperationFailedException {
+    /**
+     * Create a new scanner.
+     *
+     * @param deploymentDir the directory to scan
+     * @param scanInterval the time between scans, in ms
+     * @param fullScanInterval if positive, the time between full scans of the whole directory tree, in ms. The scans
+     *                         in between only list the directories whose timestamp changed, and only deploy content
+     *                         whose size and timestamp did not change since the previous scan, so that content which
+     *                         is still being copied is not deployed
+     */
+    FileSystemDeploymentService(final File deploymentDir, final long scanInterval, final long fullScanInterval, final ServerController serverController, final ScheduledExecutorService scheduledExecutor, DeploymentRepository deploymentRepository) throws OperationFailedException {
         if (scheduledExecutor == null) {
             throw new IllegalStateException("null scheduled executor");
         }
@@ -112,6 +130,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
         this.deploymentDir = deploymentDir;
         this.scanInterval = scanInterval;
+        this.fullScanInterval = fullScanInterval;
         this.serverController = serverController;
         this.scheduledExecutor = scheduledExecutor;
         this.deploymentRepository = deploymentRepository;
@@ -214,12 +233,21 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
                 log.tracef("Scanning directory %s for deployment content changes", deploymentDir.getAbsolutePath());
 
+                final long now = System.currentTimeMillis();
+                if (fullScanInterval <= 0 || now - lastFullScan >= fullScanInterval) {
+                    // list every directory again
+                    directories.clear();
+                    lastFullScan = now;
+                }
+
                 final List<ModelNode> updates = new ArrayList<ModelNode>();
 
                 Map<String, File> foundDeployed = new HashMap<String, File>();
                 Set<String> newlyAdded = new HashSet<String>();
                 Set<String> registeredDeployments = getDeploymentNames();
-                scanDirectory(deploymentDir, updates, foundDeployed, newlyAdded, registeredDeployments);
+                Map<File, ContentState> stillPending = new HashMap<File, ContentState>();
+                scanDirectory(deploymentDir, updates, foundDeployed, newlyAdded, registeredDeployments, stillPending, now);
+                pendingContent = stillPending;
 
                 // Add remove actions to the plan for anything we count as
                 // deployed that we didn't find on the scan
@@ -271,7 +299,9 @@ class FileSystemDeploymentService implements DeploymentScanner {
     }
 
     /**
-     * Scan the given directory for content changes.
+     * Scan the given directory for content changes. Unless this is a full scan, a directory whose timestamp has not
+     * changed since it was last listed is not listed again; adding, removing or renaming a file changes the
+     * timestamp of its directory.
      *
      * @param directory     the directory to scan
      * @param updates       the update list;
@@ -279,68 +309,120 @@ class FileSystemDeploymentService implements DeploymentScanner {
      *                      of the deployment, value is the marker file
      * @param newlyAdded    place to store names of newly added content
      * @param registeredDeployments TODO
-     * @return the builder the current builder following any changes
+     * @param stillPending  place to store content files which may still be being copied
+     * @param scanStart     the time the scan started
      */
-    private void scanDirectory(File directory, final List<ModelNode> updates, Map<String, File> foundDeployed, Set<String> newlyAdded, Set<String> registeredDeployments) {
+    private void scanDirectory(File directory, final List<ModelNode> updates, Map<String, File> foundDeployed, Set<String> newlyAdded, Set<String> registeredDeployments, Map<File, ContentState> stillPending, long scanStart) {
+
+        final long lastModified = directory.lastModified();
+        DirectoryState state = directories.get(directory);
+        if (state == null || !state.isCurrent(lastModified)) {
+            //TODO externalize config of filter?
+            File[] children = directory.listFiles(filter);
+            if (children == null) {
+                directories.remove(directory);
+                return;
+            }
+            state = new DirectoryState(lastModified, scanStart);
+            for (File child : children) {
+
+                String fileName = child.getName();
+
+                if (fileName.endsWith(DEPLOYED)) {
+                    String origName = fileName.substring(0, fileName.length() - DEPLOYED.length());
+                    state.markers.put(origName, child);
+                } else if (child.isDirectory()) {
+                    int idx = fileName.lastIndexOf('.');
+                    if (idx > -1 && ARCHIVES.contains(fileName.substring(idx))) {
+                        // FIXME handle exploded deployments
+                        log.warnf("%s is an exploded deployment and exploded deployments are not currently handled by %s", child.getName(), getClass().getSimpleName());
+                    } else {
+                        // It's just a dir for organizing content
+                        state.subdirectories.add(child);
+                    }
+                } else {
+                    state.content.add(child);
+                }
+            }
+            if (fullScanInterval > 0) {
+                directories.put(directory, state);
+            }
+        }
 
-        //TODO externalize config of filter?
-        File[] children = directory.listFiles(filter);
-        if (children == null) {
-            return;
+        foundDeployed.putAll(state.markers);
+        for (File child : state.subdirectories) {
+            scanDirectory(child, updates, foundDeployed, newlyAdded, registeredDeployments, stillPending, scanStart);
         }
 
-        for (File child : children) {
+        for (File child : state.content) {
 
             String fileName = child.getName();
 
-            if (fileName.endsWith(DEPLOYED)) {
-                String origName = fileName.substring(0, fileName.length() - DEPLOYED.length());
-                foundDeployed.put(origName, child);
-            } else if (child.isDirectory()) {
-                int idx = fileName.lastIndexOf('.');
-                if (idx > -1 && ARCHIVES.contains(fileName.substring(idx))) {
-                    // FIXME handle exploded deployments
-                    log.warnf("%s is an exploded deployment and exploded deployments are not currently handled by %s", child.getName(), getClass().getSimpleName());
-                } else {
-                    // It's just a dir for organizing content. Recurse
-                    scanDirectory(child, updates, foundDeployed, newlyAdded, registeredDeployments);
+            // Found a single non-marker file
+            if (fullScanInterval > 0 && !isContentComplete(child, stillPending)) {
+                continue;
+            }
+            boolean uploaded = false;
+            if (registeredDeployments.contains(fileName)) {
+
+                byte[] hash = new byte[0];
+                try {
+                    hash = addDeploymentContent(child);
+                } catch (IOException e) {
+                    log.error("Failed to add content to deployment repository for [" + fileName + "]", e);
+                    continue;
                 }
+                updates.add(getFullReplaceOperation(fileName, hash));
+                uploaded = true;
             } else {
-                // Found a single non-marker file
-                boolean uploaded = false;
-                if (registeredDeployments.contains(fileName)) {
-
-                    byte[] hash = new byte[0];
-                    try {
-                        final InputStream inputStream = new FileInputStream(child);
-                        hash = deploymentRepository.addDeploymentContent(fileName, fileName, inputStream);
-                    } catch (IOException e) {
-                        log.error("Failed to add content to deployment repository for [" + fileName + "]", e);
-                        continue;
-                    }
-                    updates.add(getFullReplaceOperation(fileName, hash));
-                    uploaded = true;
-                } else {
-                    byte[] hash = new byte[0];
-                    try {
-                        final InputStream inputStream = new FileInputStream(child);
-                        hash = deploymentRepository.addDeploymentContent(fileName, fileName, inputStream);
-                    } catch (IOException e) {
-                        log.error("Failed to add content to deployment repository for [" + fileName + "]", e);
-                        continue;
-                    }
-                    updates.add(getAddOperation(fileName, hash));
-                    updates.add(getDeployOperation(fileName));
-                    uploaded = true;
+                byte[] hash = new byte[0];
+                try {
+                    hash = addDeploymentContent(child);
+                } catch (IOException e) {
+                    log.error("Failed to add content to deployment repository for [" + fileName + "]", e);
+                    continue;
                 }
+                updates.add(getAddOperation(fileName, hash));
+                updates.add(getDeployOperation(fileName));
+                uploaded = true;
+            }
 
-                if (uploaded && replaceWithDeployedMarker(child)) {
-                    newlyAdded.add(fileName);
-                }
+            if (uploaded && replaceWithDeployedMarker(child)) {
+                newlyAdded.add(fileName);
             }
         }
     }
 
+    private byte[] addDeploymentContent(File file) throws IOException {
+        final InputStream inputStream = new FileInputStream(file);
+        try {
+            return deploymentRepository.addDeploymentContent(file.getName(), file.getName(), inputStream);
+        } finally {
+            try {
+                inputStream.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Determine whether a content file has been seen with the same size and timestamp by the previous scan, so it is
+     * not still being copied.
+     */
+    private boolean isContentComplete(File file, Map<File, ContentState> stillPending) {
+        if (!file.exists()) {
+            return false;
+        }
+        final ContentState current = new ContentState(file.length(), file.lastModified());
+        final ContentState previous = pendingContent.get(file);
+        if (current.equals(previous)) {
+            return true;
+        }
+        log.tracef("Waiting for %s to stop changing before deploying it", file);
+        stillPending.put(file, current);
+        return false;
+    }
+
     /**
      * Adds a marker file, deletes the regular content file
      */
@@ -466,4 +548,51 @@ class FileSystemDeploymentService implements DeploymentScanner {
         return op;
     }
 
+    /**
+     * What a directory listing found.
+     */
+    private static class DirectoryState {
+        private final long lastModified;
+        private final long listed;
+        private final Map<String, File> markers = new HashMap<String, File>();
+        private final List<File> subdirectories = new ArrayList<File>();
+        private final List<File> content = new ArrayList<File>();
+
+        DirectoryState(final long lastModified, final long listed) {
+            this.lastModified = lastModified;
+            this.listed = listed;
+        }
+
+        /**
+         * Whether the listing still reflects the directory. A directory modified shortly before it was listed may
+         * have been modified again without its timestamp changing.
+         */
+        boolean isCurrent(final long lastModified) {
+            return lastModified == this.lastModified && listed - lastModified > TIMESTAMP_RESOLUTION;
+        }
+    }
+
+    private static class ContentState {
+        private final long length;
+        private final long lastModified;
+
+        ContentState(final long length, final long lastModified) {
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof ContentState)) {
+                return false;
+            }
+            final ContentState other = (ContentState) obj;
+            return length == other.length && lastModified == other.lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (length ^ lastModified);
+        }
+    }
 }
@@ -0,0 +1,245 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.server.ServerController;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.deployment.DeploymentAddHandler;
+import org.jboss.as.server.deployment.DeploymentDeployHandler;
+import org.jboss.as.server.deployment.DeploymentRemoveHandler;
+import org.jboss.as.server.deployment.DeploymentUndeployHandler;
+import org.jboss.as.server.deployment.api.DeploymentRepository;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the incremental scans of {@link FileSystemDeploymentService}.
+ */
+public class FileSystemDeploymentServiceTestCase {
+
+    private static final long FULL_SCAN_INTERVAL = 2000;
+
+    private File deploymentDir;
+    private ManualScheduler scheduler;
+    private RecordingServerController serverController;
+
+    @Before
+    public void setup() throws Exception {
+        deploymentDir = File.createTempFile("deployments", null);
+        deploymentDir.delete();
+        deploymentDir.mkdir();
+        scheduler = new ManualScheduler();
+        serverController = new RecordingServerController();
+    }
+
+    @After
+    public void cleanup() {
+        scheduler.shutdownNow();
+        for (File file : deploymentDir.listFiles()) {
+            file.delete();
+        }
+        deploymentDir.delete();
+    }
+
+    @Test
+    public void testOnlyChangesProcessedBetweenFullScans() throws Exception {
+        final FileSystemDeploymentService service = createService();
+        final long listed = pastTimestamp(10);
+
+        createContent("test.jar");
+        deploymentDir.setLastModified(listed);
+        scan();
+        // the content is only deployed once a second scan sees it unchanged
+        assertTrue(serverController.composites.isEmpty());
+
+        scan();
+        assertEquals(1, serverController.composites.size());
+        assertEquals(Arrays.asList(DeploymentAddHandler.OPERATION_NAME, DeploymentDeployHandler.OPERATION_NAME), serverController.composites.get(0));
+        assertTrue(new File(deploymentDir, "test.jar.deployed").exists());
+
+        // the marker changed the directory, so it is listed again
+        final long marked = pastTimestamp(5);
+        deploymentDir.setLastModified(marked);
+        scan();
+        assertEquals(1, serverController.composites.size());
+
+        // a change which leaves the directory timestamp alone goes unnoticed until the next full scan
+        assertTrue(new File(deploymentDir, "test.jar.deployed").delete());
+        deploymentDir.setLastModified(marked);
+        scan();
+        assertEquals(1, serverController.composites.size());
+        assertTrue(service.isScanEnabled());
+    }
+
+    @Test
+    public void testFullScanFindsOutOfBandChange() throws Exception {
+        createService();
+        createContent("test.jar");
+        deploymentDir.setLastModified(pastTimestamp(10));
+        scan();
+        scan();
+        assertEquals(1, serverController.composites.size());
+        final long marked = pastTimestamp(5);
+        deploymentDir.setLastModified(marked);
+        scan();
+
+        assertTrue(new File(deploymentDir, "test.jar.deployed").delete());
+        deploymentDir.setLastModified(marked);
+        scan();
+        assertEquals(1, serverController.composites.size());
+
+        Thread.sleep(FULL_SCAN_INTERVAL + 100);
+        scan();
+        assertEquals(2, serverController.composites.size());
+        assertEquals(Arrays.asList(DeploymentUndeployHandler.OPERATION_NAME, DeploymentRemoveHandler.OPERATION_NAME), serverController.composites.get(1));
+    }
+
+    private FileSystemDeploymentService createService() throws Exception {
+        final FileSystemDeploymentService service = new FileSystemDeploymentService(deploymentDir, 60000, FULL_SCAN_INTERVAL, serverController, scheduler, new NullDeploymentRepository());
+        service.startScanner();
+        return service;
+    }
+
+    private void scan() {
+        scheduler.task.run();
+    }
+
+    private void createContent(final String name) throws IOException {
+        final FileOutputStream fos = new FileOutputStream(new File(deploymentDir, name));
+        try {
+            fos.write(name.getBytes());
+        } finally {
+            fos.close();
+        }
+    }
+
+    /**
+     * A whole number of seconds in the past, so that file systems with a coarse timestamp resolution keep it exactly.
+     */
+    private static long pastTimestamp(final int seconds) {
+        return (System.currentTimeMillis() / 1000 - seconds) * 1000;
+    }
+
+    /**
+     * Hands out the scan task to be run by the test instead of scheduling it.
+     */
+    private static class ManualScheduler extends ScheduledThreadPoolExecutor {
+        private volatile Runnable task;
+
+        ManualScheduler() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable command, final long initialDelay, final long delay, final TimeUnit unit) {
+            task = command;
+            return super.schedule(new Runnable() {
+                public void run() {
+                }
+            }, 1, TimeUnit.DAYS);
+        }
+    }
+
+    /**
+     * Records the operation names of each composite operation the scanner executes.
+     */
+    private static class RecordingServerController implements ServerController {
+        private final List<List<String>> composites = new ArrayList<List<String>>();
+
+        public ModelNode execute(final ModelNode operation) {
+            if ("composite".equals(operation.get(OP).asString())) {
+                final List<String> names = new ArrayList<String>();
+                for (ModelNode step : operation.get("steps").asList()) {
+                    names.add(step.get(OP).asString());
+                }
+                composites.add(names);
+            }
+            return new ModelNode();
+        }
+
+        public Cancellable execute(final ModelNode operation, final ResultHandler handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        public ServerEnvironment getServerEnvironment() {
+            throw new UnsupportedOperationException();
+        }
+
+        public ServiceRegistry getServiceRegistry() {
+            throw new UnsupportedOperationException();
+        }
+
+        public State getState() {
+            return State.RUNNING;
+        }
+    }
+
+    private static class NullDeploymentRepository implements DeploymentRepository {
+        public byte[] addDeploymentContent(final String name, final String runtimeName, final InputStream stream) throws IOException {
+            while (stream.read() != -1) {
+            }
+            return new byte[] {1};
+        }
+
+        public boolean hasDeploymentContent(final byte[] hash) {
+            return false;
+        }
+
+        public long removeUnreferencedContent(final Collection<byte[]> referencedHashes, final long gracePeriod) {
+            return 0;
+        }
+
+        public long getContentSize() {
+            return 0;
+        }
+
+        public int getContentCount() {
+            return 0;
+        }
+
+        public long getReclaimedBytes() {
+            return 0;
+        }
+    }
+}
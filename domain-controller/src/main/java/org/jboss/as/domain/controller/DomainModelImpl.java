@@ -181,12 +181,22 @@ class DomainModelImpl extends BasicModelController implements DomainModel {
     void registerProxy(final ProxyController controller) {
         final PathElement element = controller.getProxyNodeAddress().getLastElement();
         getRegistry().registerProxyController(element, controller);
-        getModel().get(element.getKey(), element.getValue());
+        updateModel(new ModelUpdate() {
+            @Override
+            public void update(final ModelNode model) {
+                model.get(element.getKey(), element.getValue());
+            }
+        });
     }
 
     void unregisterProxy(final PathAddress proxyNodeAddress) {
         final PathElement element = proxyNodeAddress.getLastElement();
-        getModel().get(element.getKey()).remove(element.getValue());
+        updateModel(new ModelUpdate() {
+            @Override
+            public void update(final ModelNode model) {
+                model.get(element.getKey()).remove(element.getValue());
+            }
+        });
         getRegistry().unregisterProxyController(element);
     }
 
@@ -24,7 +24,7 @@ package org.jboss.as.host.controller;
 
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.domain.client.api.ServerStatus;
-import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.MultiplexedConnection;
 import org.jboss.msc.service.ServiceName;
 
 /**
@@ -87,9 +87,9 @@ public interface HostController extends ModelController {
      * Registers a running server in the domain model
      *
      * @param serverName the name of the server
-     * @param connection the connection to the running server
+     * @param connection the multiplexed connection to the running server
      */
-    void registerRunningServer(String serverName, Connection connection);
+    void registerRunningServer(String serverName, MultiplexedConnection connection);
 
     /**
      * Unregisters a running server from the domain model
@@ -51,12 +51,15 @@ import org.jboss.as.controller.interfaces.ParsedInterfaceCriteria;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
 import org.jboss.as.domain.controller.DomainController;
 import org.jboss.as.domain.controller.DomainControllerService;
+import org.jboss.as.domain.controller.DomainDeploymentRepository;
 import org.jboss.as.domain.controller.FileRepository;
 import org.jboss.as.host.controller.mgmt.DomainControllerOperationHandlerService;
 import org.jboss.as.host.controller.mgmt.ManagementCommunicationService;
 import org.jboss.as.host.controller.mgmt.ManagementCommunicationServiceInjector;
 import org.jboss.as.host.controller.mgmt.ServerToHostOperationHandler;
 import org.jboss.as.process.ProcessControllerClient;
+import org.jboss.as.server.deployment.api.DeploymentRepository;
+import org.jboss.as.server.mgmt.ManagementChannelExecutorService;
 import org.jboss.as.server.services.net.NetworkInterfaceBinding;
 import org.jboss.as.server.services.net.NetworkInterfaceService;
 import org.jboss.as.threads.ThreadFactoryService;
@@ -84,6 +87,8 @@ public class HostControllerBootstrap {
     private static final Logger log = Logger.getLogger("org.jboss.as.host.controller");
     static final ServiceName SERVICE_NAME_BASE = ServiceName.JBOSS.append("host", "controller");
     static final int DEFAULT_POOL_SIZE = 20;
+    /** The executor delivering the messages on the channels of the multiplexed management connections */
+    static final ServiceName CHANNEL_EXECUTOR_SERVICE_NAME = SERVICE_NAME_BASE.append("channel-executor");
     private final ServiceContainer serviceContainer = ServiceContainer.Factory.create();
     private final HostControllerEnvironment environment;
     private final byte[] authCode;
@@ -167,7 +172,9 @@ public class HostControllerBootstrap {
 
         final String name = rawModel.get(NAME).asString();
         final FileRepository repository = new LocalFileRepository(environment);
-        final HostControllerService hc = new HostControllerService(name, hostModel, repository);
+        final DeploymentRepository deploymentRepository = new DomainDeploymentRepository(environment.getDomainDeploymentDir());
+        final HostControllerService hc = new HostControllerService(name, hostModel, repository, deploymentRepository,
+                environment.getContentRemovalInterval(), environment.getContentRemovalGracePeriod());
         batch.addService(HostController.SERVICE_NAME, hc)
             .addDependency(DomainControllerConnection.SERVICE_NAME, DomainControllerConnection.class, hc.getConnection())
             .addDependency(ServerInventoryService.SERVICE_NAME, ServerInventory.class, hc.getServerInventory())
@@ -185,6 +192,16 @@ public class HostControllerBootstrap {
             .addDependency(threadFactoryServiceName, ThreadFactory.class, executorService.threadFactoryValue)
             .install();
 
+        final ServiceName channelThreadFactoryServiceName = SERVICE_NAME_BASE.append("channel-thread-factory");
+        final ThreadFactoryService channelThreadFactory = new ThreadFactoryService();
+        channelThreadFactory.setThreadGroupName("management-channel");
+        channelThreadFactory.setNamePattern("%G - %t");
+        batch.addService(channelThreadFactoryServiceName, channelThreadFactory).install();
+        final ManagementChannelExecutorService channelExecutor = new ManagementChannelExecutorService(ManagementChannelExecutorService.DEFAULT_MAX_THREADS);
+        batch.addService(CHANNEL_EXECUTOR_SERVICE_NAME, channelExecutor)
+            .addDependency(channelThreadFactoryServiceName, ThreadFactory.class, channelExecutor.getThreadFactoryInjector())
+            .install();
+
         //  Add the management communication service
         final ManagementCommunicationService managementCommunicationService = new ManagementCommunicationService();
         batch.addService(ManagementCommunicationService.SERVICE_NAME, managementCommunicationService)
@@ -199,6 +216,7 @@ public class HostControllerBootstrap {
         final ServerToHostOperationHandler serverToHost = new ServerToHostOperationHandler();
         batch.addService(ServerToHostOperationHandler.SERVICE_NAME, serverToHost)
             .addDependency(ServerInventoryService.SERVICE_NAME, ManagedServerLifecycleCallback.class, serverToHost.getCallback())
+            .addDependency(CHANNEL_EXECUTOR_SERVICE_NAME, ExecutorService.class, serverToHost.getChannelExecutor())
             .addDependency(ManagementCommunicationService.SERVICE_NAME, ManagementCommunicationService.class,  new ManagementCommunicationServiceInjector(serverToHost))
             .install();
 
@@ -234,10 +252,11 @@ public class HostControllerBootstrap {
             .install();
 
         //Install the domain controller operation handler
-        final DomainControllerOperationHandlerService operationHandlerService = new DomainControllerOperationHandlerService();
+        final DomainControllerOperationHandlerService operationHandlerService = new DomainControllerOperationHandlerService(new LocalFileRepository(environment));
         serviceTarget.addService(DomainControllerOperationHandlerService.SERVICE_NAME, operationHandlerService)
             .addDependency(ManagementCommunicationService.SERVICE_NAME, ManagementCommunicationService.class, operationHandlerService.getManagementCommunicationServiceValue())
             .addDependency(DomainController.SERVICE_NAME, ModelController.class, operationHandlerService.getModelControllerValue())
+            .addDependency(CHANNEL_EXECUTOR_SERVICE_NAME, ExecutorService.class, operationHandlerService.getChannelExecutorValue())
             .setInitialMode(ServiceController.Mode.ACTIVE)
             .install();
     }
@@ -259,8 +278,9 @@ public class HostControllerBootstrap {
             throw new RuntimeException(e);
         }
         int port = dc.require(PORT).asInt();
-        final RemoteDomainConnectionService service = new RemoteDomainConnectionService(name, addr, port);
+        final RemoteDomainConnectionService service = new RemoteDomainConnectionService(name, addr, port, new LocalFileRepository(environment));
         serviceTarget.addService(DomainControllerConnection.SERVICE_NAME, service)
+            .addDependency(CHANNEL_EXECUTOR_SERVICE_NAME, ExecutorService.class, service.getChannelExecutor())
             .setInitialMode(Mode.ACTIVE)
             .install();
     }
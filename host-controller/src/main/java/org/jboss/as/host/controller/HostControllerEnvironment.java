@@ -10,6 +10,7 @@ import java.net.InetAddress;
 import java.util.Properties;
 
 import org.jboss.as.process.DefaultJvmUtils;
+import org.jboss.as.server.deployment.impl.ContentRemovalScheduler;
 
 /**
  * Encapsulates the runtime environment for a host controller.
@@ -122,6 +123,8 @@ public class HostControllerEnvironment {
     private final File domainTempDir;
     private final File defaultJVM;
     private final boolean isRestart;
+    private final long contentRemovalInterval;
+    private final long contentRemovalGracePeriod;
 
     private final InputStream stdin;
     private final PrintStream stdout;
@@ -251,6 +254,9 @@ public class HostControllerEnvironment {
         } else {
             this.defaultJVM = null;
         }
+
+        this.contentRemovalInterval = ContentRemovalScheduler.getInterval(props);
+        this.contentRemovalGracePeriod = ContentRemovalScheduler.getGracePeriod(props);
     }
 
     /**
@@ -383,6 +389,26 @@ public class HostControllerEnvironment {
         return defaultJVM;
     }
 
+    /**
+     * Gets how often unreferenced deployment content is removed, as set by
+     * {@link ContentRemovalScheduler#CONTENT_REMOVAL_INTERVAL}.
+     *
+     * @return the interval in milliseconds
+     */
+    public long getContentRemovalInterval() {
+        return contentRemovalInterval;
+    }
+
+    /**
+     * Gets how long newly uploaded deployment content is kept when nothing refers to it, as set by
+     * {@link ContentRemovalScheduler#CONTENT_REMOVAL_GRACE_PERIOD}.
+     *
+     * @return the grace period in milliseconds
+     */
+    public long getContentRemovalGracePeriod() {
+        return contentRemovalGracePeriod;
+    }
+
     /**
      * Get a File from configuration.
      * @return the CanonicalFile form for the given name.
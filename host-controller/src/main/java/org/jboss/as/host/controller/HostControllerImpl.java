@@ -22,8 +22,13 @@
 
 package org.jboss.as.host.controller;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HASH;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNNING_SERVER;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CancellationException;
 
 import org.jboss.as.controller.Cancellable;
@@ -39,8 +44,9 @@ import org.jboss.as.controller.remote.RemoteProxyController;
 import org.jboss.as.domain.client.api.ServerStatus;
 import org.jboss.as.domain.controller.DomainModel;
 import org.jboss.as.domain.controller.FileRepository;
-import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.MultiplexedConnection;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
 import org.jboss.logging.Logger;
 
 /**
@@ -57,7 +63,7 @@ public class HostControllerImpl implements HostController {
     private final ServerInventory serverInventory;
     private final FileRepository repository;
 
-    private DomainModel domainModel;
+    private volatile DomainModel domainModel;
     private FileRepository remoteRepository;
 
     HostControllerImpl(final String name, final HostModel model, final ServerInventory serverInventory, final FileRepository repository) {
@@ -74,6 +80,31 @@ public class HostControllerImpl implements HostController {
         this.remoteRepository = remoteRepository;
     }
 
+    /**
+     * Get the hashes of the deployment content the deployments of the domain refer to. Server group deployments
+     * always refer to domain deployments, so the domain deployments cover the content used by every server of the host.
+     *
+     * @return the referenced hashes, or {@code null} if the host is not connected to the domain controller yet
+     */
+    Collection<byte[]> getReferencedDeploymentContent() {
+        final DomainModel domainModel = this.domainModel;
+        if (domainModel == null) {
+            // not connected to the domain controller yet
+            return null;
+        }
+        final List<byte[]> referenced = new ArrayList<byte[]>();
+        final ModelNode model = domainModel.getDomainModel();
+        if (model.hasDefined(DEPLOYMENT)) {
+            for (Property deployment : model.get(DEPLOYMENT).asPropertyList()) {
+                final ModelNode deploymentModel = deployment.getValue();
+                if (deploymentModel.hasDefined(HASH)) {
+                    referenced.add(deploymentModel.get(HASH).asBytes());
+                }
+            }
+        }
+        return referenced;
+    }
+
     /** {@inheritDoc} */
     @Override
     public String getName() {
@@ -128,7 +159,7 @@ public class HostControllerImpl implements HostController {
     }
 
     @Override
-    public void registerRunningServer(String serverName, Connection connection) {
+    public void registerRunningServer(String serverName, MultiplexedConnection connection) {
         PathElement element = PathElement.pathElement(RUNNING_SERVER, serverName);
         ProxyController serverController = RemoteProxyController.create(ModelControllerClient.Type.STANDALONE, connection, PathAddress.pathAddress(element));
         hostModel.registerProxy(serverController);
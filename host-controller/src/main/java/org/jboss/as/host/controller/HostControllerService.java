@@ -26,8 +26,11 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SER
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.START;
 
 import java.io.IOException;
+import java.util.Collection;
 
 import org.jboss.as.domain.controller.FileRepository;
+import org.jboss.as.server.deployment.api.DeploymentRepository;
+import org.jboss.as.server.deployment.impl.ContentRemovalScheduler;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
 import org.jboss.msc.service.Service;
@@ -44,18 +47,27 @@ import org.jboss.msc.value.InjectedValue;
 public class HostControllerService implements Service<HostController> {
 
     private static final Logger log = Logger.getLogger("org.jboss.as.host.controller");
+
     private final InjectedValue<DomainControllerConnection> connection = new InjectedValue<DomainControllerConnection>();
     private final InjectedValue<ServerInventory> serverInventory = new InjectedValue<ServerInventory>();
     private final HostModel hostModel;
     private final FileRepository repository;
+    private final DeploymentRepository deploymentRepository;
     private final String name;
+    private final long contentRemovalInterval;
+    private final long contentRemovalGracePeriod;
 
     private HostController controller;
+    private ContentRemovalScheduler contentRemovalScheduler;
 
-    HostControllerService(final String name, final HostModel hostModel, final FileRepository repository) {
+    HostControllerService(final String name, final HostModel hostModel, final FileRepository repository,
+            final DeploymentRepository deploymentRepository, final long contentRemovalInterval, final long contentRemovalGracePeriod) {
         this.name = name;
         this.hostModel = hostModel;
         this.repository = repository;
+        this.deploymentRepository = deploymentRepository;
+        this.contentRemovalInterval = contentRemovalInterval;
+        this.contentRemovalGracePeriod = contentRemovalGracePeriod;
     }
 
     /** {@inheritDoc} */
@@ -86,7 +98,17 @@ public class HostControllerService implements Service<HostController> {
         } catch (IOException e) {
             throw new StartException(e);
         }
+
+        // Remove deployment content which is no longer referenced by the domain in the background
+        final ContentRemovalScheduler contentRemovalScheduler = new ContentRemovalScheduler(deploymentRepository, new ContentRemovalScheduler.ReferencedContent() {
+            public Collection<byte[]> getReferencedContent() {
+                return controller.getReferencedDeploymentContent();
+            }
+        }, contentRemovalInterval, contentRemovalGracePeriod);
+        contentRemovalScheduler.start();
+
         this.controller = controller;
+        this.contentRemovalScheduler = contentRemovalScheduler;
     }
 
     /** {@inheritDoc} */
@@ -96,6 +118,8 @@ public class HostControllerService implements Service<HostController> {
         final DomainControllerConnection connection = this.connection.getValue();
         connection.unregister();
         this.controller = null;
+        contentRemovalScheduler.stop();
+        contentRemovalScheduler = null;
         // stop servers
         final ModelNode rawModel = hostModel.getHostModel();
         if(rawModel.hasDefined(SERVER) ) {
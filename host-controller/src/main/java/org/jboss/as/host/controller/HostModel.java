@@ -214,12 +214,22 @@ class HostModel extends BasicModelController {
     void registerProxy(final ProxyController controller) {
         final PathElement element = controller.getProxyNodeAddress().getLastElement();
         getRegistry().registerProxyController(element, controller);
-        getModel().get(element.getKey(), element.getValue());
+        updateModel(new ModelUpdate() {
+            @Override
+            public void update(final ModelNode model) {
+                model.get(element.getKey(), element.getValue());
+            }
+        });
     }
 
     void unregisterProxy(final String serverName) {
-        PathElement element = PathElement.pathElement(RUNNING_SERVER, serverName);
-        getModel().get(element.getKey()).remove(element.getValue());
+        final PathElement element = PathElement.pathElement(RUNNING_SERVER, serverName);
+        updateModel(new ModelUpdate() {
+            @Override
+            public void update(final ModelNode model) {
+                model.get(element.getKey()).remove(element.getValue());
+            }
+        });
         getRegistry().unregisterProxyController(element);
     }
 }
@@ -37,7 +37,7 @@ import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.ResultHandler;
 import org.jboss.as.process.ProcessControllerClient;
-import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.MultiplexedConnection;
 import org.jboss.as.server.ServerStartTask;
 import org.jboss.as.server.ServerState;
 import org.jboss.dmr.ModelNode;
@@ -94,7 +94,7 @@ class ManagedServer implements ModelController {
     private final ManagedServerBootConfiguration bootConfiguration;
     private final byte[] authKey;
     private volatile ServerState state;
-    private volatile Connection serverManagementConnection;
+    private volatile MultiplexedConnection serverManagementConnection;
 
     public ManagedServer(final String serverName, final ProcessControllerClient processControllerClient,
             final InetSocketAddress managementSocket, final ManagedServerBootConfiguration bootConfiguration) {
@@ -124,7 +124,7 @@ class ManagedServer implements ModelController {
         return serverProcessName;
     }
 
-    Connection getServerConnection() {
+    MultiplexedConnection getServerConnection() {
         return serverManagementConnection;
     }
 
@@ -150,7 +150,7 @@ class ManagedServer implements ModelController {
         return null;
     }
 
-    void setServerManagementConnection(Connection serverManagementConnection) {
+    void setServerManagementConnection(MultiplexedConnection serverManagementConnection) {
         this.serverManagementConnection = serverManagementConnection;
     }
 
@@ -22,14 +22,14 @@
 
 package org.jboss.as.host.controller;
 
-import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.MultiplexedConnection;
 
 /**
  * @author Emanuel Muckenhuber
  */
 public interface ManagedServerLifecycleCallback {
 
-    void serverRegistered(String serverName, Connection connection);
+    void serverRegistered(String serverName, MultiplexedConnection connection);
     void serverDown(String serverName);
     void serverStarted(String serverName);
     void serverStartFailed(String serverName);
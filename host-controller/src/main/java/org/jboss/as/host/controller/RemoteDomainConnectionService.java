@@ -29,16 +29,20 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PRO
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 import static org.jboss.as.protocol.ProtocolUtils.expectHeader;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import javax.net.SocketFactory;
 
+import org.jboss.as.controller.HashUtil;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.client.ModelControllerClient;
@@ -47,6 +51,7 @@ import org.jboss.as.domain.controller.FileRepository;
 import org.jboss.as.host.controller.mgmt.DomainControllerProtocol;
 import org.jboss.as.protocol.Connection;
 import org.jboss.as.protocol.MessageHandler;
+import org.jboss.as.protocol.MultiplexedConnection;
 import org.jboss.as.protocol.ProtocolClient;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.ManagementHeaderMessageHandler;
@@ -57,6 +62,7 @@ import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
 
 /**
  * @author Kabir Khan
@@ -69,13 +75,18 @@ class RemoteDomainConnectionService implements DomainControllerConnection, Servi
     private final String name;
 
     private volatile Connection connection;
+    private volatile MultiplexedConnection multiplexedConnection;
+    private final InjectedValue<ExecutorService> channelExecutor = new InjectedValue<ExecutorService>();
     private volatile ModelControllerClient client;
     private volatile ModelControllerOperationHandler operationHandler;
+    private final FileRepository localRepository;
+    private final FileRepository remoteFileRepository = new RemoteFileRepository();
 
-    RemoteDomainConnectionService(String name, InetAddress host, int port){
+    RemoteDomainConnectionService(String name, InetAddress host, int port, FileRepository localRepository){
         this.name = name;
         this.host = host;
         this.port = port;
+        this.localRepository = localRepository;
     }
 
     /** {@inheritDoc} */
@@ -93,8 +104,11 @@ class RemoteDomainConnectionService implements DomainControllerConnection, Servi
 
         try {
             connection = protocolClient.connect();
-            client = ModelControllerClient.Factory.create(ModelControllerClient.Type.DOMAIN, connection);
             operationHandler = ModelControllerOperationHandler.Factory.create(ModelControllerClient.Type.HOST, hostController, initialMessageHandler);
+            // Once registered, requests in both directions each get their own channel. The registration request
+            // puts the multiplexed handler back as it reads the end of the response.
+            multiplexedConnection = new MultiplexedConnection(connection, initialMessageHandler, channelExecutor.getValue());
+            client = ModelControllerClient.Factory.create(ModelControllerClient.Type.DOMAIN, multiplexedConnection);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -127,7 +141,7 @@ class RemoteDomainConnectionService implements DomainControllerConnection, Servi
     @Override
     public synchronized void unregister() {
         try {
-            new UnregisterModelControllerRequest().executeForResult(new ManagementRequestConnectionStrategy.ExistingConnectionStrategy(connection));
+            new UnregisterModelControllerRequest().executeForResult(new ManagementRequestConnectionStrategy.MultiplexedConnectionStrategy(multiplexedConnection));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -136,8 +150,7 @@ class RemoteDomainConnectionService implements DomainControllerConnection, Servi
     /** {@inheritDoc} */
     @Override
     public synchronized FileRepository getRemoteFileRepository() {
-        // TODO Auto-generated method stub
-        return null;
+        return remoteFileRepository;
     }
 
     /** {@inheritDoc} */
@@ -152,6 +165,10 @@ class RemoteDomainConnectionService implements DomainControllerConnection, Servi
         StreamUtils.safeClose(connection);
     }
 
+    InjectedValue<ExecutorService> getChannelExecutor() {
+        return channelExecutor;
+    }
+
     /** {@inheritDoc} */
     @Override
     public synchronized DomainControllerConnection getValue() throws IllegalStateException, IllegalArgumentException {
@@ -213,6 +230,121 @@ class RemoteDomainConnectionService implements DomainControllerConnection, Servi
         }
     }
 
+    /**
+     * Fetches files from the domain controller's repository into the same place in the local one, and hands out
+     * the local copies.
+     */
+    private class RemoteFileRepository implements FileRepository {
+
+        /** {@inheritDoc} */
+        @Override
+        public File getFile(final String relativePath) {
+            return getFile(relativePath, DomainControllerProtocol.PARAM_ROOT_ID_FILE, localRepository.getFile(relativePath));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public File getConfigurationFile(final String relativePath) {
+            return getFile(relativePath, DomainControllerProtocol.PARAM_ROOT_ID_CONFIGURATION, localRepository.getConfigurationFile(relativePath));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public File[] getDeploymentFiles(final byte[] hash) {
+            return getDeploymentRoot(hash).listFiles();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public File getDeploymentRoot(final byte[] hash) {
+            return getFile(HashUtil.bytesToHexString(hash), DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT, localRepository.getDeploymentRoot(hash));
+        }
+
+        private File getFile(final String filePath, final byte rootId, final File localPath) {
+            try {
+                return new GetFileRequest(rootId, filePath, localPath).executeForResult(new ManagementRequestConnectionStrategy.MultiplexedConnectionStrategy(multiplexedConnection));
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to get file from remote repository", e);
+            }
+        }
+    }
+
+    /**
+     * Streams the files sent by the domain controller to disk as they arrive, through a temporary file each so
+     * that a failed transfer does not leave partial content behind.
+     */
+    private class GetFileRequest extends RegistryRequest<File> {
+        private final byte rootId;
+        private final String filePath;
+        private final File localPath;
+
+        GetFileRequest(final byte rootId, final String filePath, final File localPath) {
+            this.rootId = rootId;
+            this.filePath = filePath;
+            this.localPath = localPath;
+        }
+
+        @Override
+        protected byte getRequestCode() {
+            return DomainControllerProtocol.GET_FILE_REQUEST;
+        }
+
+        @Override
+        protected byte getResponseCode() {
+            return DomainControllerProtocol.GET_FILE_RESPONSE;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void sendRequest(final int protocolVersion, final OutputStream output) throws IOException {
+            output.write(DomainControllerProtocol.PARAM_ROOT_ID);
+            output.write(rootId);
+            output.write(DomainControllerProtocol.PARAM_FILE_PATH);
+            StreamUtils.writeUTFZBytes(output, filePath);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected File receiveResponse(final InputStream input) throws IOException {
+            expectHeader(input, DomainControllerProtocol.PARAM_NUM_FILES);
+            final int numFiles = StreamUtils.readInt(input);
+            final byte[] buffer = new byte[8192];
+            for (int i = 0; i < numFiles; i++) {
+                expectHeader(input, DomainControllerProtocol.FILE_START);
+                expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
+                final String name = StreamUtils.readUTFZBytes(input);
+                expectHeader(input, DomainControllerProtocol.PARAM_FILE_SIZE);
+                final long size = StreamUtils.readLong(input);
+                final File file = name.length() == 0 ? localPath : new File(localPath, name);
+                final File dir = file.getParentFile();
+                if (!dir.exists() && !dir.mkdirs()) {
+                    throw new IOException("Could not create directory " + dir);
+                }
+                final File tmp = new File(dir, file.getName() + ".tmp");
+                final OutputStream out = new FileOutputStream(tmp);
+                try {
+                    long remaining = size;
+                    while (remaining > 0) {
+                        final int read = input.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                        if (read == -1) {
+                            throw new IOException("Unexpected end of stream reading " + file);
+                        }
+                        out.write(buffer, 0, read);
+                        remaining -= read;
+                    }
+                } finally {
+                    StreamUtils.safeClose(out);
+                }
+                if ((file.exists() && !file.delete()) || !tmp.renameTo(file)) {
+                    tmp.delete();
+                    throw new IOException("Could not replace " + file);
+                }
+                expectHeader(input, DomainControllerProtocol.FILE_END);
+            }
+            return localPath;
+        }
+    }
+
     private final MessageHandler initialMessageHandler = new ManagementHeaderMessageHandler() {
 
         @Override
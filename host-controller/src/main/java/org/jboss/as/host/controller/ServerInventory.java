@@ -29,7 +29,7 @@ import java.util.Map;
 
 import org.jboss.as.domain.client.api.ServerStatus;
 import org.jboss.as.process.ProcessControllerClient;
-import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.MultiplexedConnection;
 import org.jboss.as.server.ServerState;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
@@ -155,7 +155,7 @@ class ServerInventory implements ManagedServerLifecycleCallback {
 
     /** {@inheritDoc} */
     @Override
-    public void serverRegistered(String serverName, Connection connection) {
+    public void serverRegistered(String serverName, MultiplexedConnection connection) {
         try {
             final ManagedServer server = servers.get(serverName);
             if (server == null) {
@@ -24,12 +24,18 @@ package org.jboss.as.host.controller.mgmt;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
 import static org.jboss.as.protocol.ProtocolUtils.expectHeader;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
 
 import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.HashUtil;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
@@ -40,9 +46,11 @@ import org.jboss.as.controller.client.ModelControllerClient.Type;
 import org.jboss.as.controller.remote.ModelControllerOperationHandlerImpl;
 import org.jboss.as.controller.remote.RemoteProxyController;
 import org.jboss.as.domain.controller.DomainController;
+import org.jboss.as.domain.controller.FileRepository;
 import org.jboss.as.domain.controller.HostControllerClient;
 import org.jboss.as.protocol.Connection;
 import org.jboss.as.protocol.MessageHandler;
+import org.jboss.as.protocol.MultiplexedConnection;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.ManagementResponse;
 import org.jboss.dmr.ModelNode;
@@ -54,8 +62,13 @@ import org.jboss.dmr.ModelNode;
  */
 public class DomainControllerOperationHandlerImpl extends ModelControllerOperationHandlerImpl {
 
-    public DomainControllerOperationHandlerImpl(Type type, DomainController modelController, MessageHandler initiatingHandler) {
+    private final Executor channelExecutor;
+    private final FileRepository localFileRepository;
+
+    public DomainControllerOperationHandlerImpl(Type type, DomainController modelController, MessageHandler initiatingHandler, Executor channelExecutor, FileRepository localFileRepository) {
         super(type, modelController, initiatingHandler);
+        this.channelExecutor = channelExecutor;
+        this.localFileRepository = localFileRepository;
     }
 
     @Override
@@ -70,6 +83,8 @@ public class DomainControllerOperationHandlerImpl extends ModelControllerOperati
             return new RegisterOperation();
         case DomainControllerProtocol.UNREGISTER_HOST_CONTROLLER_REQUEST:
             return new UnregisterOperation();
+        case DomainControllerProtocol.GET_FILE_REQUEST:
+            return new GetFileOperation();
         default:
             return super.operationFor(commandByte);
         }
@@ -105,7 +120,10 @@ public class DomainControllerOperationHandlerImpl extends ModelControllerOperati
 
         @Override
         protected void sendResponse(final OutputStream outputStream) throws IOException {
-            getController().addClient(new RemoteHostControllerClient(hostId, connection));
+            // All further requests in either direction are sent on channels of the multiplexed connection.
+            // The host controller multiplexes its side as it reads the end of this response.
+            final MultiplexedConnection multiplexedConnection = new MultiplexedConnection(connection, getInitiatingHandler(), channelExecutor);
+            getController().addClient(new RemoteHostControllerClient(hostId, multiplexedConnection));
             ModelNode node = getController().getDomainModel();
             outputStream.write(DomainControllerProtocol.PARAM_MODEL);
             node.writeExternal(outputStream);
@@ -124,6 +142,97 @@ public class DomainControllerOperationHandlerImpl extends ModelControllerOperati
         }
     }
 
+    /**
+     * Sends a file, or the files under a directory, of the domain repository to a host controller. The files are
+     * copied straight to the channel, which sends them on in frames, so they are never held in memory whole.
+     */
+    private class GetFileOperation extends ManagementResponse {
+        private byte rootId;
+        private String filePath;
+
+        GetFileOperation() {
+            super(getInitiatingHandler());
+        }
+
+        @Override
+        protected final byte getResponseCode() {
+            return DomainControllerProtocol.GET_FILE_RESPONSE;
+        }
+
+        @Override
+        protected final void readRequest(final InputStream inputStream) throws IOException {
+            expectHeader(inputStream, DomainControllerProtocol.PARAM_ROOT_ID);
+            rootId = StreamUtils.readByte(inputStream);
+            expectHeader(inputStream, DomainControllerProtocol.PARAM_FILE_PATH);
+            filePath = StreamUtils.readUTFZBytes(inputStream);
+        }
+
+        @Override
+        protected void sendResponse(final OutputStream outputStream) throws IOException {
+            final File root = resolve();
+            final List<String> names = new ArrayList<String>();
+            if (root.isDirectory()) {
+                listFiles(root, "", names);
+            } else if (root.isFile()) {
+                names.add("");
+            }
+            outputStream.write(DomainControllerProtocol.PARAM_NUM_FILES);
+            StreamUtils.writeInt(outputStream, names.size());
+            final byte[] buffer = new byte[8192];
+            for (String name : names) {
+                final File file = name.length() == 0 ? root : new File(root, name);
+                final InputStream in = new FileInputStream(file);
+                try {
+                    outputStream.write(DomainControllerProtocol.FILE_START);
+                    outputStream.write(DomainControllerProtocol.PARAM_FILE_PATH);
+                    StreamUtils.writeUTFZBytes(outputStream, name);
+                    outputStream.write(DomainControllerProtocol.PARAM_FILE_SIZE);
+                    final long size = file.length();
+                    StreamUtils.writeLong(outputStream, size);
+                    long remaining = size;
+                    int read;
+                    while (remaining > 0 && (read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+                        outputStream.write(buffer, 0, read);
+                        remaining -= read;
+                    }
+                    if (remaining > 0) {
+                        throw new IOException("File " + file + " was truncated while being sent");
+                    }
+                    outputStream.write(DomainControllerProtocol.FILE_END);
+                } finally {
+                    StreamUtils.safeClose(in);
+                }
+            }
+        }
+
+        private File resolve() throws IOException {
+            switch (rootId) {
+            case DomainControllerProtocol.PARAM_ROOT_ID_FILE:
+                return localFileRepository.getFile(filePath);
+            case DomainControllerProtocol.PARAM_ROOT_ID_CONFIGURATION:
+                return localFileRepository.getConfigurationFile(filePath);
+            case DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT:
+                return localFileRepository.getDeploymentRoot(HashUtil.hexStringToByteArray(filePath));
+            default:
+                throw new IOException("Invalid root id " + rootId);
+            }
+        }
+
+        private void listFiles(final File dir, final String prefix, final List<String> names) {
+            final File[] files = dir.listFiles();
+            if (files == null) {
+                return;
+            }
+            for (File file : files) {
+                final String name = prefix + file.getName();
+                if (file.isDirectory()) {
+                    listFiles(file, name + "/", names);
+                } else {
+                    names.add(name);
+                }
+            }
+        }
+    }
 
     private class RemoteHostControllerClient implements HostControllerClient {
 
@@ -132,9 +241,9 @@ public class DomainControllerOperationHandlerImpl extends ModelControllerOperati
         final String hostId;
         final PathAddress proxyNodeAddress;
 
-        public RemoteHostControllerClient(String hostId, Connection connection) {
+        public RemoteHostControllerClient(String hostId, MultiplexedConnection connection) {
             this.hostId = hostId;
-            this.connection = connection;
+            this.connection = connection.getConnection();
             this.proxyNodeAddress = PathAddress.pathAddress(PathElement.pathElement(HOST, getId()));
             this.remote = RemoteProxyController.create(ModelControllerClient.Type.HOST, connection, proxyNodeAddress);
         }
@@ -21,11 +21,14 @@
 */
 package org.jboss.as.host.controller.mgmt;
 
+import java.util.concurrent.ExecutorService;
+
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.remote.ModelControllerOperationHandler;
 import org.jboss.as.controller.remote.ModelControllerOperationHandlerService;
 import org.jboss.as.domain.controller.DomainController;
+import org.jboss.as.domain.controller.FileRepository;
 import org.jboss.as.protocol.MessageHandler;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
@@ -42,9 +45,14 @@ public class DomainControllerOperationHandlerService extends ModelControllerOper
     public static final ServiceName SERVICE_NAME = DomainController.SERVICE_NAME.append(ModelControllerOperationHandlerService.OPERATION_HANDLER_NAME_SUFFIX);
 
     private InjectedValue<ManagementCommunicationService> managementCommunicationService = new InjectedValue<ManagementCommunicationService>();
+    /** Delivers the messages on the channels of the host controllers' multiplexed connections */
+    private final InjectedValue<ExecutorService> channelExecutor = new InjectedValue<ExecutorService>();
+    /** The domain repository the host controllers fetch their files from */
+    private final FileRepository localFileRepository;
 
-    public DomainControllerOperationHandlerService() {
+    public DomainControllerOperationHandlerService(final FileRepository localFileRepository) {
         super(ModelControllerClient.Type.DOMAIN);
+        this.localFileRepository = localFileRepository;
     }
 
     @Override
@@ -61,13 +69,17 @@ public class DomainControllerOperationHandlerService extends ModelControllerOper
         return managementCommunicationService;
     }
 
+    public InjectedValue<ExecutorService> getChannelExecutorValue() {
+        return channelExecutor;
+    }
+
     @Override
     protected MessageHandler getInitialMessageHandler() {
         return managementCommunicationService.getValue().getInitialMessageHandler();
     }
 
     protected ModelControllerOperationHandler createOperationHandler(ModelControllerClient.Type type, ModelController modelController, MessageHandler initialMessageHandler) {
-        return new DomainControllerOperationHandlerImpl(type, (DomainController)modelController, initialMessageHandler);
+        return new DomainControllerOperationHandlerImpl(type, (DomainController)modelController, initialMessageHandler, channelExecutor.getValue(), localFileRepository);
     }
 
 }
@@ -27,9 +27,12 @@ import static org.jboss.as.protocol.StreamUtils.readUTFZBytes;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
 
 import org.jboss.as.host.controller.ManagedServerLifecycleCallback;
 import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.MessageHandler;
+import org.jboss.as.protocol.MultiplexedConnection;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.AbstractMessageHandler;
 import org.jboss.as.protocol.mgmt.ManagementOperationHandler;
@@ -57,17 +60,17 @@ public class ServerToHostOperationHandler extends AbstractMessageHandler impleme
     public static final ServiceName SERVICE_NAME = ManagementCommunicationService.SERVICE_NAME.append("server", "to", "host", "controller");
 
     private final InjectedValue<ManagedServerLifecycleCallback> callback = new InjectedValue<ManagedServerLifecycleCallback>();
+    /** Delivers the messages on the channels of the servers' multiplexed connections */
+    private final InjectedValue<ExecutorService> channelExecutor = new InjectedValue<ExecutorService>();
 
     /** {@inheritDoc} */
     @Override
     public void start(StartContext context) throws StartException {
-        //
     }
 
     /** {@inheritDoc} */
     @Override
     public void stop(StopContext context) {
-        //
     }
 
     /** {@inheritDoc} */
@@ -107,7 +110,7 @@ public class ServerToHostOperationHandler extends AbstractMessageHandler impleme
     }
 
     private class ServerRegisterCommand extends ManagementResponse {
-        private Connection connection;
+        private String serverName;
 
         /** {@inheritDoc} */
         @Override
@@ -115,16 +118,20 @@ public class ServerToHostOperationHandler extends AbstractMessageHandler impleme
             return NewDomainServerProtocol.REGISTER_RESPONSE;
         }
 
-        public void handle(final Connection connection, final InputStream input) throws IOException {
-            this.connection = connection;
-            super.handle(connection, input);
-        }
-
         protected void readRequest(final InputStream input) throws IOException {
             expectHeader(input, DomainServerProtocol.PARAM_SERVER_NAME);
-            final String serverName = readUTFZBytes(input);
+            serverName = readUTFZBytes(input);
+        }
+
+        /**
+         * Multiplex the connection once the server has had the response, so that the host controller can send
+         * the server any number of requests at once.  The server multiplexes its side as it reads the response.
+         */
+        @Override
+        protected void responseComplete(final Connection connection) throws IOException {
+            final MultiplexedConnection multiplexedConnection = new MultiplexedConnection(connection, MessageHandler.NULL, channelExecutor.getValue());
             log.infof("Server [%s] registered using connection [%s]", serverName, connection);
-            ServerToHostOperationHandler.this.callback.getValue().serverRegistered(serverName, connection);
+            ServerToHostOperationHandler.this.callback.getValue().serverRegistered(serverName, multiplexedConnection);
         }
 
     }
@@ -133,4 +140,8 @@ public class ServerToHostOperationHandler extends AbstractMessageHandler impleme
         return callback;
     }
 
+    public InjectedValue<ExecutorService> getChannelExecutor() {
+        return channelExecutor;
+    }
+
 }
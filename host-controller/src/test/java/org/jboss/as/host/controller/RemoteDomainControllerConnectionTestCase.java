@@ -21,11 +21,17 @@
 */
 package org.jboss.as.host.controller;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
@@ -35,6 +41,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import javax.net.ServerSocketFactory;
 
 import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.HashUtil;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
@@ -47,10 +54,12 @@ import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
 import org.jboss.as.domain.client.api.ServerStatus;
 import org.jboss.as.domain.controller.DomainController;
 import org.jboss.as.domain.controller.DomainControllerImpl;
+import org.jboss.as.domain.controller.FileRepository;
 import org.jboss.as.host.controller.mgmt.DomainControllerOperationHandlerImpl;
 import org.jboss.as.protocol.Connection;
 import org.jboss.as.protocol.ConnectionHandler;
 import org.jboss.as.protocol.MessageHandler;
+import org.jboss.as.protocol.MultiplexedConnection;
 import org.jboss.as.protocol.ProtocolServer;
 import org.jboss.as.protocol.mgmt.ManagementHeaderMessageHandler;
 import org.jboss.dmr.ModelNode;
@@ -76,9 +85,13 @@ public class RemoteDomainControllerConnectionTestCase {
     Connection clientConn;
     Connection serverConn;
     RemoteDomainConnectionService service;
+    File domainDir;
+    File hostDir;
 
     @Before
     public void start() throws Exception {
+        domainDir = createTempDir("domain");
+        hostDir = createTempDir("host");
         domainController = new DomainControllerImpl(new ExtensibleConfigurationPersister() {
 
             @Override
@@ -102,7 +115,7 @@ public class RemoteDomainControllerConnectionTestCase {
                 return null;
             }
         });
-        domainControllerOperationHandlerImpl = new DomainControllerOperationHandlerImpl(ModelControllerClient.Type.HOST, domainController, new ServerConnectionHandler());
+        domainControllerOperationHandlerImpl = new DomainControllerOperationHandlerImpl(ModelControllerClient.Type.HOST, domainController, new ServerConnectionHandler(), Executors.newCachedThreadPool(), new DirectoryFileRepository(domainDir));
 
         //Add an empty profile
         ModelNode add = new ModelNode();
@@ -133,11 +146,13 @@ public class RemoteDomainControllerConnectionTestCase {
     @After
     public void stop() {
         server.stop();
+        delete(domainDir);
+        delete(hostDir);
     }
 
     @Test
     public void testRemoteDomainControllerConnection() throws Exception {
-        service = new RemoteDomainConnectionService("Test", InetAddress.getByName("localhost"), server.getBoundAddress().getPort());
+        service = createService();
         ModelNode remoteModel = service.register(new TestHostController());
         Assert.assertNotNull(remoteModel);
         Assert.assertTrue(remoteModel.hasDefined(ModelDescriptionConstants.HOST));
@@ -160,6 +175,110 @@ public class RemoteDomainControllerConnectionTestCase {
         Assert.assertEquals("success", result.require("outcome").asString());
     }
 
+    @Test
+    public void testGetFilesFromRemoteRepository() throws Exception {
+        final FileRepository domainRepository = new DirectoryFileRepository(domainDir);
+        final byte[] hash = new byte[] {0x12, 0x34, 0x56};
+        // several frames of the multiplexed connection
+        final byte[] content = new byte[100000];
+        new Random(0).nextBytes(content);
+        write(new File(domainRepository.getDeploymentRoot(hash), "content"), content);
+        write(domainRepository.getConfigurationFile("test.xml"), new byte[] {1, 2, 3});
+
+        service = createService();
+        service.register(new TestHostController());
+        final FileRepository remoteRepository = service.getRemoteFileRepository();
+
+        final File[] files = remoteRepository.getDeploymentFiles(hash);
+        Assert.assertEquals(1, files.length);
+        Assert.assertEquals(new DirectoryFileRepository(hostDir).getDeploymentRoot(hash), files[0].getParentFile());
+        Assert.assertTrue(Arrays.equals(content, read(files[0])));
+
+        final File config = remoteRepository.getConfigurationFile("test.xml");
+        Assert.assertTrue(Arrays.equals(new byte[] {1, 2, 3}, read(config)));
+
+        Assert.assertFalse(remoteRepository.getFile("missing.txt").exists());
+    }
+
+    private RemoteDomainConnectionService createService() throws Exception {
+        final RemoteDomainConnectionService service = new RemoteDomainConnectionService("Test", InetAddress.getByName("localhost"), server.getBoundAddress().getPort(), new DirectoryFileRepository(hostDir));
+        service.getChannelExecutor().inject(Executors.newCachedThreadPool());
+        return service;
+    }
+
+    private static File createTempDir(final String prefix) throws IOException {
+        final File dir = File.createTempFile(prefix, null);
+        dir.delete();
+        dir.mkdir();
+        return dir;
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static void write(final File file, final byte[] bytes) throws IOException {
+        file.getParentFile().mkdirs();
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static byte[] read(final File file) throws IOException {
+        final byte[] bytes = new byte[(int) file.length()];
+        final InputStream in = new FileInputStream(file);
+        try {
+            int read = 0;
+            while (read < bytes.length) {
+                read += in.read(bytes, read, bytes.length - read);
+            }
+        } finally {
+            in.close();
+        }
+        return bytes;
+    }
+
+    /**
+     * Lays the repository out under a single directory, like {@link LocalFileRepository} does under the domain directory.
+     */
+    private static class DirectoryFileRepository implements FileRepository {
+        private final File root;
+
+        DirectoryFileRepository(final File root) {
+            this.root = root;
+        }
+
+        @Override
+        public File getFile(final String relativePath) {
+            return new File(root, relativePath);
+        }
+
+        @Override
+        public File getConfigurationFile(final String relativePath) {
+            return new File(new File(root, "configuration"), relativePath);
+        }
+
+        @Override
+        public File[] getDeploymentFiles(final byte[] hash) {
+            return getDeploymentRoot(hash).listFiles();
+        }
+
+        @Override
+        public File getDeploymentRoot(final byte[] hash) {
+            final String hex = HashUtil.bytesToHexString(hash);
+            return new File(new File(new File(root, "content"), hex.substring(0, 2)), hex.substring(2));
+        }
+    }
+
     private class ServerConnectionHandler extends ManagementHeaderMessageHandler implements ConnectionHandler {
 
         @Override
@@ -223,7 +342,7 @@ public class RemoteDomainControllerConnectionTestCase {
         }
 
         @Override
-        public void registerRunningServer(String serverName, Connection connection) {
+        public void registerRunningServer(String serverName, MultiplexedConnection connection) {
         }
 
         @Override
@@ -75,7 +75,7 @@ public class ParsedKernelDeploymentProcessor implements DeploymentUnitProcessor
         final Module module = phaseContext.getDeploymentUnit().getAttachment(Attachments.MODULE);
         if(module == null)
             throw new DeploymentUnitProcessingException("Failed to get module attachment for " + phaseContext.getDeploymentUnit());
-        final DeploymentReflectionIndex index = phaseContext.getAttachment(Attachments.REFLECTION_INDEX);
+        final DeploymentReflectionIndex index = phaseContext.getDeploymentUnit().getAttachment(Attachments.REFLECTION_INDEX);
         final List<BeanMetaDataConfig> beanConfigs = kdXmlDescriptor.getBeans();
         final ServiceTarget serviceTarget = phaseContext.getServiceTarget();
         for(final BeanMetaDataConfig beanConfig : beanConfigs) {
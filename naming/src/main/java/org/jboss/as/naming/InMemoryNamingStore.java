@@ -22,8 +22,6 @@
 
 package org.jboss.as.naming;
 
-import org.jboss.as.naming.util.FastCopyHashMap;
-
 import javax.naming.Binding;
 import javax.naming.CannotProceedException;
 import javax.naming.CompositeName;
@@ -38,10 +36,10 @@ import javax.naming.event.NamingEvent;
 import javax.naming.event.NamingListener;
 import javax.naming.spi.ResolveResult;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Hashtable;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.jboss.as.naming.util.NamingUtils.asReference;
 import static org.jboss.as.naming.util.NamingUtils.cannotProceedException;
@@ -72,6 +70,9 @@ public class InMemoryNamingStore implements NamingStore {
     /* Naming Event Coordinator */
     private final NamingEventCoordinator eventCoordinator;
 
+    /* Resolved lookup results, invalidated by every change to the tree */
+    private final NamingLookupCache lookupCache = new NamingLookupCache();
+
     /**
      * Construct instance with no event support.
      */
@@ -204,6 +205,25 @@ public class InMemoryNamingStore implements NamingStore {
      */
     public void close() throws NamingException {
         root.clear();
+        lookupCache.invalidate();
+    }
+
+    /**
+     * Get the cache of resolved lookup results for this store.  The cache is disabled unless enabled explicitly.
+     *
+     * @return The lookup cache
+     */
+    public NamingLookupCache getLookupCache() {
+        return lookupCache;
+    }
+
+    /**
+     * Get the event coordinator of this store.
+     *
+     * @return The event coordinator, or {@code null} if the store has no event support
+     */
+    public NamingEventCoordinator getEventCoordinator() {
+        return eventCoordinator;
     }
 
     /**
@@ -233,6 +253,7 @@ public class InMemoryNamingStore implements NamingStore {
     }
 
     private void fireEvent(final Context callingContext, final Name name, final Binding existingBinding, final Binding newBinding, final int type, final String changeInfo) {
+        lookupCache.invalidate();
         final NamingEventCoordinator coordinator = this.eventCoordinator;
         if (coordinator != null && callingContext instanceof EventContext) {
             coordinator.fireEvent(EventContext.class.cast(callingContext), name, existingBinding, newBinding, type, changeInfo, NamingEventCoordinator.DEFAULT_SCOPES);
@@ -269,42 +290,37 @@ public class InMemoryNamingStore implements NamingStore {
     }
 
     private class ContextNode extends TreeNode {
-        private volatile Map<String, TreeNode> children = Collections.emptyMap();
+        /*
+         * Lookups read the children without locking, and binds only lock the part of the map they change, so binding
+         * into a context no longer copies all of its children.  The concurrency level is kept low since contexts are
+         * numerous and most of them are only bound into by one deployment at a time.
+         */
+        private final ConcurrentMap<String, TreeNode> children = new ConcurrentHashMap<String, TreeNode>(8, 0.75f, 2);
 
         private ContextNode(final Name fullName, final NamingContext context) {
             super(fullName, new Binding(getLastComponent(fullName), Context.class.getName(), context));
         }
 
-        private synchronized void addChild(final String childName, final TreeNode childNode) throws NamingException {
-            if (children.containsKey(childName)) {
+        private void addChild(final String childName, final TreeNode childNode) throws NamingException {
+            if (children.putIfAbsent(childName, childNode) != null) {
                 throw nameAlreadyBoundException(fullName.add(childName));
             }
-            final Map<String, TreeNode> copy = new FastCopyHashMap<String, TreeNode>(children);
-            copy.put(childName, childNode);
-            children = copy;
         }
 
-        private synchronized TreeNode replaceChild(final String childName, final TreeNode childNode) throws NamingException {
-            final Map<String, TreeNode> copy = new FastCopyHashMap<String, TreeNode>(children);
-            final TreeNode existing = copy.put(childName, childNode);
-            children = copy;
-            return existing;
+        private TreeNode replaceChild(final String childName, final TreeNode childNode) throws NamingException {
+            return children.put(childName, childNode);
         }
 
-        private synchronized TreeNode removeChild(final String childName) throws NameNotFoundException {
-            if (!children.containsKey(childName)) {
+        private TreeNode removeChild(final String childName) throws NameNotFoundException {
+            final TreeNode existing = children.remove(childName);
+            if (existing == null) {
                 throw nameNotFoundException(childName, fullName);
             }
-            final Map<String, TreeNode> copy = new FastCopyHashMap<String, TreeNode>(children);
-            final TreeNode existing = copy.remove(childName);
-            children = copy;
             return existing;
         }
 
-        private synchronized void clear() {
-            final Map<String, TreeNode> copy = new FastCopyHashMap<String, TreeNode>(children);
-            copy.clear();
-            children = copy;
+        private void clear() {
+            children.clear();
         }
 
         protected final <T> T accept(NodeVisitor<T> visitor) throws NamingException {
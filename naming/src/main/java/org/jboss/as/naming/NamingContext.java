@@ -69,6 +69,12 @@ public class NamingContext implements EventContext {
      */
     private static NamingStore ACTIVE_NAMING_STORE = new InMemoryNamingStore();
 
+    /*
+     * Set while a link is resolved, and flagged when the link target is not cacheable, e.g. because an object factory
+     * produced it, so that the lookup of the link is not cached either.
+     */
+    private static final ThreadLocal<boolean[]> LINK_TARGET_UNCACHEABLE = new ThreadLocal<boolean[]>();
+
     /**
      * Set the active naming store
      *
@@ -172,12 +178,23 @@ public class NamingContext implements EventContext {
         }
 
         final Name absoluteName = getAbsoluteName(name);
+        final NamingLookupCache lookupCache = getLookupCache();
+        long generation = 0;
+        if (lookupCache != null) {
+            final Object cached = lookupCache.get(absoluteName);
+            if (cached != null) {
+                return cached;
+            }
+            generation = lookupCache.getGeneration();
+        }
+        boolean cacheable = lookupCache != null;
         Object result;
         try {
             result = namingStore.lookup(absoluteName);
         } catch(CannotProceedException cpe) {
             final Context continuationContext = NamingManager.getContinuationContext(cpe);
             result = continuationContext.lookup(cpe.getRemainingName());
+            cacheable = false;
         }
 
         if (result instanceof ResolveResult) {
@@ -194,15 +211,37 @@ public class NamingContext implements EventContext {
                 throw notAContextException(absoluteName.getPrefix(absoluteName.size() - resolveResult.getRemainingName().size()));
             }
             final Context namingContext = cast(context);
+            markLinkTargetUncacheable();
             return namingContext.lookup(resolveResult.getRemainingName());
         } else if (result instanceof LinkRef) {
-            result = resolveLink(result);
+            cacheable = cacheable && isCacheableLink(result);
+            final boolean[] outer = LINK_TARGET_UNCACHEABLE.get();
+            final boolean[] targetUncacheable = new boolean[1];
+            LINK_TARGET_UNCACHEABLE.set(targetUncacheable);
+            try {
+                result = resolveLink(result);
+            } finally {
+                if (outer == null) {
+                    LINK_TARGET_UNCACHEABLE.remove();
+                } else {
+                    outer[0] |= targetUncacheable[0];
+                    LINK_TARGET_UNCACHEABLE.set(outer);
+                }
+            }
+            cacheable = cacheable && !targetUncacheable[0];
         } else if (result instanceof Reference) {
+            // an object factory, e.g. for a service or a component, may produce a new object for every lookup
+            cacheable = false;
             result = getObjectInstance(result, absoluteName, environment);
             if (result instanceof LinkRef) {
                 result = resolveLink(result);
             }
         }
+        if (cacheable) {
+            lookupCache.put(absoluteName, generation, result);
+        } else {
+            markLinkTargetUncacheable();
+        }
         return result;
     }
 
@@ -463,6 +502,33 @@ public class NamingContext implements EventContext {
         }
     }
 
+    private static void markLinkTargetUncacheable() {
+        final boolean[] linkTargetUncacheable = LINK_TARGET_UNCACHEABLE.get();
+        if (linkTargetUncacheable != null) {
+            linkTargetUncacheable[0] = true;
+        }
+    }
+
+    private NamingLookupCache getLookupCache() {
+        if (namingStore instanceof InMemoryNamingStore) {
+            final NamingLookupCache lookupCache = ((InMemoryNamingStore) namingStore).getLookupCache();
+            if (lookupCache.isEnabled()) {
+                return lookupCache;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Links relative to this context resolve against its prefix rather than the absolute name, and links into the
+     * java:comp, java:module and java:app namespaces depend on the calling deployment.
+     */
+    private static boolean isCacheableLink(final Object link) throws NamingException {
+        final String linkName = ((LinkRef) link).getLinkName();
+        return !linkName.startsWith("./") && !linkName.startsWith("java:comp") && !linkName.startsWith("java:module")
+                && !linkName.startsWith("java:app");
+    }
+
     private Object getObjectInstance(final Object object, final Name name, final Hashtable environment) throws NamingException {
         try {
             final ObjectFactoryBuilder factoryBuilder = ObjectFactoryBuilder.INSTANCE;
@@ -23,6 +23,7 @@
 package org.jboss.as.naming;
 
 import org.jboss.as.naming.util.FastCopyHashMap;
+import org.jboss.logging.Logger;
 
 import javax.naming.Binding;
 import javax.naming.Name;
@@ -31,31 +32,100 @@ import javax.naming.event.NamespaceChangeListener;
 import javax.naming.event.NamingEvent;
 import javax.naming.event.NamingListener;
 import javax.naming.event.ObjectChangeListener;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Coordinator responsible for passing @(code NamingEvent} instances to registered @{code NamingListener} instances.  Two
  * maps are used to managed a mapping between a listener and its configuration as well as a mapping from target name to a list
  * of listener configurations.  These maps are updated atomically on listener add and remove.
+ * <p/>
+ * Each listener has a queue of pending events of its own which is drained by one task at a time, so a listener receives
+ * its events in order while a slow listener only delays itself.  A queue is bounded; firing an event for a listener with
+ * a full queue blocks until the listener catches up, unless the event is fired from a listener callback.  A change event
+ * for a name which already has a pending change event in the queue is merged into the pending event.  If the executor
+ * rejects a dispatch task, the listener's events are delivered on the thread which fired or was delivering them.
  *
  * @author John E. Bailey
  */
 public class NamingEventCoordinator {
+    private static final Logger log = Logger.getLogger("org.jboss.as.naming");
+
+    /**
+     * The default maximum number of pending events per listener.
+     */
+    public static final int DEFAULT_MAX_QUEUED_EVENTS = 1000;
+
+    /* The maximum number of events a dispatch task delivers before giving other listeners a turn */
+    private static final int DISPATCH_BATCH_SIZE = 64;
+
+    /* Set while the current thread is delivering events, so that listeners firing events are never blocked */
+    private static final ThreadLocal<Boolean> DISPATCHING = new ThreadLocal<Boolean>();
+
     private volatile Map<TargetScope, List<ListenerHolder>> holdersByTarget = Collections.emptyMap();
     private volatile Map<NamingListener, ListenerHolder> holdersByListener = Collections.emptyMap();
 
-    private final Executor executor = Executors.newSingleThreadExecutor();
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final int maxQueuedEvents;
+
+    private final AtomicInteger queuedEvents = new AtomicInteger();
+    private final AtomicLong dispatchedEvents = new AtomicLong();
+    private final AtomicLong coalescedEvents = new AtomicLong();
+    private final AtomicLong blockedFirings = new AtomicLong();
 
     static final Integer[] DEFAULT_SCOPES = {EventContext.OBJECT_SCOPE, EventContext.ONELEVEL_SCOPE, EventContext.SUBTREE_SCOPE};
 
+    /**
+     * Construct a coordinator which delivers events on threads of its own.
+     */
+    public NamingEventCoordinator() {
+        this(null, DEFAULT_MAX_QUEUED_EVENTS);
+    }
+
+    /**
+     * Construct a coordinator which delivers events with the provided executor.
+     *
+     * @param executor The executor to deliver events with, or {@code null} to deliver them on threads of its own
+     * @param maxQueuedEvents The maximum number of pending events per listener
+     */
+    public NamingEventCoordinator(final Executor executor, final int maxQueuedEvents) {
+        if (maxQueuedEvents < 1) {
+            throw new IllegalArgumentException("maxQueuedEvents must be at least 1");
+        }
+        if (executor == null) {
+            ownedExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                public Thread newThread(final Runnable r) {
+                    final Thread thread = new Thread(r, "Naming event dispatcher " + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            this.executor = ownedExecutor;
+        } else {
+            ownedExecutor = null;
+            this.executor = executor;
+        }
+        this.maxQueuedEvents = maxQueuedEvents;
+    }
+
     /**
      * Add a listener to the coordinator with a given target name and event scope.  This information is used when an
      * event is fired to determine whether or not to fire this listener.
@@ -103,6 +173,7 @@ public class NamingEventCoordinator {
         final Map<NamingListener, ListenerHolder> byListenerCopy = new FastCopyHashMap<NamingListener, ListenerHolder>(holdersByListener);
         byListenerCopy.remove(namingListener);
         holdersByListener = byListenerCopy;
+        holder.discard();
 
         final Map<TargetScope, List<ListenerHolder>> byTargetCopy = new FastCopyHashMap<TargetScope, List<ListenerHolder>>(holdersByTarget);
         for (TargetScope targetScope : holder.targets) {
@@ -170,48 +241,91 @@ public class NamingEventCoordinator {
             }
         }
 
-        executor.execute(new FireEventTask(holdersToFire, event));
+        for (ListenerHolder holder : holdersToFire) {
+            holder.enqueue(target, event);
+        }
     }
 
-    private class FireEventTask implements Runnable {
-        private final Set<ListenerHolder> listenerHolders;
-        private final NamingEvent event;
-
-        private FireEventTask(Set<ListenerHolder> listenerHolders, NamingEvent event) {
-            this.listenerHolders = listenerHolders;
-            this.event = event;
+    /**
+     * Stop delivering events.  Pending events are discarded, and the threads of the coordinator are stopped if it has
+     * threads of its own.
+     */
+    public void close() {
+        for (ListenerHolder holder : holdersByListener.values()) {
+            holder.discard();
         }
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
 
-        @Override
-        public void run() {
-            for (ListenerHolder holder : listenerHolders) {
-                final NamingListener listener = holder.listener;
-                switch (event.getType()) {
-                    case NamingEvent.OBJECT_ADDED:
-                        if (listener instanceof NamespaceChangeListener)
-                            ((NamespaceChangeListener) listener).objectAdded(event);
-                        break;
-                    case NamingEvent.OBJECT_REMOVED:
-                        if (listener instanceof NamespaceChangeListener)
-                            ((NamespaceChangeListener) listener).objectRemoved(event);
-                        break;
-                    case NamingEvent.OBJECT_RENAMED:
-                        if (listener instanceof NamespaceChangeListener)
-                            ((NamespaceChangeListener) listener).objectRenamed(event);
-                        break;
-                    case NamingEvent.OBJECT_CHANGED:
-                        if (listener instanceof ObjectChangeListener)
-                            ((ObjectChangeListener) listener).objectChanged(event);
-                        break;
-                }
-            }
+    /**
+     * Get the number of events waiting to be delivered to listeners.
+     *
+     * @return The number of queued events
+     */
+    public int getQueuedEvents() {
+        return queuedEvents.get();
+    }
+
+    /**
+     * Get the number of events delivered to listeners.
+     *
+     * @return The number of dispatched events
+     */
+    public long getDispatchedEvents() {
+        return dispatchedEvents.get();
+    }
+
+    /**
+     * Get the number of events merged into a pending event for the same name.
+     *
+     * @return The number of coalesced events
+     */
+    public long getCoalescedEvents() {
+        return coalescedEvents.get();
+    }
+
+    /**
+     * Get the number of times firing an event had to wait for a listener with a full queue.
+     *
+     * @return The number of blocked firings
+     */
+    public long getBlockedFirings() {
+        return blockedFirings.get();
+    }
+
+    private static void dispatch(final NamingListener listener, final NamingEvent event) {
+        switch (event.getType()) {
+            case NamingEvent.OBJECT_ADDED:
+                if (listener instanceof NamespaceChangeListener)
+                    ((NamespaceChangeListener) listener).objectAdded(event);
+                break;
+            case NamingEvent.OBJECT_REMOVED:
+                if (listener instanceof NamespaceChangeListener)
+                    ((NamespaceChangeListener) listener).objectRemoved(event);
+                break;
+            case NamingEvent.OBJECT_RENAMED:
+                if (listener instanceof NamespaceChangeListener)
+                    ((NamespaceChangeListener) listener).objectRenamed(event);
+                break;
+            case NamingEvent.OBJECT_CHANGED:
+                if (listener instanceof ObjectChangeListener)
+                    ((ObjectChangeListener) listener).objectChanged(event);
+                break;
         }
     }
 
-    private class ListenerHolder {
+    private class ListenerHolder implements Runnable {
         private volatile Set<TargetScope> targets = new HashSet<TargetScope>();
         private final NamingListener listener;
 
+        /* Guarded by this holder */
+        private final Queue<PendingEvent> pending = new ArrayDeque<PendingEvent>();
+        private final Map<String, PendingEvent> lastPendingByTarget = new HashMap<String, PendingEvent>();
+        private boolean scheduled;
+        private boolean discarded;
+
         private ListenerHolder(final NamingListener listener, final TargetScope initialTarget) {
             this.listener = listener;
             addTarget(initialTarget);
@@ -220,6 +334,134 @@ public class NamingEventCoordinator {
         private synchronized void addTarget(final TargetScope targetScope) {
             targets.add(targetScope);
         }
+
+        private void enqueue(final String target, final NamingEvent event) {
+            synchronized (this) {
+                if (discarded) {
+                    return;
+                }
+                final PendingEvent last = lastPendingByTarget.get(target);
+                if (last != null && last.event.getType() == NamingEvent.OBJECT_CHANGED && event.getType() == NamingEvent.OBJECT_CHANGED) {
+                    last.event = new NamingEvent(event.getEventContext(), NamingEvent.OBJECT_CHANGED, event.getNewBinding(), last.event.getOldBinding(), event.getChangeInfo());
+                    coalescedEvents.incrementAndGet();
+                    return;
+                }
+                if (pending.size() >= maxQueuedEvents && DISPATCHING.get() == null) {
+                    blockedFirings.incrementAndGet();
+                    boolean interrupted = false;
+                    while (pending.size() >= maxQueuedEvents && !discarded) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                    if (interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (discarded) {
+                        return;
+                    }
+                }
+                final PendingEvent pendingEvent = new PendingEvent(target, event);
+                pending.add(pendingEvent);
+                lastPendingByTarget.put(target, pendingEvent);
+                queuedEvents.incrementAndGet();
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                log.debugf("Executor rejected naming event dispatch for listener %s, delivering on the firing thread", listener);
+                run();
+            }
+        }
+
+        private synchronized void discard() {
+            discarded = true;
+            queuedEvents.addAndGet(-pending.size());
+            pending.clear();
+            lastPendingByTarget.clear();
+            scheduled = false;
+            notifyAll();
+        }
+
+        public void run() {
+            while (deliverBatch()) {
+                // more events are pending; give other listeners a turn before delivering them
+                try {
+                    executor.execute(this);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    log.debugf("Executor rejected naming event dispatch for listener %s, delivering on the current thread", listener);
+                }
+            }
+        }
+
+        /**
+         * Deliver up to a batch of pending events.
+         *
+         * @return {@code true} if more events are pending, in which case the holder is still scheduled
+         */
+        private boolean deliverBatch() {
+            // a listener firing an event may end up delivering it here when the executor rejects the dispatch
+            final boolean nested = DISPATCHING.get() != null;
+            if (!nested) {
+                DISPATCHING.set(Boolean.TRUE);
+            }
+            try {
+                for (int i = 0; i < DISPATCH_BATCH_SIZE; i++) {
+                    final NamingEvent event;
+                    synchronized (this) {
+                        final PendingEvent next = pending.poll();
+                        if (next == null) {
+                            scheduled = false;
+                            return false;
+                        }
+                        if (lastPendingByTarget.get(next.target) == next) {
+                            lastPendingByTarget.remove(next.target);
+                        }
+                        queuedEvents.decrementAndGet();
+                        notifyAll();
+                        event = next.event;
+                    }
+                    try {
+                        dispatch(listener, event);
+                    } catch (Throwable t) {
+                        log.errorf(t, "Naming listener %s failed to handle %s", listener, event);
+                    }
+                    dispatchedEvents.incrementAndGet();
+                }
+            } finally {
+                if (!nested) {
+                    DISPATCHING.remove();
+                }
+            }
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    scheduled = false;
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class PendingEvent {
+        private final String target;
+        private NamingEvent event;
+
+        private PendingEvent(final String target, final NamingEvent event) {
+            this.target = target;
+            this.event = event;
+        }
     }
 
     private class TargetScope {
@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.naming;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.naming.Name;
+
+/**
+ * Cache of resolved lookup results for the names of a {@link InMemoryNamingStore}, keyed by absolute name.  Any change
+ * to the store invalidates the whole cache, since a change to one binding can change the result of looking up other
+ * names which resolve through it, e.g. with a {@code LinkRef}.
+ * <p/>
+ * Invalidation is driven synchronously by the store rather than by naming events, which are only fired for event
+ * contexts and are delivered asynchronously.  Each entry records the generation of the store it was resolved against
+ * and is ignored once the store has changed, so a lookup racing with a bind never caches a stale result.
+ */
+public class NamingLookupCache {
+
+    private static final int MAX_ENTRIES = 4096;
+
+    private final ConcurrentMap<Name, Entry> entries = new ConcurrentHashMap<Name, Entry>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile boolean enabled;
+
+    /**
+     * Determine whether lookups should use this cache.
+     *
+     * @return {@code true} if the cache is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable or disable the cache.  Disabling the cache discards its entries.
+     *
+     * @param enabled {@code true} to enable the cache
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Get the current generation of the store.  Callers read the generation before looking up a name in the store and
+     * pass it to {@link #put(Name, long, Object)} with the result.
+     *
+     * @return The current generation
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Get the cached lookup result for a name.
+     *
+     * @param name The absolute name
+     * @return The cached result, or {@code null} if there is none
+     */
+    public Object get(final Name name) {
+        final Entry entry = entries.get(name);
+        if (entry != null && entry.generation == generation.get()) {
+            hits.incrementAndGet();
+            return entry.value;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Cache the lookup result for a name.  The result is discarded if the store changed since the given generation.
+     *
+     * @param name The absolute name
+     * @param generation The generation of the store read before the lookup
+     * @param value The lookup result
+     */
+    public void put(final Name name, final long generation, final Object value) {
+        if (value == null || generation != this.generation.get()) {
+            return;
+        }
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.clear();
+        }
+        entries.put(name, new Entry(generation, value));
+    }
+
+    /**
+     * Invalidate all cached results.  Called by the store after every change to its bindings.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Get the number of lookups answered from the cache.
+     *
+     * @return The number of hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of lookups which could not be answered from the cache.
+     *
+     * @return The number of misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static final class Entry {
+        private final long generation;
+        private final Object value;
+
+        private Entry(final long generation, final Object value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+}
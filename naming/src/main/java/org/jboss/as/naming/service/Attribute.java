@@ -36,6 +36,9 @@ public enum Attribute {
     BIND_APP_CONTEXT("bind-app-context"),
     BIND_MODULE_CONTEXT("bind-module-context"),
     BIND_COMP_CONTEXT("bind-comp-context"),
+    LOOKUP_CACHE("lookup-cache"),
+    EVENT_EXECUTOR("event-executor"),
+    EVENT_QUEUE_SIZE("event-queue-size"),
     ;
     private final String name;
 
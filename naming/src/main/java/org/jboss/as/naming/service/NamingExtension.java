@@ -64,6 +64,12 @@ public class NamingExtension implements Extension {
 
     public static final String SUBSYSTEM_NAME = "naming";
     public static final String NAMESPACE = "urn:jboss:domain:naming:1.0";
+    static final String LOOKUP_CACHE = Attribute.LOOKUP_CACHE.getLocalName();
+    static final String EVENT_EXECUTOR = Attribute.EVENT_EXECUTOR.getLocalName();
+    static final String EVENT_QUEUE_SIZE = Attribute.EVENT_QUEUE_SIZE.getLocalName();
+
+    /* The attributes of the subsystem, which are all optional */
+    static final String[] ATTRIBUTES = { LOOKUP_CACHE, EVENT_EXECUTOR, EVENT_QUEUE_SIZE };
     private static final NamingSubsystemParser parser = new NamingSubsystemParser();
 
     /** {@inheritDoc} */
@@ -73,6 +79,9 @@ public class NamingExtension implements Extension {
         final ModelNodeRegistration registration = subsystem.registerSubsystemModel(NamingSubsystemProviders.SUBSYSTEM);
         registration.registerOperationHandler(ADD, NamingSubsystemAdd.INSTANCE, NamingSubsystemProviders.SUBSYSTEM_ADD, false);
         registration.registerOperationHandler(DESCRIBE, NamingSubsystemDescribeHandler.INSTANCE, NamingSubsystemDescribeHandler.INSTANCE, false);
+        for (String metric : NamingSubsystemMetrics.METRICS) {
+            registration.registerMetric(metric, NamingSubsystemMetrics.INSTANCE);
+        }
         subsystem.registerXMLElementWriter(parser);
     }
 
@@ -97,16 +106,43 @@ public class NamingExtension implements Extension {
             //TODO seems to be a problem with empty elements cleaning up the queue in FormattingXMLStreamWriter.runAttrQueue
             //context.startSubsystemElement(NewNamingExtension.NAMESPACE, true);
             context.startSubsystemElement(NamingExtension.NAMESPACE, false);
+            final ModelNode node = context.getModelNode();
+            for (String attribute : ATTRIBUTES) {
+                if (node.hasDefined(attribute)) {
+                    writer.writeAttribute(attribute, node.get(attribute).asString());
+                }
+            }
             writer.writeEndElement();
         }
 
         /** {@inheritDoc} */
         @Override
         public void readElement(XMLExtendedStreamReader reader, List<ModelNode> list) throws XMLStreamException {
-            ParseUtils.requireNoAttributes(reader);
+            final ModelNode subsystem = createAddOperation();
+            final int count = reader.getAttributeCount();
+            for (int i = 0; i < count; i++) {
+                ParseUtils.requireNoNamespaceAttribute(reader, i);
+                final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+                switch (attribute) {
+                    case LOOKUP_CACHE: {
+                        subsystem.get(LOOKUP_CACHE).set(Boolean.parseBoolean(reader.getAttributeValue(i)));
+                        break;
+                    }
+                    case EVENT_EXECUTOR: {
+                        subsystem.get(EVENT_EXECUTOR).set(reader.getAttributeValue(i));
+                        break;
+                    }
+                    case EVENT_QUEUE_SIZE: {
+                        subsystem.get(EVENT_QUEUE_SIZE).set(ParseUtils.parseBoundedIntegerAttribute(reader, i, 1, Integer.MAX_VALUE));
+                        break;
+                    }
+                    default:
+                        throw ParseUtils.unexpectedAttribute(reader, i);
+                }
+            }
             ParseUtils.requireNoContent(reader);
 
-            list.add(createAddOperation());
+            list.add(subsystem);
         }
     }
 
@@ -114,8 +150,15 @@ public class NamingExtension implements Extension {
         static final NamingSubsystemDescribeHandler INSTANCE = new NamingSubsystemDescribeHandler();
         @Override
         public Cancellable execute(OperationContext context, ModelNode operation, ResultHandler resultHandler) {
+            final ModelNode add = createAddOperation();
+            final ModelNode model = context.getSubModel();
+            for (String attribute : ATTRIBUTES) {
+                if (model.hasDefined(attribute)) {
+                    add.get(attribute).set(model.get(attribute));
+                }
+            }
             ModelNode node = new ModelNode();
-            node.add(createAddOperation());
+            node.add(add);
 
             resultHandler.handleResultFragment(Util.NO_LOCATION, node);
             resultHandler.handleResultComplete(new ModelNode());
@@ -22,6 +22,8 @@
 
 package org.jboss.as.naming.service;
 
+import java.util.concurrent.Executor;
+
 import javax.naming.NamingException;
 
 import org.jboss.as.naming.InMemoryNamingStore;
@@ -29,11 +31,13 @@ import org.jboss.as.naming.NamingContext;
 import org.jboss.as.naming.NamingEventCoordinator;
 import org.jboss.as.naming.NamingStore;
 import org.jboss.logging.Logger;
+import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
 
 /**
  * Service responsible for creating and managing the life-cycle of the Naming Server.
@@ -45,6 +49,9 @@ public class NamingService implements Service<NamingStore> {
     private static final Logger log = Logger.getLogger("org.jboss.as.naming");
     private NamingStore namingStore;
     private final boolean supportEvents;
+    private final boolean lookupCache;
+    private final int maxQueuedEvents;
+    private final InjectedValue<Executor> eventExecutor = new InjectedValue<Executor>();
 
     /**
      * Construct a new instance.
@@ -52,7 +59,30 @@ public class NamingService implements Service<NamingStore> {
      * @param supportEvents Should the naming impl support events.
      */
     public NamingService(final boolean supportEvents) {
+        this(supportEvents, false);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param supportEvents Should the naming impl support events.
+     * @param lookupCache Should lookup results be cached until the bindings change.
+     */
+    public NamingService(final boolean supportEvents, final boolean lookupCache) {
+        this(supportEvents, lookupCache, NamingEventCoordinator.DEFAULT_MAX_QUEUED_EVENTS);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param supportEvents Should the naming impl support events.
+     * @param lookupCache Should lookup results be cached until the bindings change.
+     * @param maxQueuedEvents The maximum number of naming events queued for a listener.
+     */
+    public NamingService(final boolean supportEvents, final boolean lookupCache, final int maxQueuedEvents) {
         this.supportEvents = supportEvents;
+        this.lookupCache = lookupCache;
+        this.maxQueuedEvents = maxQueuedEvents;
     }
 
     /**
@@ -64,10 +94,13 @@ public class NamingService implements Service<NamingStore> {
     public synchronized void start(StartContext context) throws StartException {
         log.info("Starting Naming Service ");
         try {
+            final InMemoryNamingStore namingStore;
             if(supportEvents)
-                namingStore = new InMemoryNamingStore(new NamingEventCoordinator());
+                namingStore = new InMemoryNamingStore(new NamingEventCoordinator(eventExecutor.getOptionalValue(), maxQueuedEvents));
             else
                 namingStore = new InMemoryNamingStore();
+            namingStore.getLookupCache().setEnabled(lookupCache);
+            this.namingStore = namingStore;
             NamingContext.setActiveNamingStore(namingStore);
         } catch (Throwable t) {
             throw new StartException("Failed to start naming server", t);
@@ -85,9 +118,26 @@ public class NamingService implements Service<NamingStore> {
             namingStore.close();
         } catch (NamingException e) {
             throw new RuntimeException(e);
+        } finally {
+            if (namingStore instanceof InMemoryNamingStore) {
+                final NamingEventCoordinator eventCoordinator = ((InMemoryNamingStore) namingStore).getEventCoordinator();
+                if (eventCoordinator != null) {
+                    eventCoordinator.close();
+                }
+            }
         }
     }
 
+    /**
+     * Get the injector for the executor naming events are delivered with.  If nothing is injected, the event
+     * coordinator delivers events on threads of its own.
+     *
+     * @return The event executor injector
+     */
+    public Injector<Executor> getEventExecutorInjector() {
+        return eventExecutor;
+    }
+
     /**
      * Get the naming store value.
      *
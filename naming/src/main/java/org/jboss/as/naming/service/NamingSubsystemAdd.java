@@ -24,6 +24,8 @@ package org.jboss.as.naming.service;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
+import java.util.concurrent.Executor;
+
 import javax.management.MBeanServer;
 import javax.naming.Context;
 import javax.naming.Reference;
@@ -35,11 +37,13 @@ import org.jboss.as.controller.ResultHandler;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.naming.InitialContextFactoryService;
 import org.jboss.as.naming.NamingContext;
+import org.jboss.as.naming.NamingEventCoordinator;
 import org.jboss.as.naming.context.NamespaceObjectFactory;
 import org.jboss.as.naming.context.ObjectFactoryBuilder;
 import org.jboss.as.server.BootOperationContext;
 import org.jboss.as.server.BootOperationHandler;
 import org.jboss.as.server.deployment.Phase;
+import org.jboss.as.threads.ThreadsServices;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
 import org.jboss.msc.service.ServiceBuilder;
@@ -63,6 +67,9 @@ public class NamingSubsystemAdd implements ModelAddOperationHandler, BootOperati
     public Cancellable execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
 
         final ModelNode compensatingOperation = Util.getResourceRemoveOperation(operation.require(OP_ADDR));
+        final boolean lookupCache = operation.hasDefined(NamingExtension.LOOKUP_CACHE) && operation.get(NamingExtension.LOOKUP_CACHE).asBoolean();
+        final String eventExecutor = operation.hasDefined(NamingExtension.EVENT_EXECUTOR) ? operation.get(NamingExtension.EVENT_EXECUTOR).asString() : null;
+        final int eventQueueSize = operation.hasDefined(NamingExtension.EVENT_QUEUE_SIZE) ? operation.get(NamingExtension.EVENT_QUEUE_SIZE).asInt() : NamingEventCoordinator.DEFAULT_MAX_QUEUED_EVENTS;
 
         if(context instanceof BootOperationContext) {
             final BootOperationContext updateContext = (BootOperationContext) context;
@@ -77,7 +84,12 @@ public class NamingSubsystemAdd implements ModelAddOperationHandler, BootOperati
 
             // Create the Naming Service
             final ServiceTarget target = updateContext.getServiceTarget();
-            target.addService(NamingService.SERVICE_NAME, new NamingService(true)).install();
+            final NamingService namingService = new NamingService(true, lookupCache, eventQueueSize);
+            final ServiceBuilder<?> namingServiceBuilder = target.addService(NamingService.SERVICE_NAME, namingService);
+            if (eventExecutor != null) {
+                namingServiceBuilder.addDependency(ThreadsServices.executorName(eventExecutor), Executor.class, namingService.getEventExecutorInjector());
+            }
+            namingServiceBuilder.install();
 
             // Create java: context service
             final JavaContextService javaContextService = new JavaContextService();
@@ -103,7 +115,13 @@ public class NamingSubsystemAdd implements ModelAddOperationHandler, BootOperati
                 .install();
         }
 
-        context.getSubModel().setEmptyObject();
+        final ModelNode subModel = context.getSubModel();
+        subModel.setEmptyObject();
+        for (String attribute : NamingExtension.ATTRIBUTES) {
+            if (operation.hasDefined(attribute)) {
+                subModel.get(attribute).set(operation.get(attribute));
+            }
+        }
 
         resultHandler.handleResultComplete(compensatingOperation);
 
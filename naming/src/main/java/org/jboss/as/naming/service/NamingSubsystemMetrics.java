@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.naming.service;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.naming.InMemoryNamingStore;
+import org.jboss.as.naming.NamingEventCoordinator;
+import org.jboss.as.naming.NamingLookupCache;
+import org.jboss.as.server.RuntimeOperationContext;
+import org.jboss.as.server.RuntimeOperationHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Handler for the lookup cache and naming event metrics of the naming subsystem.
+ */
+class NamingSubsystemMetrics implements ModelQueryOperationHandler, RuntimeOperationHandler {
+
+    static final NamingSubsystemMetrics INSTANCE = new NamingSubsystemMetrics();
+
+    static final String LOOKUP_CACHE_HITS = "lookup-cache-hits";
+    static final String LOOKUP_CACHE_MISSES = "lookup-cache-misses";
+    static final String QUEUED_EVENTS = "queued-events";
+    static final String DISPATCHED_EVENTS = "dispatched-events";
+    static final String COALESCED_EVENTS = "coalesced-events";
+    static final String BLOCKED_EVENT_FIRINGS = "blocked-event-firings";
+
+    static final String[] METRICS = { LOOKUP_CACHE_HITS, LOOKUP_CACHE_MISSES, QUEUED_EVENTS, DISPATCHED_EVENTS, COALESCED_EVENTS,
+            BLOCKED_EVENT_FIRINGS };
+
+    static final String[] NO_LOCATION = new String[0];
+
+    /** {@inheritDoc} */
+    @Override
+    public Cancellable execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
+        final String attributeName = operation.require(NAME).asString();
+        final ModelNode result = new ModelNode();
+        if (context instanceof RuntimeOperationContext) {
+            final RuntimeOperationContext runtimeContext = (RuntimeOperationContext) context;
+            final ServiceController<?> controller = runtimeContext.getServiceRegistry().getService(NamingService.SERVICE_NAME);
+            final Object namingStore = controller != null ? controller.getValue() : null;
+            if (namingStore instanceof InMemoryNamingStore) {
+                final NamingLookupCache lookupCache = ((InMemoryNamingStore) namingStore).getLookupCache();
+                final NamingEventCoordinator eventCoordinator = ((InMemoryNamingStore) namingStore).getEventCoordinator();
+                if (LOOKUP_CACHE_HITS.equals(attributeName)) {
+                    result.set(lookupCache.getHits());
+                } else if (LOOKUP_CACHE_MISSES.equals(attributeName)) {
+                    result.set(lookupCache.getMisses());
+                } else if (QUEUED_EVENTS.equals(attributeName)) {
+                    result.set(eventCoordinator != null ? eventCoordinator.getQueuedEvents() : 0);
+                } else if (DISPATCHED_EVENTS.equals(attributeName)) {
+                    result.set(eventCoordinator != null ? eventCoordinator.getDispatchedEvents() : 0L);
+                } else if (COALESCED_EVENTS.equals(attributeName)) {
+                    result.set(eventCoordinator != null ? eventCoordinator.getCoalescedEvents() : 0L);
+                } else if (BLOCKED_EVENT_FIRINGS.equals(attributeName)) {
+                    result.set(eventCoordinator != null ? eventCoordinator.getBlockedFirings() : 0L);
+                } else {
+                    resultHandler.handleFailed(new ModelNode().set("Unknown metric " + attributeName));
+                    return Cancellable.NULL;
+                }
+            }
+        }
+        resultHandler.handleResultFragment(NO_LOCATION, result);
+        resultHandler.handleResultComplete(null);
+        return Cancellable.NULL;
+    }
+}
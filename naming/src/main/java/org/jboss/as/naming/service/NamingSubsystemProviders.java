@@ -22,11 +22,26 @@
 
 package org.jboss.as.naming.service;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HEAD_COMMENT_ALLOWED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAMESPACE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLY_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUIRED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TAIL_COMMENT_ALLOWED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.jboss.as.naming.service.NamingExtension.EVENT_EXECUTOR;
+import static org.jboss.as.naming.service.NamingExtension.EVENT_QUEUE_SIZE;
+import static org.jboss.as.naming.service.NamingExtension.LOOKUP_CACHE;
+
 import java.util.Locale;
 import java.util.ResourceBundle;
 
 import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * @author Emanuel Muckenhuber
@@ -41,7 +56,28 @@ class NamingSubsystemProviders {
             final ResourceBundle bundle = getResourceBundle(locale);
 
             final ModelNode node = new ModelNode();
-            // TODO
+            node.get(DESCRIPTION).set(bundle.getString("naming"));
+            node.get(HEAD_COMMENT_ALLOWED).set(true);
+            node.get(TAIL_COMMENT_ALLOWED).set(true);
+            node.get(NAMESPACE).set(NamingExtension.NAMESPACE);
+
+            node.get(ATTRIBUTES, LOOKUP_CACHE, DESCRIPTION).set(bundle.getString("naming.lookup-cache"));
+            node.get(ATTRIBUTES, LOOKUP_CACHE, TYPE).set(ModelType.BOOLEAN);
+            node.get(ATTRIBUTES, LOOKUP_CACHE, REQUIRED).set(false);
+
+            node.get(ATTRIBUTES, EVENT_EXECUTOR, DESCRIPTION).set(bundle.getString("naming.event-executor"));
+            node.get(ATTRIBUTES, EVENT_EXECUTOR, TYPE).set(ModelType.STRING);
+            node.get(ATTRIBUTES, EVENT_EXECUTOR, REQUIRED).set(false);
+
+            node.get(ATTRIBUTES, EVENT_QUEUE_SIZE, DESCRIPTION).set(bundle.getString("naming.event-queue-size"));
+            node.get(ATTRIBUTES, EVENT_QUEUE_SIZE, TYPE).set(ModelType.INT);
+            node.get(ATTRIBUTES, EVENT_QUEUE_SIZE, REQUIRED).set(false);
+
+            for (String metric : NamingSubsystemMetrics.METRICS) {
+                node.get(ATTRIBUTES, metric, DESCRIPTION).set(bundle.getString("naming." + metric));
+                node.get(ATTRIBUTES, metric, TYPE).set(NamingSubsystemMetrics.QUEUED_EVENTS.equals(metric) ? ModelType.INT : ModelType.LONG);
+                node.get(ATTRIBUTES, metric, REQUIRED).set(false);
+            }
             return node;
         }
     };
@@ -52,7 +88,18 @@ class NamingSubsystemProviders {
             final ResourceBundle bundle = getResourceBundle(locale);
 
             final ModelNode node = new ModelNode();
-            // TODO
+            node.get(OPERATION_NAME).set("add");
+            node.get(DESCRIPTION).set(bundle.getString("naming.add"));
+            node.get(REQUEST_PROPERTIES, LOOKUP_CACHE, DESCRIPTION).set(bundle.getString("naming.lookup-cache"));
+            node.get(REQUEST_PROPERTIES, LOOKUP_CACHE, TYPE).set(ModelType.BOOLEAN);
+            node.get(REQUEST_PROPERTIES, LOOKUP_CACHE, REQUIRED).set(false);
+            node.get(REQUEST_PROPERTIES, EVENT_EXECUTOR, DESCRIPTION).set(bundle.getString("naming.event-executor"));
+            node.get(REQUEST_PROPERTIES, EVENT_EXECUTOR, TYPE).set(ModelType.STRING);
+            node.get(REQUEST_PROPERTIES, EVENT_EXECUTOR, REQUIRED).set(false);
+            node.get(REQUEST_PROPERTIES, EVENT_QUEUE_SIZE, DESCRIPTION).set(bundle.getString("naming.event-queue-size"));
+            node.get(REQUEST_PROPERTIES, EVENT_QUEUE_SIZE, TYPE).set(ModelType.INT);
+            node.get(REQUEST_PROPERTIES, EVENT_QUEUE_SIZE, REQUIRED).set(false);
+            node.get(REPLY_PROPERTIES).setEmptyObject();
             return node;
         }
     };
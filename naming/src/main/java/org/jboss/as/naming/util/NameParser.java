@@ -22,6 +22,9 @@
 
 package org.jboss.as.naming.util;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import javax.naming.CompositeName;
 import javax.naming.Name;
 import javax.naming.NamingException;
@@ -33,6 +36,11 @@ import javax.naming.NamingException;
  */
 public class NameParser implements javax.naming.NameParser {
 
+    private static final int MAX_CACHED_NAMES = 1024;
+
+    /* Previously parsed names.  Callers may modify the names they are given, so only copies are handed out. */
+    private final ConcurrentMap<String, Name> parsedNames = new ConcurrentHashMap<String, Name>();
+
     /**
      * Parse the string name into a {@code javax.naming.Name} instance.
      *
@@ -41,6 +49,14 @@ public class NameParser implements javax.naming.NameParser {
      * @throws NamingException
      */
     public Name parse(String name) throws NamingException {
-        return new CompositeName(name);
+        Name parsed = parsedNames.get(name);
+        if (parsed == null) {
+            parsed = new CompositeName(name);
+            if (parsedNames.size() >= MAX_CACHED_NAMES) {
+                parsedNames.clear();
+            }
+            parsedNames.put(name, parsed);
+        }
+        return (Name) parsed.clone();
     }
 }
@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.naming;
+
+import javax.naming.CompositeName;
+import javax.naming.Name;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures binding, looking up and unbinding names in an {@link InMemoryNamingStore} at the scale of a large
+ * deployment, with each deployment thread binding into its own application context beneath a shared root. This is
+ * not run as part of the unit tests; run it directly with {@code [names] [threads] [names per context]} as arguments.
+ */
+public class InMemoryNamingStoreBenchmark {
+
+    public static void main(final String[] args) throws Exception {
+        final int names = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+        final int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        final int perContext = args.length > 2 ? Integer.parseInt(args[2]) : 5000;
+
+        for (int i = 0; i < 3; i++) {
+            run(names, threads, perContext);
+        }
+    }
+
+    private static void run(final int names, final int threads, final int perContext) throws Exception {
+        final InMemoryNamingStore store = new InMemoryNamingStore();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            store.createSubcontext(null, new CompositeName("global"));
+            final List<List<Name>> contexts = new ArrayList<List<Name>>();
+            for (int t = 0; t < threads; t++) {
+                final List<Name> bindings = new ArrayList<Name>();
+                final String app = "global/app" + t;
+                store.createSubcontext(null, new CompositeName(app));
+                store.createSubcontext(null, new CompositeName(app + "/module"));
+                for (int i = 0; i < names / threads; i++) {
+                    final String context = app + "/module/comp" + (i / perContext);
+                    if (i % perContext == 0) {
+                        store.createSubcontext(null, new CompositeName(context));
+                        store.createSubcontext(null, new CompositeName(context + "/env"));
+                    }
+                    bindings.add(new CompositeName(context + "/env/entry" + i));
+                }
+                contexts.add(bindings);
+            }
+
+            final long bind = time(executor, contexts, new Operation() {
+                public void perform(final Name name) throws Exception {
+                    store.bind(null, name, name, Name.class.getName());
+                }
+            });
+            final long lookup = time(executor, contexts, new Operation() {
+                public void perform(final Name name) throws Exception {
+                    store.lookup(name);
+                }
+            });
+            final long unbind = time(executor, contexts, new Operation() {
+                public void perform(final Name name) throws Exception {
+                    store.unbind(null, name);
+                }
+            });
+            System.out.printf("%d names, %d threads, %d names per context: bind %d ms, lookup %d ms, unbind %d ms%n",
+                    Integer.valueOf(names), Integer.valueOf(threads), Integer.valueOf(perContext),
+                    Long.valueOf(bind / 1000000), Long.valueOf(lookup / 1000000), Long.valueOf(unbind / 1000000));
+        } finally {
+            executor.shutdownNow();
+            store.close();
+        }
+    }
+
+    private static long time(final ExecutorService executor, final List<List<Name>> contexts, final Operation operation) throws Exception {
+        final long start = System.nanoTime();
+        final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        for (final List<Name> names : contexts) {
+            futures.add(executor.submit(new Callable<Void>() {
+                public Void call() throws Exception {
+                    for (Name name : names) {
+                        operation.perform(name);
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private interface Operation {
+        void perform(Name name) throws Exception;
+    }
+}
@@ -34,10 +34,15 @@ import javax.naming.NameClassPair;
 import javax.naming.NameNotFoundException;
 import javax.naming.Reference;
 import javax.naming.spi.ResolveResult;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -297,4 +302,37 @@ public class InMemoryNamingStoreTestCase {
         }
         assertTrue("Not all expected results were returned", expected.isEmpty());
     }
+
+    @Test
+    public void testConcurrentBindAndUnbind() throws Exception {
+        nameStore.createSubcontext(null, new CompositeName("shared"));
+        final int threads = 4;
+        final int names = 1000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int t = 0; t < threads; t++) {
+                final String prefix = "shared/thread" + t + "-";
+                futures.add(executor.submit(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        for (int i = 0; i < names; i++) {
+                            final Name name = new CompositeName(prefix + i);
+                            nameStore.bind(null, name, name, Name.class.getName());
+                            assertEquals(name, nameStore.lookup(name));
+                            if (i % 2 == 0) {
+                                nameStore.unbind(null, name);
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(threads * names / 2, nameStore.list(new CompositeName("shared")).size());
+    }
 }
@@ -49,6 +49,8 @@ import java.util.Set;
 
 import static org.jboss.as.naming.util.NamingUtils.asReference;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -502,6 +504,82 @@ public class NamingContextTestCase {
         assertTrue("Not all expected results were returned", expected.isEmpty());
     }
 
+    @Test
+    public void testLookupCache() throws Exception {
+        final InMemoryNamingStore namingStore = new InMemoryNamingStore();
+        namingStore.getLookupCache().setEnabled(true);
+        final NamingContext context = new NamingContext(namingStore, null);
+
+        final Object value = new Object();
+        context.bind("test", value);
+        assertSame(value, context.lookup("test"));
+        assertSame(value, context.lookup("test"));
+        assertSame(value, context.lookup(new CompositeName("java:test")));
+        assertEquals(2, namingStore.getLookupCache().getHits());
+
+        final Object changed = new Object();
+        context.rebind("test", changed);
+        assertSame(changed, context.lookup("test"));
+
+        NamingContext.setActiveNamingStore(namingStore);
+        System.setProperty(Context.INITIAL_CONTEXT_FACTORY, InitialContextFactory.class.getName());
+        context.bind("link", new LinkRef("test"));
+        assertSame(changed, context.lookup("link"));
+        final long hits = namingStore.getLookupCache().getHits();
+        assertSame(changed, context.lookup("link"));
+        assertEquals(hits + 1, namingStore.getLookupCache().getHits());
+
+        context.unbind("test");
+        try {
+            context.lookup("test");
+            fail("Should have thrown and NameNotFoundException");
+        } catch(NameNotFoundException expected) {}
+    }
+
+    @Test
+    public void testLookupCacheSkipsReferences() throws Exception {
+        final InMemoryNamingStore namingStore = new InMemoryNamingStore();
+        namingStore.getLookupCache().setEnabled(true);
+        NamingContext.setActiveNamingStore(namingStore);
+        System.setProperty(Context.INITIAL_CONTEXT_FACTORY, InitialContextFactory.class.getName());
+        final NamingContext context = new NamingContext(namingStore, null);
+
+        context.bind("test", new Reference(Object.class.getName(), NewInstanceObjectFactory.class.getName(), null));
+        context.bind("link", new LinkRef("test"));
+        NewInstanceObjectFactory.count = 0;
+        final Object first = context.lookup("test");
+        final Object second = context.lookup("test");
+        assertNotSame(first, second);
+        assertNotSame(context.lookup("link"), context.lookup("link"));
+        assertEquals(4, NewInstanceObjectFactory.count);
+        assertEquals(0, namingStore.getLookupCache().getHits());
+    }
+
+    @Test
+    public void testLookupCacheSkipsContinuation() throws Exception {
+        final InMemoryNamingStore namingStore = new InMemoryNamingStore();
+        namingStore.getLookupCache().setEnabled(true);
+        final NamingContext context = new NamingContext(namingStore, null);
+        context.createSubcontext("comp");
+        context.bind("comp/nested", "test");
+
+        final Reference reference = new Reference(String.class.getName(), new StringRefAddr("nns", "comp"), TestObjectFactoryWithNameResolution.class.getName(), null);
+        context.bind("test", reference);
+        assertTrue(context.lookup("test") instanceof Context);
+        assertTrue(context.lookup("test") instanceof Context);
+        assertEquals(0, namingStore.getLookupCache().getHits());
+    }
+
+    public static class NewInstanceObjectFactory implements ObjectFactory {
+        static volatile int count;
+
+        @Override
+        public Object getObjectInstance(Object obj, Name name, Context nameCtx, Hashtable<?, ?> environment) throws Exception {
+            count++;
+            return new Object();
+        }
+    }
+
     public  static class TestObjectFactory implements ObjectFactory {
         @Override
         public Object getObjectInstance(Object obj, Name name, Context nameCtx, Hashtable<?, ?> environment) throws Exception {
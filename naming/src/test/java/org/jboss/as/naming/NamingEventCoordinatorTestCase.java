@@ -25,7 +25,9 @@ package org.jboss.as.naming;
 import org.junit.Before;
 import org.junit.Test;
 
+import javax.naming.Binding;
 import javax.naming.CompositeName;
+import javax.naming.InvalidNameException;
 import javax.naming.event.EventContext;
 import javax.naming.event.NamespaceChangeListener;
 import javax.naming.event.NamingEvent;
@@ -34,7 +36,12 @@ import javax.naming.event.ObjectChangeListener;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -160,10 +167,163 @@ public class NamingEventCoordinatorTestCase {
         assertEquals(1, subtreeListenerThree.capturedEvents.size());
     }
 
+    @Test
+    public void testSlowListenerDoesNotDelayOthers() throws Exception {
+        final NamingEventCoordinator coordinator = new NamingEventCoordinator();
+
+        final BlockingListener slowListener = new BlockingListener(1);
+        coordinator.addListener("test", EventContext.ONELEVEL_SCOPE, slowListener);
+        final CollectingListener listener = new CollectingListener(1);
+        coordinator.addListener("test", EventContext.ONELEVEL_SCOPE, listener);
+
+        coordinator.fireEvent(context, new CompositeName("test/path"), null, null, NamingEvent.OBJECT_ADDED, "bind", EventContext.ONELEVEL_SCOPE);
+
+        assertTrue(listener.latch.await(5L, TimeUnit.SECONDS));
+        assertTrue(slowListener.latch.getCount() > 0);
+        slowListener.gate.countDown();
+        assertTrue(slowListener.latch.await(5L, TimeUnit.SECONDS));
+        coordinator.close();
+    }
+
+    @Test
+    public void testEventsDeliveredInOrder() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final NamingEventCoordinator coordinator = new NamingEventCoordinator(executor, 16);
+
+        final CollectingListener[] listeners = new CollectingListener[4];
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i] = new CollectingListener(500);
+            coordinator.addListener("test", EventContext.ONELEVEL_SCOPE, listeners[i]);
+        }
+        for (int i = 0; i < 500; i++) {
+            coordinator.fireEvent(context, new CompositeName("test/" + i), null, null, NamingEvent.OBJECT_ADDED, "test/" + i, EventContext.ONELEVEL_SCOPE);
+        }
+        for (CollectingListener listener : listeners) {
+            assertTrue(listener.latch.await(5L, TimeUnit.SECONDS));
+            for (int i = 0; i < 500; i++) {
+                assertEquals("test/" + i, listener.capturedEvents.get(i).getChangeInfo());
+            }
+        }
+        assertEquals(2000, coordinator.getDispatchedEvents());
+        assertEquals(0, coordinator.getQueuedEvents());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testCoalesceChangeEvents() throws Exception {
+        final NamingEventCoordinator coordinator = new NamingEventCoordinator();
+
+        final BlockingListener listener = new BlockingListener(3);
+        coordinator.addListener("test", EventContext.ONELEVEL_SCOPE, listener);
+
+        coordinator.fireEvent(context, new CompositeName("test/a"), null, null, NamingEvent.OBJECT_ADDED, "bind", EventContext.ONELEVEL_SCOPE);
+        // wait for the listener to block on the first event, so the following events are queued
+        while (coordinator.getQueuedEvents() > 0) {
+            Thread.sleep(1L);
+        }
+        final Binding first = new Binding("b", "first");
+        coordinator.fireEvent(context, new CompositeName("test/b"), first, new Binding("b", "second"), NamingEvent.OBJECT_CHANGED, "rebind", EventContext.ONELEVEL_SCOPE);
+        coordinator.fireEvent(context, new CompositeName("test/c"), null, null, NamingEvent.OBJECT_ADDED, "bind", EventContext.ONELEVEL_SCOPE);
+        final Binding last = new Binding("b", "last");
+        coordinator.fireEvent(context, new CompositeName("test/b"), null, last, NamingEvent.OBJECT_CHANGED, "rebind", EventContext.ONELEVEL_SCOPE);
+        assertEquals(1, coordinator.getCoalescedEvents());
+
+        listener.gate.countDown();
+        assertTrue(listener.latch.await(5L, TimeUnit.SECONDS));
+        assertEquals(3, listener.capturedEvents.size());
+        final NamingEvent changed = listener.capturedEvents.get(1);
+        assertEquals(NamingEvent.OBJECT_CHANGED, changed.getType());
+        assertEquals(first, changed.getOldBinding());
+        assertEquals(last, changed.getNewBinding());
+        assertEquals(NamingEvent.OBJECT_ADDED, listener.capturedEvents.get(2).getType());
+        coordinator.close();
+    }
+
+    @Test
+    public void testBackPressure() throws Exception {
+        final NamingEventCoordinator coordinator = new NamingEventCoordinator(null, 1);
+
+        final BlockingListener listener = new BlockingListener(3);
+        coordinator.addListener("test", EventContext.ONELEVEL_SCOPE, listener);
+        coordinator.fireEvent(context, new CompositeName("test/a"), null, null, NamingEvent.OBJECT_ADDED, "bind", EventContext.ONELEVEL_SCOPE);
+        while (coordinator.getQueuedEvents() > 0) {
+            Thread.sleep(1L);
+        }
+        coordinator.fireEvent(context, new CompositeName("test/b"), null, null, NamingEvent.OBJECT_ADDED, "bind", EventContext.ONELEVEL_SCOPE);
+
+        final Thread firing = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    coordinator.fireEvent(context, new CompositeName("test/c"), null, null, NamingEvent.OBJECT_ADDED, "bind", EventContext.ONELEVEL_SCOPE);
+                } catch (InvalidNameException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        firing.start();
+        while (coordinator.getBlockedFirings() == 0) {
+            Thread.sleep(1L);
+        }
+        assertTrue(firing.isAlive());
+
+        listener.gate.countDown();
+        firing.join(5000L);
+        assertTrue(listener.latch.await(5L, TimeUnit.SECONDS));
+        assertEquals(3, listener.capturedEvents.size());
+        coordinator.close();
+    }
+
+    @Test
+    public void testDeliveryContinuesAfterRejection() throws Exception {
+        final ExecutorService delegate = Executors.newSingleThreadExecutor();
+        final AtomicInteger rejections = new AtomicInteger();
+        final Executor rejectingOnce = new Executor() {
+            public void execute(final Runnable command) {
+                if (rejections.compareAndSet(0, 1)) {
+                    throw new RejectedExecutionException();
+                }
+                delegate.execute(command);
+            }
+        };
+        final NamingEventCoordinator coordinator = new NamingEventCoordinator(rejectingOnce, 16);
+
+        final CollectingListener listener = new CollectingListener(3);
+        coordinator.addListener("test", EventContext.ONELEVEL_SCOPE, listener);
+        coordinator.fireEvent(context, new CompositeName("test/a"), null, null, NamingEvent.OBJECT_ADDED, "test/a", EventContext.ONELEVEL_SCOPE);
+        assertEquals(1, rejections.get());
+        coordinator.fireEvent(context, new CompositeName("test/b"), null, null, NamingEvent.OBJECT_ADDED, "test/b", EventContext.ONELEVEL_SCOPE);
+        coordinator.fireEvent(context, new CompositeName("test/c"), null, null, NamingEvent.OBJECT_ADDED, "test/c", EventContext.ONELEVEL_SCOPE);
+
+        assertTrue(listener.latch.await(5L, TimeUnit.SECONDS));
+        assertEquals(3, listener.capturedEvents.size());
+        assertEquals("test/a", listener.capturedEvents.get(0).getChangeInfo());
+        assertEquals("test/c", listener.capturedEvents.get(2).getChangeInfo());
+        assertEquals(0, coordinator.getQueuedEvents());
+        delegate.shutdown();
+    }
+
+    private class BlockingListener extends CollectingListener {
+        private final CountDownLatch gate = new CountDownLatch(1);
+
+        BlockingListener(int expectedEvents) {
+            super(expectedEvents);
+        }
+
+        @Override
+        public void objectAdded(NamingEvent evt) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.objectAdded(evt);
+        }
+    }
+
     private class CollectingListener implements ObjectChangeListener, NamespaceChangeListener {
-        private final List<NamingEvent> capturedEvents = new ArrayList<NamingEvent>();
+        final List<NamingEvent> capturedEvents = new ArrayList<NamingEvent>();
 
-        private final CountDownLatch latch;
+        final CountDownLatch latch;
 
         CollectingListener(int expectedEvents) {
             latch = new CountDownLatch(expectedEvents);
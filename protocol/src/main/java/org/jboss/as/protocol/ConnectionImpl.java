@@ -25,7 +25,6 @@ package org.jboss.as.protocol;
 import static org.jboss.as.protocol.ProtocolConstants.CHUNK_END;
 import static org.jboss.as.protocol.ProtocolConstants.CHUNK_START;
 
-import java.io.BufferedOutputStream;
 import java.io.EOFException;
 import java.io.FilterInputStream;
 import java.io.FilterOutputStream;
@@ -87,8 +86,7 @@ final class ConnectionImpl implements Connection {
             }
             boolean ok = false;
             try {
-                sender = new MessageOutputStream();
-                os = new BufferedOutputStream(sender);
+                os = sender = new MessageOutputStream();
                 ok = true;
             } finally {
                 if (! ok) {
@@ -308,7 +306,9 @@ final class ConnectionImpl implements Connection {
 
     final class MessageOutputStream extends FilterOutputStream {
 
-        private final byte[] hdr = new byte[5];
+        // room for the chunk header before the data and for the end marker after it, so each chunk is a single write
+        private final byte[] buffer = new byte[5 + 8192 + 1];
+        private int position = 5;
 
         MessageOutputStream() throws IOException {
             super(socket.getOutputStream());
@@ -316,29 +316,40 @@ final class ConnectionImpl implements Connection {
 
         @Override
         public void write(final int b) throws IOException {
-            throw new IllegalStateException();
+            if (position == buffer.length - 1) {
+                flush();
+            }
+            buffer[position++] = (byte) b;
         }
 
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
-            if (len == 0) {
+            int pos = off;
+            int rem = len;
+            while (rem > 0) {
+                if (position == buffer.length - 1) {
+                    flush();
+                }
+                final int cnt = Math.min(rem, buffer.length - 1 - position);
+                System.arraycopy(b, pos, buffer, position, cnt);
+                position += cnt;
+                pos += cnt;
+                rem -= cnt;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (position == 5) {
                 return;
             }
-            final byte[] hdr = this.hdr;
-            hdr[0] = (byte) CHUNK_START;
-            hdr[1] = (byte) (len >> 24);
-            hdr[2] = (byte) (len >> 16);
-            hdr[3] = (byte) (len >> 8);
-            hdr[4] = (byte) (len >> 0);
             synchronized (lock) {
                 if (sender != this || writeDone) {
                     if (sender == this) sender = null;
                     lock.notifyAll();
                     throw new IOException("Write channel closed");
                 }
-                log.tracef("Sending data chunk of size %d", Integer.valueOf(len));
-                out.write(hdr);
-                out.write(b, off, len);
+                writeChunk(false);
             }
         }
 
@@ -348,22 +359,47 @@ final class ConnectionImpl implements Connection {
                 if (sender != this) {
                     return;
                 }
-                sender = null;
-                // wake up waiters
-                lock.notify();
-                if (writeDone) throw new IOException("Write channel closed");
-                if (readDone) {
-                    readExecutor.execute(new Runnable() {
-                        public void run() {
-                            safeHandleFinished();
-                        }
-                    });
+                try {
+                    if (writeDone) throw new IOException("Write channel closed");
+                    if (readDone) {
+                        readExecutor.execute(new Runnable() {
+                            public void run() {
+                                safeHandleFinished();
+                            }
+                        });
+                    }
+                    log.tracef("Sending end of message");
+                    writeChunk(true);
+                } finally {
+                    sender = null;
+                    // wake up waiters
+                    lock.notify();
                 }
-                log.tracef("Sending end of message");
-                out.write(CHUNK_END);
             }
         }
 
+        // called with lock held
+        private void writeChunk(final boolean last) throws IOException {
+            final byte[] buffer = this.buffer;
+            final int len = position - 5;
+            int start = 5;
+            if (len > 0) {
+                log.tracef("Sending data chunk of size %d", Integer.valueOf(len));
+                buffer[0] = (byte) CHUNK_START;
+                buffer[1] = (byte) (len >> 24);
+                buffer[2] = (byte) (len >> 16);
+                buffer[3] = (byte) (len >> 8);
+                buffer[4] = (byte) (len >> 0);
+                start = 0;
+            }
+            int end = position;
+            if (last) {
+                buffer[end++] = (byte) CHUNK_END;
+            }
+            position = 5;
+            out.write(buffer, start, end - start);
+        }
+
         @Override
         protected void finalize() throws Throwable {
             super.finalize();
@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A selector loop which services the sockets of any number of {@link NioConnectionImpl}s. Selection keys and
+ * connection read state are only ever touched from this thread; other threads submit work with
+ * {@link #execute(Runnable)}.
+ */
+final class IoThread implements Runnable {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.protocol.server");
+
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+    private volatile boolean stop;
+
+    IoThread() throws IOException {
+        selector = Selector.open();
+    }
+
+    Selector getSelector() {
+        return selector;
+    }
+
+    /**
+     * Run a task on this thread before the next selection.
+     *
+     * @param task the task
+     */
+    void execute(final Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    void wakeup() {
+        selector.wakeup();
+    }
+
+    /**
+     * Stop the selector loop, closing every connection it services.
+     */
+    void stop() {
+        stop = true;
+        selector.wakeup();
+    }
+
+    public void run() {
+        try {
+            while (! stop) {
+                selector.select();
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        log.errorf(e, "Failed to run I/O task");
+                    }
+                }
+                final Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    final SelectionKey key = it.next();
+                    it.remove();
+                    final NioConnectionImpl connection = (NioConnectionImpl) key.attachment();
+                    try {
+                        if (key.isValid() && key.isWritable()) {
+                            connection.handleWritable();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            connection.handleReadable();
+                        }
+                    } catch (RuntimeException e) {
+                        log.errorf(e, "Failed to handle I/O readiness");
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.errorf(e, "I/O thread failed");
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                StreamUtils.safeClose(key.channel());
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.errorf(e, "Failed to close selector");
+            }
+        }
+    }
+}
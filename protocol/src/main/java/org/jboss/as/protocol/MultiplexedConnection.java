@@ -0,0 +1,553 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Carries any number of independent logical connections ("channels") over a single physical {@link Connection}, so
+ * that several message exchanges, each with its own {@link MessageHandler}, can be in progress at once and complete
+ * in any order.
+ * <p>
+ * Each message on a channel is sent as a sequence of frames of at most {@value #FRAME_SIZE} bytes, each of them a
+ * message on the physical connection prefixed with the id of the channel, a flag telling the receiver whether it or
+ * its peer opened that channel, and whether the frame is the last of its message.  Frames of different channels
+ * interleave, so a large message neither holds up the other channels nor is ever held in memory as a whole: its
+ * handler starts reading as soon as the first frame arrives, and frames wait in a queue only until the handler reads
+ * them.  Messages for a channel opened by the peer which is not yet known to this side create a new channel which uses
+ * the initial message handler.  Messages on any one channel are delivered in order, one at a time.
+ * <p>
+ * An exchange on a channel may span several messages in each direction, so the receiving side cannot tell from any
+ * one message that the exchange is over.  Instead, closing a channel on the side which opened it tells the peer, which
+ * forgets its side of the channel once every message sent before the close has been delivered.
+ * <p>
+ * Both ends of the physical connection must use a {@code MultiplexedConnection}.
+ */
+public final class MultiplexedConnection implements MessageHandler {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.protocol.connection");
+
+    /** The maximum number of message bytes in a frame. */
+    static final int FRAME_SIZE = 8192;
+
+    private static final int OPENED_BY_SENDER = 0;
+    private static final int OPENED_BY_RECEIVER = 1;
+    private static final int CLOSED_BY_SENDER = 2;
+
+    private static final int MORE_FRAMES = 0;
+    private static final int LAST_FRAME = 1;
+
+    /** Queued on a channel opened by the peer when the peer closes it; compared by identity. */
+    private static final Frame CLOSE = new Frame(new byte[0], true);
+
+    private final Connection connection;
+    private final MessageHandler initialHandler;
+    private final Executor executor;
+    private final AtomicInteger nextChannelId = new AtomicInteger();
+    private final ConcurrentMap<Integer, Channel> localChannels = new ConcurrentHashMap<Integer, Channel>();
+    private final ConcurrentMap<Integer, Channel> remoteChannels = new ConcurrentHashMap<Integer, Channel>();
+
+    /**
+     * Construct a new instance, and install it as the message handler of the physical connection.
+     *
+     * @param connection the physical connection
+     * @param initialHandler the message handler for channels opened by the peer
+     * @param executor the executor used to deliver messages to channels
+     */
+    public MultiplexedConnection(final Connection connection, final MessageHandler initialHandler, final Executor executor) {
+        if (connection == null) {
+            throw new IllegalArgumentException("connection is null");
+        }
+        if (initialHandler == null) {
+            throw new IllegalArgumentException("initialHandler is null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("executor is null");
+        }
+        this.connection = connection;
+        this.initialHandler = initialHandler;
+        this.executor = executor;
+        connection.setMessageHandler(this);
+    }
+
+    /**
+     * Open a new channel to the peer.  The channel's message handler is {@link MessageHandler#NULL} until set.
+     *
+     * @return the channel
+     */
+    public Connection openChannel() {
+        for (;;) {
+            final int id = nextChannelId.getAndIncrement() & Integer.MAX_VALUE;
+            final Channel channel = new Channel(id, true, MessageHandler.NULL);
+            if (localChannels.putIfAbsent(Integer.valueOf(id), channel) == null) {
+                return channel;
+            }
+        }
+    }
+
+    /**
+     * Get the physical connection.
+     *
+     * @return the physical connection
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /** {@inheritDoc} */
+    public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+        final Channel channel;
+        final Frame frame;
+        try {
+            final int id = StreamUtils.readInt(dataStream);
+            final int origin = StreamUtils.readUnsignedByte(dataStream);
+            if (origin == OPENED_BY_RECEIVER) {
+                channel = localChannels.get(Integer.valueOf(id));
+                frame = readFrame(dataStream);
+                if (channel == null) {
+                    log.debugf("Discarding frame for closed channel %d", Integer.valueOf(id));
+                    return;
+                }
+            } else if (origin == OPENED_BY_SENDER) {
+                final Integer key = Integer.valueOf(id);
+                frame = readFrame(dataStream);
+                final Channel newChannel = new Channel(id, false, initialHandler);
+                final Channel existing = remoteChannels.putIfAbsent(key, newChannel);
+                channel = existing == null ? newChannel : existing;
+            } else if (origin == CLOSED_BY_SENDER) {
+                channel = remoteChannels.get(Integer.valueOf(id));
+                if (channel == null) {
+                    return;
+                }
+                frame = CLOSE;
+            } else {
+                throw new IOException("Invalid channel origin " + origin);
+            }
+        } finally {
+            StreamUtils.safeClose(dataStream);
+        }
+        channel.deliver(frame);
+    }
+
+    private static Frame readFrame(final InputStream dataStream) throws IOException {
+        final int flag = StreamUtils.readUnsignedByte(dataStream);
+        if (flag != MORE_FRAMES && flag != LAST_FRAME) {
+            throw new IOException("Invalid frame flag " + flag);
+        }
+        final byte[] buffer = new byte[FRAME_SIZE];
+        int length = 0;
+        int read;
+        while (length < FRAME_SIZE && (read = dataStream.read(buffer, length, FRAME_SIZE - length)) != -1) {
+            length += read;
+        }
+        if (dataStream.read() != -1) {
+            throw new IOException("Frame exceeds " + FRAME_SIZE + " bytes");
+        }
+        final byte[] data = new byte[length];
+        System.arraycopy(buffer, 0, data, 0, length);
+        return new Frame(data, flag == LAST_FRAME);
+    }
+
+    /** {@inheritDoc} */
+    public void handleShutdown(final Connection connection) throws IOException {
+        for (Channel channel : allChannels()) {
+            channel.abort();
+            try {
+                channel.messageHandler.handleShutdown(channel);
+            } catch (IOException e) {
+                log.errorf(e, "Failed to handle shut down condition on channel %d", Integer.valueOf(channel.id));
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void handleFailure(final Connection connection, final IOException e) throws IOException {
+        for (Channel channel : allChannels()) {
+            channel.abort();
+            try {
+                channel.messageHandler.handleFailure(channel, e);
+            } catch (IOException e1) {
+                log.errorf(e1, "Failed to handle failure condition on channel %d", Integer.valueOf(channel.id));
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void handleFinished(final Connection connection) throws IOException {
+        for (Channel channel : allChannels()) {
+            channel.abort();
+            try {
+                channel.messageHandler.handleFinished(channel);
+            } catch (IOException e) {
+                log.errorf(e, "Failed to handle finished condition on channel %d", Integer.valueOf(channel.id));
+            }
+        }
+        localChannels.clear();
+        remoteChannels.clear();
+    }
+
+    /**
+     * Get the number of channels opened by the peer which are still open on this side.
+     *
+     * @return the number of channels
+     */
+    int getRemoteChannelCount() {
+        return remoteChannels.size();
+    }
+
+    private List<Channel> allChannels() {
+        final List<Channel> channels = new ArrayList<Channel>(localChannels.values());
+        channels.addAll(remoteChannels.values());
+        return channels;
+    }
+
+    /**
+     * A received part of a message.
+     */
+    private static final class Frame {
+        private final byte[] data;
+        private final boolean last;
+
+        Frame(final byte[] data, final boolean last) {
+            this.data = data;
+            this.last = last;
+        }
+    }
+
+    /**
+     * A logical connection.  A message written is sent a frame at a time as it is produced, and messages written
+     * concurrently on one channel are sent one after the other.
+     */
+    final class Channel implements Connection {
+        private final int id;
+        private final boolean local;
+        private volatile MessageHandler messageHandler;
+        private volatile MessageHandler backupHandler;
+        private volatile Object attachment;
+        private volatile boolean closed;
+
+        // protected by writeLock
+        private final Object writeLock = new Object();
+        // protected by writeLock
+        private boolean writing;
+
+        // protected by pending
+        private final ArrayDeque<Frame> pending = new ArrayDeque<Frame>();
+        // protected by pending
+        private boolean delivering;
+        // protected by pending
+        private boolean aborted;
+
+        Channel(final int id, final boolean local, final MessageHandler messageHandler) {
+            this.id = id;
+            this.local = local;
+            this.messageHandler = messageHandler;
+        }
+
+        public OutputStream writeMessage() throws IOException {
+            if (closed) {
+                throw new IOException("Channel is closed");
+            }
+            synchronized (writeLock) {
+                while (writing) {
+                    try {
+                        writeLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                }
+                writing = true;
+            }
+            return new FrameOutputStream();
+        }
+
+        public void shutdownWrites() throws IOException {
+            close();
+        }
+
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (!local) {
+                remoteChannels.remove(Integer.valueOf(id), this);
+                return;
+            }
+            localChannels.remove(Integer.valueOf(id), this);
+            // let the peer forget its side of the channel
+            final OutputStream os = connection.writeMessage();
+            try {
+                StreamUtils.writeInt(os, id);
+                os.write(CLOSED_BY_SENDER);
+                os.close();
+            } finally {
+                StreamUtils.safeClose(os);
+            }
+        }
+
+        public void setMessageHandler(final MessageHandler messageHandler) {
+            if (messageHandler == null) {
+                throw new IllegalArgumentException("messageHandler is null");
+            }
+            this.messageHandler = messageHandler;
+        }
+
+        public InetAddress getPeerAddress() {
+            return connection.getPeerAddress();
+        }
+
+        public void attach(final Object attachment) {
+            this.attachment = attachment;
+        }
+
+        public Object getAttachment() {
+            return attachment;
+        }
+
+        public void backupMessageHandler() {
+            backupHandler = messageHandler;
+        }
+
+        public void restoreMessageHandler() {
+            final MessageHandler handler = backupHandler;
+            setMessageHandler(handler == null ? MessageHandler.NULL : handler);
+        }
+
+        void deliver(final Frame frame) {
+            synchronized (pending) {
+                pending.add(frame);
+                // wake up a handler waiting for the next frame of its message
+                pending.notifyAll();
+                if (delivering) {
+                    return;
+                }
+                delivering = true;
+            }
+            executor.execute(new Runnable() {
+                public void run() {
+                    for (;;) {
+                        // the previous message has been read to its last frame, so this is the start of the next
+                        final Frame first;
+                        synchronized (pending) {
+                            first = pending.poll();
+                            if (first == null) {
+                                delivering = false;
+                                return;
+                            }
+                        }
+                        if (first == CLOSE) {
+                            remoteChannels.remove(Integer.valueOf(id), Channel.this);
+                        } else {
+                            safeHandleMessage(first);
+                        }
+                    }
+                }
+            });
+        }
+
+        /**
+         * Fail the read of a partly received message, which the physical connection will not complete.
+         */
+        void abort() {
+            synchronized (pending) {
+                aborted = true;
+                pending.notifyAll();
+            }
+        }
+
+        private Frame nextFrame() throws IOException {
+            synchronized (pending) {
+                for (;;) {
+                    final Frame frame = pending.peek();
+                    if (frame == CLOSE) {
+                        // leave it to be handled once this message is done with
+                        throw new IOException("Channel was closed before the end of the message");
+                    }
+                    if (frame != null) {
+                        return pending.poll();
+                    }
+                    if (aborted) {
+                        throw new IOException("Connection was lost before the end of the message");
+                    }
+                    try {
+                        pending.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                }
+            }
+        }
+
+        private void safeHandleMessage(final Frame first) {
+            final InputStream is = new FrameInputStream(first);
+            try {
+                messageHandler.handleMessage(this, is);
+            } catch (RuntimeException e) {
+                log.errorf(e, "Failed to read a message on channel %d", Integer.valueOf(id));
+            } catch (IOException e) {
+                log.errorf(e, "Failed to read a message on channel %d", Integer.valueOf(id));
+            } finally {
+                StreamUtils.safeClose(is);
+            }
+        }
+
+        /**
+         * Reads a received message, waiting for each frame as it is needed.  Closing the stream skips the rest of
+         * the message.
+         */
+        private final class FrameInputStream extends InputStream {
+            private Frame frame;
+            private int position;
+
+            FrameInputStream(final Frame first) {
+                frame = first;
+            }
+
+            /**
+             * Make the current frame one with unread bytes.
+             *
+             * @return {@code false} at the end of the message
+             */
+            private boolean fill() throws IOException {
+                while (position == frame.data.length) {
+                    if (frame.last) {
+                        return false;
+                    }
+                    frame = nextFrame();
+                    position = 0;
+                }
+                return true;
+            }
+
+            public int read() throws IOException {
+                return fill() ? frame.data[position++] & 0xff : -1;
+            }
+
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                if (len == 0) {
+                    return 0;
+                }
+                if (!fill()) {
+                    return -1;
+                }
+                final int count = Math.min(len, frame.data.length - position);
+                System.arraycopy(frame.data, position, b, off, count);
+                position += count;
+                return count;
+            }
+
+            public int available() {
+                return frame.data.length - position;
+            }
+
+            public void close() throws IOException {
+                while (!frame.last) {
+                    frame = nextFrame();
+                }
+                position = frame.data.length;
+            }
+        }
+
+        /**
+         * Sends a message a frame at a time.  A full frame is only sent once more is written, so that the last frame
+         * of a message is never empty unless the message is.
+         */
+        private final class FrameOutputStream extends OutputStream {
+            private final byte[] buffer = new byte[FRAME_SIZE];
+            private int count;
+            private boolean done;
+
+            public void write(final int b) throws IOException {
+                if (count == FRAME_SIZE) {
+                    sendFrame(false);
+                }
+                buffer[count++] = (byte) b;
+            }
+
+            public void write(final byte[] b, int off, int len) throws IOException {
+                while (len > 0) {
+                    if (count == FRAME_SIZE) {
+                        sendFrame(false);
+                    }
+                    final int n = Math.min(len, FRAME_SIZE - count);
+                    System.arraycopy(b, off, buffer, count, n);
+                    count += n;
+                    off += n;
+                    len -= n;
+                }
+            }
+
+            public void close() throws IOException {
+                if (done) {
+                    return;
+                }
+                done = true;
+                try {
+                    sendFrame(true);
+                } finally {
+                    synchronized (writeLock) {
+                        writing = false;
+                        writeLock.notify();
+                    }
+                }
+            }
+
+            private void sendFrame(final boolean last) throws IOException {
+                if (done && !last) {
+                    throw new IOException("Stream is closed");
+                }
+                if (closed) {
+                    throw new IOException("Channel is closed");
+                }
+                final OutputStream os = connection.writeMessage();
+                try {
+                    StreamUtils.writeInt(os, id);
+                    // the receiver sees the channel from the other side
+                    os.write(local ? OPENED_BY_SENDER : OPENED_BY_RECEIVER);
+                    os.write(last ? LAST_FRAME : MORE_FRAMES);
+                    os.write(buffer, 0, count);
+                    os.close();
+                } finally {
+                    StreamUtils.safeClose(os);
+                }
+                count = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,709 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import static org.jboss.as.protocol.ProtocolConstants.CHUNK_END;
+import static org.jboss.as.protocol.ProtocolConstants.CHUNK_START;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A connection over a non-blocking socket channel which is serviced by an {@link IoThread} rather than by a reader
+ * thread of its own.
+ * <p>
+ * As with {@link ConnectionImpl}, each message is passed to the message handler on the read executor, and the next
+ * message is not read until the handler has closed the stream of the previous one. Reading is also suspended while
+ * more than {@link #MAX_BUFFERED} bytes of a message are waiting to be consumed.
+ */
+final class NioConnectionImpl implements Connection {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.protocol.connection");
+
+    private static final int MAX_BUFFERED = 65536;
+
+    private static final int STATE_COMMAND = 0;
+    private static final int STATE_LENGTH = 1;
+    private static final int STATE_DATA = 2;
+
+    private final SocketChannel channel;
+    private final IoThread ioThread;
+    private final Executor readExecutor;
+
+    private final Object lock = new Object();
+
+    // protected by {@link #lock}
+    private OutputStream sender;
+    // protected by {@link #lock}
+    private boolean readDone;
+    // protected by {@link #lock}
+    private boolean writeDone;
+    // protected by {@link #lock}
+    private boolean writeBlocked;
+    // protected by {@link #lock}
+    private boolean unwritable;
+
+    private volatile MessageHandler messageHandler;
+
+    private volatile Object attachment;
+
+    private volatile MessageHandler backupHandler;
+
+    // accessed only by the I/O thread
+    private SelectionKey key;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(8192);
+    private int state = STATE_COMMAND;
+    private int remaining;
+    private MessageInputStream current;
+    private boolean awaitingHandler;
+    private boolean throttled;
+    private boolean inputDone;
+
+    private final Runnable resumeTask = new Runnable() {
+        public void run() {
+            throttled = false;
+            resumeReads();
+        }
+    };
+
+    private final Runnable handledTask = new Runnable() {
+        public void run() {
+            awaitingHandler = false;
+            resumeReads();
+        }
+    };
+
+    NioConnectionImpl(final SocketChannel channel, final IoThread ioThread, final MessageHandler handler, final Executor readExecutor) {
+        this.channel = channel;
+        this.ioThread = ioThread;
+        messageHandler = handler;
+        this.readExecutor = readExecutor;
+    }
+
+    /**
+     * Register the channel with the I/O thread and start reading.  Called once the message handler is in place.
+     */
+    void register() {
+        ioThread.execute(new Runnable() {
+            public void run() {
+                try {
+                    key = channel.register(ioThread.getSelector(), SelectionKey.OP_READ, NioConnectionImpl.this);
+                } catch (ClosedChannelException e) {
+                    log.tracef("Connection closed before it was registered");
+                }
+            }
+        });
+    }
+
+    public OutputStream writeMessage() throws IOException {
+        final OutputStream os;
+        synchronized (lock) {
+            if (writeDone) {
+                throw new IOException("Writes are already shut down");
+            }
+            while (sender != null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            boolean ok = false;
+            try {
+                os = sender = new MessageOutputStream();
+                ok = true;
+            } finally {
+                if (! ok) {
+                    // let someone else try
+                    lock.notify();
+                }
+            }
+        }
+        return os;
+    }
+
+    public void shutdownWrites() throws IOException {
+        synchronized (lock) {
+            if (writeDone) return;
+            while (sender != null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            writeDone = true;
+            if (readDone) {
+                channel.close();
+                ioThread.wakeup();
+            } else {
+                channel.socket().shutdownOutput();
+            }
+            lock.notifyAll();
+        }
+    }
+
+    public void close() throws IOException {
+        synchronized (lock) {
+            sender = null;
+            readDone = true;
+            writeDone = true;
+            channel.close();
+            lock.notifyAll();
+        }
+        // let the selector deregister the channel so that the socket is actually closed
+        ioThread.wakeup();
+    }
+
+    public void setMessageHandler(final MessageHandler messageHandler) {
+        if (messageHandler == null) {
+            throw new IllegalArgumentException("messageHandler is null");
+        }
+        this.messageHandler = messageHandler;
+    }
+
+    public InetAddress getPeerAddress() {
+        return channel.socket().getInetAddress();
+    }
+
+    public void attach(final Object attachment) {
+        this.attachment = attachment;
+    }
+
+    public Object getAttachment() {
+        return attachment;
+    }
+
+    @Override
+    public void backupMessageHandler() {
+        backupHandler = messageHandler;
+    }
+
+    @Override
+    public void restoreMessageHandler() {
+        MessageHandler handler = backupHandler;
+        setMessageHandler(handler == null ? MessageHandler.NULL : handler);
+    }
+
+    // I/O thread
+
+    void handleReadable() {
+        try {
+            final int cnt = channel.read(readBuffer);
+            if (cnt == -1) {
+                log.trace("Received end of stream");
+                handleEndOfStream();
+                return;
+            }
+            processInput();
+        } catch (IOException e) {
+            handleReadFailure(e);
+        }
+    }
+
+    void handleWritable() {
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        synchronized (lock) {
+            writeBlocked = false;
+            lock.notifyAll();
+        }
+    }
+
+    private void resumeReads() {
+        if (inputDone || awaitingHandler || throttled || key == null || ! key.isValid()) {
+            return;
+        }
+        key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+        // the buffer may already hold the start of the next message
+        try {
+            processInput();
+        } catch (IOException e) {
+            handleReadFailure(e);
+        }
+    }
+
+    private void suspendReads() {
+        if (key.isValid()) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+        }
+    }
+
+    private void processInput() throws IOException {
+        final ByteBuffer buffer = readBuffer;
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining() && ! awaitingHandler && ! throttled) {
+                switch (state) {
+                    case STATE_COMMAND: {
+                        final int cmd = buffer.get() & 0xff;
+                        if (cmd == CHUNK_START) {
+                            state = STATE_LENGTH;
+                        } else if (cmd == CHUNK_END) {
+                            log.trace("Received end data marker");
+                            if (current != null) {
+                                // end message, and wait for it to be consumed before reading the next one
+                                current.finish();
+                                current = null;
+                                awaitingHandler = true;
+                                suspendReads();
+                            }
+                        } else {
+                            throw new IOException("Invalid command byte read: " + cmd);
+                        }
+                        break;
+                    }
+                    case STATE_LENGTH: {
+                        if (buffer.remaining() < 4) {
+                            return;
+                        }
+                        remaining = buffer.getInt();
+                        if (remaining <= 0) {
+                            throw new IOException("Invalid chunk size " + remaining);
+                        }
+                        log.tracef("Received data chunk of size %d", Integer.valueOf(remaining));
+                        if (current == null) {
+                            // new message!
+                            final MessageInputStream stream = new MessageInputStream();
+                            current = stream;
+                            readExecutor.execute(new Runnable() {
+                                public void run() {
+                                    safeHandleMessage(stream);
+                                }
+                            });
+                        }
+                        state = STATE_DATA;
+                        break;
+                    }
+                    case STATE_DATA: {
+                        final byte[] bytes = new byte[Math.min(remaining, buffer.remaining())];
+                        buffer.get(bytes);
+                        remaining -= bytes.length;
+                        if (remaining == 0) {
+                            state = STATE_COMMAND;
+                        }
+                        if (current.add(bytes)) {
+                            throttled = true;
+                            suspendReads();
+                        }
+                        break;
+                    }
+                    default: {
+                        throw new IllegalStateException();
+                    }
+                }
+            }
+        } finally {
+            buffer.compact();
+        }
+    }
+
+    private void handleEndOfStream() {
+        inputDone = true;
+        suspendReads();
+        final MessageInputStream stream = current;
+        current = null;
+        readExecutor.execute(new Runnable() {
+            public void run() {
+                safeHandleShutdown();
+                if (stream != null) {
+                    stream.finish();
+                    stream.awaitClosed();
+                }
+                boolean done;
+                synchronized (lock) {
+                    readDone = true;
+                    done = writeDone;
+                }
+                if (done) {
+                    StreamUtils.safeClose(channel);
+                    ioThread.wakeup();
+                    safeHandleFinished();
+                }
+            }
+        });
+    }
+
+    private void handleReadFailure(final IOException e) {
+        inputDone = true;
+        if (key != null) {
+            key.cancel();
+        }
+        StreamUtils.safeClose(channel);
+        synchronized (lock) {
+            // the key will never report the channel writable again
+            unwritable = true;
+            lock.notifyAll();
+        }
+        final MessageInputStream stream = current;
+        current = null;
+        if (stream != null) {
+            stream.fail(e);
+        }
+        readExecutor.execute(new Runnable() {
+            public void run() {
+                safeHandlerFailure(e);
+            }
+        });
+    }
+
+    // read executor
+
+    void safeHandleMessage(final InputStream pis) {
+        try {
+            messageHandler.handleMessage(this, pis);
+        } catch (RuntimeException e) {
+            log.errorf(e, "Failed to read a message");
+        } catch (IOException e) {
+            log.errorf(e, "Failed to read a message");
+        } catch (NoClassDefFoundError e) {
+            log.errorf(e, "Failed to read a message");
+        } catch (Error e) {
+            log.errorf(e, "Failed to read a message");
+            throw e;
+        } finally {
+            StreamUtils.safeClose(pis);
+        }
+    }
+
+    void safeHandleShutdown() {
+        try {
+            messageHandler.handleShutdown(this);
+        } catch (IOException e) {
+            log.errorf(e, "Failed to handle socket shut down condition");
+        }
+    }
+
+    void safeHandleFinished() {
+        try {
+            messageHandler.handleFinished(this);
+        } catch (IOException e) {
+            log.errorf(e, "Failed to handle socket finished condition");
+        }
+    }
+
+    void safeHandlerFailure(IOException e) {
+        try {
+            messageHandler.handleFailure(this, e);
+        } catch (IOException e1) {
+            log.errorf(e1, "Failed to handle socket failure condition");
+        }
+    }
+
+    /**
+     * The content of one message, filled by the I/O thread and consumed by the message handler.
+     */
+    final class MessageInputStream extends InputStream {
+
+        // all protected by this
+        private final Queue<byte[]> chunks = new ArrayDeque<byte[]>();
+        private int position;
+        private int buffered;
+        private boolean eof;
+        private boolean closed;
+        private boolean throttled;
+        private IOException failure;
+
+        /**
+         * Add a chunk of message content.
+         *
+         * @param bytes the content
+         * @return {@code true} if reading should be suspended until the content is consumed
+         */
+        synchronized boolean add(final byte[] bytes) {
+            if (closed) {
+                return false;
+            }
+            chunks.add(bytes);
+            buffered += bytes.length;
+            notifyAll();
+            if (buffered > MAX_BUFFERED) {
+                throttled = true;
+            }
+            return throttled;
+        }
+
+        synchronized void finish() {
+            eof = true;
+            notifyAll();
+        }
+
+        synchronized void fail(final IOException e) {
+            failure = e;
+            notifyAll();
+        }
+
+        synchronized void awaitClosed() {
+            boolean intr = false;
+            try {
+                while (! closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        intr = true;
+                    }
+                }
+            } finally {
+                if (intr) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            final int cnt;
+            boolean resume = false;
+            synchronized (this) {
+                byte[] chunk;
+                while ((chunk = chunks.peek()) == null) {
+                    if (closed) {
+                        throw new IOException("Stream closed");
+                    }
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    if (eof) {
+                        return -1;
+                    }
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                }
+                cnt = Math.min(len, chunk.length - position);
+                System.arraycopy(chunk, position, b, off, cnt);
+                position += cnt;
+                if (position == chunk.length) {
+                    chunks.remove();
+                    position = 0;
+                }
+                buffered -= cnt;
+                if (throttled && buffered <= MAX_BUFFERED / 2) {
+                    throttled = false;
+                    resume = true;
+                }
+            }
+            if (resume) {
+                ioThread.execute(resumeTask);
+            }
+            return cnt;
+        }
+
+        @Override
+        public synchronized int available() throws IOException {
+            return buffered;
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+            }
+            try {
+                final byte[] discard = new byte[8192];
+                while (read(discard, 0, discard.length) != -1) {}
+            } finally {
+                synchronized (this) {
+                    closed = true;
+                    chunks.clear();
+                    notifyAll();
+                }
+                ioThread.execute(handledTask);
+            }
+        }
+    }
+
+    final class MessageOutputStream extends OutputStream {
+
+        private final ByteBuffer hdr = ByteBuffer.allocate(5);
+        private final ByteBuffer data = ByteBuffer.allocate(8192);
+        private final ByteBuffer end = ByteBuffer.allocate(1);
+        private final ByteBuffer[] frame = new ByteBuffer[3];
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (! data.hasRemaining()) {
+                flush();
+            }
+            data.put((byte) b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (len >= data.capacity()) {
+                // too big to be worth copying
+                flush();
+                writeChunk(ByteBuffer.wrap(b, off, len), false);
+                return;
+            }
+            int pos = off;
+            int rem = len;
+            while (rem > 0) {
+                if (! data.hasRemaining()) {
+                    flush();
+                }
+                final int cnt = Math.min(rem, data.remaining());
+                data.put(b, pos, cnt);
+                pos += cnt;
+                rem -= cnt;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (data.position() > 0) {
+                data.flip();
+                try {
+                    writeChunk(data, false);
+                } finally {
+                    data.clear();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (lock) {
+                if (sender != this) {
+                    return;
+                }
+                try {
+                    if (writeDone) throw new IOException("Write channel closed");
+                    if (readDone) {
+                        readExecutor.execute(new Runnable() {
+                            public void run() {
+                                safeHandleFinished();
+                            }
+                        });
+                    }
+                    log.tracef("Sending end of message");
+                    data.flip();
+                    writeChunk(data, true);
+                } finally {
+                    sender = null;
+                    // wake up waiters
+                    lock.notify();
+                }
+            }
+        }
+
+        /**
+         * Write a chunk, and the end of message marker if requested, with a single gathering write.
+         */
+        private void writeChunk(final ByteBuffer chunk, final boolean last) throws IOException {
+            synchronized (lock) {
+                if (sender != this || writeDone) {
+                    if (sender == this) sender = null;
+                    lock.notifyAll();
+                    throw new IOException("Write channel closed");
+                }
+                int cnt = 0;
+                final int len = chunk.remaining();
+                if (len > 0) {
+                    log.tracef("Sending data chunk of size %d", Integer.valueOf(len));
+                    hdr.clear();
+                    hdr.put((byte) CHUNK_START).putInt(len).flip();
+                    frame[cnt++] = hdr;
+                    frame[cnt++] = chunk;
+                }
+                if (last) {
+                    end.clear();
+                    end.put((byte) CHUNK_END).flip();
+                    frame[cnt++] = end;
+                }
+                writeFully(frame, cnt);
+            }
+        }
+
+        // called with lock held; the channel is non-blocking, so wait for the I/O thread to report it writable again
+        private void writeFully(final ByteBuffer[] buffers, final int length) throws IOException {
+            final ByteBuffer last = buffers[length - 1];
+            while (last.hasRemaining()) {
+                if (channel.write(buffers, 0, length) == 0) {
+                    writeBlocked = true;
+                    ioThread.execute(new Runnable() {
+                        public void run() {
+                            if (key != null && key.isValid()) {
+                                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                            } else {
+                                synchronized (lock) {
+                                    unwritable = true;
+                                    lock.notifyAll();
+                                }
+                            }
+                        }
+                    });
+                    while (writeBlocked && !unwritable && channel.isOpen()) {
+                        try {
+                            lock.wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new InterruptedIOException();
+                        }
+                    }
+                    if (unwritable) {
+                        throw new IOException("Connection is not registered for writing");
+                    }
+                }
+            }
+        }
+
+        @Override
+        protected void finalize() throws Throwable {
+            super.finalize();
+            synchronized (lock) {
+                if (sender == this) {
+                    log.warnf("Leaked a message output stream; cleaning");
+                    close();
+                }
+            }
+        }
+    }
+}
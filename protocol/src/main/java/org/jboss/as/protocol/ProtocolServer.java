@@ -27,6 +27,8 @@ import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
 
@@ -35,6 +37,11 @@ import javax.net.ServerSocketFactory;
 import org.jboss.logging.Logger;
 
 /**
+ * A protocol server.  By default each accepted connection is given a reader thread of its own; if the configuration
+ * specifies a number of {@link Configuration#setIoThreads(int) I/O threads}, connections are instead serviced by
+ * that many selector threads using non-blocking socket channels, so the number of threads no longer grows with the
+ * number of connections.
+ *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class ProtocolServer {
@@ -48,10 +55,12 @@ public final class ProtocolServer {
     private final int backlog;
     private final int readTimeout;
     private final Executor readExecutor;
+    private final int ioThreadCount;
     private volatile boolean stop;
     private volatile Thread thread;
     private volatile ServerSocket serverSocket;
     private volatile InetSocketAddress boundAddress;
+    private volatile IoThread[] ioThreads;
 
     public ProtocolServer(final Configuration configuration) throws IOException {
         threadFactory = configuration.getThreadFactory();
@@ -61,6 +70,7 @@ public final class ProtocolServer {
         backlog = configuration.getBacklog();
         readTimeout = configuration.getReadTimeout();
         readExecutor = configuration.getReadExecutor();
+        ioThreadCount = configuration.getIoThreads();
         if (bindAddress == null) {
             throw new IllegalArgumentException("bindAddress is null");
         }
@@ -71,6 +81,10 @@ public final class ProtocolServer {
 
     public void start() throws IOException {
         stop = false;
+        if (ioThreadCount > 0) {
+            startNonBlocking();
+            return;
+        }
 
         final ServerSocket serverSocket = socketFactory.createServerSocket();
         this.serverSocket = serverSocket;
@@ -129,6 +143,88 @@ public final class ProtocolServer {
             thread.interrupt();
         }
         StreamUtils.safeClose(serverSocket);
+        final IoThread[] ioThreads = this.ioThreads;
+        this.ioThreads = null;
+        if (ioThreads != null) {
+            for (IoThread ioThread : ioThreads) {
+                ioThread.stop();
+            }
+        }
+    }
+
+    private void startNonBlocking() throws IOException {
+        final IoThread[] ioThreads = new IoThread[ioThreadCount];
+        final ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        boolean ok = false;
+        try {
+            for (int i = 0; i < ioThreads.length; i++) {
+                final IoThread ioThread = new IoThread();
+                ioThreads[i] = ioThread;
+                final Thread thread = threadFactory.newThread(ioThread);
+                if (thread == null) {
+                    throw new IOException("Failed to create I/O thread");
+                }
+                thread.setName("I/O thread " + (i + 1) + " for " + bindAddress);
+                thread.start();
+            }
+            final ServerSocket serverSocket = serverChannel.socket();
+            this.serverSocket = serverSocket;
+            thread = threadFactory.newThread(new Runnable() {
+                public void run() {
+                    int next = 0;
+                    try {
+                        while (serverChannel.isOpen() && ! stop) {
+                            try {
+                                final SocketChannel channel = serverChannel.accept();
+                                safeHandleConnection(channel, ioThreads[next++ % ioThreads.length]);
+                            } catch (IOException e) {
+                                if (!stop) {
+                                    log.errorf(e, "Failed to accept a connection");
+                                }
+                            }
+                        }
+                    } finally {
+                        StreamUtils.safeClose(serverChannel);
+                    }
+                }
+            });
+            if (thread == null) {
+                throw new IOException("Failed to create server thread");
+            }
+            thread.setName("Accept thread");
+            serverSocket.setReuseAddress(true);
+            serverSocket.bind(bindAddress, backlog);
+            boundAddress = (InetSocketAddress) serverSocket.getLocalSocketAddress();
+            this.ioThreads = ioThreads;
+            thread.start();
+            ok = true;
+        } finally {
+            if (! ok) {
+                StreamUtils.safeClose(serverChannel);
+                for (IoThread ioThread : ioThreads) {
+                    if (ioThread != null) {
+                        ioThread.stop();
+                    }
+                }
+            }
+        }
+    }
+
+    private void safeHandleConnection(final SocketChannel channel, final IoThread ioThread) {
+        boolean ok = false;
+        try {
+            channel.configureBlocking(false);
+            final NioConnectionImpl connection = new NioConnectionImpl(channel, ioThread, MessageHandler.NULL, readExecutor);
+            connection.setMessageHandler(connectionHandler.handleConnected(connection));
+            connection.register();
+            ok = true;
+        } catch (IOException e) {
+            log.errorf(e, "Failed to handle incoming connection");
+        } finally {
+            if (! ok) {
+                StreamUtils.safeClose(channel);
+            }
+        }
     }
 
     private void safeHandleConnection(final Socket socket) {
@@ -169,6 +265,7 @@ public final class ProtocolServer {
         private int backlog;
         private int readTimeout;
         private Executor readExecutor;
+        private int ioThreads;
 
         public ThreadFactory getThreadFactory() {
             return threadFactory;
@@ -233,5 +330,20 @@ public final class ProtocolServer {
         public void setReadExecutor(final Executor readExecutor) {
             this.readExecutor = readExecutor;
         }
+
+        public int getIoThreads() {
+            return ioThreads;
+        }
+
+        /**
+         * Set the number of selector threads which service the connections.  If zero (the default), each
+         * connection has a reader thread of its own.  The socket factory and read timeout only apply to
+         * connections with a reader thread of their own.
+         *
+         * @param ioThreads the number of I/O threads
+         */
+        public void setIoThreads(final int ioThreads) {
+            this.ioThreads = ioThreads;
+        }
     }
 }
@@ -31,6 +31,7 @@ import java.util.concurrent.TimeUnit;
 import javax.net.SocketFactory;
 import org.jboss.as.protocol.Connection;
 import org.jboss.as.protocol.MessageHandler;
+import org.jboss.as.protocol.MultiplexedConnection;
 import org.jboss.as.protocol.ProtocolClient;
 import static org.jboss.as.protocol.StreamUtils.safeClose;
 
@@ -117,4 +118,30 @@ public interface ManagementRequestConnectionStrategy {
             safeClose(connection);
         }
     }
+
+    /**
+     * Strategy that opens a new channel on a shared multiplexed connection, so that any number of requests
+     * can be in progress on the same connection at once.  A new instance must be used for each request.
+     */
+    static class MultiplexedConnectionStrategy implements ManagementRequestConnectionStrategy {
+        private final MultiplexedConnection multiplexedConnection;
+        private Connection channel;
+
+        public MultiplexedConnectionStrategy(final MultiplexedConnection multiplexedConnection) {
+            this.multiplexedConnection = multiplexedConnection;
+        }
+
+        /** {@inheritDoc} */
+        public synchronized Connection getConnection() throws IOException {
+            if (channel == null) {
+                channel = multiplexedConnection.openChannel();
+            }
+            return channel;
+        }
+
+        /** {@inheritDoc} */
+        public synchronized void complete() {
+            safeClose(channel);
+        }
+    }
 }
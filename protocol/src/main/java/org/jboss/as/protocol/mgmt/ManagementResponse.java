@@ -84,6 +84,16 @@ public abstract class ManagementResponse extends AbstractMessageHandler {
     protected void sendResponse(final OutputStream output) throws IOException {
     }
 
+    /**
+     * Called once the whole response has been written, after the connection's message handler has been set to
+     * the final message handler.
+     *
+     * @param connection The connection
+     * @throws IOException If any problems occur
+     */
+    protected void responseComplete(final Connection connection) throws IOException {
+    }
+
     final MessageHandler requestBodyHandler = new AbstractMessageHandler() {
         @Override
         public final void handle(final Connection connection, final InputStream input) throws IOException {
@@ -129,6 +139,7 @@ public abstract class ManagementResponse extends AbstractMessageHandler {
             } finally {
                 safeClose(outputStream);
             }
+            responseComplete(connection);
         }
     };
 }
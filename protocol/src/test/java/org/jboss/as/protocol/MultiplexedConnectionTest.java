@@ -0,0 +1,472 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jboss.as.protocol.mgmt.AbstractMessageHandler;
+import org.jboss.as.protocol.mgmt.ManagementHeaderMessageHandler;
+import org.jboss.as.protocol.mgmt.ManagementProtocol;
+import org.jboss.as.protocol.mgmt.ManagementRequest;
+import org.jboss.as.protocol.mgmt.ManagementRequestConnectionStrategy;
+import org.jboss.as.protocol.mgmt.ManagementResponse;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of {@link MultiplexedConnection}.
+ */
+public final class MultiplexedConnectionTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testResponsesOutOfOrder() throws Exception {
+        final LoopbackConnection clientSide = new LoopbackConnection();
+        final LoopbackConnection serverSide = new LoopbackConnection();
+        clientSide.peer = serverSide;
+        serverSide.peer = clientSide;
+
+        final CountDownLatch release = new CountDownLatch(1);
+        // echoes the request back, holding up request 0 until released
+        final MessageHandler echoHandler = new AbstractHandler() {
+            public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+                final int value = StreamUtils.readInt(dataStream);
+                if (value == 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IOException(e.toString());
+                    }
+                }
+                final OutputStream os = connection.writeMessage();
+                StreamUtils.writeInt(os, value);
+                os.close();
+            }
+        };
+        final MultiplexedConnection client = new MultiplexedConnection(clientSide, MessageHandler.NULL, executor);
+        new MultiplexedConnection(serverSide, echoHandler, executor);
+
+        final BlockingQueue<Integer> responses = new LinkedBlockingQueue<Integer>();
+        final Connection first = client.openChannel();
+        final Connection second = client.openChannel();
+        final MessageHandler responseHandler = new AbstractHandler() {
+            public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+                final int value = StreamUtils.readInt(dataStream);
+                connection.close();
+                responses.add(Integer.valueOf(value));
+            }
+        };
+        first.setMessageHandler(responseHandler);
+        second.setMessageHandler(responseHandler);
+
+        send(first, 0);
+        send(second, 1);
+        assertEquals(Integer.valueOf(1), responses.poll(10, TimeUnit.SECONDS));
+        assertNull(responses.poll());
+        release.countDown();
+        assertEquals(Integer.valueOf(0), responses.poll(10, TimeUnit.SECONDS));
+
+        try {
+            send(first, 2);
+            fail("Expected exception");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void testMessagesInOrderOnChannel() throws Exception {
+        final LoopbackConnection clientSide = new LoopbackConnection();
+        final LoopbackConnection serverSide = new LoopbackConnection();
+        clientSide.peer = serverSide;
+        serverSide.peer = clientSide;
+
+        final BlockingQueue<Integer> received = new LinkedBlockingQueue<Integer>();
+        final MessageHandler recordingHandler = new AbstractHandler() {
+            public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+                received.add(Integer.valueOf(StreamUtils.readInt(dataStream)));
+            }
+        };
+        final MultiplexedConnection client = new MultiplexedConnection(clientSide, MessageHandler.NULL, executor);
+        new MultiplexedConnection(serverSide, recordingHandler, executor);
+
+        final Connection channel = client.openChannel();
+        for (int i = 0; i < 100; i++) {
+            send(channel, i);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Integer.valueOf(i), received.poll(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testClosedChannelsForgottenByPeer() throws Exception {
+        final LoopbackConnection clientSide = new LoopbackConnection();
+        final LoopbackConnection serverSide = new LoopbackConnection();
+        clientSide.peer = serverSide;
+        serverSide.peer = clientSide;
+
+        // replies in two messages, so the end of a message is not the end of the exchange
+        final MessageHandler echoHandler = new AbstractHandler() {
+            public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+                final int value = StreamUtils.readInt(dataStream);
+                send(connection, value);
+                send(connection, value);
+            }
+        };
+        final MultiplexedConnection client = new MultiplexedConnection(clientSide, MessageHandler.NULL, executor);
+        final MultiplexedConnection server = new MultiplexedConnection(serverSide, echoHandler, executor);
+
+        final int requests = 50;
+        final CountDownLatch done = new CountDownLatch(requests);
+        for (int i = 0; i < requests; i++) {
+            final Connection channel = client.openChannel();
+            channel.setMessageHandler(new AbstractHandler() {
+                private int received;
+
+                public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+                    StreamUtils.readInt(dataStream);
+                    if (++received == 2) {
+                        connection.close();
+                        done.countDown();
+                    }
+                }
+            });
+            send(channel, i);
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        final long deadline = System.currentTimeMillis() + 10000L;
+        while (server.getRemoteChannelCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(0, server.getRemoteChannelCount());
+    }
+
+    @Test
+    public void testConcurrentManagementRequests() throws Exception {
+        final LoopbackConnection clientSide = new LoopbackConnection();
+        final LoopbackConnection serverSide = new LoopbackConnection();
+        clientSide.peer = serverSide;
+        serverSide.peer = clientSide;
+
+        final int requests = 10;
+        // no response is sent until every request is being handled, so this only completes if they run at once
+        final CyclicBarrier allInProgress = new CyclicBarrier(requests);
+        final MessageHandler operationHandler = new AbstractMessageHandler() {
+            public void handle(final Connection connection, final InputStream input) throws IOException {
+                ProtocolUtils.expectHeader(input, ManagementProtocol.REQUEST_OPERATION);
+                ProtocolUtils.expectHeader(input, ECHO_REQUEST);
+                new EchoResponse(allInProgress).handle(connection, input);
+            }
+        };
+        final MessageHandler initialHandler = new ManagementHeaderMessageHandler() {
+            protected MessageHandler getHandlerForId(final byte handlerId) {
+                return handlerId == ECHO_HANDLER ? operationHandler : null;
+            }
+        };
+        final MultiplexedConnection client = new MultiplexedConnection(clientSide, MessageHandler.NULL, executor);
+        final MultiplexedConnection server = new MultiplexedConnection(serverSide, initialHandler, executor);
+
+        final List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+        for (int i = 0; i < requests; i++) {
+            results.add(new EchoRequest(i).execute(new ManagementRequestConnectionStrategy.MultiplexedConnectionStrategy(client)));
+        }
+        for (int i = 0; i < requests; i++) {
+            assertEquals(Integer.valueOf(i), results.get(i).get());
+        }
+
+        final long deadline = System.currentTimeMillis() + 10000L;
+        while (server.getRemoteChannelCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(0, server.getRemoteChannelCount());
+    }
+
+    @Test
+    public void testMultiplexedAfterRegistration() throws Exception {
+        final LoopbackConnection registeringSide = new LoopbackConnection();
+        final LoopbackConnection acceptingSide = new LoopbackConnection();
+        registeringSide.peer = acceptingSide;
+        acceptingSide.peer = registeringSide;
+
+        // the accepting side only multiplexes its end once the registration response has been written
+        final BlockingQueue<MultiplexedConnection> registered = new LinkedBlockingQueue<MultiplexedConnection>();
+        final MessageHandler registrationHandler = new AbstractMessageHandler() {
+            public void handle(final Connection connection, final InputStream input) throws IOException {
+                ProtocolUtils.expectHeader(input, ManagementProtocol.REQUEST_OPERATION);
+                ProtocolUtils.expectHeader(input, ECHO_REQUEST);
+                new EchoResponse(new CyclicBarrier(1)) {
+                    protected void responseComplete(final Connection connection) throws IOException {
+                        registered.add(new MultiplexedConnection(connection, MessageHandler.NULL, executor));
+                    }
+                }.handle(connection, input);
+            }
+        };
+        acceptingSide.setMessageHandler(new ManagementHeaderMessageHandler() {
+            protected MessageHandler getHandlerForId(final byte handlerId) {
+                return handlerId == ECHO_HANDLER ? registrationHandler : null;
+            }
+        });
+
+        // the registering side multiplexes its end before registering; the request restores it once done
+        final BlockingQueue<Integer> received = new LinkedBlockingQueue<Integer>();
+        new MultiplexedConnection(registeringSide, new AbstractHandler() {
+            public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+                received.add(Integer.valueOf(StreamUtils.readInt(dataStream)));
+            }
+        }, executor);
+        final Integer response = new EchoRequest(42).executeForResult(new ManagementRequestConnectionStrategy.ExistingConnectionStrategy(registeringSide));
+        assertEquals(Integer.valueOf(42), response);
+
+        final MultiplexedConnection accepted = registered.poll(10, TimeUnit.SECONDS);
+        assertNotNull(accepted);
+        send(accepted.openChannel(), 7);
+        assertEquals(Integer.valueOf(7), received.poll(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLargeMessageStreamedInFrames() throws Exception {
+        final LoopbackConnection clientSide = new LoopbackConnection();
+        final LoopbackConnection serverSide = new LoopbackConnection();
+        clientSide.peer = serverSide;
+        serverSide.peer = clientSide;
+
+        final int size = MultiplexedConnection.FRAME_SIZE * 3 + 17;
+        final CountDownLatch firstFrameRead = new CountDownLatch(1);
+        final BlockingQueue<Object> results = new LinkedBlockingQueue<Object>();
+        new MultiplexedConnection(serverSide, new AbstractHandler() {
+            public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+                int count = 0;
+                int b;
+                while ((b = dataStream.read()) != -1) {
+                    if (b != (count & 0xff)) {
+                        results.add("Unexpected byte at " + count);
+                        return;
+                    }
+                    if (++count == MultiplexedConnection.FRAME_SIZE) {
+                        firstFrameRead.countDown();
+                    }
+                }
+                results.add(Integer.valueOf(count));
+            }
+        }, executor);
+        final MultiplexedConnection client = new MultiplexedConnection(clientSide, MessageHandler.NULL, executor);
+
+        final OutputStream os = client.openChannel().writeMessage();
+        for (int i = 0; i < MultiplexedConnection.FRAME_SIZE + 1; i++) {
+            os.write(i & 0xff);
+        }
+        // the receiver reads the first frame while the rest of the message is still being written
+        assertTrue(firstFrameRead.await(10, TimeUnit.SECONDS));
+        assertNull(results.poll());
+        for (int i = MultiplexedConnection.FRAME_SIZE + 1; i < size; i++) {
+            os.write(i & 0xff);
+        }
+        os.close();
+        assertEquals(Integer.valueOf(size), results.poll(10, TimeUnit.SECONDS));
+        assertEquals(4, serverSide.received.get());
+    }
+
+    @Test
+    public void testPartialMessageFailsOnConnectionFailure() throws Exception {
+        final LoopbackConnection clientSide = new LoopbackConnection();
+        final LoopbackConnection serverSide = new LoopbackConnection();
+        clientSide.peer = serverSide;
+        serverSide.peer = clientSide;
+
+        final BlockingQueue<Object> results = new LinkedBlockingQueue<Object>();
+        final MultiplexedConnection server = new MultiplexedConnection(serverSide, new AbstractHandler() {
+            public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+                try {
+                    while (dataStream.read() != -1) {
+                    }
+                    results.add("Read to the end of an incomplete message");
+                } catch (IOException expected) {
+                    results.add(expected);
+                }
+            }
+        }, executor);
+        final MultiplexedConnection client = new MultiplexedConnection(clientSide, MessageHandler.NULL, executor);
+
+        final OutputStream os = client.openChannel().writeMessage();
+        os.write(new byte[MultiplexedConnection.FRAME_SIZE + 1]);
+        server.handleFailure(serverSide, new IOException("Lost"));
+        assertTrue(results.poll(10, TimeUnit.SECONDS) instanceof IOException);
+    }
+
+    private static void send(final Connection connection, final int value) throws IOException {
+        final OutputStream os = connection.writeMessage();
+        StreamUtils.writeInt(os, value);
+        os.close();
+    }
+
+    private static final byte ECHO_HANDLER = 0x7f;
+    private static final byte ECHO_REQUEST = 0x01;
+    private static final byte ECHO_RESPONSE = 0x02;
+
+    private static final class EchoRequest extends ManagementRequest<Integer> {
+        private final int value;
+
+        EchoRequest(final int value) {
+            this.value = value;
+        }
+
+        protected byte getHandlerId() {
+            return ECHO_HANDLER;
+        }
+
+        protected byte getRequestCode() {
+            return ECHO_REQUEST;
+        }
+
+        protected byte getResponseCode() {
+            return ECHO_RESPONSE;
+        }
+
+        protected void sendRequest(final int protocolVersion, final OutputStream output) throws IOException {
+            StreamUtils.writeInt(output, value);
+        }
+
+        protected Integer receiveResponse(final InputStream input) throws IOException {
+            return Integer.valueOf(StreamUtils.readInt(input));
+        }
+    }
+
+    private static class EchoResponse extends ManagementResponse {
+        private final CyclicBarrier allInProgress;
+        private int value;
+
+        EchoResponse(final CyclicBarrier allInProgress) {
+            this.allInProgress = allInProgress;
+        }
+
+        protected byte getResponseCode() {
+            return ECHO_RESPONSE;
+        }
+
+        protected void readRequest(final InputStream input) throws IOException {
+            value = StreamUtils.readInt(input);
+        }
+
+        protected void sendResponse(final OutputStream output) throws IOException {
+            try {
+                allInProgress.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IOException(e.toString());
+            }
+            StreamUtils.writeInt(output, value);
+        }
+    }
+
+    private abstract static class AbstractHandler implements MessageHandler {
+        public void handleShutdown(final Connection connection) throws IOException {
+        }
+
+        public void handleFailure(final Connection connection, final IOException e) throws IOException {
+        }
+
+        public void handleFinished(final Connection connection) throws IOException {
+        }
+    }
+
+    /**
+     * A connection which hands each message straight to the message handler of its peer.
+     */
+    private static final class LoopbackConnection implements Connection {
+        private volatile LoopbackConnection peer;
+        private volatile MessageHandler messageHandler = MessageHandler.NULL;
+        private volatile MessageHandler backupHandler;
+        private volatile Object attachment;
+        private final AtomicInteger received = new AtomicInteger();
+
+        public OutputStream writeMessage() throws IOException {
+            return new ByteArrayOutputStream() {
+                private boolean closed;
+
+                public void close() throws IOException {
+                    if (closed) {
+                        return;
+                    }
+                    closed = true;
+                    final LoopbackConnection target = peer;
+                    synchronized (target) {
+                        target.received.incrementAndGet();
+                        target.messageHandler.handleMessage(target, new ByteArrayInputStream(toByteArray()));
+                    }
+                }
+            };
+        }
+
+        public void shutdownWrites() throws IOException {
+        }
+
+        public void close() throws IOException {
+        }
+
+        public void setMessageHandler(final MessageHandler messageHandler) {
+            this.messageHandler = messageHandler;
+        }
+
+        public InetAddress getPeerAddress() {
+            return null;
+        }
+
+        public void attach(final Object attachment) {
+            this.attachment = attachment;
+        }
+
+        public Object getAttachment() {
+            return attachment;
+        }
+
+        public void backupMessageHandler() {
+            backupHandler = messageHandler;
+        }
+
+        public void restoreMessageHandler() {
+            setMessageHandler(backupHandler);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Compares the number of server threads and the request latency of {@link ProtocolServer} with a reader thread per
+ * connection and with I/O threads. This is not run as part of the unit tests; run it directly with
+ * {@code [connections] [io threads] [requests per connection]} as arguments.
+ */
+public class ProtocolServerLoadBenchmark {
+
+    public static void main(final String[] args) throws Exception {
+        final int connections = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        final int ioThreads = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        final int requests = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+
+        run(connections, 0, requests);
+        run(connections, ioThreads, requests);
+    }
+
+    private static void run(final int connections, final int ioThreads, final int requests) throws Exception {
+        final ThreadGroup serverThreads = new ThreadGroup("server");
+        final ThreadFactory serverThreadFactory = new ThreadFactory() {
+            public Thread newThread(final Runnable r) {
+                return new Thread(serverThreads, r);
+            }
+        };
+        final ExecutorService serverExecutor = Executors.newCachedThreadPool(serverThreadFactory);
+        final ExecutorService clientExecutor = Executors.newCachedThreadPool();
+        final ProtocolServer server = ProtocolServerTest.startEchoServer(ioThreads, serverExecutor, serverThreadFactory, null);
+        try {
+            final ProtocolServerTest.Client[] clients = new ProtocolServerTest.Client[connections];
+            for (int i = 0; i < connections; i++) {
+                clients[i] = new ProtocolServerTest.Client(server.getBoundAddress(), clientExecutor, Executors.defaultThreadFactory());
+            }
+            final byte[] message = new byte[256];
+            final long[] latencies = new long[connections * requests];
+            int n = 0;
+            for (int i = 0; i < requests; i++) {
+                for (ProtocolServerTest.Client client : clients) {
+                    final long start = System.nanoTime();
+                    client.send(message);
+                    client.receive();
+                    latencies[n++] = System.nanoTime() - start;
+                }
+            }
+            final int threads = serverThreads.activeCount();
+            Arrays.sort(latencies);
+            long total = 0;
+            for (long latency : latencies) {
+                total += latency;
+            }
+            System.out.printf("%s: %d connections, %d server threads, mean %d us, p99 %d us%n",
+                    ioThreads > 0 ? ioThreads + " I/O threads" : "reader thread per connection",
+                    Integer.valueOf(connections), Integer.valueOf(threads),
+                    Long.valueOf(total / latencies.length / 1000), Long.valueOf(latencies[latencies.length * 99 / 100] / 1000));
+            for (ProtocolServerTest.Client client : clients) {
+                client.connection.close();
+            }
+        } finally {
+            server.stop();
+            serverExecutor.shutdownNow();
+            clientExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import javax.net.ServerSocketFactory;
+import javax.net.SocketFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of {@link ProtocolServer} with I/O threads servicing the connections.
+ */
+public final class ProtocolServerTest {
+
+    private static final long SEED = 123L;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final ThreadFactory threadFactory = Executors.defaultThreadFactory();
+    private final CountDownLatch shutdown = new CountDownLatch(1);
+    private ProtocolServer server;
+
+    @Before
+    public void start() throws Exception {
+        server = startEchoServer(2, executor, threadFactory, shutdown);
+    }
+
+    @After
+    public void stop() {
+        server.stop();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testEchoOnManyConnections() throws Exception {
+        final Random random = new Random(SEED);
+        final Client[] clients = new Client[20];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = new Client(server.getBoundAddress(), executor, threadFactory);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (Client client : clients) {
+                final byte[] message = new byte[random.nextInt(20000) + 1];
+                random.nextBytes(message);
+                client.send(message);
+                assertTrue(Arrays.equals(message, client.receive()));
+            }
+        }
+        for (Client client : clients) {
+            client.connection.close();
+        }
+    }
+
+    @Test
+    public void testLargeMessagesInOrder() throws Exception {
+        final Random random = new Random(SEED);
+        final Client client = new Client(server.getBoundAddress(), executor, threadFactory);
+        final byte[][] messages = new byte[3][];
+        for (int i = 0; i < messages.length; i++) {
+            // large enough to make the server suspend reading until the handler catches up
+            messages[i] = new byte[300000 + i];
+            random.nextBytes(messages[i]);
+            client.send(messages[i]);
+        }
+        for (byte[] message : messages) {
+            assertTrue(Arrays.equals(message, client.receive()));
+        }
+        client.connection.close();
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        final Client client = new Client(server.getBoundAddress(), executor, threadFactory);
+        client.send(new byte[] { 1 });
+        assertEquals(1, client.receive().length);
+        client.connection.shutdownWrites();
+        assertTrue(shutdown.await(10, TimeUnit.SECONDS));
+    }
+
+    static ProtocolServer startEchoServer(final int ioThreads, final ExecutorService executor, final ThreadFactory threadFactory, final CountDownLatch shutdown) throws IOException {
+        final ProtocolServer.Configuration config = new ProtocolServer.Configuration();
+        config.setBindAddress(new InetSocketAddress(InetAddress.getByName("localhost"), 0));
+        config.setThreadFactory(threadFactory);
+        config.setReadExecutor(executor);
+        config.setSocketFactory(ServerSocketFactory.getDefault());
+        config.setBacklog(50);
+        config.setIoThreads(ioThreads);
+        config.setConnectionHandler(new ConnectionHandler() {
+            public MessageHandler handleConnected(final Connection connection) throws IOException {
+                return new AbstractHandler() {
+                    public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+                        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                        StreamUtils.copyStream(dataStream, bytes);
+                        dataStream.close();
+                        final OutputStream os = connection.writeMessage();
+                        try {
+                            bytes.writeTo(os);
+                            os.close();
+                        } finally {
+                            StreamUtils.safeClose(os);
+                        }
+                    }
+
+                    public void handleShutdown(final Connection connection) throws IOException {
+                        if (shutdown != null) {
+                            shutdown.countDown();
+                        }
+                        connection.shutdownWrites();
+                    }
+                };
+            }
+        });
+        final ProtocolServer server = new ProtocolServer(config);
+        server.start();
+        return server;
+    }
+
+    abstract static class AbstractHandler implements MessageHandler {
+        public void handleShutdown(final Connection connection) throws IOException {
+        }
+
+        public void handleFailure(final Connection connection, final IOException e) throws IOException {
+        }
+
+        public void handleFinished(final Connection connection) throws IOException {
+        }
+    }
+
+    static final class Client {
+        final Connection connection;
+        private final BlockingQueue<byte[]> received = new LinkedBlockingQueue<byte[]>();
+
+        Client(final InetSocketAddress address, final ExecutorService executor, final ThreadFactory threadFactory) throws IOException {
+            final ProtocolClient.Configuration config = new ProtocolClient.Configuration();
+            config.setMessageHandler(new AbstractHandler() {
+                public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+                    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    StreamUtils.copyStream(dataStream, bytes);
+                    received.add(bytes.toByteArray());
+                }
+            });
+            config.setReadExecutor(executor);
+            config.setSocketFactory(SocketFactory.getDefault());
+            config.setServerAddress(address);
+            config.setThreadFactory(threadFactory);
+            connection = new ProtocolClient(config).connect();
+        }
+
+        void send(final byte[] message) throws IOException {
+            final OutputStream os = connection.writeMessage();
+            try {
+                os.write(message);
+                os.close();
+            } finally {
+                StreamUtils.safeClose(os);
+            }
+        }
+
+        byte[] receive() throws InterruptedException {
+            final byte[] message = received.poll(10, TimeUnit.SECONDS);
+            assertNotNull("Timed out waiting for a response", message);
+            return message;
+        }
+    }
+}
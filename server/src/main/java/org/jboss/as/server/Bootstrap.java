@@ -24,6 +24,7 @@ package org.jboss.as.server;
 
 import java.io.File;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.xml.namespace.QName;
 
@@ -32,6 +33,7 @@ import org.jboss.as.controller.parsing.StandaloneXml;
 import org.jboss.as.controller.persistence.BackupXmlConfigurationPersister;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
 import org.jboss.as.controller.persistence.NullConfigurationPersister;
+import org.jboss.as.controller.persistence.WriteBehindConfigurationPersister;
 import org.jboss.modules.Module;
 import org.jboss.modules.ModuleLoader;
 import org.jboss.msc.service.ServiceActivator;
@@ -130,6 +132,10 @@ public interface Bootstrap {
                     QName rootElement = new QName(Namespace.CURRENT.getUriString(), "server");
                     StandaloneXml parser = new StandaloneXml(Module.getSystemModuleLoader());
                     configurationPersister = new BackupXmlConfigurationPersister(new File(serverEnvironment.getServerConfigurationDir(), "standalone.xml"), rootElement, parser, parser);
+                    final long writeDelay = serverEnvironment.getConfigurationWriteDelay();
+                    if (writeDelay > 0) {
+                        configurationPersister = new WriteBehindConfigurationPersister(configurationPersister, writeDelay, TimeUnit.MILLISECONDS);
+                    }
                 }
             }
             return configurationPersister;
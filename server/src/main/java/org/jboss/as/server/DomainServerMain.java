@@ -29,10 +29,13 @@ import java.io.InterruptedIOException;
 import java.io.PrintStream;
 import java.io.Serializable;
 import java.net.InetSocketAddress;
+import java.security.AccessController;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
 
 import org.jboss.as.protocol.Connection;
 import org.jboss.as.protocol.StreamUtils;
+import org.jboss.as.server.mgmt.ManagementChannelExecutorService;
 import org.jboss.as.server.mgmt.domain.HostControllerConnectionService;
 import org.jboss.as.server.mgmt.domain.HostControllerServerClient;
 import org.jboss.logmanager.Level;
@@ -51,6 +54,7 @@ import org.jboss.stdio.LoggingOutputStream;
 import org.jboss.stdio.NullInputStream;
 import org.jboss.stdio.SimpleStdioContextSelector;
 import org.jboss.stdio.StdioContext;
+import org.jboss.threads.JBossThreadFactory;
 
 /**
  * The main entry point for domain-managed server instances.
@@ -156,10 +160,17 @@ public final class DomainServerMain {
                 .setInitialMode(ServiceController.Mode.ACTIVE)
                 .install();
 
+            final ManagementChannelExecutorService channelExecutor = new ManagementChannelExecutorService(ManagementChannelExecutorService.DEFAULT_MAX_THREADS);
+            serviceTarget.addService(HostControllerServerClient.CHANNEL_EXECUTOR_SERVICE_NAME, channelExecutor)
+                .addInjection(channelExecutor.getThreadFactoryInjector(), new JBossThreadFactory(new ThreadGroup("host-controller-channel"),
+                        Boolean.FALSE, null, "%G - %t", null, null, AccessController.getContext()))
+                .install();
+
             final HostControllerServerClient client = new HostControllerServerClient(serverName);
             serviceTarget.addService(HostControllerServerClient.SERVICE_NAME, client)
                 .addDependency(HostControllerConnectionService.SERVICE_NAME, Connection.class, client.getSmConnectionInjector())
                 .addDependency(Services.JBOSS_SERVER_CONTROLLER, ServerController.class, client.getServerControllerInjector())
+                .addDependency(HostControllerServerClient.CHANNEL_EXECUTOR_SERVICE_NAME, ExecutorService.class, client.getChannelExecutorInjector())
                 .setInitialMode(ServiceController.Mode.ACTIVE)
                 .install();
         }
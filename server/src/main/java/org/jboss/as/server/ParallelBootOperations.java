@@ -0,0 +1,229 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+
+/**
+ * Executes the boot operations of the server.  Consecutive operations on subsystems are grouped by subsystem, and the
+ * groups are executed concurrently, each in the order of the configuration.  All other operations, e.g. on extensions,
+ * paths and interfaces, are executed in order by the calling thread, and only once all the operations before them have
+ * been executed.
+ * <p/>
+ * The groups are executed with the thread context class loader of the calling thread.  An operation of a group which
+ * fails with an exception is reported to the result handler as failed, and the rest of its group is still executed.
+ */
+final class ParallelBootOperations {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.server");
+
+    private final ModelController controller;
+    private final ResultHandler resultHandler;
+    private final int threads;
+
+    /**
+     * Create a new instance.
+     *
+     * @param controller the controller to execute the operations with
+     * @param resultHandler the result handler for every operation
+     * @param threads the maximum number of subsystems whose operations are executed at the same time, or {@code 1}
+     *            to execute all operations in order by the calling thread
+     */
+    ParallelBootOperations(final ModelController controller, final ResultHandler resultHandler, final int threads) {
+        this.controller = controller;
+        this.resultHandler = resultHandler;
+        this.threads = threads;
+    }
+
+    /**
+     * Execute the boot operations.  Returns once every operation has been executed.
+     *
+     * @param operations the operations, in the order of the configuration
+     */
+    void execute(final List<ModelNode> operations) {
+        if (threads <= 1) {
+            for (ModelNode operation : operations) {
+                controller.execute(operation, resultHandler);
+            }
+            return;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, new BootThreadFactory(SecurityActions.getContextClassLoader()));
+        try {
+            final Map<String, List<ModelNode>> subsystems = new LinkedHashMap<String, List<ModelNode>>();
+            for (ModelNode operation : operations) {
+                final String subsystem = getSubsystem(operation);
+                if (subsystem == null) {
+                    executeSubsystems(executor, subsystems);
+                    controller.execute(operation, resultHandler);
+                } else {
+                    List<ModelNode> subsystemOperations = subsystems.get(subsystem);
+                    if (subsystemOperations == null) {
+                        subsystemOperations = new ArrayList<ModelNode>();
+                        subsystems.put(subsystem, subsystemOperations);
+                    }
+                    subsystemOperations.add(operation);
+                }
+            }
+            executeSubsystems(executor, subsystems);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void executeSubsystems(final ExecutorService executor, final Map<String, List<ModelNode>> subsystems) {
+        if (subsystems.isEmpty()) {
+            return;
+        }
+        final CountDownLatch done = new CountDownLatch(subsystems.size());
+        for (final List<ModelNode> subsystemOperations : subsystems.values()) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        for (ModelNode operation : subsystemOperations) {
+                            executeReported(operation);
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            });
+        }
+        subsystems.clear();
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                try {
+                    done.await();
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Execute an operation, making sure the result handler hears of it exactly once, even if the controller throws
+     * an exception before it reports the outcome.
+     */
+    private void executeReported(final ModelNode operation) {
+        final OnceResultHandler handler = new OnceResultHandler(resultHandler);
+        RuntimeException failure = null;
+        boolean executed = false;
+        try {
+            controller.execute(operation, handler);
+            executed = true;
+        } catch (RuntimeException e) {
+            failure = e;
+            log.errorf(e, "Failed to execute boot operation %s", operation);
+        } finally {
+            if (!executed) {
+                final ModelNode failureDescription = new ModelNode();
+                failureDescription.set(failure == null ? "Failed to execute boot operation" : "Failed to execute boot operation: " + failure);
+                handler.handleFailed(failureDescription);
+            }
+        }
+    }
+
+    private static String getSubsystem(final ModelNode operation) {
+        if (!operation.hasDefined(OP_ADDR)) {
+            return null;
+        }
+        final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+        if (address.size() > 0 && SUBSYSTEM.equals(address.getElement(0).getKey())) {
+            return address.getElement(0).getValue();
+        }
+        return null;
+    }
+
+    /**
+     * Passes on only the first outcome of an operation.
+     */
+    private static final class OnceResultHandler implements ResultHandler {
+        private final ResultHandler delegate;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        OnceResultHandler(final ResultHandler delegate) {
+            this.delegate = delegate;
+        }
+
+        public void handleResultFragment(final String[] location, final ModelNode result) {
+            delegate.handleResultFragment(location, result);
+        }
+
+        public void handleResultComplete(final ModelNode compensatingOperation) {
+            if (done.compareAndSet(false, true)) {
+                delegate.handleResultComplete(compensatingOperation);
+            }
+        }
+
+        public void handleFailed(final ModelNode failureDescription) {
+            if (done.compareAndSet(false, true)) {
+                delegate.handleFailed(failureDescription);
+            }
+        }
+
+        public void handleCancellation() {
+            if (done.compareAndSet(false, true)) {
+                delegate.handleCancellation();
+            }
+        }
+    }
+
+    private static final class BootThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+        private final ClassLoader contextClassLoader;
+
+        BootThreadFactory(final ClassLoader contextClassLoader) {
+            this.contextClassLoader = contextClassLoader;
+        }
+
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(r, "Boot operation thread " + count.incrementAndGet());
+            SecurityActions.setContextClassLoader(thread, contextClassLoader);
+            return thread;
+        }
+    }
+}
@@ -83,6 +83,35 @@ class SecurityActions {
         }
     }
 
+    static ClassLoader getContextClassLoader() {
+        if (System.getSecurityManager() == null) {
+            return Thread.currentThread().getContextClassLoader();
+        }
+
+        return AccessController.doPrivileged(new PrivilegedAction<ClassLoader>() {
+
+            @Override
+            public ClassLoader run() {
+                return Thread.currentThread().getContextClassLoader();
+            }
+        });
+    }
+
+    static void setContextClassLoader(final Thread thread, final ClassLoader classLoader) {
+        if (System.getSecurityManager() == null) {
+            thread.setContextClassLoader(classLoader);
+        } else {
+            AccessController.doPrivileged(new PrivilegedAction<Void>() {
+
+                @Override
+                public Void run() {
+                    thread.setContextClassLoader(classLoader);
+                    return null;
+                }
+            });
+        }
+    }
+
     public static Properties getSystemProperties() {
         if (System.getSecurityManager() == null) {
             return System.getProperties();
@@ -24,6 +24,7 @@ package org.jboss.as.server;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HASH;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HTTP_API;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INTERFACE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT;
@@ -45,10 +46,14 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYS
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.PROFILE_NAME;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicStampedReference;
 
@@ -79,6 +84,7 @@ import org.jboss.as.server.deployment.DeploymentDeployHandler;
 import org.jboss.as.server.deployment.DeploymentFullReplaceHandler;
 import org.jboss.as.server.deployment.DeploymentRedeployHandler;
 import org.jboss.as.server.deployment.DeploymentRemoveHandler;
+import org.jboss.as.server.deployment.DeploymentRepositoryMetricsHandler;
 import org.jboss.as.server.deployment.DeploymentReplaceHandler;
 import org.jboss.as.server.deployment.DeploymentUndeployHandler;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
@@ -103,6 +109,7 @@ import org.jboss.as.server.operations.SpecifiedPathRemoveHandler;
 import org.jboss.as.server.operations.SystemPropertyAddHandler;
 import org.jboss.as.server.operations.SystemPropertyRemoveHandler;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
 import org.jboss.logging.Logger;
 import org.jboss.msc.service.DelegatingServiceRegistry;
 import org.jboss.msc.service.ServiceContainer;
@@ -117,6 +124,7 @@ final class ServerControllerImpl extends BasicModelController implements ServerC
     private static final Logger log = Logger.getLogger("org.jboss.as.server");
 
     private final ServiceContainer container;
+    private final ThreadPoolExecutor containerExecutor;
     private final ServiceRegistry serviceRegistry;
     private final ServerEnvironment serverEnvironment;
     private final AtomicInteger stamp = new AtomicInteger(0);
@@ -125,11 +133,12 @@ final class ServerControllerImpl extends BasicModelController implements ServerC
     private final DeploymentRepository deploymentRepository;
     private final EnumMap<Phase, SortedSet<RegisteredProcessor>> deployers = new EnumMap<Phase, SortedSet<RegisteredProcessor>>(Phase.class);
 
-    ServerControllerImpl(final ServiceContainer container, final ServerEnvironment serverEnvironment,
+    ServerControllerImpl(final ServiceContainer container, final ThreadPoolExecutor containerExecutor, final ServerEnvironment serverEnvironment,
             final ExtensibleConfigurationPersister configurationPersister, final DeploymentRepository deploymentRepository) {
         super(createCoreModel(), configurationPersister, ServerDescriptionProviders.ROOT_PROVIDER);
         this.extensibleConfigurationPersister = configurationPersister;
         this.container = container;
+        this.containerExecutor = containerExecutor;
         this.serverEnvironment = serverEnvironment;
         this.deploymentRepository = deploymentRepository;
         serviceRegistry = new DelegatingServiceRegistry(container);
@@ -166,6 +175,14 @@ final class ServerControllerImpl extends BasicModelController implements ServerC
         DeploymentFullReplaceHandler dfrh = new DeploymentFullReplaceHandler(deploymentRepository);
         root.registerOperationHandler(DeploymentFullReplaceHandler.OPERATION_NAME, dfrh, dfrh, false);
         root.registerOperationHandler(ServerCompositeOperationHandler.OPERATION_NAME, ServerCompositeOperationHandler.INSTANCE, ServerCompositeOperationHandler.INSTANCE, false);
+        DeploymentRepositoryMetricsHandler drmh = new DeploymentRepositoryMetricsHandler(deploymentRepository);
+        for (String metric : DeploymentRepositoryMetricsHandler.METRICS) {
+            root.registerMetric(metric, drmh);
+        }
+        ServiceContainerMetricsHandler scmh = new ServiceContainerMetricsHandler(containerExecutor);
+        for (String metric : ServiceContainerMetricsHandler.METRICS) {
+            root.registerMetric(metric, scmh);
+        }
 
         // Management API protocols
         ModelNodeRegistration managementNative = root.registerSubModel(PathElement.pathElement(MANAGEMENT, NATIVE_API), CommonProviders.MANAGEMENT_PROVIDER);
@@ -233,6 +250,26 @@ final class ServerControllerImpl extends BasicModelController implements ServerC
         return root;
     }
 
+    /**
+     * Get the hashes of the deployment content the deployments in the model refer to.
+     *
+     * @return the referenced hashes
+     */
+    Collection<byte[]> getReferencedDeploymentContent() {
+        final List<byte[]> referenced = new ArrayList<byte[]>();
+        // the model must not be modified, so only navigate existing nodes
+        final ModelNode model = getModel();
+        if (model.hasDefined(DEPLOYMENT)) {
+            for (Property deployment : model.get(DEPLOYMENT).asPropertyList()) {
+                final ModelNode deploymentModel = deployment.getValue();
+                if (deploymentModel.hasDefined(HASH)) {
+                    referenced.add(deploymentModel.get(HASH).asBytes());
+                }
+            }
+        }
+        return referenced;
+    }
+
     EnumMap<Phase, SortedSet<RegisteredProcessor>> finishBoot() {
         state.set(State.RUNNING, stamp.incrementAndGet());
         EnumMap<Phase, SortedSet<RegisteredProcessor>> copy = new EnumMap<Phase, SortedSet<RegisteredProcessor>>(Phase.class);
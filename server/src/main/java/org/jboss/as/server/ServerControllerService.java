@@ -25,21 +25,25 @@ package org.jboss.as.server;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
+import org.jboss.as.controller.persistence.WriteBehindConfigurationPersister;
 import org.jboss.as.server.ServerControllerImpl.RegisteredProcessor;
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeployerChainsService;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -51,6 +55,7 @@ import org.jboss.as.server.deployment.SubDeploymentProcessor;
 import org.jboss.as.server.deployment.annotation.AnnotationIndexProcessor;
 import org.jboss.as.server.deployment.annotation.CompositeIndexProcessor;
 import org.jboss.as.server.deployment.api.ServerDeploymentRepository;
+import org.jboss.as.server.deployment.impl.ContentRemovalScheduler;
 import org.jboss.as.server.deployment.impl.ServerDeploymentRepositoryImpl;
 import org.jboss.as.server.deployment.module.AdditionalModuleProcessor;
 import org.jboss.as.server.deployment.module.DeploymentRootMountProcessor;
@@ -64,6 +69,7 @@ import org.jboss.as.server.deployment.module.ModuleExtensionListProcessor;
 import org.jboss.as.server.deployment.module.ModuleIdentifierProcessor;
 import org.jboss.as.server.deployment.module.ModuleSpecProcessor;
 import org.jboss.as.server.deployment.module.SubDeploymentDependencyProcessor;
+import org.jboss.as.server.deployment.reflect.CleanupReflectionIndexProcessor;
 import org.jboss.as.server.deployment.reflect.InstallReflectionIndexProcessor;
 import org.jboss.as.server.deployment.service.ServiceActivatorDependencyProcessor;
 import org.jboss.as.server.deployment.service.ServiceActivatorProcessor;
@@ -72,6 +78,7 @@ import org.jboss.as.server.moduleservice.ExtensionIndexService;
 import org.jboss.as.server.moduleservice.ExternalModuleService;
 import org.jboss.as.server.moduleservice.ServiceModuleLoader;
 import org.jboss.logging.Logger;
+import org.jboss.msc.service.AbstractServiceListener;
 import org.jboss.msc.service.LifecycleContext;
 import org.jboss.msc.service.MultipleRemoveListener;
 import org.jboss.msc.service.Service;
@@ -106,6 +113,7 @@ final class ServerControllerService implements Service<ServerController> {
     // mutable state
     private ServerController serverController;
     private Set<ServiceName> bootServices;
+    private ContentRemovalScheduler contentRemovalScheduler;
 
     public ServerControllerService(final Bootstrap.Configuration configuration) {
         this.configuration = configuration;
@@ -130,13 +138,13 @@ final class ServerControllerService implements Service<ServerController> {
         final Bootstrap.Configuration configuration = this.configuration;
         final ServerEnvironment serverEnvironment = configuration.getServerEnvironment();
 
-        final int threads = (int) (Runtime.getRuntime().availableProcessors() * 1.5f);
-        final ExecutorService executor = new ThreadPoolExecutor(threads, threads, Long.MAX_VALUE, TimeUnit.NANOSECONDS, new LinkedBlockingQueue<Runnable>());
+        final ServiceContainerExecutor executor = new ServiceContainerExecutor(serverEnvironment.getServiceContainerBootThreads(),
+                serverEnvironment.getServiceContainerThreads(), serverEnvironment.getServiceContainerQueueLength());
         container.setExecutor(executor);
 
         final ExtensibleConfigurationPersister persister = configuration.getConfigurationPersister();
 
-        final ServerControllerImpl serverController = new ServerControllerImpl(container, serverEnvironment, persister, injectedDeploymentRepository.getValue());
+        final ServerControllerImpl serverController = new ServerControllerImpl(container, executor, serverEnvironment, persister, injectedDeploymentRepository.getValue());
         serverController.init();
 
         final List<ModelNode> updates;
@@ -148,6 +156,9 @@ final class ServerControllerService implements Service<ServerController> {
 
         log.info("Activating core services");
 
+        // the executor is shrunk once the boot operations are done and the services they installed are up
+        final BootServicesListener bootServicesListener = new BootServicesListener(container, executor);
+        container.addListener(bootServicesListener);
         final AtomicInteger count = new AtomicInteger(1);
         final ResultHandler resultHandler = new ResultHandler() {
             @Override
@@ -157,30 +168,28 @@ final class ServerControllerService implements Service<ServerController> {
             @Override
             public void handleResultComplete(final ModelNode compensatingOperation) {
                 if (count.decrementAndGet() == 0) {
-                    // some action
+                    bootServicesListener.bootOperationsComplete();
                 }
             }
 
             @Override
             public void handleFailed(final ModelNode failureDescription) {
                 if (count.decrementAndGet() == 0) {
-                    // some action
+                    bootServicesListener.bootOperationsComplete();
                 }
             }
 
             @Override
             public void handleCancellation() {
                 if (count.decrementAndGet() == 0) {
-                    // some action
+                    bootServicesListener.bootOperationsComplete();
                 }
             }
         };
-        for (ModelNode update : updates) {
-            count.incrementAndGet();
-            serverController.execute(update, resultHandler);
-        }
+        count.addAndGet(updates.size());
+        new ParallelBootOperations(serverController, resultHandler, serverEnvironment.getBootOperationThreads()).execute(updates);
         if (count.decrementAndGet() == 0) {
-            // some action?
+            bootServicesListener.bootOperationsComplete();
         }
 
         final EnumMap<Phase, SortedSet<RegisteredProcessor>> deployers = serverController.finishBoot();
@@ -192,13 +201,25 @@ final class ServerControllerService implements Service<ServerController> {
                 new ExtensionIndexService(newExtDirs)).setInitialMode(ServiceController.Mode.ON_DEMAND).install();
 
         // Activate  module loader
-        deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_SERVICE_MODULE_LOADER, new DeploymentUnitProcessor() {
+        final Set<AttachmentKey<?>> moduleLoaderAttachments = new HashSet<AttachmentKey<?>>(Arrays.<AttachmentKey<?>>asList(
+                Attachments.SERVICE_MODULE_LOADER, Attachments.EXTERNAL_MODULE_SERVICE));
+        deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_SERVICE_MODULE_LOADER, new ConcurrentDeploymentUnitProcessor() {
             @Override
             public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
                 phaseContext.getDeploymentUnit().putAttachment(Attachments.SERVICE_MODULE_LOADER, injectedModuleLoader.getValue());
                 phaseContext.getDeploymentUnit().putAttachment(Attachments.EXTERNAL_MODULE_SERVICE, injectedExternalModuleServie.getValue());
             }
 
+            @Override
+            public Set<AttachmentKey<?>> getReadAttachments() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public Set<AttachmentKey<?>> getWrittenAttachments() {
+                return moduleLoaderAttachments;
+            }
+
             @Override
             public void undeploy(DeploymentUnit context) {
                 context.removeAttachment(Attachments.SERVICE_MODULE_LOADER);
@@ -225,6 +246,7 @@ final class ServerControllerService implements Service<ServerController> {
         deployers.get(Phase.CONFIGURE_MODULE).add(new RegisteredProcessor(Phase.CONFIGURE_MODULE_SPEC, new ModuleSpecProcessor()));
         deployers.get(Phase.INSTALL).add(new RegisteredProcessor(Phase.INSTALL_REFLECTION_INDEX, new InstallReflectionIndexProcessor()));
         deployers.get(Phase.INSTALL).add(new RegisteredProcessor(Phase.INSTALL_SERVICE_ACTIVATOR, new ServiceActivatorProcessor()));
+        deployers.get(Phase.CLEANUP).add(new RegisteredProcessor(Phase.CLEANUP_REFLECTION_INDEX, new CleanupReflectionIndexProcessor()));
 
         // All deployers are registered
 
@@ -238,9 +260,22 @@ final class ServerControllerService implements Service<ServerController> {
             finalDeployers.put(entry.getKey(), list);
         }
 
-        DeployerChainsService.addService(serviceTarget, finalDeployers);
+        DeployerChainsService.addService(serviceTarget, finalDeployers, serverEnvironment.getDeploymentProcessorThreads());
+
+        // Remove deployment content which is no longer referenced in the background.  Managed domain servers share
+        // the content directory of their host, so there the host controller removes content based on the domain model
+        ContentRemovalScheduler contentRemovalScheduler = null;
+        if (serverEnvironment.isStandalone()) {
+            contentRemovalScheduler = new ContentRemovalScheduler(injectedDeploymentRepository.getValue(), new ContentRemovalScheduler.ReferencedContent() {
+                public Collection<byte[]> getReferencedContent() {
+                    return serverController.getReferencedDeploymentContent();
+                }
+            }, serverEnvironment.getContentRemovalInterval(), serverEnvironment.getContentRemovalGracePeriod());
+            contentRemovalScheduler.start();
+        }
 
         this.serverController = serverController;
+        this.contentRemovalScheduler = contentRemovalScheduler;
         bootServices = serviceTarget.getSet();
     }
 
@@ -248,6 +283,18 @@ final class ServerControllerService implements Service<ServerController> {
     @Override
     public synchronized void stop(final StopContext context) {
         serverController = null;
+        if (contentRemovalScheduler != null) {
+            contentRemovalScheduler.stop();
+            contentRemovalScheduler = null;
+        }
+        final ExtensibleConfigurationPersister persister = configuration.getConfigurationPersister();
+        if (persister instanceof WriteBehindConfigurationPersister) {
+            try {
+                ((WriteBehindConfigurationPersister) persister).shutdown();
+            } catch (ConfigurationPersistenceException e) {
+                log.errorf(e, "Failed to write pending configuration changes");
+            }
+        }
         final ServiceContainer container = context.getController().getServiceContainer();
         final Set<ServiceName> bootServices = this.bootServices;
         context.asynchronous();
@@ -268,4 +315,83 @@ final class ServerControllerService implements Service<ServerController> {
     public synchronized ServerController getValue() throws IllegalStateException, IllegalArgumentException {
         return serverController;
     }
+
+    /**
+     * Shrinks the service container executor to its runtime size once the boot operations have been executed, and
+     * every service installed in active mode meanwhile has started, failed, been removed or is missing dependencies.
+     */
+    private static final class BootServicesListener extends AbstractServiceListener<Object> {
+
+        private final ServiceContainer container;
+        private final ServiceContainerExecutor executor;
+        // one for the boot operations themselves
+        private final AtomicInteger outstanding = new AtomicInteger(1);
+        private final AtomicInteger missingDeps = new AtomicInteger();
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        BootServicesListener(final ServiceContainer container, final ServiceContainerExecutor executor) {
+            this.container = container;
+            this.executor = executor;
+        }
+
+        void bootOperationsComplete() {
+            tick();
+        }
+
+        @Override
+        public void listenerAdded(final ServiceController<?> controller) {
+            if (controller.getMode() == ServiceController.Mode.ACTIVE) {
+                outstanding.incrementAndGet();
+            } else {
+                controller.removeListener(this);
+            }
+        }
+
+        @Override
+        public void serviceStarted(final ServiceController<?> controller) {
+            controller.removeListener(this);
+            tick();
+        }
+
+        @Override
+        public void serviceFailed(final ServiceController<?> controller, final StartException reason) {
+            controller.removeListener(this);
+            tick();
+        }
+
+        @Override
+        public void dependencyFailed(final ServiceController<? extends Object> controller) {
+            controller.removeListener(this);
+            tick();
+        }
+
+        @Override
+        public void dependencyUninstalled(final ServiceController<? extends Object> controller) {
+            missingDeps.incrementAndGet();
+            check(outstanding.get());
+        }
+
+        @Override
+        public void dependencyInstalled(final ServiceController<? extends Object> controller) {
+            missingDeps.decrementAndGet();
+            check(outstanding.get());
+        }
+
+        @Override
+        public void serviceRemoved(final ServiceController<?> controller) {
+            controller.removeListener(this);
+            tick();
+        }
+
+        private void tick() {
+            check(outstanding.decrementAndGet());
+        }
+
+        private void check(final int outstanding) {
+            if (outstanding == missingDeps.get() && !done.getAndSet(true)) {
+                container.removeListener(this);
+                executor.bootComplete();
+            }
+        }
+    }
 }
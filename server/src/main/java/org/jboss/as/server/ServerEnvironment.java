@@ -29,6 +29,8 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.regex.Pattern;
 
+import org.jboss.as.server.deployment.impl.ContentRemovalScheduler;
+
 /**
  * Encapsulates the runtime environment for a server.
  *
@@ -146,6 +148,60 @@ public class ServerEnvironment implements Serializable {
      */
     public static final String QUALIFIED_HOST_NAME = "jboss.qualified.host.name";
 
+    /**
+     * Constant that holds the name of the system property for specifying the
+     * number of milliseconds without further configuration changes to wait
+     * before writing the server configuration file.
+     *
+     * <p>Defaults to <tt>0</tt>, meaning every change is written immediately.
+     */
+    public static final String SERVER_CONFIG_WRITE_DELAY = "jboss.server.config.write.delay";
+
+    /**
+     * Constant that holds the name of the system property for specifying the
+     * number of threads of the service container once the server has booted.
+     *
+     * <p>Defaults to one and a half times the number of available processors.
+     */
+    public static final String SERVICE_CONTAINER_THREADS = "jboss.server.service.container.threads";
+
+    /**
+     * Constant that holds the name of the system property for specifying the
+     * number of threads of the service container while the server boots.
+     *
+     * <p>Defaults to three times the number of available processors, or the
+     * value of <tt><em>SERVICE_CONTAINER_THREADS</em></tt> if that is larger.
+     */
+    public static final String SERVICE_CONTAINER_BOOT_THREADS = "jboss.server.service.container.boot.threads";
+
+    /**
+     * Constant that holds the name of the system property for specifying the
+     * maximum number of tasks queued for the service container threads. Tasks
+     * which do not fit into the queue are run by the thread submitting them.
+     *
+     * <p>Defaults to <tt>0</tt>, meaning the queue is unbounded.
+     */
+    public static final String SERVICE_CONTAINER_QUEUE_LENGTH = "jboss.server.service.container.queue.length";
+
+    /**
+     * Constant that holds the name of the system property for specifying the
+     * maximum number of subsystems whose boot operations are executed at the
+     * same time. A value of <tt>1</tt> executes all boot operations in order.
+     *
+     * <p>Defaults to the number of available processors.
+     */
+    public static final String BOOT_OPERATION_THREADS = "jboss.server.boot.operation.threads";
+
+    /**
+     * Constant that holds the name of the system property for specifying the
+     * number of threads running deployment processors and their tasks, e.g.
+     * the mounting of the WEB-INF/lib archives of a war. A value of <tt>1</tt>
+     * runs them all in order.
+     *
+     * <p>Defaults to the number of available processors.
+     */
+    public static final String DEPLOYMENT_PROCESSOR_THREADS = "jboss.server.deployment.processor.threads";
+
     private final String qualifiedHostName;
     private final String hostName;
     private final String serverName;
@@ -163,6 +219,14 @@ public class ServerEnvironment implements Serializable {
     private final File serverTempDir;
     private final boolean standalone;
     private final File serverSystemDeployDir;
+    private final long configurationWriteDelay;
+    private final int serviceContainerThreads;
+    private final int serviceContainerBootThreads;
+    private final int serviceContainerQueueLength;
+    private final int bootOperationThreads;
+    private final int deploymentProcessorThreads;
+    private final long contentRemovalInterval;
+    private final long contentRemovalGracePeriod;
 
     public ServerEnvironment(Properties props, Map<String, String> env, boolean standalone) {
         this.standalone = standalone;
@@ -279,6 +343,23 @@ public class ServerEnvironment implements Serializable {
             tmp = new File(serverBaseDir, "tmp");
         }
         serverTempDir = tmp;
+
+        final String writeDelay = props.getProperty(SERVER_CONFIG_WRITE_DELAY);
+        try {
+            configurationWriteDelay = writeDelay == null ? 0L : Long.parseLong(writeDelay.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid value for " + SERVER_CONFIG_WRITE_DELAY + ": " + writeDelay);
+        }
+
+        final int processors = Runtime.getRuntime().availableProcessors();
+        serviceContainerThreads = getIntFromProperty(SERVICE_CONTAINER_THREADS, props, Math.max(1, (int) (processors * 1.5f)), 1);
+        serviceContainerBootThreads = getIntFromProperty(SERVICE_CONTAINER_BOOT_THREADS, props,
+                Math.max(serviceContainerThreads, processors * 3), 1);
+        serviceContainerQueueLength = getIntFromProperty(SERVICE_CONTAINER_QUEUE_LENGTH, props, 0, 0);
+        bootOperationThreads = getIntFromProperty(BOOT_OPERATION_THREADS, props, processors, 1);
+        deploymentProcessorThreads = getIntFromProperty(DEPLOYMENT_PROCESSOR_THREADS, props, processors, 1);
+        contentRemovalInterval = ContentRemovalScheduler.getInterval(props);
+        contentRemovalGracePeriod = ContentRemovalScheduler.getGracePeriod(props);
     }
 
     void install() {
@@ -380,6 +461,99 @@ public class ServerEnvironment implements Serializable {
         return standalone;
     }
 
+    /**
+     * Get the number of milliseconds without further configuration changes to wait before
+     * writing the server configuration file, or {@code 0} if changes are written immediately.
+     *
+     * @return the configuration write delay
+     */
+    public long getConfigurationWriteDelay() {
+        return configurationWriteDelay;
+    }
+
+    /**
+     * Get the number of threads of the service container once the server has booted.
+     *
+     * @return the service container thread count
+     */
+    public int getServiceContainerThreads() {
+        return serviceContainerThreads;
+    }
+
+    /**
+     * Get the number of threads of the service container while the server boots.
+     *
+     * @return the service container boot thread count
+     */
+    public int getServiceContainerBootThreads() {
+        return serviceContainerBootThreads;
+    }
+
+    /**
+     * Get the maximum number of tasks queued for the service container threads, or {@code 0}
+     * if the queue is unbounded.
+     *
+     * @return the service container queue length
+     */
+    public int getServiceContainerQueueLength() {
+        return serviceContainerQueueLength;
+    }
+
+    /**
+     * Get the maximum number of subsystems whose boot operations are executed at the same time.
+     *
+     * @return the boot operation thread count
+     */
+    public int getBootOperationThreads() {
+        return bootOperationThreads;
+    }
+
+    /**
+     * Get the number of threads running deployment processors and their tasks.
+     *
+     * @return the deployment processor thread count
+     */
+    public int getDeploymentProcessorThreads() {
+        return deploymentProcessorThreads;
+    }
+
+    /**
+     * Get how often unreferenced deployment content is removed, as set by
+     * {@link ContentRemovalScheduler#CONTENT_REMOVAL_INTERVAL}.
+     *
+     * @return the interval in milliseconds
+     */
+    public long getContentRemovalInterval() {
+        return contentRemovalInterval;
+    }
+
+    /**
+     * Get how long newly uploaded deployment content is kept when nothing refers to it, as set by
+     * {@link ContentRemovalScheduler#CONTENT_REMOVAL_GRACE_PERIOD}.
+     *
+     * @return the grace period in milliseconds
+     */
+    public long getContentRemovalGracePeriod() {
+        return contentRemovalGracePeriod;
+    }
+
+    private static int getIntFromProperty(final String name, final Properties props, final int defaultValue, final int minimum) {
+        final String value = props.getProperty(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        final int result;
+        try {
+            result = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid value for " + name + ": " + value);
+        }
+        if (result < minimum) {
+            throw new IllegalStateException("Invalid value for " + name + ": " + value);
+        }
+        return result;
+    }
+
     /**
      * Get a File from configuration.
      *
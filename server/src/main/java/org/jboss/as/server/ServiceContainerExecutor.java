@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor of the MSC service container.  It runs with the boot thread count until the boot operations have been
+ * executed and the services they installed are up, and is then shrunk to the runtime thread count.  The threads above
+ * the runtime count only exit once they have been idle for the keepalive time.
+ * <p/>
+ * With a bounded queue, tasks which do not fit into the queue are run by the submitting thread rather than rejected,
+ * since the container has no way to recover from a rejected task.
+ */
+final class ServiceContainerExecutor extends ThreadPoolExecutor {
+
+    private static final long KEEP_ALIVE = 30L;
+
+    private final int threads;
+
+    /**
+     * Create a new instance.
+     *
+     * @param bootThreads the number of threads during boot
+     * @param threads the number of threads after boot
+     * @param queueLength the maximum number of queued tasks, or {@code 0} for an unbounded queue
+     */
+    ServiceContainerExecutor(final int bootThreads, final int threads, final int queueLength) {
+        super(bootThreads, bootThreads, KEEP_ALIVE, TimeUnit.SECONDS, createQueue(queueLength), new ServiceThreadFactory(),
+                new CallerRunsPolicy());
+        this.threads = threads;
+    }
+
+    /**
+     * Called once the boot operations have been executed and the services they installed are up, to shrink the
+     * executor to the runtime thread count.
+     */
+    void bootComplete() {
+        if (threads < getMaximumPoolSize()) {
+            setCorePoolSize(threads);
+            setMaximumPoolSize(threads);
+        } else {
+            setMaximumPoolSize(threads);
+            setCorePoolSize(threads);
+        }
+    }
+
+    private static BlockingQueue<Runnable> createQueue(final int queueLength) {
+        return queueLength > 0 ? new ArrayBlockingQueue<Runnable>(queueLength) : new LinkedBlockingQueue<Runnable>();
+    }
+
+    private static final class ServiceThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        public Thread newThread(final Runnable r) {
+            return new Thread(r, "MSC service thread " + count.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Handler for the service container executor metrics on the server root.
+ */
+public class ServiceContainerMetricsHandler implements ModelQueryOperationHandler {
+
+    public static final String MAX_THREADS = "service-container-max-threads";
+    public static final String CURRENT_THREAD_COUNT = "service-container-current-thread-count";
+    public static final String LARGEST_THREAD_COUNT = "service-container-largest-thread-count";
+    public static final String ACTIVE_COUNT = "service-container-active-count";
+    public static final String QUEUE_SIZE = "service-container-queue-size";
+    public static final String COMPLETED_TASK_COUNT = "service-container-completed-task-count";
+
+    public static final String[] METRICS = { MAX_THREADS, CURRENT_THREAD_COUNT, LARGEST_THREAD_COUNT, ACTIVE_COUNT, QUEUE_SIZE,
+            COMPLETED_TASK_COUNT };
+
+    private final ThreadPoolExecutor executor;
+
+    ServiceContainerMetricsHandler(final ThreadPoolExecutor executor) {
+        this.executor = executor;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Cancellable execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
+        final String attributeName = operation.require(NAME).asString();
+        final ModelNode result = new ModelNode();
+        if (MAX_THREADS.equals(attributeName)) {
+            result.set(executor.getMaximumPoolSize());
+        } else if (CURRENT_THREAD_COUNT.equals(attributeName)) {
+            result.set(executor.getPoolSize());
+        } else if (LARGEST_THREAD_COUNT.equals(attributeName)) {
+            result.set(executor.getLargestPoolSize());
+        } else if (ACTIVE_COUNT.equals(attributeName)) {
+            result.set(executor.getActiveCount());
+        } else if (QUEUE_SIZE.equals(attributeName)) {
+            result.set(executor.getQueue().size());
+        } else if (COMPLETED_TASK_COUNT.equals(attributeName)) {
+            result.set(executor.getCompletedTaskCount());
+        } else {
+            resultHandler.handleFailed(new ModelNode().set("Unknown metric " + attributeName));
+            return Cancellable.NULL;
+        }
+        resultHandler.handleResultFragment(new String[0], result);
+        resultHandler.handleResultComplete(null);
+        return Cancellable.NULL;
+    }
+}
@@ -80,7 +80,7 @@ abstract class AbstractServerDeploymentManager implements ServerDeploymentManage
     @Override
     public String addDeploymentContent(File file) throws IOException, DuplicateDeploymentNameException {
         String name = file.getName();
-        uploadDeploymentContent(name, name, new FileInputStream(file));
+        uploadDeploymentContent(name, name, file);
         return name;
     }
 
@@ -94,7 +94,7 @@ abstract class AbstractServerDeploymentManager implements ServerDeploymentManage
     @Override
     public void addDeploymentContent(String name, File file) throws IOException, DuplicateDeploymentNameException {
         String commonName = file.getName();
-        uploadDeploymentContent(name, commonName, new FileInputStream(file));
+        uploadDeploymentContent(name, commonName, file);
     }
 
     @Override
@@ -175,6 +175,18 @@ abstract class AbstractServerDeploymentManager implements ServerDeploymentManage
         op.get("name").set(name);
         op.get("runtime-name").set(runtimeName);
         op.get("bytes").set(bytes);
+        return executeUpload(op);
+    }
+
+    /**
+     * Upload the content of a file.  The file is read into memory and sent with the operation; managers whose
+     * server shares the file system can override this to have the server read the file itself.
+     */
+    protected byte[] uploadDeploymentContent(String name, String runtimeName, File file) throws IOException {
+        return uploadDeploymentContent(name, runtimeName, new FileInputStream(file));
+    }
+
+    protected byte[] executeUpload(ModelNode op) throws IOException {
         try {
             try {
                 ModelNode response = executeOperation(op).get();
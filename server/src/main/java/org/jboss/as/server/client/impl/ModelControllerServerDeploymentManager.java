@@ -18,6 +18,8 @@
  */
 package org.jboss.as.server.client.impl;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -46,6 +48,22 @@ public class ModelControllerServerDeploymentManager extends AbstractServerDeploy
         this.client = client;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The controller runs in this VM, so it is asked to read the file itself rather than being sent its bytes.
+     */
+    @Override
+    protected byte[] uploadDeploymentContent(String name, String runtimeName, File file) throws IOException {
+        ModelNode op = new ModelNode();
+        op.get("operation").set("upload-deployment-url");
+        op.get("address").setEmptyList();
+        op.get("name").set(name);
+        op.get("runtime-name").set(runtimeName);
+        op.get("url").set(file.toURI().toURL().toExternalForm());
+        return executeUpload(op);
+    }
+
     /**
      * {@inheritDoc}
      */
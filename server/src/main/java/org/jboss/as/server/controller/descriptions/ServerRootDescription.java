@@ -55,6 +55,8 @@ import java.util.ResourceBundle;
 
 import org.jboss.as.controller.descriptions.common.CommonDescriptions;
 import org.jboss.as.controller.operations.BaseCompositeOperationHandler;
+import org.jboss.as.server.ServiceContainerMetricsHandler;
+import org.jboss.as.server.deployment.DeploymentRepositoryMetricsHandler;
 import org.jboss.as.server.operations.ServerCompositeOperationHandler;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -99,6 +101,25 @@ public class ServerRootDescription {
 
         root.get(ATTRIBUTES, SYSTEM_PROPERTIES).set(CommonDescriptions.getSystemPropertiesAttribute(locale));
 
+        root.get(ATTRIBUTES, DeploymentRepositoryMetricsHandler.CONTENT_SIZE, DESCRIPTION).set(bundle.getString("server.deployment-content-size"));
+        root.get(ATTRIBUTES, DeploymentRepositoryMetricsHandler.CONTENT_SIZE, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, DeploymentRepositoryMetricsHandler.CONTENT_COUNT, DESCRIPTION).set(bundle.getString("server.deployment-content-count"));
+        root.get(ATTRIBUTES, DeploymentRepositoryMetricsHandler.CONTENT_COUNT, TYPE).set(ModelType.INT);
+        root.get(ATTRIBUTES, DeploymentRepositoryMetricsHandler.RECLAIMED_BYTES, DESCRIPTION).set(bundle.getString("server.deployment-content-reclaimed-bytes"));
+        root.get(ATTRIBUTES, DeploymentRepositoryMetricsHandler.RECLAIMED_BYTES, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, ServiceContainerMetricsHandler.MAX_THREADS, DESCRIPTION).set(bundle.getString("server.service-container-max-threads"));
+        root.get(ATTRIBUTES, ServiceContainerMetricsHandler.MAX_THREADS, TYPE).set(ModelType.INT);
+        root.get(ATTRIBUTES, ServiceContainerMetricsHandler.CURRENT_THREAD_COUNT, DESCRIPTION).set(bundle.getString("server.service-container-current-thread-count"));
+        root.get(ATTRIBUTES, ServiceContainerMetricsHandler.CURRENT_THREAD_COUNT, TYPE).set(ModelType.INT);
+        root.get(ATTRIBUTES, ServiceContainerMetricsHandler.LARGEST_THREAD_COUNT, DESCRIPTION).set(bundle.getString("server.service-container-largest-thread-count"));
+        root.get(ATTRIBUTES, ServiceContainerMetricsHandler.LARGEST_THREAD_COUNT, TYPE).set(ModelType.INT);
+        root.get(ATTRIBUTES, ServiceContainerMetricsHandler.ACTIVE_COUNT, DESCRIPTION).set(bundle.getString("server.service-container-active-count"));
+        root.get(ATTRIBUTES, ServiceContainerMetricsHandler.ACTIVE_COUNT, TYPE).set(ModelType.INT);
+        root.get(ATTRIBUTES, ServiceContainerMetricsHandler.QUEUE_SIZE, DESCRIPTION).set(bundle.getString("server.service-container-queue-size"));
+        root.get(ATTRIBUTES, ServiceContainerMetricsHandler.QUEUE_SIZE, TYPE).set(ModelType.INT);
+        root.get(ATTRIBUTES, ServiceContainerMetricsHandler.COMPLETED_TASK_COUNT, DESCRIPTION).set(bundle.getString("server.service-container-completed-task-count"));
+        root.get(ATTRIBUTES, ServiceContainerMetricsHandler.COMPLETED_TASK_COUNT, TYPE).set(ModelType.LONG);
+
         root.get(OPERATIONS);
 
         root.get(CHILDREN, EXTENSION, DESCRIPTION).set(bundle.getString("server.extension"));
@@ -22,6 +22,7 @@
 
 package org.jboss.as.server.deployment;
 
+import java.util.concurrent.Executor;
 import java.util.jar.Manifest;
 
 import org.jboss.as.server.deployment.annotation.AnnotationIndexProcessor;
@@ -71,6 +72,18 @@ public final class Attachments {
      */
     public static final AttachmentKey<byte[]> DEPLOYMENT_HASH = AttachmentKey.create(byte[].class);
 
+    /**
+     * The reflection index for the deployment, shared by a deployment and its sub-deployments for their lifetime.
+     */
+    public static final AttachmentKey<DeploymentReflectionIndex> REFLECTION_INDEX = AttachmentKey.create(DeploymentReflectionIndex.class);
+
+    /**
+     * The executor processors may use to run parts of their work concurrently, attached to the phase context.  Use it
+     * with {@link ParallelTasks#invokeAll(java.util.concurrent.Executor, java.util.List)}.  The value is {@code null} if
+     * the server is configured to run deployment processors in order.
+     */
+    public static final AttachmentKey<Executor> PROCESSOR_EXECUTOR = AttachmentKey.create(Executor.class);
+
 
     //
     // STRUCTURE
@@ -213,11 +226,6 @@ public final class Attachments {
     // INSTALL
     //
 
-    /**
-     * The reflection index for the deployment.
-     */
-    public static final AttachmentKey<DeploymentReflectionIndex> REFLECTION_INDEX = AttachmentKey.create(DeploymentReflectionIndex.class);
-
     //
     // CLEANUP
     //
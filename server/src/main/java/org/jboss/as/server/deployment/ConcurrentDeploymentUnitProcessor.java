@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.Set;
+
+/**
+ * A deployment processor which declares the attachments it reads and writes, so it can run concurrently with the
+ * processors next to it in the deployer chain.  Consecutive concurrent processors of a phase run at the same time
+ * unless one of them writes an attachment another one reads or writes; all other processors run on their own, after
+ * the processors before them have completed.
+ * <p>
+ * The declared attachments apply to every attachable the processor uses, i.e. the phase context, the deployment unit
+ * and its resource roots.  A concurrent processor must be thread safe, and must not install services, since the
+ * service target of the phase context is not safe for concurrent use.
+ */
+public interface ConcurrentDeploymentUnitProcessor extends DeploymentUnitProcessor {
+
+    /**
+     * Get the attachments this processor reads.
+     *
+     * @return the attachment keys
+     */
+    Set<AttachmentKey<?>> getReadAttachments();
+
+    /**
+     * Get the attachments this processor writes or removes.
+     *
+     * @return the attachment keys
+     */
+    Set<AttachmentKey<?>> getWrittenAttachments();
+}
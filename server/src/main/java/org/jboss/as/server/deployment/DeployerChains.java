@@ -22,8 +22,13 @@
 
 package org.jboss.as.server.deployment;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * The deployer chains service value object.
@@ -32,12 +37,73 @@ import java.util.List;
  */
 final class DeployerChains {
     private final EnumMap<Phase, List<DeploymentUnitProcessor>> phases;
+    private final EnumMap<Phase, List<List<DeploymentUnitProcessor>>> concurrentPhases;
+    private final Executor executor;
 
-    DeployerChains(final EnumMap<Phase, List<DeploymentUnitProcessor>> phases) {
+    DeployerChains(final EnumMap<Phase, List<DeploymentUnitProcessor>> phases, final Executor executor) {
         this.phases = phases;
+        this.executor = executor;
+        concurrentPhases = new EnumMap<Phase, List<List<DeploymentUnitProcessor>>>(Phase.class);
+        for (Map.Entry<Phase, List<DeploymentUnitProcessor>> entry : phases.entrySet()) {
+            concurrentPhases.put(entry.getKey(), groupConcurrentProcessors(entry.getValue()));
+        }
     }
 
     List<DeploymentUnitProcessor> getChain(Phase phase) {
         return phases.get(phase);
     }
+
+    /**
+     * Get the chain of a phase as groups of processors which can run concurrently, in chain order.
+     *
+     * @param phase the phase
+     * @return the groups of processors
+     */
+    List<List<DeploymentUnitProcessor>> getConcurrentChain(Phase phase) {
+        return concurrentPhases.get(phase);
+    }
+
+    /**
+     * Get the executor to run processors and their tasks on.
+     *
+     * @return the executor, or {@code null} to run them in the calling thread
+     */
+    Executor getExecutor() {
+        return executor;
+    }
+
+    static List<List<DeploymentUnitProcessor>> groupConcurrentProcessors(final List<DeploymentUnitProcessor> chain) {
+        final List<List<DeploymentUnitProcessor>> groups = new ArrayList<List<DeploymentUnitProcessor>>();
+        List<DeploymentUnitProcessor> group = null;
+        for (DeploymentUnitProcessor processor : chain) {
+            if (processor instanceof ConcurrentDeploymentUnitProcessor) {
+                final ConcurrentDeploymentUnitProcessor concurrentProcessor = (ConcurrentDeploymentUnitProcessor) processor;
+                if (group != null && isIndependent(concurrentProcessor, group)) {
+                    group.add(processor);
+                } else {
+                    group = new ArrayList<DeploymentUnitProcessor>();
+                    group.add(processor);
+                    groups.add(group);
+                }
+            } else {
+                groups.add(Collections.singletonList(processor));
+                group = null;
+            }
+        }
+        return groups;
+    }
+
+    private static boolean isIndependent(final ConcurrentDeploymentUnitProcessor processor, final List<DeploymentUnitProcessor> group) {
+        final Set<AttachmentKey<?>> reads = processor.getReadAttachments();
+        final Set<AttachmentKey<?>> writes = processor.getWrittenAttachments();
+        for (DeploymentUnitProcessor member : group) {
+            final ConcurrentDeploymentUnitProcessor other = (ConcurrentDeploymentUnitProcessor) member;
+            final Set<AttachmentKey<?>> otherWrites = other.getWrittenAttachments();
+            if (!Collections.disjoint(writes, other.getReadAttachments()) || !Collections.disjoint(writes, otherWrites)
+                    || !Collections.disjoint(reads, otherWrites)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -24,6 +24,12 @@ package org.jboss.as.server.deployment;
 
 import java.util.EnumMap;
 import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.service.StartContext;
@@ -31,30 +37,62 @@ import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 
 /**
- * Service wrapper for {@link org.jboss.as.server.deployment.DeployerChains}.
+ * Service wrapper for {@link org.jboss.as.server.deployment.DeployerChains}.  The service also owns the executor the
+ * processors of the chains run on when they can run concurrently.
  *
  * @author John Bailey
  */
 public class DeployerChainsService implements Service<DeployerChains> {
-    private final DeployerChains deployerChains;
+    private final EnumMap<Phase, List<DeploymentUnitProcessor>> phases;
+    private final int threads;
+    private volatile ThreadPoolExecutor executor;
+    private volatile DeployerChains deployerChains;
 
-    public static void addService(final ServiceTarget serviceTarget, final EnumMap<Phase, List<DeploymentUnitProcessor>> phases) {
-        final DeployerChains deployerChains = new DeployerChains(phases);
-        serviceTarget.addService(Services.JBOSS_DEPLOYMENT_CHAINS, new DeployerChainsService(deployerChains))
+    public static void addService(final ServiceTarget serviceTarget, final EnumMap<Phase, List<DeploymentUnitProcessor>> phases,
+            final int threads) {
+        serviceTarget.addService(Services.JBOSS_DEPLOYMENT_CHAINS, new DeployerChainsService(phases, threads))
             .install();
     }
 
-    public DeployerChainsService(DeployerChains deployerChains) {
-        this.deployerChains = deployerChains;
+    public DeployerChainsService(final EnumMap<Phase, List<DeploymentUnitProcessor>> phases, final int threads) {
+        this.phases = phases;
+        this.threads = threads;
     }
 
     public void start(StartContext context) throws StartException {
+        if (threads > 1) {
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ProcessorThreadFactory());
+            executor.allowCoreThreadTimeOut(true);
+            this.executor = executor;
+        }
+        // without an executor, processors and their tasks run in order in the deploying thread
+        deployerChains = new DeployerChains(phases, executor);
     }
 
     public void stop(StopContext context) {
+        deployerChains = null;
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
     }
 
     public DeployerChains getValue() throws IllegalStateException, IllegalArgumentException {
+        final DeployerChains deployerChains = this.deployerChains;
+        if (deployerChains == null) {
+            throw new IllegalStateException();
+        }
         return deployerChains;
     }
+
+    private static final class ProcessorThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(r, "Deployment processor thread " + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
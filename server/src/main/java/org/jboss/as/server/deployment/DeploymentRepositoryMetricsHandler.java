@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.server.deployment.api.DeploymentRepository;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Handler for the deployment content repository metrics on the server root.
+ */
+public class DeploymentRepositoryMetricsHandler implements ModelQueryOperationHandler {
+
+    public static final String CONTENT_SIZE = "deployment-content-size";
+    public static final String CONTENT_COUNT = "deployment-content-count";
+    public static final String RECLAIMED_BYTES = "deployment-content-reclaimed-bytes";
+
+    public static final String[] METRICS = { CONTENT_SIZE, CONTENT_COUNT, RECLAIMED_BYTES };
+
+    private final DeploymentRepository repository;
+
+    public DeploymentRepositoryMetricsHandler(final DeploymentRepository repository) {
+        this.repository = repository;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Cancellable execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
+        final String attributeName = operation.require(NAME).asString();
+        final ModelNode result = new ModelNode();
+        if (CONTENT_SIZE.equals(attributeName)) {
+            result.set(repository.getContentSize());
+        } else if (CONTENT_COUNT.equals(attributeName)) {
+            result.set(repository.getContentCount());
+        } else if (RECLAIMED_BYTES.equals(attributeName)) {
+            result.set(repository.getReclaimedBytes());
+        } else {
+            resultHandler.handleFailed(new ModelNode().set("Unknown metric " + attributeName));
+            return Cancellable.NULL;
+        }
+        resultHandler.handleResultFragment(new String[0], result);
+        resultHandler.handleResultComplete(null);
+        return Cancellable.NULL;
+    }
+}
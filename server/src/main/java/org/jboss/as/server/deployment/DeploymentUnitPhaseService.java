@@ -28,6 +28,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 import org.jboss.logging.Logger;
 import org.jboss.msc.inject.Injector;
@@ -79,11 +81,11 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
     public synchronized void start(final StartContext context) throws StartException {
         final DeployerChains chains = deployerChainsInjector.getValue();
         final DeploymentUnit deploymentUnit = deploymentUnitInjector.getValue();
-        final List<DeploymentUnitProcessor> list = chains.getChain(phase);
-        final ListIterator<DeploymentUnitProcessor> iterator = list.listIterator();
+        final List<List<DeploymentUnitProcessor>> list = chains.getConcurrentChain(phase);
         final ServiceContainer container = context.getController().getServiceContainer();
         final TrackingServiceTarget serviceTarget = new TrackingServiceTarget(container.subTarget());
         final DeploymentPhaseContext processorContext = new DeploymentPhaseContextImpl(serviceTarget, new DelegatingServiceRegistry(container), deploymentUnit, phase);
+        processorContext.putAttachment(Attachments.PROCESSOR_EXECUTOR, chains.getExecutor());
 
         // attach any injected values from the last phase
         for (AttachedDependency attachedDependency : injectedAttachedDepenendencies) {
@@ -102,33 +104,26 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
-        while (iterator.hasNext()) {
-            final DeploymentUnitProcessor processor = iterator.next();
-            try {
-                processor.deploy(processorContext);
-            } catch (Throwable e) {
-                // Asynchronously remove all services
-                context.asynchronous();
-                final StartException cause = new StartException(String.format("Failed to process phase %s of %s", phase, deploymentUnit), e);
-                while (iterator.hasPrevious()) {
-                    final DeploymentUnitProcessor prev = iterator.previous();
-                    safeUndeploy(deploymentUnit, phase, prev);
+        try {
+            deploy(list, processorContext, deploymentUnit, phase, chains.getExecutor());
+        } catch (Throwable e) {
+            // Asynchronously remove all services
+            context.asynchronous();
+            final StartException cause = new StartException(String.format("Failed to process phase %s of %s", phase, deploymentUnit), e);
+            final MultipleRemoveListener<Throwable> listener = MultipleRemoveListener.create(new MultipleRemoveListener.Callback<Throwable>() {
+                public void handleDone(final Throwable parameter) {
+                    context.failed(cause);
                 }
-                final MultipleRemoveListener<Throwable> listener = MultipleRemoveListener.create(new MultipleRemoveListener.Callback<Throwable>() {
-                    public void handleDone(final Throwable parameter) {
-                        context.failed(cause);
-                    }
-                }, cause);
-                for (ServiceName serviceName : serviceTarget.getSet()) {
-                    final ServiceController<?> controller = container.getService(serviceName);
-                    if (controller != null) {
-                        controller.setMode(ServiceController.Mode.REMOVE);
-                        controller.addListener(listener);
-                    }
+            }, cause);
+            for (ServiceName serviceName : serviceTarget.getSet()) {
+                final ServiceController<?> controller = container.getService(serviceName);
+                if (controller != null) {
+                    controller.setMode(ServiceController.Mode.REMOVE);
+                    controller.addListener(listener);
                 }
-                listener.done();
-                return;
             }
+            listener.done();
+            return;
         }
         final Phase nextPhase = phase.next();
         if (nextPhase != null) {
@@ -194,6 +189,58 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         listener.done();
     }
 
+    /**
+     * Run the groups of processors of a chain in order.  If a processor fails, the processors of the failed group and
+     * of the groups before it are undeployed in reverse chain order, and the failure is thrown.
+     */
+    static void deploy(final List<List<DeploymentUnitProcessor>> groups, final DeploymentPhaseContext processorContext,
+            final DeploymentUnit deploymentUnit, final Phase phase, final Executor executor) throws Exception {
+        final ListIterator<List<DeploymentUnitProcessor>> iterator = groups.listIterator();
+        while (iterator.hasNext()) {
+            final List<DeploymentUnitProcessor> processors = iterator.next();
+            boolean ok = false;
+            try {
+                deployGroup(processors, processorContext, executor);
+                ok = true;
+            } finally {
+                if (!ok) {
+                    while (iterator.hasPrevious()) {
+                        final List<DeploymentUnitProcessor> prev = iterator.previous();
+                        for (int i = prev.size() - 1; i >= 0; i--) {
+                            safeUndeploy(deploymentUnit, phase, prev.get(i));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Run a group of processors of the chain, concurrently if there is more than one.
+     */
+    private static void deployGroup(final List<DeploymentUnitProcessor> processors, final DeploymentPhaseContext processorContext, final Executor executor) throws Exception {
+        if (processors.size() == 1) {
+            processors.get(0).deploy(processorContext);
+            return;
+        }
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(processors.size());
+        for (final DeploymentUnitProcessor processor : processors) {
+            tasks.add(new Callable<Void>() {
+                public Void call() throws Exception {
+                    processor.deploy(processorContext);
+                    return null;
+                }
+            });
+        }
+        for (Throwable failure : ParallelTasks.invokeAll(executor, tasks)) {
+            if (failure instanceof Exception) {
+                throw (Exception) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+        }
+    }
+
     private static void safeUndeploy(final DeploymentUnit deploymentUnit, final Phase phase, final DeploymentUnitProcessor prev) {
         try {
             prev.undeploy(deploymentUnit);
@@ -20,9 +20,12 @@ package org.jboss.as.server.deployment;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.URL;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Locale;
 
@@ -68,7 +71,13 @@ implements DescriptionProvider {
         String urlSpec = operation.get(URL).asString();
         try {
             URL url = new URL(urlSpec);
+            if ("file".equals(url.getProtocol())) {
+                // the repository can copy straight from the file's channel
+                return new FileInputStream(new File(url.toURI()));
+            }
             return url.openStream();
+        } catch (URISyntaxException e) {
+            throw new RuntimeException(urlSpec + " is not a valid URL", e);
         } catch (MalformedURLException e) {
             throw new RuntimeException(urlSpec + " is not a valid URL", e);
         } catch (IOException e) {
@@ -0,0 +1,113 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Runs a group of tasks concurrently on an executor and waits for all of them.  The calling thread runs every task no
+ * executor thread has started yet, so a task may itself run a group of tasks on the same executor without the risk of
+ * all the executor threads waiting for tasks queued behind them.
+ */
+public final class ParallelTasks {
+
+    private final List<? extends Callable<?>> tasks;
+    private final Throwable[] failures;
+    private final AtomicIntegerArray started;
+    private final CountDownLatch done;
+
+    private ParallelTasks(final List<? extends Callable<?>> tasks) {
+        this.tasks = tasks;
+        failures = new Throwable[tasks.size()];
+        started = new AtomicIntegerArray(tasks.size());
+        done = new CountDownLatch(tasks.size());
+    }
+
+    /**
+     * Run the given tasks and wait for all of them to complete.
+     *
+     * @param executor the executor to run the tasks on, or {@code null} to run them in the calling thread
+     * @param tasks the tasks
+     * @return the failure of each task, or {@code null} for the tasks which completed normally
+     */
+    public static Throwable[] invokeAll(final Executor executor, final List<? extends Callable<?>> tasks) {
+        final ParallelTasks parallelTasks = new ParallelTasks(tasks);
+        parallelTasks.run(executor);
+        return parallelTasks.failures;
+    }
+
+    private void run(final Executor executor) {
+        final int size = tasks.size();
+        if (executor != null) {
+            // the calling thread starts with the first task
+            for (int i = 1; i < size; i++) {
+                final int index = i;
+                try {
+                    executor.execute(new Runnable() {
+                        public void run() {
+                            runTask(index);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    break;
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            runTask(i);
+        }
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                try {
+                    done.await();
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void runTask(final int index) {
+        if (!started.compareAndSet(index, 0, 1)) {
+            return;
+        }
+        try {
+            tasks.get(index).call();
+        } catch (Throwable t) {
+            failures[index] = t;
+        } finally {
+            done.countDown();
+        }
+    }
+}
@@ -23,6 +23,7 @@
 package org.jboss.as.server.deployment;
 
 import org.jboss.as.server.deployment.api.ServerDeploymentRepository;
+import org.jboss.as.server.deployment.reflect.DeploymentReflectionIndex;
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.DelegatingServiceRegistry;
 import org.jboss.msc.service.ServiceContainer;
@@ -63,6 +64,9 @@ public final class RootDeploymentUnitService extends AbstractDeploymentUnitServi
         // Attach the deployment repo
         deploymentUnit.putAttachment(Attachments.SERVER_DEPLOYMENT_REPOSITORY, serverDeploymentRepositoryInjector.getValue());
 
+        // The reflection index lives as long as the deployment, and is shared with its sub-deployments
+        deploymentUnit.putAttachment(Attachments.REFLECTION_INDEX, DeploymentReflectionIndex.create());
+
         return deploymentUnit;
     }
 
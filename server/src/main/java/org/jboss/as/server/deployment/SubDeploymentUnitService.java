@@ -24,6 +24,7 @@ package org.jboss.as.server.deployment;
 
 import org.jboss.as.server.deployment.module.ModuleSpecification;
 import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.as.server.deployment.reflect.DeploymentReflectionIndex;
 import org.jboss.msc.service.DelegatingServiceRegistry;
 import org.jboss.msc.service.ServiceContainer;
 
@@ -47,6 +48,10 @@ public class SubDeploymentUnitService extends AbstractDeploymentUnitService {
         final DeploymentUnit deploymentUnit = new DeploymentUnitImpl(parent, deploymentRoot.getRootName(), new DelegatingServiceRegistry(container));
         deploymentUnit.putAttachment(Attachments.DEPLOYMENT_ROOT, deploymentRoot);
         deploymentUnit.putAttachment(Attachments.MODULE_SPECIFICATION, new ModuleSpecification());
+        final DeploymentReflectionIndex reflectionIndex = parent.getAttachment(Attachments.REFLECTION_INDEX);
+        if (reflectionIndex != null) {
+            deploymentUnit.putAttachment(Attachments.REFLECTION_INDEX, reflectionIndex);
+        }
         return deploymentUnit;
     }
 }
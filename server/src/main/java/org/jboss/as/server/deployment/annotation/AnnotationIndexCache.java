@@ -0,0 +1,200 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.api.ServerDeploymentRepository;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.logging.Logger;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * Cache of the annotation indexes of the resource roots of a deployment, kept in the cache directory of the deployment
+ * content in the {@link ServerDeploymentRepository}.  Repository content is identified by its hash and never changes,
+ * so an index stays valid for as long as the content exists.  Resource roots of subdeployments, e.g. jars nested in an
+ * ear, are cached with the content of the top level deployment.
+ * <p/>
+ * An index is cached under the hash of the path of its resource root within the deployment and of the paths excluded
+ * from indexing.  A cached index which cannot be read is ignored, and the resource root is indexed again.
+ */
+final class AnnotationIndexCache {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
+
+    /** Changes whenever the format of the cached indexes does, so indexes cached by other versions are ignored */
+    private static final String VERSION = "1";
+
+    private final File cacheDir;
+    private final VirtualFile deploymentRoot;
+
+    AnnotationIndexCache(final File cacheDir, final VirtualFile deploymentRoot) {
+        this.cacheDir = cacheDir;
+        this.deploymentRoot = deploymentRoot;
+    }
+
+    /**
+     * Get the cache for a deployment unit.
+     *
+     * @param deploymentUnit the deployment unit
+     * @return the cache, or {@code null} if the unit is not backed by repository content, e.g. for internal deployments
+     */
+    static AnnotationIndexCache create(final DeploymentUnit deploymentUnit) {
+        DeploymentUnit topLevel = deploymentUnit;
+        while (topLevel.getParent() != null) {
+            topLevel = topLevel.getParent();
+        }
+        final byte[] deploymentHash = topLevel.getAttachment(Attachments.DEPLOYMENT_HASH);
+        final ServerDeploymentRepository repository = topLevel.getAttachment(Attachments.SERVER_DEPLOYMENT_REPOSITORY);
+        final ResourceRoot deploymentRoot = topLevel.getAttachment(Attachments.DEPLOYMENT_ROOT);
+        if (deploymentHash == null || repository == null || deploymentRoot == null) {
+            return null;
+        }
+        final File cacheDir = repository.getDeploymentCacheDir(deploymentHash);
+        if (cacheDir == null) {
+            return null;
+        }
+        return new AnnotationIndexCache(cacheDir, deploymentRoot.getRoot());
+    }
+
+    /**
+     * Get the cached index of a resource root.
+     *
+     * @param root the root of the resource root
+     * @param indexIgnorePaths the paths excluded from the index, or {@code null}
+     * @return the index, or {@code null} if it is not cached
+     */
+    Index get(final VirtualFile root, final Set<String> indexIgnorePaths) {
+        final File file = getIndexFile(root, indexIgnorePaths);
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        InputStream in = null;
+        try {
+            in = new BufferedInputStream(new FileInputStream(file));
+            final Index index = new IndexReader(in).read();
+            log.tracef("Using cached annotation index %s for %s", file, root);
+            return index;
+        } catch (Exception e) {
+            log.debugf(e, "Cannot read cached annotation index %s", file);
+            return null;
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+    }
+
+    /**
+     * Cache the index of a resource root.  Failures are logged and otherwise ignored, as the index can always be
+     * computed again.
+     *
+     * @param root the root of the resource root
+     * @param indexIgnorePaths the paths excluded from the index, or {@code null}
+     * @param index the index
+     */
+    void put(final VirtualFile root, final Set<String> indexIgnorePaths, final Index index) {
+        final File file = getIndexFile(root, indexIgnorePaths);
+        if (file == null) {
+            return;
+        }
+        if (!cacheDir.mkdirs() && !cacheDir.isDirectory()) {
+            log.debugf("Cannot create annotation index cache directory %s", cacheDir);
+            return;
+        }
+        File tmp = null;
+        try {
+            // written to a temporary file first, so a concurrent reader never sees a partial index
+            tmp = File.createTempFile("index", ".tmp", cacheDir);
+            final OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp));
+            try {
+                new IndexWriter(out).write(index);
+                out.close();
+            } finally {
+                VFSUtils.safeClose(out);
+            }
+            if (tmp.renameTo(file)) {
+                tmp = null;
+            }
+        } catch (IOException e) {
+            log.debugf(e, "Cannot cache annotation index %s", file);
+        } finally {
+            if (tmp != null && !tmp.delete()) {
+                tmp.deleteOnExit();
+            }
+        }
+    }
+
+    private File getIndexFile(final VirtualFile root, final Set<String> indexIgnorePaths) {
+        final String path;
+        if (root.equals(deploymentRoot)) {
+            path = "";
+        } else {
+            try {
+                path = root.getPathNameRelativeTo(deploymentRoot);
+            } catch (IllegalArgumentException e) {
+                // not part of the deployment content
+                return null;
+            }
+        }
+        final StringBuilder key = new StringBuilder(path);
+        if (indexIgnorePaths != null) {
+            for (String ignorePath : new TreeSet<String>(indexIgnorePaths)) {
+                key.append('\0').append(ignorePath);
+            }
+        }
+        return new File(cacheDir, "annotations-" + VERSION + "-" + sha1(key.toString()) + ".idx");
+    }
+
+    private static String sha1(final String key) {
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes("UTF-8"));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        final StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+}
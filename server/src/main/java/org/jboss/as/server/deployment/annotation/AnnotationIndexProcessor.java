@@ -24,15 +24,20 @@ package org.jboss.as.server.deployment.annotation;
 
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-
 import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.as.server.deployment.ParallelTasks;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.jandex.Index;
 import org.jboss.jandex.Indexer;
@@ -43,12 +48,20 @@ import org.jboss.vfs.VisitorAttributes;
 import org.jboss.vfs.util.SuffixMatchFilter;
 
 /**
- * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
+ * Deployment unit processor responsible for creating and attaching an annotation index for a resource root.  The
+ * resource roots of a deployment are indexed concurrently.  The index of a resource root in repository content is
+ * cached with the content, so a deployment is only scanned the first time its content is deployed.
  *
  * @author John E. Bailey
  * @author Stuart Douglas
  */
-public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
+public class AnnotationIndexProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final Set<AttachmentKey<?>> READ_ATTACHMENTS = Collections.unmodifiableSet(new HashSet<AttachmentKey<?>>(Arrays.<AttachmentKey<?>>asList(
+            Attachments.RESOURCE_ROOTS, Attachments.DEPLOYMENT_ROOT, Attachments.INDEX_RESOURCE_ROOT, Attachments.INDEX_IGNORE_PATHS,
+            Attachments.ANNOTATION_INDEX, Attachments.PROCESSOR_EXECUTOR, Attachments.DEPLOYMENT_HASH,
+            Attachments.SERVER_DEPLOYMENT_REPOSITORY)));
+    private static final Set<AttachmentKey<?>> WRITTEN_ATTACHMENTS = Collections.<AttachmentKey<?>>singleton(Attachments.ANNOTATION_INDEX);
 
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
@@ -65,7 +78,9 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
             allResourceRoots.addAll(resourceRoots);
         }
         allResourceRoots.add(phaseContext.getDeploymentUnit().getAttachment(Attachments.DEPLOYMENT_ROOT));
-        for (ResourceRoot resourceRoot : allResourceRoots) {
+        final AnnotationIndexCache cache = AnnotationIndexCache.create(phaseContext.getDeploymentUnit());
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (final ResourceRoot resourceRoot : allResourceRoots) {
             if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
                 continue;
             }
@@ -74,42 +89,69 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
             if (shouldIndexResource != null && !shouldIndexResource) {
                 continue;
             }
-
-            final List<String> indexIgnorePathList = resourceRoot.getAttachment(Attachments.INDEX_IGNORE_PATHS);
-            final Set<String> indexIgnorePaths;
-            if (indexIgnorePathList != null && !indexIgnorePathList.isEmpty()) {
-                indexIgnorePaths = new HashSet<String>(indexIgnorePathList);
-            } else {
-                indexIgnorePaths = null;
+            tasks.add(new Callable<Void>() {
+                public Void call() throws Exception {
+                    index(resourceRoot, cache);
+                    return null;
+                }
+            });
+        }
+        for (Throwable failure : ParallelTasks.invokeAll(phaseContext.getAttachment(Attachments.PROCESSOR_EXECUTOR), tasks)) {
+            if (failure != null) {
+                throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", failure);
             }
+        }
+    }
 
-            final VirtualFile virtualFile = resourceRoot.getRoot();
-            final Indexer indexer = new Indexer();
-            try {
-                final VisitorAttributes visitorAttributes = new VisitorAttributes();
-                visitorAttributes.setLeavesOnly(true);
-                visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
-                    public boolean accepts(VirtualFile file) {
-                        return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
-                    }
-                });
+    private static void index(final ResourceRoot resourceRoot, final AnnotationIndexCache cache) throws Exception {
+        final List<String> indexIgnorePathList = resourceRoot.getAttachment(Attachments.INDEX_IGNORE_PATHS);
+        final Set<String> indexIgnorePaths;
+        if (indexIgnorePathList != null && !indexIgnorePathList.isEmpty()) {
+            indexIgnorePaths = new HashSet<String>(indexIgnorePathList);
+        } else {
+            indexIgnorePaths = null;
+        }
 
-                final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
-                for (VirtualFile classFile : classChildren) {
-                    InputStream inputStream = null;
-                    try {
-                        inputStream = classFile.openStream();
-                        indexer.index(inputStream);
-                    } finally {
-                        VFSUtils.safeClose(inputStream);
-                    }
-                }
-                final Index index = indexer.complete();
+        final VirtualFile virtualFile = resourceRoot.getRoot();
+        if (cache != null) {
+            final Index index = cache.get(virtualFile, indexIgnorePaths);
+            if (index != null) {
                 resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
-            } catch (Throwable t) {
-                throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", t);
+                return;
             }
         }
+        final Indexer indexer = new Indexer();
+        final VisitorAttributes visitorAttributes = new VisitorAttributes();
+        visitorAttributes.setLeavesOnly(true);
+        visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
+            public boolean accepts(VirtualFile file) {
+                return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
+            }
+        });
+
+        final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
+        for (VirtualFile classFile : classChildren) {
+            InputStream inputStream = null;
+            try {
+                inputStream = classFile.openStream();
+                indexer.index(inputStream);
+            } finally {
+                VFSUtils.safeClose(inputStream);
+            }
+        }
+        final Index index = indexer.complete();
+        if (cache != null) {
+            cache.put(virtualFile, indexIgnorePaths, index);
+        }
+        resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
+    }
+
+    public Set<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    public Set<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
     }
 
     public void undeploy(final DeploymentUnit context) {
@@ -23,14 +23,19 @@
 package org.jboss.as.server.deployment.module;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.jar.Manifest;
 
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentUtils;
 import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
@@ -38,13 +43,19 @@ import org.jboss.vfs.VirtualFile;
 /**
  * Deployment unit processor that attaches the deployment root manifest to the context.
  *
- * It does nothing if the manifest is already attached or there is no manifest in the deployment root file.
+ * It does nothing if the manifest is already attached or there is no manifest in the deployment root file.  It runs
+ * concurrently with the annotation indexing of the deployment; the marker for resource roots whose META-INF is ignored
+ * is only written by processors which run on their own.
  *
  * @author Thomas.Diesler@jboss.com
  * @author Stuart Douglas
  * @since 14-Oct-2010
  */
-public class ManifestAttachmentProcessor implements DeploymentUnitProcessor {
+public class ManifestAttachmentProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final Set<AttachmentKey<?>> READ_ATTACHMENTS = Collections.unmodifiableSet(new HashSet<AttachmentKey<?>>(Arrays.<AttachmentKey<?>>asList(
+            Attachments.RESOURCE_ROOTS, Attachments.DEPLOYMENT_ROOT, Attachments.MANIFEST)));
+    private static final Set<AttachmentKey<?>> WRITTEN_ATTACHMENTS = Collections.<AttachmentKey<?>>singleton(Attachments.MANIFEST);
 
     /**
      * Process the deployment root for the manifest.
@@ -81,4 +92,12 @@ public class ManifestAttachmentProcessor implements DeploymentUnitProcessor {
             resourceRoot.removeAttachment(Attachments.MANIFEST);
         }
     }
+
+    public Set<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    public Set<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
 }
@@ -22,6 +22,7 @@
 
 package org.jboss.as.server.deployment.module;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -32,11 +33,12 @@ import java.util.jar.Attributes;
 import java.util.jar.Manifest;
 
 import org.jboss.as.server.deployment.Attachable;
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentUtils;
 import org.jboss.as.server.deployment.SubDeploymentMarker;
 import org.jboss.as.server.moduleservice.ExternalModuleService;
@@ -57,15 +59,22 @@ import org.jboss.vfs.VirtualFile;
  * If the Class-Path entry points to a jar inside the ear that is not a deployment and not a /lib jar then a reference is added
  * to this jars {@link AdditionalModuleSpecification}</li>
  * </ul>
+ * It runs concurrently with the processing of the manifest extension lists.  The resource root markers it reads are
+ * only written by processors which run on their own.
  *
  * @author Stuart Douglas
  */
-public final class ManifestClassPathProcessor implements DeploymentUnitProcessor {
+public final class ManifestClassPathProcessor implements ConcurrentDeploymentUnitProcessor {
 
     private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
 
     private static final String[] EMPTY_STRING_ARRAY = {};
 
+    private static final Set<AttachmentKey<?>> READ_ATTACHMENTS = Collections.unmodifiableSet(new HashSet<AttachmentKey<?>>(Arrays.<AttachmentKey<?>>asList(
+            Attachments.RESOURCE_ROOTS, Attachments.DEPLOYMENT_ROOT, Attachments.EXTERNAL_MODULE_SERVICE, Attachments.ADDITIONAL_MODULES,
+            Attachments.MANIFEST)));
+    private static final Set<AttachmentKey<?>> WRITTEN_ATTACHMENTS = Collections.<AttachmentKey<?>>singleton(Attachments.CLASS_PATH_ENTRIES);
+
     /** {@inheritDoc} */
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
@@ -171,4 +180,12 @@ public final class ManifestClassPathProcessor implements DeploymentUnitProcessor
     /** {@inheritDoc} */
     public void undeploy(final DeploymentUnit context) {
     }
+
+    public Set<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    public Set<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
 }
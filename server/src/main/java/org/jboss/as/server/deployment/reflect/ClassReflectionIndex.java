@@ -33,33 +33,53 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
- * A short-lived index of all the declared fields and methods of a class.
+ * An index of all the declared fields and methods of a class.  Each kind of member is only looked up when it is first
+ * queried, and then kept for the lifetime of the index.
  *
- * The ClassReflectionIndex is only available during the deployment.
+ * The ClassReflectionIndex is available for the lifetime of the deployment, and is safe for multi-threaded access.
  *
  * @param <T> the type being indexed
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class ClassReflectionIndex<T> {
     private final Class<T> indexedClass;
-    private final Map<String, Field> fields;
-    private final Map<ParamList, Constructor<T>> constructors;
-    private final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods;
+    private final DeploymentReflectionIndex deploymentIndex;
+    private volatile Map<String, Field> fields;
+    private volatile Map<ParamList, Constructor<T>> constructors;
+    private volatile Map<String, Map<ParamList, Map<Class<?>, Method>>> methods;
 
-    @SuppressWarnings( { "unchecked" })
-    ClassReflectionIndex(final Class<T> indexedClass) {
+    ClassReflectionIndex(final Class<T> indexedClass, final DeploymentReflectionIndex deploymentIndex) {
         this.indexedClass = indexedClass;
-        // -- fields --
+        this.deploymentIndex = deploymentIndex;
+    }
+
+    // Concurrent first queries may each look the members up; the results are equivalent, and one of them is kept.
+
+    private Map<String, Field> fields() {
+        Map<String, Field> fields = this.fields;
+        if (fields != null) {
+            deploymentIndex.cacheHit();
+            return fields;
+        }
         final Field[] declaredFields = indexedClass.getDeclaredFields();
-        final Map<String, Field> fields = new HashMap<String, Field>();
+        fields = new HashMap<String, Field>();
         for (Field field : declaredFields) {
             field.setAccessible(true);
             fields.put(field.getName(), field);
         }
+        deploymentIndex.reflectiveCalls(1);
         this.fields = fields;
-        // -- methods --
+        return fields;
+    }
+
+    private Map<String, Map<ParamList, Map<Class<?>, Method>>> methods() {
+        Map<String, Map<ParamList, Map<Class<?>, Method>>> methods = this.methods;
+        if (methods != null) {
+            deploymentIndex.cacheHit();
+            return methods;
+        }
         final Method[] declaredMethods = indexedClass.getDeclaredMethods();
-        final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods = new HashMap<String, Map<ParamList, Map<Class<?>, Method>>>();
+        methods = new HashMap<String, Map<ParamList, Map<Class<?>, Method>>>();
         for (Method method : declaredMethods) {
             method.setAccessible(true);
             addMethod(methods, method);
@@ -68,15 +88,27 @@ public final class ClassReflectionIndex<T> {
         for (Method method : indexedClass.getMethods()) {
             addMethod(methods, method);
         }
+        deploymentIndex.reflectiveCalls(2);
         this.methods = methods;
-        // -- constructors --
+        return methods;
+    }
+
+    @SuppressWarnings( { "unchecked" })
+    private Map<ParamList, Constructor<T>> constructors() {
+        Map<ParamList, Constructor<T>> constructors = this.constructors;
+        if (constructors != null) {
+            deploymentIndex.cacheHit();
+            return constructors;
+        }
         final Constructor<T>[] declaredConstructors = (Constructor<T>[]) indexedClass.getDeclaredConstructors();
-        final Map<ParamList, Constructor<T>> constructors = new HashMap<ParamList, Constructor<T>>();
+        constructors = new HashMap<ParamList, Constructor<T>>();
         for (Constructor<T> constructor : declaredConstructors) {
             constructor.setAccessible(true);
             constructors.put(createParamList(constructor.getParameterTypes()), constructor);
         }
+        deploymentIndex.reflectiveCalls(1);
         this.constructors = constructors;
+        return constructors;
     }
 
     private static final ParamList EMPTY = new ParamList(new Class<?>[0]);
@@ -116,7 +148,7 @@ public final class ClassReflectionIndex<T> {
      * @return the field, or {@code null} if no field of that name exists
      */
     public Field getField(String name) {
-        return fields.get(name);
+        return fields().get(name);
     }
 
     /**
@@ -125,7 +157,7 @@ public final class ClassReflectionIndex<T> {
      * @return The (possibly empty) collection of all declared fields on this object
      */
     public Collection<Field> getFields() {
-        return Collections.unmodifiableCollection(fields.values());
+        return Collections.unmodifiableCollection(fields().values());
     }
 
     /**
@@ -137,7 +169,7 @@ public final class ClassReflectionIndex<T> {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(Class<?> returnType, String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().get(name);
         if (nameMap == null) {
             return null;
         }
@@ -156,7 +188,7 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods matching the description
      */
     public Collection<Method> getMethods(String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -174,7 +206,7 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods with the given name
      */
     public Collection<Method> getMethods(String name) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -192,7 +224,7 @@ public final class ClassReflectionIndex<T> {
      */
     public Collection<Method> getMethods() {
         final Collection<Method> methods = new ArrayList<Method>();
-        for (Map.Entry<String, Map<ParamList, Map<Class<?>, Method>>> entry : this.methods.entrySet()) {
+        for (Map.Entry<String, Map<ParamList, Map<Class<?>, Method>>> entry : methods().entrySet()) {
             final Map<ParamList, Map<Class<?>, Method>> nameMap = entry.getValue();
             for (Map<Class<?>, Method> map : nameMap.values()) {
                 methods.addAll(map.values());
@@ -207,7 +239,7 @@ public final class ClassReflectionIndex<T> {
      * @return the constructors
      */
     public Collection<Constructor<T>> getConstructors() {
-        return Collections.unmodifiableCollection(constructors.values());
+        return Collections.unmodifiableCollection(constructors().values());
     }
 
     /**
@@ -217,7 +249,7 @@ public final class ClassReflectionIndex<T> {
      * @return the constructor, or {@code null} of no such constructor exists
      */
     public Constructor<T> getConstructor(Class<?>... paramTypes) {
-        return constructors.get(createParamList(paramTypes));
+        return constructors().get(createParamList(paramTypes));
     }
 
     private static final class ParamList {
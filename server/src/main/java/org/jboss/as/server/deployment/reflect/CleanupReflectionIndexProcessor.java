@@ -27,17 +27,26 @@ import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.logging.Logger;
 
 /**
- * The processor to remove the reflection index from the deployment unit.
+ * The processor to report the use of the reflection index once the deployment is installed.  The index itself is kept
+ * for the lifetime of the deployment unit, so components and later redeployments of its phases can reuse it.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class CleanupReflectionIndexProcessor implements DeploymentUnitProcessor {
 
+    private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
+
     /** {@inheritDoc} */
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
-        phaseContext.getDeploymentUnit().removeAttachment(Attachments.REFLECTION_INDEX);
+        final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
+        final DeploymentReflectionIndex index = deploymentUnit.getAttachment(Attachments.REFLECTION_INDEX);
+        if (index != null) {
+            log.debugf("Reflection index of %s made %d reflective calls and answered %d queries from its cache", deploymentUnit,
+                    Long.valueOf(index.getReflectiveCallCount()), Long.valueOf(index.getCacheHitCount()));
+        }
     }
 
     /** {@inheritDoc} */
@@ -25,14 +25,19 @@ package org.jboss.as.server.deployment.reflect;
 import java.security.Permission;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * A reflection index for a deployment.  Not safe for multi-threaded access.
+ * A reflection index for a deployment, shared by the deployment and its sub-deployments for their lifetime.  The
+ * index references the classes it indexed, both directly and through their members; these are classes visible to the
+ * deployment, which its module references for as long anyway.  Safe for multi-threaded access.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class DeploymentReflectionIndex {
     private final Map<Class<?>, ClassReflectionIndex<?>> classes = new HashMap<Class<?>, ClassReflectionIndex<?>>();
+    private final AtomicLong reflectiveCalls = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
 
     DeploymentReflectionIndex() {
     }
@@ -62,8 +67,35 @@ public final class DeploymentReflectionIndex {
     public synchronized <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
         ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
         if (index == null) {
-            classes.put(clazz, index = new ClassReflectionIndex<T>(clazz));
+            index = new ClassReflectionIndex<T>(clazz, this);
+            classes.put(clazz, index);
         }
         return index;
     }
+
+    /**
+     * Get the number of reflective member lookups, such as {@link Class#getDeclaredMethods()}, made by this index.
+     *
+     * @return the number of reflective calls
+     */
+    public long getReflectiveCallCount() {
+        return reflectiveCalls.get();
+    }
+
+    /**
+     * Get the number of member queries answered from members looked up before, without a reflective call.
+     *
+     * @return the number of cache hits
+     */
+    public long getCacheHitCount() {
+        return cacheHits.get();
+    }
+
+    void reflectiveCalls(final int count) {
+        reflectiveCalls.addAndGet(count);
+    }
+
+    void cacheHit() {
+        cacheHits.incrementAndGet();
+    }
 }
@@ -29,7 +29,8 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 
 /**
- * The processor to install the reflection index.
+ * The processor to install the reflection index, for deployment units which did not get one when they were created.
+ * A sub-deployment shares the index of its parent.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
@@ -37,11 +38,20 @@ public final class InstallReflectionIndexProcessor implements DeploymentUnitProc
 
     /** {@inheritDoc} */
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
-        phaseContext.getDeploymentUnit().putAttachment(Attachments.REFLECTION_INDEX, DeploymentReflectionIndex.create());
+        final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
+        if (deploymentUnit.getAttachment(Attachments.REFLECTION_INDEX) != null) {
+            return;
+        }
+        final DeploymentUnit parent = deploymentUnit.getParent();
+        DeploymentReflectionIndex index = parent == null ? null : parent.getAttachment(Attachments.REFLECTION_INDEX);
+        if (index == null) {
+            index = DeploymentReflectionIndex.create();
+        }
+        deploymentUnit.putAttachment(Attachments.REFLECTION_INDEX, index);
     }
 
     /** {@inheritDoc} */
     public void undeploy(final DeploymentUnit context) {
-        context.removeAttachment(Attachments.REFLECTION_INDEX);
+        // the index is kept for the lifetime of the deployment unit, so a restarted phase reuses it
     }
 }
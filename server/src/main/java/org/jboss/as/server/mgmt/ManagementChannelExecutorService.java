@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.mgmt;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Service providing the executor which delivers the messages on the channels of multiplexed management connections.
+ * The number of threads is bounded; once every thread is busy, further messages wait in a queue.  Idle threads exit
+ * after a minute.
+ * <p>
+ * A channel handler which sends a request and waits for its response holds a thread until the response has been
+ * delivered by another, so the bound must be larger than the number of requests which can be nested that way.
+ */
+public final class ManagementChannelExecutorService implements Service<ExecutorService> {
+
+    /** The default maximum number of threads. */
+    public static final int DEFAULT_MAX_THREADS = 32;
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private final int maxThreads;
+    private final InjectedValue<ThreadFactory> threadFactory = new InjectedValue<ThreadFactory>();
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param maxThreads the maximum number of threads
+     */
+    public ManagementChannelExecutorService(final int maxThreads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("maxThreads is " + maxThreads);
+        }
+        this.maxThreads = maxThreads;
+    }
+
+    /** {@inheritDoc} */
+    public synchronized void start(final StartContext context) throws StartException {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), threadFactory.getValue());
+        executor.allowCoreThreadTimeOut(true);
+        this.executor = executor;
+    }
+
+    /** {@inheritDoc} */
+    public synchronized void stop(final StopContext context) {
+        executor.shutdown();
+        executor = null;
+    }
+
+    /** {@inheritDoc} */
+    public synchronized ExecutorService getValue() throws IllegalStateException {
+        final ExecutorService executor = this.executor;
+        if (executor == null) {
+            throw new IllegalStateException();
+        }
+        return executor;
+    }
+
+    /**
+     * Get the injector for the factory of the executor's threads.
+     *
+     * @return the injector
+     */
+    public Injector<ThreadFactory> getThreadFactoryInjector() {
+        return threadFactory;
+    }
+}
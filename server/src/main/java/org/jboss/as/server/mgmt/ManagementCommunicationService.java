@@ -81,6 +81,8 @@ public class ManagementCommunicationService implements Service<ManagementCommuni
             config.setReadExecutor(executorService);
             config.setSocketFactory(ServerSocketFactory.getDefault());
             config.setBacklog(50);
+            // service all connections from a couple of selector threads rather than a reader thread each
+            config.setIoThreads(2);
             config.setConnectionHandler(this);
 
             server = new ProtocolServer(config);
@@ -26,11 +26,13 @@ import static org.jboss.as.protocol.StreamUtils.writeUTFZBytes;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
 
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.remote.ModelControllerOperationHandler;
 import org.jboss.as.protocol.Connection;
 import org.jboss.as.protocol.MessageHandler;
+import org.jboss.as.protocol.MultiplexedConnection;
 import org.jboss.as.protocol.mgmt.ManagementHeaderMessageHandler;
 import org.jboss.as.protocol.mgmt.ManagementRequest;
 import org.jboss.as.protocol.mgmt.ManagementRequestConnectionStrategy;
@@ -52,10 +54,13 @@ import org.jboss.msc.value.InjectedValue;
 public class HostControllerServerClient implements Service<Void> {
 
     public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("host", "controller", "client");
+    /** The name of the service delivering the messages on the channels of the connection to the host controller */
+    public static final ServiceName CHANNEL_EXECUTOR_SERVICE_NAME = SERVICE_NAME.append("channel-executor");
     private final InjectedValue<Connection> smConnection = new InjectedValue<Connection>();
     private final InjectedValue<ServerController> controller = new InjectedValue<ServerController>();
     private final String serverName;
     private volatile ModelControllerOperationHandler modelControllerOperationHandler;
+    private final InjectedValue<ExecutorService> channelExecutor = new InjectedValue<ExecutorService>();
     private final MessageHandler initialMessageHandler = new ManagementHeaderMessageHandler() {
 
         @Override
@@ -71,13 +76,16 @@ public class HostControllerServerClient implements Service<Void> {
     /** {@inheritDoc} */
     public void start(final StartContext context) throws StartException {
         final Connection smConnection = this.smConnection.getValue();
+        modelControllerOperationHandler = ModelControllerOperationHandler.Factory.create(ModelControllerClient.Type.STANDALONE, controller.getValue(), initialMessageHandler);
+        // The host controller sends each request on its own channel once it has answered the registration.
+        // The registration request puts the multiplexed handler back as it reads the end of the response,
+        // so there is no window in which a channel message could reach the wrong handler.
+        new MultiplexedConnection(smConnection, initialMessageHandler, channelExecutor.getValue());
         try {
             new ServerRegisterRequest().executeForResult(new ManagementRequestConnectionStrategy.ExistingConnectionStrategy(smConnection));
         } catch (Exception e) {
             throw new StartException("Failed to send registration message to host controller", e);
         }
-        modelControllerOperationHandler = ModelControllerOperationHandler.Factory.create(ModelControllerClient.Type.STANDALONE, controller.getValue(), initialMessageHandler);
-        smConnection.setMessageHandler(initialMessageHandler);
     }
 
     /** {@inheritDoc} */
@@ -97,6 +105,10 @@ public class HostControllerServerClient implements Service<Void> {
         return controller;
     }
 
+    public Injector<ExecutorService> getChannelExecutorInjector() {
+        return channelExecutor;
+    }
+
 
 
     private class ServerRegisterRequest extends ManagementRequest<Void> {
@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ParallelBootOperations}.
+ */
+public class ParallelBootOperationsTestCase {
+
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final Set<ClassLoader> contextClassLoaders = new CopyOnWriteArraySet<ClassLoader>();
+
+    @Test
+    public void testThrowingOperationReportedAsFailed() {
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        operations.add(operation("a", "fail"));
+        operations.add(operation("a", "succeed"));
+        operations.add(operation("b", "succeed"));
+        new ParallelBootOperations(new TestController(), new CountingResultHandler(), 2).execute(operations);
+
+        assertEquals(2, completed.get());
+        assertEquals(1, failed.get());
+    }
+
+    @Test
+    public void testOperationsExecutedWithCallersContextClassLoader() {
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        operations.add(operation("a", "succeed"));
+        operations.add(operation("b", "succeed"));
+        operations.add(operation("c", "succeed"));
+
+        final ClassLoader classLoader = new URLClassLoader(new URL[0]);
+        final Thread thread = Thread.currentThread();
+        final ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            new ParallelBootOperations(new TestController(), new CountingResultHandler(), 2).execute(operations);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+        assertEquals(3, completed.get());
+        assertEquals(1, contextClassLoaders.size());
+        assertSame(classLoader, contextClassLoaders.iterator().next());
+    }
+
+    private static ModelNode operation(final String subsystem, final String name) {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(name);
+        operation.get(OP_ADDR).add(SUBSYSTEM, subsystem);
+        return operation;
+    }
+
+    private class TestController implements ModelController {
+        public Cancellable execute(final ModelNode operation, final ResultHandler handler) {
+            contextClassLoaders.add(Thread.currentThread().getContextClassLoader());
+            if ("fail".equals(operation.get(OP).asString())) {
+                throw new IllegalStateException("broken operation");
+            }
+            handler.handleResultComplete(null);
+            return Cancellable.NULL;
+        }
+
+        public ModelNode execute(final ModelNode operation) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class CountingResultHandler implements ResultHandler {
+        public void handleResultFragment(final String[] location, final ModelNode result) {
+        }
+
+        public void handleResultComplete(final ModelNode compensatingOperation) {
+            completed.incrementAndGet();
+        }
+
+        public void handleFailed(final ModelNode failureDescription) {
+            failed.incrementAndGet();
+        }
+
+        public void handleCancellation() {
+        }
+    }
+}
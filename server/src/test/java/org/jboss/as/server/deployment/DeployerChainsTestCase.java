@@ -0,0 +1,137 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests of the grouping of concurrent processors by {@link DeployerChains}.
+ */
+public class DeployerChainsTestCase {
+
+    private static final AttachmentKey<String> A = AttachmentKey.create(String.class);
+    private static final AttachmentKey<String> B = AttachmentKey.create(String.class);
+    private static final AttachmentKey<String> C = AttachmentKey.create(String.class);
+
+    @Test
+    public void testIndependentProcessorsAreGrouped() {
+        final DeploymentUnitProcessor first = new TestProcessor(keys(A), keys(B));
+        final DeploymentUnitProcessor second = new TestProcessor(keys(A), keys(C));
+        final DeploymentUnitProcessor third = new TestProcessor(keys(A), keys());
+        final List<List<DeploymentUnitProcessor>> groups = group(first, second, third);
+        assertEquals(1, groups.size());
+        assertEquals(Arrays.asList(first, second, third), groups.get(0));
+    }
+
+    @Test
+    public void testWriteOfReadAttachmentStartsGroup() {
+        final DeploymentUnitProcessor reader = new TestProcessor(keys(A), keys(B));
+        final DeploymentUnitProcessor writer = new TestProcessor(keys(), keys(A));
+        assertGroups(group(reader, writer), Arrays.asList(reader), Arrays.asList(writer));
+    }
+
+    @Test
+    public void testReadOfWrittenAttachmentStartsGroup() {
+        final DeploymentUnitProcessor writer = new TestProcessor(keys(), keys(A));
+        final DeploymentUnitProcessor other = new TestProcessor(keys(C), keys(B));
+        final DeploymentUnitProcessor reader = new TestProcessor(keys(A), keys());
+        assertGroups(group(writer, other, reader), Arrays.asList(writer, other), Arrays.asList(reader));
+    }
+
+    @Test
+    public void testWriteOfWrittenAttachmentStartsGroup() {
+        final DeploymentUnitProcessor first = new TestProcessor(keys(), keys(A, B));
+        final DeploymentUnitProcessor second = new TestProcessor(keys(), keys(B));
+        assertGroups(group(first, second), Arrays.asList(first), Arrays.asList(second));
+    }
+
+    @Test
+    public void testConflictWithAnyGroupMemberStartsGroup() {
+        final DeploymentUnitProcessor first = new TestProcessor(keys(), keys(A));
+        final DeploymentUnitProcessor second = new TestProcessor(keys(), keys(B));
+        // conflicts with the first member only; the new group starts with it, not after the second member
+        final DeploymentUnitProcessor third = new TestProcessor(keys(A), keys(C));
+        final DeploymentUnitProcessor fourth = new TestProcessor(keys(B), keys());
+        assertGroups(group(first, second, third, fourth), Arrays.asList(first, second), Arrays.asList(third, fourth));
+    }
+
+    @Test
+    public void testOtherProcessorsRunAlone() {
+        final DeploymentUnitProcessor first = new TestProcessor(keys(A), keys());
+        final DeploymentUnitProcessor second = new TestProcessor(keys(A), keys());
+        final DeploymentUnitProcessor plain = new PlainProcessor();
+        final DeploymentUnitProcessor third = new TestProcessor(keys(A), keys());
+        final DeploymentUnitProcessor otherPlain = new PlainProcessor();
+        assertGroups(group(first, second, plain, third, otherPlain), Arrays.asList(first, second), Arrays.asList(plain),
+                Arrays.asList(third), Arrays.asList(otherPlain));
+    }
+
+    private static List<List<DeploymentUnitProcessor>> group(final DeploymentUnitProcessor... processors) {
+        return DeployerChains.groupConcurrentProcessors(Arrays.asList(processors));
+    }
+
+    private static void assertGroups(final List<List<DeploymentUnitProcessor>> groups, final List<?>... expected) {
+        assertEquals(expected.length, groups.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], groups.get(i));
+        }
+    }
+
+    private static Set<AttachmentKey<?>> keys(final AttachmentKey<?>... keys) {
+        return Collections.unmodifiableSet(new HashSet<AttachmentKey<?>>(Arrays.asList(keys)));
+    }
+
+    static class PlainProcessor implements DeploymentUnitProcessor {
+        public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+        }
+
+        public void undeploy(final DeploymentUnit context) {
+        }
+    }
+
+    static class TestProcessor extends PlainProcessor implements ConcurrentDeploymentUnitProcessor {
+        private final Set<AttachmentKey<?>> reads;
+        private final Set<AttachmentKey<?>> writes;
+
+        TestProcessor(final Set<AttachmentKey<?>> reads, final Set<AttachmentKey<?>> writes) {
+            this.reads = reads;
+            this.writes = writes;
+        }
+
+        public Set<AttachmentKey<?>> getReadAttachments() {
+            return reads;
+        }
+
+        public Set<AttachmentKey<?>> getWrittenAttachments() {
+            return writes;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of running the concurrent chain of a phase with {@link DeploymentUnitPhaseService}.
+ */
+public class DeploymentUnitPhaseServiceTestCase {
+
+    private final List<String> deployed = Collections.synchronizedList(new ArrayList<String>());
+    private final List<String> undeployed = Collections.synchronizedList(new ArrayList<String>());
+    private ExecutorService executor;
+
+    @Before
+    public void createExecutor() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testGroupsRunInOrder() throws Exception {
+        final List<List<DeploymentUnitProcessor>> groups = groups(
+                Arrays.<DeploymentUnitProcessor>asList(new RecordingProcessor("a", null)),
+                Arrays.<DeploymentUnitProcessor>asList(new RecordingProcessor("b", null), new RecordingProcessor("c", null)),
+                Arrays.<DeploymentUnitProcessor>asList(new RecordingProcessor("d", null)));
+        DeploymentUnitPhaseService.deploy(groups, null, null, Phase.STRUCTURE, executor);
+        assertEquals("a", deployed.get(0));
+        assertEquals(Arrays.asList("b", "c"), sorted(deployed.subList(1, 3)));
+        assertEquals("d", deployed.get(3));
+        assertEquals(0, undeployed.size());
+    }
+
+    @Test
+    public void testFailedGroupIsUndeployedInReverseOrder() throws Exception {
+        final DeploymentUnitProcessingException failure = new DeploymentUnitProcessingException("c failed");
+        final List<List<DeploymentUnitProcessor>> groups = groups(
+                Arrays.<DeploymentUnitProcessor>asList(new RecordingProcessor("a", null)),
+                Arrays.<DeploymentUnitProcessor>asList(new RecordingProcessor("b", null), new RecordingProcessor("c", failure),
+                        new RecordingProcessor("d", null)),
+                Arrays.<DeploymentUnitProcessor>asList(new RecordingProcessor("e", null)));
+        try {
+            DeploymentUnitPhaseService.deploy(groups, null, null, Phase.STRUCTURE, executor);
+            fail("Expected the failure of c");
+        } catch (DeploymentUnitProcessingException e) {
+            assertSame(failure, e);
+        }
+        // the whole failed group has run, and the next group has not
+        assertEquals(Arrays.asList("a", "b", "c", "d"), sorted(deployed));
+        assertEquals(Arrays.asList("d", "c", "b", "a"), undeployed);
+    }
+
+    @Test
+    public void testFailureOfFirstGroupIsUndeployed() throws Exception {
+        final RuntimeException failure = new IllegalStateException("a failed");
+        final List<List<DeploymentUnitProcessor>> groups = groups(
+                Arrays.<DeploymentUnitProcessor>asList(new RecordingProcessor("a", failure)),
+                Arrays.<DeploymentUnitProcessor>asList(new RecordingProcessor("b", null)));
+        try {
+            DeploymentUnitPhaseService.deploy(groups, null, null, Phase.STRUCTURE, executor);
+            fail("Expected the failure of a");
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+        assertEquals(Arrays.asList("a"), deployed);
+        assertEquals(Arrays.asList("a"), undeployed);
+    }
+
+    private static List<List<DeploymentUnitProcessor>> groups(final List<DeploymentUnitProcessor>... groups) {
+        return Arrays.asList(groups);
+    }
+
+    private static List<String> sorted(final List<String> list) {
+        final List<String> sorted = new ArrayList<String>(list);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    private class RecordingProcessor implements ConcurrentDeploymentUnitProcessor {
+        private final String name;
+        private final Exception failure;
+
+        RecordingProcessor(final String name, final Exception failure) {
+            this.name = name;
+            this.failure = failure;
+        }
+
+        public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+            deployed.add(name);
+            if (failure instanceof DeploymentUnitProcessingException) {
+                throw (DeploymentUnitProcessingException) failure;
+            } else if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+        }
+
+        public void undeploy(final DeploymentUnit context) {
+            undeployed.add(name);
+        }
+
+        public Set<AttachmentKey<?>> getReadAttachments() {
+            return Collections.emptySet();
+        }
+
+        public Set<AttachmentKey<?>> getWrittenAttachments() {
+            return Collections.emptySet();
+        }
+    }
+}
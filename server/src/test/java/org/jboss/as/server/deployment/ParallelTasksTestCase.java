@@ -0,0 +1,180 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ParallelTasks}.
+ */
+public class ParallelTasksTestCase {
+
+    private ExecutorService executor;
+
+    @Before
+    public void createExecutor() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testFailuresAreReturnedByTask() throws Exception {
+        final Exception failure = new Exception("task 1");
+        final Error error = new Error("task 3");
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        tasks.add(new Task(null));
+        tasks.add(new Task(failure));
+        tasks.add(new Task(null));
+        tasks.add(new Task(error));
+
+        final Throwable[] failures = ParallelTasks.invokeAll(executor, tasks);
+        assertEquals(4, failures.length);
+        assertNull(failures[0]);
+        assertSame(failure, failures[1]);
+        assertNull(failures[2]);
+        assertSame(error, failures[3]);
+    }
+
+    @Test
+    public void testTasksRunConcurrently() throws Exception {
+        // each task waits for all the others to start, which only completes if they run at the same time
+        final CountDownLatch started = new CountDownLatch(3);
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int i = 0; i < 3; i++) {
+            tasks.add(new Callable<Void>() {
+                public Void call() throws Exception {
+                    started.countDown();
+                    if (!started.await(10, TimeUnit.SECONDS)) {
+                        throw new IllegalStateException("Tasks did not run concurrently");
+                    }
+                    return null;
+                }
+            });
+        }
+        for (Throwable failure : ParallelTasks.invokeAll(executor, tasks)) {
+            assertNull(failure);
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testNestedInvokeAllOnSaturatedPool() throws Exception {
+        final AtomicInteger completed = new AtomicInteger();
+        final List<Callable<Void>> outer = new ArrayList<Callable<Void>>();
+        for (int i = 0; i < 8; i++) {
+            outer.add(new Callable<Void>() {
+                public Void call() throws Exception {
+                    final List<Callable<Void>> inner = new ArrayList<Callable<Void>>();
+                    for (int j = 0; j < 8; j++) {
+                        inner.add(new Callable<Void>() {
+                            public Void call() throws Exception {
+                                Thread.sleep(5);
+                                completed.incrementAndGet();
+                                return null;
+                            }
+                        });
+                    }
+                    for (Throwable failure : ParallelTasks.invokeAll(executor, inner)) {
+                        if (failure != null) {
+                            throw new Exception(failure);
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+        // every pool thread runs an outer task waiting for inner tasks queued behind the other outer tasks
+        for (Throwable failure : ParallelTasks.invokeAll(executor, outer)) {
+            assertNull(failure);
+        }
+        assertEquals(64, completed.get());
+    }
+
+    @Test
+    public void testRejectedTasksRunInCallingThread() throws Exception {
+        final Executor rejecting = new Executor() {
+            public void execute(final Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        };
+        assertRunInCallingThread(rejecting);
+        assertRunInCallingThread(null);
+    }
+
+    private static void assertRunInCallingThread(final Executor executor) {
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int i = 0; i < 3; i++) {
+            tasks.add(new Callable<Void>() {
+                public Void call() {
+                    threads.add(Thread.currentThread());
+                    return null;
+                }
+            });
+        }
+        ParallelTasks.invokeAll(executor, tasks);
+        assertEquals(3, threads.size());
+        for (Thread thread : threads) {
+            assertTrue(thread == Thread.currentThread());
+        }
+    }
+
+    private static final class Task implements Callable<Void> {
+        private final Throwable failure;
+
+        Task(final Throwable failure) {
+            this.failure = failure;
+        }
+
+        public Void call() throws Exception {
+            if (failure instanceof Exception) {
+                throw (Exception) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            return null;
+        }
+    }
+}
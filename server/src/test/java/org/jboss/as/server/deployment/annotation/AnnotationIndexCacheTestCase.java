@@ -0,0 +1,168 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link AnnotationIndexCache}.
+ */
+public class AnnotationIndexCacheTestCase {
+
+    private static final DotName INDEXED_CLASS = DotName.createSimple(AnnotationIndexCacheTestCase.class.getName());
+
+    private File contentDir;
+    private File cacheDir;
+    private VirtualFile deploymentRoot;
+    private AnnotationIndexCache cache;
+
+    @Before
+    public void setup() throws Exception {
+        contentDir = createTempDir("content");
+        new File(contentDir, "lib").mkdir();
+        cacheDir = createTempDir("cache");
+        deploymentRoot = VFS.getChild(contentDir.toURI());
+        cache = new AnnotationIndexCache(cacheDir, deploymentRoot);
+    }
+
+    @After
+    public void cleanup() {
+        delete(contentDir);
+        delete(cacheDir);
+    }
+
+    @Test
+    public void testHitAfterMiss() throws Exception {
+        final VirtualFile lib = deploymentRoot.getChild("lib");
+        assertNull(cache.get(deploymentRoot, null));
+        cache.put(deploymentRoot, null, createIndex());
+
+        final Index cached = cache.get(deploymentRoot, null);
+        assertNotNull(cached);
+        assertNotNull(cached.getClassByName(INDEXED_CLASS));
+        // each resource root has an index of its own
+        assertNull(cache.get(lib, null));
+    }
+
+    @Test
+    public void testUnreadableIndexIgnored() throws Exception {
+        cache.put(deploymentRoot, null, createIndex());
+        final File[] files = cacheDir.listFiles();
+        assertEquals(1, files.length);
+        final File indexFile = files[0];
+
+        truncate(indexFile, indexFile.length() / 2);
+        assertNull(cache.get(deploymentRoot, null));
+
+        overwrite(indexFile, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        assertNull(cache.get(deploymentRoot, null));
+
+        // the root is indexed again and the new index replaces the unreadable one
+        cache.put(deploymentRoot, null, createIndex());
+        assertNotNull(cache.get(deploymentRoot, null).getClassByName(INDEXED_CLASS));
+    }
+
+    @Test
+    public void testIgnorePathsArePartOfTheKey() throws Exception {
+        final Set<String> ignored = new HashSet<String>(Arrays.asList("a", "b"));
+        cache.put(deploymentRoot, ignored, createIndex());
+
+        assertNull(cache.get(deploymentRoot, null));
+        assertNull(cache.get(deploymentRoot, Collections.singleton("a")));
+        assertNull(cache.get(deploymentRoot, new HashSet<String>(Arrays.asList("a", "b", "c"))));
+        // the order of the paths does not matter
+        assertNotNull(cache.get(deploymentRoot, new HashSet<String>(Arrays.asList("b", "a"))));
+    }
+
+    private static Index createIndex() throws IOException {
+        final Indexer indexer = new Indexer();
+        final InputStream in = AnnotationIndexCacheTestCase.class.getResourceAsStream(AnnotationIndexCacheTestCase.class.getSimpleName() + ".class");
+        try {
+            indexer.index(in);
+        } finally {
+            in.close();
+        }
+        return indexer.complete();
+    }
+
+    private static void truncate(final File file, final long length) throws IOException {
+        final byte[] bytes = new byte[(int) length];
+        final InputStream in = new FileInputStream(file);
+        try {
+            int read = 0;
+            while (read < bytes.length) {
+                read += in.read(bytes, read, bytes.length - read);
+            }
+        } finally {
+            in.close();
+        }
+        overwrite(file, bytes);
+    }
+
+    private static void overwrite(final File file, final byte[] bytes) throws IOException {
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static File createTempDir(final String prefix) throws IOException {
+        final File dir = File.createTempFile(prefix, null);
+        dir.delete();
+        dir.mkdir();
+        return dir;
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
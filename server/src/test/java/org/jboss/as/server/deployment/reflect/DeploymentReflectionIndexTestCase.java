@@ -0,0 +1,121 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.reflect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link DeploymentReflectionIndex} and {@link ClassReflectionIndex}.
+ */
+public class DeploymentReflectionIndexTestCase {
+
+    @Test
+    public void testClassIndexIsShared() {
+        final DeploymentReflectionIndex index = DeploymentReflectionIndex.create();
+        final ClassReflectionIndex<Sample> classIndex = index.getClassIndex(Sample.class);
+        assertSame(Sample.class, classIndex.getIndexedClass());
+        assertSame(classIndex, index.getClassIndex(Sample.class));
+        assertSame(classIndex, index.getClassIndex(Sample.class));
+    }
+
+    @Test
+    public void testMembersAreLookedUpLazily() {
+        final DeploymentReflectionIndex index = DeploymentReflectionIndex.create();
+        index.getClassIndex(Sample.class);
+        assertCounts(index, 0, 0);
+
+        final ClassReflectionIndex<Sample> classIndex = index.getClassIndex(Sample.class);
+        assertEquals("value", classIndex.getField("value").getName());
+        assertCounts(index, 1, 0);
+
+        assertNotNull(classIndex.getMethod(void.class, "setValue", int.class));
+        assertCounts(index, 3, 0);
+
+        assertNotNull(classIndex.getConstructor(int.class));
+        assertCounts(index, 4, 0);
+    }
+
+    @Test
+    public void testRepeatedQueriesAreCacheHits() {
+        final DeploymentReflectionIndex index = DeploymentReflectionIndex.create();
+        final ClassReflectionIndex<Sample> classIndex = index.getClassIndex(Sample.class);
+        classIndex.getField("value");
+        classIndex.getMethod(void.class, "setValue", int.class);
+        classIndex.getConstructor(int.class);
+        assertCounts(index, 4, 0);
+
+        assertEquals(1, classIndex.getFields().size());
+        assertCounts(index, 4, 1);
+
+        assertNull(classIndex.getField("missing"));
+        assertCounts(index, 4, 2);
+
+        assertEquals(1, classIndex.getMethods("setValue", int.class).size());
+        // public methods are indexed along with the declared ones
+        assertNotNull(classIndex.getMethod(String.class, "toString"));
+        assertCounts(index, 4, 4);
+
+        assertEquals(2, classIndex.getConstructors().size());
+        assertCounts(index, 4, 5);
+
+        // a second query of the index does not make it forget what it looked up
+        index.getClassIndex(Sample.class).getMethods();
+        assertCounts(index, 4, 6);
+    }
+
+    @Test
+    public void testCountsAreSharedAcrossClasses() {
+        final DeploymentReflectionIndex index = DeploymentReflectionIndex.create();
+        index.getClassIndex(Sample.class).getFields();
+        index.getClassIndex(Object.class).getFields();
+        assertCounts(index, 2, 0);
+        index.getClassIndex(Sample.class).getFields();
+        index.getClassIndex(Object.class).getFields();
+        assertCounts(index, 2, 2);
+    }
+
+    private static void assertCounts(final DeploymentReflectionIndex index, final long reflectiveCalls, final long cacheHits) {
+        assertEquals("reflective calls", reflectiveCalls, index.getReflectiveCallCount());
+        assertEquals("cache hits", cacheHits, index.getCacheHitCount());
+    }
+
+    public static class Sample {
+        private int value;
+
+        public Sample() {
+        }
+
+        public Sample(final int value) {
+            this.value = value;
+        }
+
+        public void setValue(final int value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.test.surefire;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Properties;
+
+import junit.framework.Assert;
+
+import org.jboss.as.server.Bootstrap;
+import org.jboss.as.server.Main;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.modules.Module;
+import org.jboss.msc.service.ServiceActivator;
+import org.jboss.msc.service.ServiceContainer;
+
+/**
+ * Boots the embedded standalone servers measured by the benchmarks.  Each benchmark gets its own server base directory,
+ * configured with the full standalone configuration of the distribution unless another configuration file is given
+ * with a system property.
+ */
+public final class BenchmarkServer {
+
+    private BenchmarkServer() {
+    }
+
+    /**
+     * Create the base directory of a server under {@code target}.
+     *
+     * @param name the name of the directory
+     * @param configProperty the system property which may name the configuration file to copy into the directory
+     * @return the base directory
+     * @throws IOException if the configuration cannot be copied
+     */
+    public static File createServerBaseDir(final String name, final String configProperty) throws IOException {
+        final File baseDir = new File("target", name);
+        final File configurationDir = new File(baseDir, "configuration");
+        configurationDir.mkdirs();
+        new File(baseDir, "deployments").mkdirs();
+        String config = System.getProperty(configProperty);
+        if (config == null) {
+            config = System.getProperty("jboss.home.dir") + "/standalone/configuration/standalone.xml";
+        }
+        copy(new File(config), new File(configurationDir, "standalone.xml"));
+        return baseDir;
+    }
+
+    /**
+     * Create the boot configuration of a server.
+     *
+     * @param baseDir the base directory of the server
+     * @param threadsProperty the server environment property setting the number of threads measured
+     * @param threads the number of threads
+     * @return the configuration
+     */
+    public static Bootstrap.Configuration createConfiguration(final File baseDir, final String threadsProperty, final int threads) {
+        final Properties props = new Properties(System.getProperties());
+        props.setProperty(ServerEnvironment.SERVER_BASE_DIR, baseDir.getAbsolutePath());
+        props.setProperty(threadsProperty, Integer.toString(threads));
+        final ServerEnvironment serverEnvironment = Main.determineEnvironment(new String[0], props, System.getenv());
+        Assert.assertNotNull(serverEnvironment);
+        final Bootstrap.Configuration configuration = new Bootstrap.Configuration();
+        configuration.setServerEnvironment(serverEnvironment);
+        configuration.setModuleLoader(Module.getSystemModuleLoader());
+        configuration.setPortOffset(0);
+        return configuration;
+    }
+
+    /**
+     * Boot a server, returning once its boot completed.
+     *
+     * @param configuration the boot configuration
+     * @return the service container of the server
+     * @throws Exception if the server fails to boot
+     */
+    public static ServiceContainer start(final Bootstrap.Configuration configuration) throws Exception {
+        final Bootstrap bootstrap = Bootstrap.Factory.newInstance();
+        final ServiceContainer container = bootstrap.start(configuration, Collections.<ServiceActivator>emptyList()).get();
+        Assert.assertNotNull(container);
+        return container;
+    }
+
+    /**
+     * Shut a server down, returning once its shutdown completed.
+     *
+     * @param container the service container of the server
+     * @throws InterruptedException if interrupted while waiting for the shutdown
+     */
+    public static void stop(final ServiceContainer container) throws InterruptedException {
+        container.shutdown();
+        container.awaitTermination();
+        Assert.assertTrue(container.isShutdownComplete());
+    }
+
+    private static void copy(final File source, final File target) throws IOException {
+        final InputStream in = new FileInputStream(source);
+        try {
+            final OutputStream out = new FileOutputStream(target);
+            try {
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+}
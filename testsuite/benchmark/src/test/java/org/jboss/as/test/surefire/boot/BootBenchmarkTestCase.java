@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.surefire.boot;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.server.Bootstrap;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.test.surefire.BenchmarkServer;
+import org.jboss.msc.service.ServiceContainer;
+import org.junit.Test;
+
+/**
+ * Compares the boot time of a server executing its boot operations in order with one executing the operations of
+ * different subsystems concurrently.  The server boots the full standalone configuration of the distribution, which
+ * configures every subsystem, unless another configuration file is given with the
+ * {@code jboss.boot.benchmark.config} system property.
+ */
+public class BootBenchmarkTestCase {
+
+    private static final int ROUNDS = Integer.getInteger("jboss.boot.benchmark.rounds", 5).intValue();
+
+    @Test
+    public void testBootTime() throws Exception {
+        final File baseDir = BenchmarkServer.createServerBaseDir("boot-benchmark", "jboss.boot.benchmark.config");
+        // the first boot loads most of the classes, so it is not measured
+        boot(baseDir, 1);
+
+        final int processors = Runtime.getRuntime().availableProcessors();
+        long sequential = 0L;
+        long parallel = 0L;
+        for (int round = 0; round < ROUNDS; round++) {
+            sequential += boot(baseDir, 1);
+            parallel += boot(baseDir, processors);
+        }
+        System.out.printf("Boot operations in order:        %,8d ms on average%n", Long.valueOf(sequential / ROUNDS));
+        System.out.printf("Boot operations on %2d threads:   %,8d ms on average%n", Integer.valueOf(processors),
+                Long.valueOf(parallel / ROUNDS));
+    }
+
+    private long boot(final File baseDir, final int bootOperationThreads) throws Exception {
+        final Bootstrap.Configuration configuration = BenchmarkServer.createConfiguration(baseDir,
+                ServerEnvironment.BOOT_OPERATION_THREADS, bootOperationThreads);
+        final long start = System.nanoTime();
+        final ServiceContainer container = BenchmarkServer.start(configuration);
+        final long time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        BenchmarkServer.stop(container);
+        return time;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.surefire.deployment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.Assert;
+
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.ModelControllerClient.Type;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.client.api.deployment.DeploymentPlan;
+import org.jboss.as.server.client.api.deployment.ServerDeploymentManager;
+import org.jboss.as.server.client.api.deployment.ServerDeploymentPlanResult;
+import org.jboss.as.server.client.api.deployment.ServerUpdateActionResult;
+import org.jboss.as.test.surefire.BenchmarkServer;
+import org.jboss.msc.service.ServiceContainer;
+import org.junit.Test;
+
+/**
+ * Compares the deploy time of a war with many WEB-INF/lib jars on a server running deployment processors and their
+ * tasks, e.g. the mounting of the jars, in order with one running them on a thread per processor.  The war is
+ * generated, with {@code jboss.war.benchmark.jars} jars of {@code jboss.war.benchmark.entries} entries each.
+ */
+public class WarDeploymentBenchmarkTestCase {
+
+    private static final int ROUNDS = Integer.getInteger("jboss.war.benchmark.rounds", 5).intValue();
+    private static final int JARS = Integer.getInteger("jboss.war.benchmark.jars", 300).intValue();
+    private static final int ENTRIES = Integer.getInteger("jboss.war.benchmark.entries", 100).intValue();
+    private static final String DEPLOYMENT = "benchmark.war";
+
+    @Test
+    public void testDeployTime() throws Exception {
+        final File baseDir = BenchmarkServer.createServerBaseDir("war-benchmark", "jboss.war.benchmark.config");
+        final File war = createWar(new File(baseDir, DEPLOYMENT));
+
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final long sequential = measure(baseDir, war, 1);
+        final long parallel = measure(baseDir, war, processors);
+        System.out.printf("%d jars, deployment processors in order:        %,8d ms on average%n", Integer.valueOf(JARS),
+                Long.valueOf(sequential / ROUNDS));
+        System.out.printf("%d jars, deployment processors on %2d threads:   %,8d ms on average%n", Integer.valueOf(JARS),
+                Integer.valueOf(processors), Long.valueOf(parallel / ROUNDS));
+    }
+
+    private long measure(final File baseDir, final File war, final int processorThreads) throws Exception {
+        final ServiceContainer container = BenchmarkServer.start(BenchmarkServer.createConfiguration(baseDir,
+                ServerEnvironment.DEPLOYMENT_PROCESSOR_THREADS, processorThreads));
+        try {
+            final ModelControllerClient client = ModelControllerClient.Factory.create(Type.STANDALONE, InetAddress.getByName("localhost"), 9999);
+            try {
+                final ServerDeploymentManager manager = ServerDeploymentManager.Factory.create(client);
+                manager.addDeploymentContent(DEPLOYMENT, war);
+                // the first deployment loads most of the classes, so it is not measured
+                deploy(manager);
+                long time = 0L;
+                for (int round = 0; round < ROUNDS; round++) {
+                    time += deploy(manager);
+                }
+                execute(manager, manager.newDeploymentPlan().remove(DEPLOYMENT).build());
+                return time;
+            } finally {
+                client.close();
+            }
+        } finally {
+            BenchmarkServer.stop(container);
+        }
+    }
+
+    private long deploy(final ServerDeploymentManager manager) throws Exception {
+        final DeploymentPlan deploy = manager.newDeploymentPlan().deploy(DEPLOYMENT).build();
+        final long start = System.nanoTime();
+        execute(manager, deploy);
+        final long time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        execute(manager, manager.newDeploymentPlan().undeploy(DEPLOYMENT).build());
+        return time;
+    }
+
+    private static void execute(final ServerDeploymentManager manager, final DeploymentPlan plan) throws Exception {
+        final ServerDeploymentPlanResult result = manager.execute(plan).get();
+        final ServerUpdateActionResult actionResult = result.getDeploymentActionResult(plan.getDeploymentActions().get(0).getId());
+        Assert.assertEquals(ServerUpdateActionResult.Result.EXECUTED, actionResult.getResult());
+    }
+
+    private static File createWar(final File war) throws IOException {
+        final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(war));
+        try {
+            out.putNextEntry(new ZipEntry("WEB-INF/web.xml"));
+            out.write(("<web-app xmlns=\"http://java.sun.com/xml/ns/javaee\" version=\"3.0\" metadata-complete=\"true\">"
+                    + "</web-app>").getBytes("UTF-8"));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("index.html"));
+            out.write("<html><body>benchmark</body></html>".getBytes("UTF-8"));
+            out.closeEntry();
+            for (int i = 0; i < JARS; i++) {
+                out.putNextEntry(new ZipEntry("WEB-INF/lib/library-" + i + ".jar"));
+                out.write(createJar(i));
+                out.closeEntry();
+            }
+        } finally {
+            out.close();
+        }
+        return war;
+    }
+
+    private static byte[] createJar(final int index) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ZipOutputStream jar = new ZipOutputStream(bytes);
+        final byte[] content = new byte[1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + (i + index) % 26);
+        }
+        jar.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+        jar.write("Manifest-Version: 1.0\r\n\r\n".getBytes("UTF-8"));
+        jar.closeEntry();
+        for (int i = 0; i < ENTRIES; i++) {
+            jar.putNextEntry(new ZipEntry("org/jboss/benchmark/library" + index + "/resource" + i + ".txt"));
+            jar.write(content);
+            jar.closeEntry();
+        }
+        jar.close();
+        return bytes.toByteArray();
+    }
+}
@@ -40,9 +40,10 @@ import java.util.concurrent.ThreadFactory;
  *
  * @author John E. Bailey
  */
-public class BoundedQueueThreadPoolService implements Service<Executor> {
+public class BoundedQueueThreadPoolService implements Service<Executor>, ThreadPoolStatisticsProvider {
     private final InjectedValue<ThreadFactory> threadFactoryValue = new InjectedValue<ThreadFactory>();
     private final InjectedValue<Executor> handoffExecutorValue = new InjectedValue<Executor>();
+    private final ThreadPoolStatistics statistics = new ThreadPoolStatistics();
 
     private QueueExecutor executor;
     private Executor value;
@@ -64,9 +65,9 @@ public class BoundedQueueThreadPoolService implements Service<Executor> {
     }
 
     public synchronized void start(final StartContext context) throws StartException {
-        executor = new QueueExecutor(coreThreads, maxThreads, keepAlive.getDuration(), keepAlive.getUnit(), queueLength, threadFactoryValue.getValue(), blocking, handoffExecutorValue.getOptionalValue());
+        executor = new QueueExecutor(coreThreads, maxThreads, keepAlive.getDuration(), keepAlive.getUnit(), queueLength, statistics.countThreads(threadFactoryValue.getValue()), blocking, handoffExecutorValue.getOptionalValue());
         executor.setAllowCoreThreadTimeout(allowCoreTimeout);
-        value = JBossExecutors.protectedBlockingExecutor(executor);
+        value = JBossExecutors.protectedBlockingExecutor(statistics.countBlockingTasks(executor));
     }
 
     public synchronized void stop(final StopContext context) {
@@ -93,6 +94,10 @@ public class BoundedQueueThreadPoolService implements Service<Executor> {
         return value;
     }
 
+    public ThreadPoolStatistics getStatistics() {
+        return statistics;
+    }
+
     public Injector<ThreadFactory> getThreadFactoryInjector() {
         return threadFactoryValue;
     }
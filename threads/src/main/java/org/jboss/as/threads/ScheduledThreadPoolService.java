@@ -30,18 +30,24 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.threads.JBossExecutors;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableScheduledFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Service responsible for creating, starting and stopping a scheduled thread pool executor.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
-public final class ScheduledThreadPoolService implements Service<ScheduledExecutorService> {
+public final class ScheduledThreadPoolService implements Service<ScheduledExecutorService>, ThreadPoolStatisticsProvider {
 
     private final InjectedValue<ThreadFactory> threadFactoryValue = new InjectedValue<ThreadFactory>();
+    private final ThreadPoolStatistics statistics = new ThreadPoolStatistics();
 
     private ScheduledThreadPoolExecutor executor;
     private ScheduledExecutorService value;
@@ -56,7 +62,8 @@ public final class ScheduledThreadPoolService implements Service<ScheduledExecut
     }
 
     public synchronized void start(final StartContext context) throws StartException {
-        executor = new ExecutorImpl(0, threadFactoryValue.getValue());
+        executor = new ExecutorImpl(0, statistics.countThreads(threadFactoryValue.getValue()));
+        statistics.setQueue(executor.getQueue());
         executor.setCorePoolSize(maxThreads);
         if(keepAlive != null)
             executor.setKeepAliveTime(keepAlive.getDuration(), keepAlive.getUnit());
@@ -83,14 +90,45 @@ public final class ScheduledThreadPoolService implements Service<ScheduledExecut
         return value;
     }
 
+    public ThreadPoolStatistics getStatistics() {
+        return statistics;
+    }
+
     public Injector<ThreadFactory> getThreadFactoryInjector() {
         return threadFactoryValue;
     }
 
     private class ExecutorImpl extends ScheduledThreadPoolExecutor {
 
+        private final ThreadLocal<Long> taskStart = new ThreadLocal<Long>();
+
         ExecutorImpl(final int corePoolSize, final ThreadFactory threadFactory) {
-            super(corePoolSize, threadFactory);
+            super(corePoolSize, threadFactory, new RejectedExecutionHandler() {
+                public void rejectedExecution(final Runnable r, final ThreadPoolExecutor executor) {
+                    statistics.taskRejected();
+                    throw new RejectedExecutionException();
+                }
+            });
+        }
+
+        protected <V> RunnableScheduledFuture<V> decorateTask(final Runnable runnable, final RunnableScheduledFuture<V> task) {
+            statistics.taskSubmitted();
+            return task;
+        }
+
+        protected <V> RunnableScheduledFuture<V> decorateTask(final Callable<V> callable, final RunnableScheduledFuture<V> task) {
+            statistics.taskSubmitted();
+            return task;
+        }
+
+        protected void beforeExecute(final Thread t, final Runnable r) {
+            taskStart.set(Long.valueOf(statistics.taskStarted()));
+        }
+
+        protected void afterExecute(final Runnable r, final Throwable t) {
+            final Long start = taskStart.get();
+            taskStart.remove();
+            statistics.taskFinished(start == null ? 0L : start.longValue());
         }
 
         protected void terminated() {
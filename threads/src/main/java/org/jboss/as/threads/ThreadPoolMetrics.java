@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.threads.CommonAttributes.ACTIVE_COUNT;
+import static org.jboss.as.threads.CommonAttributes.COMPLETED_TASK_COUNT;
+import static org.jboss.as.threads.CommonAttributes.CURRENT_THREAD_COUNT;
+import static org.jboss.as.threads.CommonAttributes.LARGEST_THREAD_COUNT;
+import static org.jboss.as.threads.CommonAttributes.MEAN_TASK_TIME;
+import static org.jboss.as.threads.CommonAttributes.QUEUE_SIZE;
+import static org.jboss.as.threads.CommonAttributes.REJECTED_COUNT;
+import static org.jboss.as.threads.CommonAttributes.SUBMITTED_TASK_COUNT;
+import static org.jboss.as.threads.CommonAttributes.TASK_TIME_HISTOGRAM;
+import static org.jboss.as.threads.CommonAttributes.TASK_TIMING;
+
+import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.server.RuntimeOperationContext;
+import org.jboss.as.server.RuntimeOperationHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Handler for the runtime metrics of the thread pools, and for reading whether their task timing is enabled.
+ */
+class ThreadPoolMetrics implements ModelQueryOperationHandler, RuntimeOperationHandler {
+
+    static final ThreadPoolMetrics INSTANCE = new ThreadPoolMetrics();
+
+    static final String[] METRICS = { CURRENT_THREAD_COUNT, LARGEST_THREAD_COUNT, ACTIVE_COUNT, QUEUE_SIZE, SUBMITTED_TASK_COUNT,
+            COMPLETED_TASK_COUNT, REJECTED_COUNT, MEAN_TASK_TIME, TASK_TIME_HISTOGRAM };
+
+    /** The key of the last bucket of the task time histogram, which has no upper bound. */
+    static final String HISTOGRAM_OVERFLOW = "longer";
+
+    private static final String[] NO_LOCATION = new String[0];
+
+    /** {@inheritDoc} */
+    @Override
+    public Cancellable execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
+        final String attributeName = operation.require(NAME).asString();
+        final ModelNode result = new ModelNode();
+        if (context instanceof RuntimeOperationContext) {
+            final String name = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+            final ServiceController<?> controller = ((RuntimeOperationContext) context).getServiceRegistry().getService(ThreadsServices.executorName(name));
+            final Object service = controller != null ? controller.getService() : null;
+            if (service instanceof ThreadPoolStatisticsProvider) {
+                final ThreadPoolStatistics statistics = ((ThreadPoolStatisticsProvider) service).getStatistics();
+                if (CURRENT_THREAD_COUNT.equals(attributeName)) {
+                    result.set(statistics.getCurrentThreadCount());
+                } else if (LARGEST_THREAD_COUNT.equals(attributeName)) {
+                    result.set(statistics.getLargestThreadCount());
+                } else if (ACTIVE_COUNT.equals(attributeName)) {
+                    result.set(statistics.getActiveCount());
+                } else if (QUEUE_SIZE.equals(attributeName)) {
+                    result.set(statistics.getQueueSize());
+                } else if (SUBMITTED_TASK_COUNT.equals(attributeName)) {
+                    result.set(statistics.getSubmittedTaskCount());
+                } else if (COMPLETED_TASK_COUNT.equals(attributeName)) {
+                    result.set(statistics.getCompletedTaskCount());
+                } else if (REJECTED_COUNT.equals(attributeName)) {
+                    result.set(statistics.getRejectedCount());
+                } else if (MEAN_TASK_TIME.equals(attributeName)) {
+                    result.set(statistics.getMeanTaskTime());
+                } else if (TASK_TIME_HISTOGRAM.equals(attributeName)) {
+                    final long[] histogram = statistics.getTaskTimeHistogram();
+                    for (int i = 0; i < histogram.length - 1; i++) {
+                        result.get(String.valueOf(1L << i)).set(histogram[i]);
+                    }
+                    result.get(HISTOGRAM_OVERFLOW).set(histogram[histogram.length - 1]);
+                } else if (TASK_TIMING.equals(attributeName)) {
+                    result.set(statistics.isTaskTiming());
+                } else {
+                    resultHandler.handleFailed(new ModelNode().set("Unknown metric " + attributeName));
+                    return Cancellable.NULL;
+                }
+            }
+        }
+        resultHandler.handleResultFragment(NO_LOCATION, result);
+        resultHandler.handleResultComplete(null);
+        return Cancellable.NULL;
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.jboss.threads.BlockingExecutor;
+
+/**
+ * Runtime statistics of a thread pool.  The statistics are kept with atomic counters only, so they can be read as often
+ * as needed without contending with the pool.  Task timing is off by default, since it reads the clock twice per task.
+ */
+public final class ThreadPoolStatistics {
+
+    /**
+     * The number of buckets of the task time histogram.  Bucket {@code i} counts the tasks which took less than
+     * {@code 2^i} milliseconds, except for the last bucket which counts all the longer tasks.
+     */
+    public static final int HISTOGRAM_BUCKETS = 16;
+
+    private final AtomicInteger currentThreads = new AtomicInteger();
+    private final AtomicInteger largestThreads = new AtomicInteger();
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private final AtomicLong submittedTasks = new AtomicLong();
+    private final AtomicLong startedTasks = new AtomicLong();
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final AtomicLong rejectedTasks = new AtomicLong();
+    private final AtomicLong timedTasks = new AtomicLong();
+    private final AtomicLong totalTaskTime = new AtomicLong();
+    private final AtomicLongArray taskTimeHistogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+    private volatile Collection<?> queue;
+    private volatile boolean taskTiming;
+
+    /**
+     * Wrap a thread factory so the threads it creates are counted.
+     *
+     * @param threadFactory the thread factory of the pool
+     * @return the counting thread factory
+     */
+    ThreadFactory countThreads(final ThreadFactory threadFactory) {
+        return new ThreadFactory() {
+            public Thread newThread(final Runnable r) {
+                return threadFactory.newThread(new Runnable() {
+                    public void run() {
+                        threadStarted();
+                        try {
+                            r.run();
+                        } finally {
+                            currentThreads.decrementAndGet();
+                        }
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Wrap an executor service so the tasks submitted to it are counted and, if enabled, timed.
+     *
+     * @param executor the executor of the pool
+     * @return the counting executor service
+     */
+    ExecutorService countTasks(final ExecutorService executor) {
+        return new CountingExecutorService(executor);
+    }
+
+    /**
+     * Wrap a blocking executor so the tasks submitted to it are counted and, if enabled, timed.
+     *
+     * @param executor the executor of the pool
+     * @return the counting blocking executor
+     */
+    BlockingExecutor countBlockingTasks(final BlockingExecutor executor) {
+        return new CountingBlockingExecutor(executor);
+    }
+
+    /**
+     * Use the size of the given queue as the queue size of the pool, rather than the number of tasks submitted but not
+     * yet started.  Used by pools which queue tasks that are not due yet.
+     *
+     * @param queue the queue of the pool
+     */
+    void setQueue(final Collection<?> queue) {
+        this.queue = queue;
+    }
+
+    void taskSubmitted() {
+        submittedTasks.incrementAndGet();
+    }
+
+    void taskRejected() {
+        rejectedTasks.incrementAndGet();
+    }
+
+    /**
+     * Record the start of a task.
+     *
+     * @return the start time to pass to {@link #taskFinished(long)}
+     */
+    long taskStarted() {
+        startedTasks.incrementAndGet();
+        activeTasks.incrementAndGet();
+        return taskTiming ? System.nanoTime() : 0L;
+    }
+
+    void taskFinished(final long startTime) {
+        activeTasks.decrementAndGet();
+        completedTasks.incrementAndGet();
+        if (startTime != 0L && taskTiming) {
+            final long time = System.nanoTime() - startTime;
+            timedTasks.incrementAndGet();
+            totalTaskTime.addAndGet(time);
+            taskTimeHistogram.incrementAndGet(bucket(TimeUnit.NANOSECONDS.toMillis(time)));
+        }
+    }
+
+    private void threadStarted() {
+        final int current = currentThreads.incrementAndGet();
+        int largest;
+        do {
+            largest = largestThreads.get();
+        } while (current > largest && !largestThreads.compareAndSet(largest, current));
+    }
+
+    static int bucket(final long millis) {
+        // the number of bits needed to represent the time is the index of the first bucket bound above it
+        final int bucket = 64 - Long.numberOfLeadingZeros(millis);
+        return bucket < HISTOGRAM_BUCKETS ? bucket : HISTOGRAM_BUCKETS - 1;
+    }
+
+    public int getCurrentThreadCount() {
+        return currentThreads.get();
+    }
+
+    public int getLargestThreadCount() {
+        return largestThreads.get();
+    }
+
+    public int getActiveCount() {
+        return activeTasks.get();
+    }
+
+    public int getQueueSize() {
+        final Collection<?> queue = this.queue;
+        if (queue != null) {
+            return queue.size();
+        }
+        final long queued = submittedTasks.get() - rejectedTasks.get() - startedTasks.get();
+        return queued > 0 ? (int) Math.min(queued, Integer.MAX_VALUE) : 0;
+    }
+
+    public long getSubmittedTaskCount() {
+        return submittedTasks.get();
+    }
+
+    public long getCompletedTaskCount() {
+        return completedTasks.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedTasks.get();
+    }
+
+    public boolean isTaskTiming() {
+        return taskTiming;
+    }
+
+    /**
+     * Enable or disable task timing.  Enabling it resets the task times recorded so far.
+     *
+     * @param taskTiming {@code true} to time tasks
+     */
+    public synchronized void setTaskTiming(final boolean taskTiming) {
+        if (taskTiming && !this.taskTiming) {
+            timedTasks.set(0L);
+            totalTaskTime.set(0L);
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+                taskTimeHistogram.set(i, 0L);
+            }
+        }
+        this.taskTiming = taskTiming;
+    }
+
+    /**
+     * Get the mean time tasks took to run since task timing was enabled.
+     *
+     * @return the mean task time in microseconds
+     */
+    public long getMeanTaskTime() {
+        final long tasks = timedTasks.get();
+        return tasks == 0L ? 0L : TimeUnit.NANOSECONDS.toMicros(totalTaskTime.get() / tasks);
+    }
+
+    /**
+     * Get the task time histogram.
+     *
+     * @return the number of tasks in each bucket
+     * @see #HISTOGRAM_BUCKETS
+     */
+    public long[] getTaskTimeHistogram() {
+        final long[] histogram = new long[HISTOGRAM_BUCKETS];
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            histogram[i] = taskTimeHistogram.get(i);
+        }
+        return histogram;
+    }
+
+    private Runnable countTask(final Runnable command) {
+        if (command == null) {
+            throw new NullPointerException("command is null");
+        }
+        return new Runnable() {
+            public void run() {
+                final long start = taskStarted();
+                try {
+                    command.run();
+                } finally {
+                    taskFinished(start);
+                }
+            }
+        };
+    }
+
+    private final class CountingExecutorService extends AbstractExecutorService {
+        private final ExecutorService delegate;
+
+        private CountingExecutorService(final ExecutorService delegate) {
+            this.delegate = delegate;
+        }
+
+        public void execute(final Runnable command) {
+            final Runnable counted = countTask(command);
+            taskSubmitted();
+            try {
+                delegate.execute(counted);
+            } catch (RejectedExecutionException e) {
+                taskRejected();
+                throw e;
+            }
+        }
+
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+
+    private final class CountingBlockingExecutor implements BlockingExecutor {
+        private final BlockingExecutor delegate;
+
+        private CountingBlockingExecutor(final BlockingExecutor delegate) {
+            this.delegate = delegate;
+        }
+
+        public void execute(final Runnable task) throws RejectedExecutionException {
+            final Runnable counted = countTask(task);
+            taskSubmitted();
+            try {
+                delegate.execute(counted);
+            } catch (RejectedExecutionException e) {
+                taskRejected();
+                throw e;
+            }
+        }
+
+        public void executeBlocking(final Runnable task) throws RejectedExecutionException, InterruptedException {
+            final Runnable counted = countTask(task);
+            taskSubmitted();
+            try {
+                delegate.executeBlocking(counted);
+            } catch (RejectedExecutionException e) {
+                taskRejected();
+                throw e;
+            } catch (InterruptedException e) {
+                taskRejected();
+                throw e;
+            }
+        }
+
+        public void executeBlocking(final Runnable task, final long timeout, final TimeUnit unit) throws RejectedExecutionException, InterruptedException {
+            final Runnable counted = countTask(task);
+            taskSubmitted();
+            try {
+                delegate.executeBlocking(counted, timeout, unit);
+            } catch (RejectedExecutionException e) {
+                taskRejected();
+                throw e;
+            } catch (InterruptedException e) {
+                taskRejected();
+                throw e;
+            }
+        }
+
+        public void executeNonBlocking(final Runnable task) throws RejectedExecutionException {
+            final Runnable counted = countTask(task);
+            taskSubmitted();
+            try {
+                delegate.executeNonBlocking(counted);
+            } catch (RejectedExecutionException e) {
+                taskRejected();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+
+import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.ModelUpdateOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.operations.validation.ModelTypeValidator;
+import org.jboss.as.controller.operations.validation.ParametersValidator;
+import org.jboss.as.server.RuntimeOperationContext;
+import org.jboss.as.server.RuntimeOperationHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Enables or disables the task timing of a running thread pool.  Task timing is a runtime setting and is not stored in
+ * the model, so it is off again after a restart.
+ */
+final class ThreadPoolTaskTimingUpdate implements RuntimeOperationHandler, ModelUpdateOperationHandler {
+
+    static final ThreadPoolTaskTimingUpdate INSTANCE = new ThreadPoolTaskTimingUpdate();
+
+    private final ParametersValidator validator = new ParametersValidator();
+
+    private ThreadPoolTaskTimingUpdate() {
+        validator.registerValidator(VALUE, new ModelTypeValidator(ModelType.BOOLEAN));
+    }
+
+    @Override
+    public Cancellable execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
+
+        String failure = validator.validate(operation);
+        if (failure != null) {
+            resultHandler.handleFailed(new ModelNode().set(failure));
+            return Cancellable.NULL;
+        }
+
+        final String name = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+        final boolean taskTiming = operation.get(VALUE).asBoolean();
+        boolean oldValue = false;
+
+        if (context instanceof RuntimeOperationContext) {
+            final RuntimeOperationContext updateContext = (RuntimeOperationContext) context;
+            final ServiceController<?> controller = updateContext.getServiceRegistry().getService(ThreadsServices.executorName(name));
+            final Object service = controller != null ? controller.getService() : null;
+            if (!(service instanceof ThreadPoolStatisticsProvider)) {
+                resultHandler.handleFailed(new ModelNode().set(String.format("No thread pool named %s is running", name)));
+                return Cancellable.NULL;
+            }
+            final ThreadPoolStatistics statistics = ((ThreadPoolStatisticsProvider) service).getStatistics();
+            oldValue = statistics.isTaskTiming();
+            statistics.setTaskTiming(taskTiming);
+        }
+
+        final ModelNode compensatingOp = operation.clone();
+        compensatingOp.get(VALUE).set(oldValue);
+
+        resultHandler.handleResultComplete(compensatingOp);
+
+        return Cancellable.NULL;
+    }
+}
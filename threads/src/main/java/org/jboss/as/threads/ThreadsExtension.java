@@ -49,17 +49,20 @@ import static org.jboss.as.threads.CommonAttributes.PROPERTIES;
 import static org.jboss.as.threads.CommonAttributes.QUEUELESS_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.QUEUE_LENGTH;
 import static org.jboss.as.threads.CommonAttributes.SCHEDULED_THREAD_POOL;
+import static org.jboss.as.threads.CommonAttributes.TASK_TIMING;
 import static org.jboss.as.threads.CommonAttributes.THREADS;
 import static org.jboss.as.threads.CommonAttributes.THREAD_FACTORY;
 import static org.jboss.as.threads.CommonAttributes.THREAD_NAME_PATTERN;
 import static org.jboss.as.threads.CommonAttributes.TIME;
 import static org.jboss.as.threads.CommonAttributes.UNBOUNDED_QUEUE_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.UNIT;
+import static org.jboss.as.threads.CommonAttributes.WORK_STEALING_THREAD_POOL;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.ADD_BOUNDED_QUEUE_THREAD_POOL_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.ADD_QUEUELESS_THREAD_POOL_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.ADD_SCHEDULED_THREAD_POOL_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.ADD_THREAD_FACTORY_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.ADD_UNBOUNDED_QUEUE_THREAD_POOL_DESC;
+import static org.jboss.as.threads.ThreadsSubsystemProviders.ADD_WORK_STEALING_THREAD_POOL_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.BOUNDED_QUEUE_THREAD_POOL_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.QUEUELESS_THREAD_POOL_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.REMOVE_BOUNDED_QUEUE_THREAD_POOL_DESC;
@@ -67,11 +70,13 @@ import static org.jboss.as.threads.ThreadsSubsystemProviders.REMOVE_QUEUELESS_TH
 import static org.jboss.as.threads.ThreadsSubsystemProviders.REMOVE_SCHEDULED_THREAD_POOL_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.REMOVE_THREAD_FACTORY_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.REMOVE_UNBOUNDED_QUEUE_THREAD_POOL_DESC;
+import static org.jboss.as.threads.ThreadsSubsystemProviders.REMOVE_WORK_STEALING_THREAD_POOL_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.SCHEDULED_THREAD_POOL_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.SUBSYSTEM_ADD_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.SUBSYSTEM_PROVIDER;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.THREAD_FACTORY_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.UNBOUNDED_QUEUE_THREAD_POOL_DESC;
+import static org.jboss.as.threads.ThreadsSubsystemProviders.WORK_STEALING_THREAD_POOL_DESC;
 
 import java.math.BigDecimal;
 import java.util.Collections;
@@ -143,18 +148,34 @@ public class ThreadsExtension implements Extension {
         final ModelNodeRegistration boundedQueueThreadPools = subsystem.registerSubModel(PathElement.pathElement(BOUNDED_QUEUE_THREAD_POOL), BOUNDED_QUEUE_THREAD_POOL_DESC);
         boundedQueueThreadPools.registerOperationHandler(ADD, BoundedQueueThreadPoolAdd.INSTANCE, ADD_BOUNDED_QUEUE_THREAD_POOL_DESC, false);
         boundedQueueThreadPools.registerOperationHandler(REMOVE, BoundedQueueThreadPoolRemove.INSTANCE, REMOVE_BOUNDED_QUEUE_THREAD_POOL_DESC, false);
+        registerThreadPoolMetrics(boundedQueueThreadPools);
 
         final ModelNodeRegistration unboundedQueueThreadPools = subsystem.registerSubModel(PathElement.pathElement(UNBOUNDED_QUEUE_THREAD_POOL), UNBOUNDED_QUEUE_THREAD_POOL_DESC);
         unboundedQueueThreadPools.registerOperationHandler(ADD, UnboundedQueueThreadPoolAdd.INSTANCE, ADD_UNBOUNDED_QUEUE_THREAD_POOL_DESC, false);
         unboundedQueueThreadPools.registerOperationHandler(REMOVE, UnboundedQueueThreadPoolRemove.INSTANCE, REMOVE_UNBOUNDED_QUEUE_THREAD_POOL_DESC, false);
+        registerThreadPoolMetrics(unboundedQueueThreadPools);
 
         final ModelNodeRegistration queuelessThreadPools = subsystem.registerSubModel(PathElement.pathElement(QUEUELESS_THREAD_POOL), QUEUELESS_THREAD_POOL_DESC);
         queuelessThreadPools.registerOperationHandler(ADD, QueuelessThreadPoolAdd.INSTANCE, ADD_QUEUELESS_THREAD_POOL_DESC, false);
         queuelessThreadPools.registerOperationHandler(REMOVE, QueuelessThreadPoolRemove.INSTANCE, REMOVE_QUEUELESS_THREAD_POOL_DESC, false);
+        registerThreadPoolMetrics(queuelessThreadPools);
 
         final ModelNodeRegistration scheduledThreadPools = subsystem.registerSubModel(PathElement.pathElement(SCHEDULED_THREAD_POOL), SCHEDULED_THREAD_POOL_DESC);
         scheduledThreadPools.registerOperationHandler(ADD, ScheduledThreadPoolAdd.INSTANCE, ADD_SCHEDULED_THREAD_POOL_DESC, false);
         scheduledThreadPools.registerOperationHandler(REMOVE, ScheduledThreadPoolRemove.INSTANCE, REMOVE_SCHEDULED_THREAD_POOL_DESC, false);
+        registerThreadPoolMetrics(scheduledThreadPools);
+
+        final ModelNodeRegistration workStealingThreadPools = subsystem.registerSubModel(PathElement.pathElement(WORK_STEALING_THREAD_POOL), WORK_STEALING_THREAD_POOL_DESC);
+        workStealingThreadPools.registerOperationHandler(ADD, WorkStealingThreadPoolAdd.INSTANCE, ADD_WORK_STEALING_THREAD_POOL_DESC, false);
+        workStealingThreadPools.registerOperationHandler(REMOVE, WorkStealingThreadPoolRemove.INSTANCE, REMOVE_WORK_STEALING_THREAD_POOL_DESC, false);
+        registerThreadPoolMetrics(workStealingThreadPools);
+    }
+
+    private static void registerThreadPoolMetrics(final ModelNodeRegistration threadPools) {
+        threadPools.registerReadWriteAttribute(TASK_TIMING, ThreadPoolMetrics.INSTANCE, ThreadPoolTaskTimingUpdate.INSTANCE, Storage.RUNTIME);
+        for (String metric : ThreadPoolMetrics.METRICS) {
+            threadPools.registerMetric(metric, ThreadPoolMetrics.INSTANCE);
+        }
     }
 
     @Override
@@ -206,6 +227,10 @@ public class ThreadsExtension implements Extension {
                             parseUnboundedQueueThreadPool(reader, address, list);
                             break;
                         }
+                        case WORK_STEALING_THREAD_POOL: {
+                            parseWorkStealingThreadPool(reader, address, list);
+                            break;
+                        }
                         default: {
                             throw unexpectedElement(reader);
                         }
@@ -446,6 +471,70 @@ public class ThreadsExtension implements Extension {
             }
         }
 
+        void parseWorkStealingThreadPool(final XMLExtendedStreamReader reader, final ModelNode parentAddress, final List<ModelNode> list) throws XMLStreamException {
+            final ModelNode op = new ModelNode();
+            list.add(op);
+            op.get(OP).set(ADD);
+
+            String name = null;
+            int count = reader.getAttributeCount();
+            for (int i = 0; i < count; i++) {
+                requireNoNamespaceAttribute(reader, i);
+                final String value = reader.getAttributeValue(i);
+                final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+                switch (attribute) {
+                case NAME: {
+                    op.get(NAME).set(value);
+                    name = value;
+                    break;
+                }
+                default:
+                    throw unexpectedAttribute(reader, i);
+                }
+            }
+
+            if (name == null) {
+                throw missingRequired(reader, Collections.singleton(Attribute.NAME));
+            }
+
+            final ModelNode address = parentAddress.clone();
+            address.add(WORK_STEALING_THREAD_POOL, name);
+            address.protect();
+            op.get(OP_ADDR).set(address);
+
+            boolean foundMaxThreads = false;
+            while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
+                switch (Element.forName(reader.getLocalName())) {
+                    case MAX_THREADS: {
+                        op.get(MAX_THREADS).set(parseScaledCount(reader));
+                        foundMaxThreads = true;
+                        break;
+                    }
+                    case KEEPALIVE_TIME: {
+                        op.get(KEEPALIVE_TIME).set(parseTimeSpec(reader));
+                        break;
+                    }
+                    case THREAD_FACTORY: {
+                        op.get(CommonAttributes.THREAD_FACTORY).set(parseRef(reader));
+                        break;
+                    }
+                    case PROPERTIES: {
+                        ModelNode props = parseProperties(reader);
+                        if (props.isDefined()) {
+                            op.get(PROPERTIES).set(props);
+                        }
+                        break;
+                    }
+                    default: {
+                        throw unexpectedElement(reader);
+                    }
+                }
+            }
+            if (!foundMaxThreads) {
+                throw missingRequiredElement(reader, Collections.singleton(Element.MAX_THREADS));
+            }
+        }
+
         void parseScheduledThreadPool(final XMLExtendedStreamReader reader, final ModelNode parentAddress, final List<ModelNode> list) throws XMLStreamException {
             final ModelNode op = new ModelNode();
             list.add(op);
@@ -801,6 +890,14 @@ public class ThreadsExtension implements Extension {
                     }
                 }
             }
+            if (node.hasDefined(WORK_STEALING_THREAD_POOL)) {
+                for (String name : node.get(WORK_STEALING_THREAD_POOL).keys()) {
+                    final ModelNode child = node.get(WORK_STEALING_THREAD_POOL, name);
+                    if (child.isDefined()) {
+                        writeWorkStealingThreadPool(writer, child);
+                    }
+                }
+            }
 
             writer.writeEndElement();
         }
@@ -911,6 +1008,24 @@ public class ThreadsExtension implements Extension {
             writer.writeEndElement();
         }
 
+        private void writeWorkStealingThreadPool(final XMLExtendedStreamWriter writer, final ModelNode node) throws XMLStreamException {
+            writer.writeStartElement(Element.WORK_STEALING_THREAD_POOL.getLocalName());
+
+            if (node.hasDefined(NAME)) {
+                writeAttribute(writer, Attribute.NAME, node.get(NAME));
+            }
+
+            writeRef(writer, node, Element.THREAD_FACTORY, THREAD_FACTORY);
+            writeThreads(writer, node, Element.MAX_THREADS);
+            writeTime(writer, node, Element.KEEPALIVE_TIME);
+
+            if (node.hasDefined(PROPERTIES)) {
+                writeProperties(writer, node.get(PROPERTIES));
+            }
+
+            writer.writeEndElement();
+        }
+
         private void writeRef(final XMLExtendedStreamWriter writer, final ModelNode node, Element element, String name) throws XMLStreamException {
             if (node.hasDefined(name)) {
                 writer.writeStartElement(element.getLocalName());
@@ -985,6 +1100,7 @@ public class ThreadsExtension implements Extension {
             addScheduledThreadPools(result, model);
             addThreadFactories(result, model);
             addUnboundedQueueThreadPools(result, model);
+            addWorkStealingThreadPools(result, model);
 
             resultHandler.handleResultFragment(Util.NO_LOCATION, result);
             resultHandler.handleResultComplete(new ModelNode());
@@ -1142,6 +1258,31 @@ public class ThreadsExtension implements Extension {
             }
         }
 
+        private void addWorkStealingThreadPools(final ModelNode result, final ModelNode model) {
+            if (model.hasDefined(WORK_STEALING_THREAD_POOL)) {
+                ModelNode pools = model.get(WORK_STEALING_THREAD_POOL);
+                for (Property poolProp : pools.asPropertyList()) {
+                    final ModelNode operation = Util.getEmptyOperation(ADD, pathAddress(PathElement.pathElement(SUBSYSTEM, SUBSYSTEM_NAME), PathElement.pathElement(WORK_STEALING_THREAD_POOL, poolProp.getName())));
+                    final ModelNode pool = poolProp.getValue();
+
+                    operation.get(NAME).set(pool.require(NAME));
+                    if (pool.hasDefined(THREAD_FACTORY)) {
+                        operation.get(THREAD_FACTORY).set(pool.get(THREAD_FACTORY));
+                    }
+                    if (pool.hasDefined(PROPERTIES)) {
+                        operation.get(PROPERTIES).set(pool.get(PROPERTIES));
+                    }
+                    if (pool.hasDefined(MAX_THREADS)) {
+                        operation.get(MAX_THREADS).set(pool.get(MAX_THREADS));
+                    }
+                    if (pool.hasDefined(KEEPALIVE_TIME)) {
+                        operation.get(KEEPALIVE_TIME).set(pool.get(KEEPALIVE_TIME));
+                    }
+                    result.add(operation);
+                }
+            }
+        }
+
         private ModelNode pathAddress(PathElement...elements) {
             return PathAddress.pathAddress(elements).toModelNode();
         }
@@ -36,26 +36,37 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQ
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TAIL_COMMENT_ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE_TYPE;
+import static org.jboss.as.threads.CommonAttributes.ACTIVE_COUNT;
 import static org.jboss.as.threads.CommonAttributes.ALLOW_CORE_TIMEOUT;
 import static org.jboss.as.threads.CommonAttributes.BLOCKING;
 import static org.jboss.as.threads.CommonAttributes.BOUNDED_QUEUE_THREAD_POOL;
+import static org.jboss.as.threads.CommonAttributes.COMPLETED_TASK_COUNT;
 import static org.jboss.as.threads.CommonAttributes.CORE_THREADS;
 import static org.jboss.as.threads.CommonAttributes.COUNT;
+import static org.jboss.as.threads.CommonAttributes.CURRENT_THREAD_COUNT;
 import static org.jboss.as.threads.CommonAttributes.GROUP_NAME;
 import static org.jboss.as.threads.CommonAttributes.HANDOFF_EXECUTOR;
 import static org.jboss.as.threads.CommonAttributes.KEEPALIVE_TIME;
+import static org.jboss.as.threads.CommonAttributes.LARGEST_THREAD_COUNT;
 import static org.jboss.as.threads.CommonAttributes.MAX_THREADS;
+import static org.jboss.as.threads.CommonAttributes.MEAN_TASK_TIME;
 import static org.jboss.as.threads.CommonAttributes.PER_CPU;
 import static org.jboss.as.threads.CommonAttributes.PRIORITY;
 import static org.jboss.as.threads.CommonAttributes.PROPERTIES;
 import static org.jboss.as.threads.CommonAttributes.QUEUELESS_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.QUEUE_LENGTH;
+import static org.jboss.as.threads.CommonAttributes.QUEUE_SIZE;
+import static org.jboss.as.threads.CommonAttributes.REJECTED_COUNT;
 import static org.jboss.as.threads.CommonAttributes.SCHEDULED_THREAD_POOL;
+import static org.jboss.as.threads.CommonAttributes.SUBMITTED_TASK_COUNT;
+import static org.jboss.as.threads.CommonAttributes.TASK_TIME_HISTOGRAM;
+import static org.jboss.as.threads.CommonAttributes.TASK_TIMING;
 import static org.jboss.as.threads.CommonAttributes.THREAD_FACTORY;
 import static org.jboss.as.threads.CommonAttributes.THREAD_NAME_PATTERN;
 import static org.jboss.as.threads.CommonAttributes.TIME;
 import static org.jboss.as.threads.CommonAttributes.UNBOUNDED_QUEUE_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.UNIT;
+import static org.jboss.as.threads.CommonAttributes.WORK_STEALING_THREAD_POOL;
 
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -101,6 +112,9 @@ class ThreadsSubsystemProviders {
             subsystem.get(CHILDREN, SCHEDULED_THREAD_POOL, DESCRIPTION).set(bundle.getString("threadpool.scheduled"));
             subsystem.get(CHILDREN, SCHEDULED_THREAD_POOL, REQUIRED).set(false);
 
+            subsystem.get(CHILDREN, WORK_STEALING_THREAD_POOL, DESCRIPTION).set(bundle.getString("threadpool.workstealing"));
+            subsystem.get(CHILDREN, WORK_STEALING_THREAD_POOL, REQUIRED).set(false);
+
             return subsystem;
         }
     };
@@ -193,6 +207,15 @@ class ThreadsSubsystemProviders {
         }
     };
 
+    static final DescriptionProvider WORK_STEALING_THREAD_POOL_DESC = new DescriptionProvider() {
+
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            return getCommonThreadPool(bundle, bundle.getString("threadpool.workstealing.description"));
+        }
+    };
+
     static final DescriptionProvider QUEUELESS_THREAD_POOL_DESC = new DescriptionProvider() {
 
         @Override
@@ -259,9 +282,30 @@ class ThreadsSubsystemProviders {
         node.get(ATTRIBUTES, KEEPALIVE_TIME, VALUE_TYPE, UNIT, DESCRIPTION).set(bundle.getString("threadpool.common.keepalive.unit"));
         node.get(ATTRIBUTES, KEEPALIVE_TIME, VALUE_TYPE, UNIT, TYPE).set(ModelType.STRING);
         node.get(ATTRIBUTES, KEEPALIVE_TIME, VALUE_TYPE, UNIT, REQUIRED).set(true);
+
+        node.get(ATTRIBUTES, TASK_TIMING, DESCRIPTION).set(bundle.getString("threadpool.common.tasktiming"));
+        node.get(ATTRIBUTES, TASK_TIMING, TYPE).set(ModelType.BOOLEAN);
+        node.get(ATTRIBUTES, TASK_TIMING, REQUIRED).set(false);
+
+        addMetric(node, CURRENT_THREAD_COUNT, bundle.getString("threadpool.common.currentthreadcount"), ModelType.INT);
+        addMetric(node, LARGEST_THREAD_COUNT, bundle.getString("threadpool.common.largestthreadcount"), ModelType.INT);
+        addMetric(node, ACTIVE_COUNT, bundle.getString("threadpool.common.activecount"), ModelType.INT);
+        addMetric(node, QUEUE_SIZE, bundle.getString("threadpool.common.queuesize"), ModelType.INT);
+        addMetric(node, SUBMITTED_TASK_COUNT, bundle.getString("threadpool.common.submittedtaskcount"), ModelType.LONG);
+        addMetric(node, COMPLETED_TASK_COUNT, bundle.getString("threadpool.common.completedtaskcount"), ModelType.LONG);
+        addMetric(node, REJECTED_COUNT, bundle.getString("threadpool.common.rejectedcount"), ModelType.LONG);
+        addMetric(node, MEAN_TASK_TIME, bundle.getString("threadpool.common.meantasktime"), ModelType.LONG);
+        addMetric(node, TASK_TIME_HISTOGRAM, bundle.getString("threadpool.common.tasktimehistogram"), ModelType.OBJECT);
+        node.get(ATTRIBUTES, TASK_TIME_HISTOGRAM, VALUE_TYPE).set(ModelType.LONG);
         return node;
     }
 
+    private static void addMetric(final ModelNode node, final String name, final String description, final ModelType type) {
+        node.get(ATTRIBUTES, name, DESCRIPTION).set(description);
+        node.get(ATTRIBUTES, name, TYPE).set(type);
+        node.get(ATTRIBUTES, name, REQUIRED).set(false);
+    }
+
     //Operations
     static final DescriptionProvider SUBSYSTEM_ADD_DESC = new DescriptionProvider() {
 
@@ -394,6 +438,15 @@ class ThreadsSubsystemProviders {
         }
     };
 
+    static DescriptionProvider ADD_WORK_STEALING_THREAD_POOL_DESC = new DescriptionProvider() {
+
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            return getCommonAddThreadPool(bundle, ADD, bundle.getString("threadpool.workstealing.add"));
+        }
+    };
+
     static DescriptionProvider ADD_SCHEDULED_THREAD_POOL_DESC = new DescriptionProvider() {
 
         @Override
@@ -469,6 +522,15 @@ class ThreadsSubsystemProviders {
         }
     };
 
+    static DescriptionProvider REMOVE_WORK_STEALING_THREAD_POOL_DESC = new DescriptionProvider() {
+
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            return getCommonRemoveThreadPool(bundle, REMOVE, bundle.getString("threadpool.workstealing.remove"));
+        }
+    };
+
     static DescriptionProvider REMOVE_SCHEDULED_THREAD_POOL_DESC = new DescriptionProvider() {
 
         @Override
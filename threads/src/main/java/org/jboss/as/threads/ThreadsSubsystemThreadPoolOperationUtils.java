@@ -71,6 +71,11 @@ class ThreadsSubsystemThreadPoolOperationUtils {
         return parseBaseThreadPoolOperationParameters(operation, params);
     }
 
+    static BaseOperationParameters parseWorkStealingThreadPoolOperationParameters(ModelNode operation) {
+        OperationParametersImpl params = new OperationParametersImpl();
+        return parseBaseThreadPoolOperationParameters(operation, params);
+    }
+
     static BaseOperationParameters parseScheduledThreadPoolOperationParameters(ModelNode operation) {
         OperationParametersImpl params = new OperationParametersImpl();
         return parseBaseThreadPoolOperationParameters(operation, params);
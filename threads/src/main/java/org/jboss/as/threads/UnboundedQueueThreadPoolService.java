@@ -41,8 +41,9 @@ import java.util.concurrent.ThreadFactory;
  *
  * @author John E. Bailey
  */
-public class UnboundedQueueThreadPoolService implements Service<ExecutorService> {
+public class UnboundedQueueThreadPoolService implements Service<ExecutorService>, ThreadPoolStatisticsProvider {
     private final InjectedValue<ThreadFactory> threadFactoryValue = new InjectedValue<ThreadFactory>();
+    private final ThreadPoolStatistics statistics = new ThreadPoolStatistics();
 
     private JBossThreadPoolExecutor executor;
     private ExecutorService value;
@@ -56,8 +57,8 @@ public class UnboundedQueueThreadPoolService implements Service<ExecutorService>
     }
 
     public synchronized void start(final StartContext context) throws StartException {
-        executor = new JBossThreadPoolExecutor(maxThreads, maxThreads, keepAlive.getDuration(), keepAlive.getUnit(), new LinkedBlockingQueue<Runnable>(), threadFactoryValue.getValue());
-        value = JBossExecutors.protectedExecutorService(executor);
+        executor = new JBossThreadPoolExecutor(maxThreads, maxThreads, keepAlive.getDuration(), keepAlive.getUnit(), new LinkedBlockingQueue<Runnable>(), statistics.countThreads(threadFactoryValue.getValue()));
+        value = JBossExecutors.protectedExecutorService(statistics.countTasks(executor));
     }
 
     public synchronized void stop(final StopContext context) {
@@ -84,6 +85,10 @@ public class UnboundedQueueThreadPoolService implements Service<ExecutorService>
         return value;
     }
 
+    public ThreadPoolStatistics getStatistics() {
+        return statistics;
+    }
+
     public Injector<ThreadFactory> getThreadFactoryInjector() {
         return threadFactoryValue;
     }
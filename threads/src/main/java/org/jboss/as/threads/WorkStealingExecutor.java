@@ -0,0 +1,357 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An executor with a task deque per worker thread.  Tasks submitted by a worker go to its own deque, other tasks are
+ * spread over the deques round robin, and a worker which runs out of tasks steals from the deques of the others.  This
+ * avoids the single shared queue of the other thread pools, which contends heavily when many threads submit and take
+ * short tasks at the same time.
+ * <p/>
+ * Worker threads are started when the first task is queued for them and exit after being idle for the keepalive time.
+ * Tasks are taken oldest first both by the owner of a deque and by thieves, so tasks run in roughly the order they were
+ * submitted.
+ */
+public class WorkStealingExecutor extends AbstractExecutorService {
+
+    private static final ThreadLocal<Worker> CURRENT_WORKER = new ThreadLocal<Worker>();
+
+    private final Worker[] workers;
+    private final ThreadFactory threadFactory;
+    private final AtomicInteger nextWorker = new AtomicInteger();
+    private final AtomicInteger idleWorkers = new AtomicInteger();
+    private final Object lock = new Object();
+    private volatile long keepAliveNanos;
+    private volatile boolean shutdown;
+
+    // guarded by lock
+    private int liveThreads;
+    private boolean terminated;
+
+    /**
+     * Create a new instance.
+     *
+     * @param parallelism the number of worker threads and deques
+     * @param keepAlive the time an idle worker thread is kept running, or {@link Long#MAX_VALUE} to keep it forever
+     * @param unit the unit of the keepalive time
+     * @param threadFactory the factory of the worker threads
+     */
+    public WorkStealingExecutor(final int parallelism, final long keepAlive, final TimeUnit unit, final ThreadFactory threadFactory) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        if (threadFactory == null) {
+            throw new IllegalArgumentException("threadFactory is null");
+        }
+        workers = new Worker[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            workers[i] = new Worker(i);
+        }
+        this.threadFactory = threadFactory;
+        setKeepAliveTime(keepAlive, unit);
+    }
+
+    public int getParallelism() {
+        return workers.length;
+    }
+
+    public void setKeepAliveTime(final long keepAlive, final TimeUnit unit) {
+        keepAliveNanos = keepAlive == Long.MAX_VALUE ? Long.MAX_VALUE : unit.toNanos(keepAlive);
+    }
+
+    public void execute(final Runnable command) {
+        if (command == null) {
+            throw new NullPointerException("command is null");
+        }
+        if (shutdown) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+        final Worker current = CURRENT_WORKER.get();
+        final Worker worker;
+        if (current != null && current.executor() == this) {
+            worker = current;
+        } else {
+            worker = workers[(nextWorker.getAndIncrement() & Integer.MAX_VALUE) % workers.length];
+        }
+        worker.deque.offer(command);
+        final Thread thread = worker.thread;
+        if (thread == null) {
+            if (!startWorker(worker) && worker.deque.remove(command)) {
+                throw new RejectedExecutionException(shutdown ? "Executor has been shut down" : "Unable to create a worker thread");
+            }
+        } else if (worker.idle) {
+            LockSupport.unpark(thread);
+        } else if (idleWorkers.get() > 0) {
+            wakeIdleWorker();
+        }
+    }
+
+    public void shutdown() {
+        boolean terminate;
+        synchronized (lock) {
+            shutdown = true;
+            terminate = tryTerminate();
+        }
+        for (Worker worker : workers) {
+            final Thread thread = worker.thread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+        if (terminate) {
+            terminated();
+        }
+    }
+
+    public List<Runnable> shutdownNow() {
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        boolean terminate;
+        synchronized (lock) {
+            shutdown = true;
+            for (Worker worker : workers) {
+                worker.deque.drainTo(tasks);
+            }
+            terminate = tryTerminate();
+        }
+        for (Worker worker : workers) {
+            final Thread thread = worker.thread;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+        if (terminate) {
+            terminated();
+        }
+        return tasks;
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    public boolean isTerminated() {
+        synchronized (lock) {
+            return terminated;
+        }
+    }
+
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        synchronized (lock) {
+            while (!terminated) {
+                if (remaining <= 0L) {
+                    return false;
+                }
+                final long start = System.nanoTime();
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                remaining -= System.nanoTime() - start;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Get the number of tasks waiting in the deques.
+     *
+     * @return the number of queued tasks
+     */
+    public int getQueueSize() {
+        int size = 0;
+        for (Worker worker : workers) {
+            size += worker.deque.size();
+        }
+        return size;
+    }
+
+    /**
+     * Called once the executor has terminated.  The default implementation does nothing.
+     */
+    protected void terminated() {
+    }
+
+    private boolean startWorker(final Worker worker) {
+        synchronized (lock) {
+            if (terminated) {
+                return false;
+            }
+            if (worker.thread != null) {
+                return true;
+            }
+            final Thread thread = threadFactory.newThread(worker);
+            if (thread == null) {
+                return false;
+            }
+            worker.thread = thread;
+            liveThreads++;
+            thread.start();
+            return true;
+        }
+    }
+
+    private boolean tryExit(final Worker worker) {
+        boolean terminate;
+        synchronized (lock) {
+            // clear the thread before checking the deque, so a task queued concurrently either sees no thread and
+            // starts one, or is seen here and keeps this thread running
+            worker.thread = null;
+            if (!worker.deque.isEmpty()) {
+                worker.thread = Thread.currentThread();
+                return false;
+            }
+            liveThreads--;
+            terminate = shutdown && tryTerminate();
+        }
+        if (terminate) {
+            terminated();
+        }
+        return true;
+    }
+
+    // call with lock held
+    private boolean tryTerminate() {
+        if (terminated || liveThreads > 0) {
+            return false;
+        }
+        for (Worker worker : workers) {
+            if (!worker.deque.isEmpty()) {
+                return false;
+            }
+        }
+        terminated = true;
+        lock.notifyAll();
+        return true;
+    }
+
+    private void wakeIdleWorker() {
+        for (Worker worker : workers) {
+            if (worker.idle) {
+                final Thread thread = worker.thread;
+                if (thread != null) {
+                    LockSupport.unpark(thread);
+                    return;
+                }
+            }
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final int index;
+        private final BlockingDeque<Runnable> deque = new LinkedBlockingDeque<Runnable>();
+        private volatile Thread thread;
+        private volatile boolean idle;
+
+        private Worker(final int index) {
+            this.index = index;
+        }
+
+        private WorkStealingExecutor executor() {
+            return WorkStealingExecutor.this;
+        }
+
+        public void run() {
+            CURRENT_WORKER.set(this);
+            try {
+                for (;;) {
+                    Runnable task = poll();
+                    if (task == null) {
+                        task = awaitTask();
+                        if (task == null) {
+                            if (tryExit(this)) {
+                                return;
+                            }
+                            continue;
+                        }
+                    }
+                    runTask(task);
+                }
+            } finally {
+                CURRENT_WORKER.remove();
+            }
+        }
+
+        private Runnable poll() {
+            final Runnable task = deque.pollFirst();
+            if (task != null) {
+                return task;
+            }
+            final Worker[] workers = WorkStealingExecutor.this.workers;
+            for (int i = 1; i < workers.length; i++) {
+                final Runnable stolen = workers[(index + i) % workers.length].deque.pollFirst();
+                if (stolen != null) {
+                    return stolen;
+                }
+            }
+            return null;
+        }
+
+        private Runnable awaitTask() {
+            idle = true;
+            idleWorkers.incrementAndGet();
+            try {
+                long remaining = keepAliveNanos;
+                for (;;) {
+                    // check again after announcing idleness, so a task queued meanwhile is not missed
+                    final Runnable task = poll();
+                    if (task != null) {
+                        return task;
+                    }
+                    if (shutdown || remaining <= 0L) {
+                        return null;
+                    }
+                    Thread.interrupted();
+                    final long start = System.nanoTime();
+                    LockSupport.parkNanos(this, remaining);
+                    if (remaining != Long.MAX_VALUE) {
+                        remaining -= System.nanoTime() - start;
+                    }
+                }
+            } finally {
+                idle = false;
+                idleWorkers.decrementAndGet();
+            }
+        }
+
+        private void runTask(final Runnable task) {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                final Thread thread = Thread.currentThread();
+                final Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+                if (handler != null) {
+                    handler.uncaughtException(thread, t);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link ThreadPoolStatistics}.
+ */
+public class ThreadPoolStatisticsTestCase {
+
+    @Test
+    public void testTaskCounts() throws Exception {
+        final ThreadPoolStatistics statistics = new ThreadPoolStatistics();
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 1L, TimeUnit.MINUTES, new LinkedBlockingQueue<Runnable>(),
+                statistics.countThreads(Executors.defaultThreadFactory()));
+        final ExecutorService executor = statistics.countTasks(pool);
+        try {
+            final CountDownLatch running = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            executor.execute(new Runnable() {
+                public void run() {
+                    running.countDown();
+                    await(release);
+                }
+            });
+            executor.execute(new Runnable() {
+                public void run() {
+                }
+            });
+            assertTrue(running.await(10L, TimeUnit.SECONDS));
+            assertEquals(1, statistics.getCurrentThreadCount());
+            assertEquals(1, statistics.getActiveCount());
+            assertEquals(1, statistics.getQueueSize());
+            assertEquals(2L, statistics.getSubmittedTaskCount());
+
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+            assertEquals(0, statistics.getActiveCount());
+            assertEquals(0, statistics.getQueueSize());
+            assertEquals(2L, statistics.getCompletedTaskCount());
+            assertEquals(1, statistics.getLargestThreadCount());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectedCount() throws Exception {
+        final ThreadPoolStatistics statistics = new ThreadPoolStatistics();
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 1L, TimeUnit.MINUTES, new SynchronousQueue<Runnable>(),
+                statistics.countThreads(Executors.defaultThreadFactory()));
+        final ExecutorService executor = statistics.countTasks(pool);
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                    running.countDown();
+                    await(release);
+                }
+            });
+            assertTrue(running.await(10L, TimeUnit.SECONDS));
+            try {
+                executor.execute(new Runnable() {
+                    public void run() {
+                    }
+                });
+                fail("Task should have been rejected");
+            } catch (RejectedExecutionException expected) {
+            }
+            assertEquals(2L, statistics.getSubmittedTaskCount());
+            assertEquals(1L, statistics.getRejectedCount());
+            assertEquals(0, statistics.getQueueSize());
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTaskTiming() throws Exception {
+        final ThreadPoolStatistics statistics = new ThreadPoolStatistics();
+        statistics.taskFinished(statistics.taskStarted());
+        assertEquals(0L, sum(statistics.getTaskTimeHistogram()));
+
+        statistics.setTaskTiming(true);
+        final long start = statistics.taskStarted();
+        Thread.sleep(5L);
+        statistics.taskFinished(start);
+        assertEquals(1L, sum(statistics.getTaskTimeHistogram()));
+        assertTrue(statistics.getMeanTaskTime() >= 5000L);
+        assertEquals(0L, statistics.getTaskTimeHistogram()[0]);
+
+        statistics.setTaskTiming(false);
+        statistics.setTaskTiming(true);
+        assertEquals(0L, sum(statistics.getTaskTimeHistogram()));
+        assertEquals(0L, statistics.getMeanTaskTime());
+    }
+
+    @Test
+    public void testHistogramBuckets() {
+        assertEquals(0, ThreadPoolStatistics.bucket(0L));
+        assertEquals(1, ThreadPoolStatistics.bucket(1L));
+        assertEquals(2, ThreadPoolStatistics.bucket(2L));
+        assertEquals(2, ThreadPoolStatistics.bucket(3L));
+        assertEquals(3, ThreadPoolStatistics.bucket(4L));
+        assertEquals(ThreadPoolStatistics.HISTOGRAM_BUCKETS - 1, ThreadPoolStatistics.bucket(16384L));
+        assertEquals(ThreadPoolStatistics.HISTOGRAM_BUCKETS - 1, ThreadPoolStatistics.bucket(Long.MAX_VALUE));
+        assertEquals(ThreadPoolStatistics.HISTOGRAM_BUCKETS - 2, ThreadPoolStatistics.bucket(16383L));
+    }
+
+    private static long sum(final long[] values) {
+        long sum = 0L;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
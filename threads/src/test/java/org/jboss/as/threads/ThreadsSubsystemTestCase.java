@@ -59,6 +59,7 @@ import static org.jboss.as.threads.CommonAttributes.PRIORITY;
 import static org.jboss.as.threads.CommonAttributes.PROPERTIES;
 import static org.jboss.as.threads.CommonAttributes.QUEUELESS_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.QUEUE_LENGTH;
+import static org.jboss.as.threads.CommonAttributes.REJECTED_COUNT;
 import static org.jboss.as.threads.CommonAttributes.SCHEDULED_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.THREADS;
 import static org.jboss.as.threads.CommonAttributes.THREAD_FACTORY;
@@ -66,6 +67,7 @@ import static org.jboss.as.threads.CommonAttributes.THREAD_NAME_PATTERN;
 import static org.jboss.as.threads.CommonAttributes.TIME;
 import static org.jboss.as.threads.CommonAttributes.UNBOUNDED_QUEUE_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.UNIT;
+import static org.jboss.as.threads.CommonAttributes.WORK_STEALING_THREAD_POOL;
 
 import java.io.OutputStream;
 import java.io.Reader;
@@ -224,6 +226,11 @@ public class ThreadsSubsystemTestCase {
         assertEquals(ModelType.LONG, boundedQueueThreadPoolDesc.require(ATTRIBUTES).require(KEEPALIVE_TIME).require(VALUE_TYPE).require(TIME).require(TYPE).asType());
         assertEquals(ModelType.STRING, boundedQueueThreadPoolDesc.require(ATTRIBUTES).require(KEEPALIVE_TIME).require(VALUE_TYPE).require(UNIT).require(TYPE).asType());
 
+        ModelNode workStealingThreadPoolDesc = threadsDescription.get(CHILDREN, WORK_STEALING_THREAD_POOL, MODEL_DESCRIPTION, "*");
+        assertEquals(ModelType.STRING, workStealingThreadPoolDesc.require(ATTRIBUTES).require(NAME).require(TYPE).asType());
+        assertEquals(ModelType.OBJECT, workStealingThreadPoolDesc.require(ATTRIBUTES).require(MAX_THREADS).require(TYPE).asType());
+        assertEquals(ModelType.OBJECT, workStealingThreadPoolDesc.require(ATTRIBUTES).require(KEEPALIVE_TIME).require(TYPE).asType());
+        assertEquals(ModelType.LONG, workStealingThreadPoolDesc.require(ATTRIBUTES).require(REJECTED_COUNT).require(TYPE).asType());
     }
 
     @Test
@@ -446,6 +453,62 @@ public class ThreadsSubsystemTestCase {
         assertEquals("test-poolB", threadFactory.require("test-poolB").require("name").asString());
     }
 
+    @Test
+    public void testSimpleWorkStealingThreadPool() throws Exception {
+        List<ModelNode> updates = createSubSystem(
+                "<work-stealing-thread-pool name=\"test-pool\">" +
+                "   <max-threads count=\"1\" per-cpu=\"2\"/>" +
+                "</work-stealing-thread-pool>");
+        assertEquals(2, updates.size());
+        for (ModelNode update : updates) {
+            try {
+                controller.execute(update);
+            } catch (OperationFailedException e) {
+                throw new RuntimeException(e.getFailureDescription().toString());
+            }
+        }
+
+        ModelNode subsystem = model.require("profile").require("test").require("subsystem").require("threads");
+        ModelNode threadPool = subsystem.require("work-stealing-thread-pool");
+        assertEquals(1, threadPool.keys().size());
+        assertEquals("test-pool", threadPool.require("test-pool").require("name").asString());
+    }
+
+    @Test
+    public void testFullWorkStealingThreadPool() throws Exception {
+        List<ModelNode> updates = createSubSystem(
+                "<work-stealing-thread-pool name=\"test-pool\">" +
+                "   <max-threads count=\"100\" per-cpu=\"5\"/>" +
+                "   <keepalive-time time=\"1000\" unit=\"MILLISECONDS\"/>" +
+                "   <thread-factory name=\"test-factory\"/>" +
+                "   <properties>" +
+                "      <property name=\"propA\" value=\"valueA\"/>" +
+                "      <property name=\"propB\" value=\"valueB\"/>" +
+                "   </properties>" +
+                "</work-stealing-thread-pool>");
+
+        TestResultHandler handler = new TestResultHandler();
+        controller.execute(updates.get(0));
+        controller.execute(updates.get(1), handler);
+
+        ModelNode subsystem = model.require("profile").require("test").require("subsystem").require("threads");
+        ModelNode threadPool = subsystem.require("work-stealing-thread-pool");
+        assertEquals(1, threadPool.keys().size());
+        assertEquals(new BigDecimal(100), threadPool.require("test-pool").require(MAX_THREADS).require(COUNT).asBigDecimal());
+        assertEquals(new BigDecimal(5), threadPool.require("test-pool").require(MAX_THREADS).require(PER_CPU).asBigDecimal());
+        assertEquals(1000L, threadPool.require("test-pool").require(KEEPALIVE_TIME).require(TIME).asLong());
+        assertEquals("MILLISECONDS", threadPool.require("test-pool").require(KEEPALIVE_TIME).require(UNIT).asString());
+        assertEquals("test-factory", threadPool.require("test-pool").require(THREAD_FACTORY).asString());
+        assertEquals(2, threadPool.require("test-pool").require("properties").asList().size());
+
+        ModelNode compensating = handler.getCompensatingOperation();
+        assertNotNull(compensating);
+        handler.clear();
+        controller.execute(compensating, handler);
+
+        assertFalse(model.require("profile").require("test").require("subsystem").require("threads").require("work-stealing-thread-pool").has("test-pool"));
+    }
+
     @Test
     public void testSimpleScheduledThreadPool() throws Exception {
         List<ModelNode> updates = createSubSystem(
@@ -0,0 +1,243 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link WorkStealingExecutor}.
+ */
+public class WorkStealingExecutorTestCase {
+
+    @Test
+    public void testRunsAllTasks() throws Exception {
+        final WorkStealingExecutor executor = new WorkStealingExecutor(4, Long.MAX_VALUE, TimeUnit.NANOSECONDS, Executors.defaultThreadFactory());
+        try {
+            final int tasks = 10000;
+            final CountDownLatch done = new CountDownLatch(tasks);
+            for (int i = 0; i < tasks; i++) {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        done.countDown();
+                    }
+                });
+            }
+            assertTrue(done.await(10L, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTasksSubmittedByWorkers() throws Exception {
+        final WorkStealingExecutor executor = new WorkStealingExecutor(4, Long.MAX_VALUE, TimeUnit.NANOSECONDS, Executors.defaultThreadFactory());
+        try {
+            final int depth = 1000;
+            final CountDownLatch done = new CountDownLatch(depth);
+            executor.execute(new Runnable() {
+                private int remaining = depth;
+
+                public void run() {
+                    done.countDown();
+                    if (--remaining > 0) {
+                        executor.execute(this);
+                    }
+                }
+            });
+            assertTrue(done.await(10L, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testIdleWorkerStealsFromBusyWorker() throws Exception {
+        final WorkStealingExecutor executor = new WorkStealingExecutor(2, Long.MAX_VALUE, TimeUnit.NANOSECONDS, Executors.defaultThreadFactory());
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            final CountDownLatch queued = new CountDownLatch(1);
+            final CountDownLatch stolen = new CountDownLatch(1);
+            executor.execute(new Runnable() {
+                public void run() {
+                    // queued for this worker, which stays busy, so only the other worker can run it
+                    executor.execute(new Runnable() {
+                        public void run() {
+                            stolen.countDown();
+                        }
+                    });
+                    queued.countDown();
+                    await(release);
+                }
+            });
+            assertTrue(queued.await(10L, TimeUnit.SECONDS));
+            executor.execute(new Runnable() {
+                public void run() {
+                }
+            });
+            assertTrue(stolen.await(10L, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        final TerminationExecutor executor = new TerminationExecutor(2);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger completed = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    await(release);
+                    completed.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.isShutdown());
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                }
+            });
+            fail("Task should have been rejected");
+        } catch (RejectedExecutionException expected) {
+        }
+        assertFalse(executor.awaitTermination(10L, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+        assertEquals(10, completed.get());
+        assertTrue(executor.terminated.await(10L, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testShutdownNow() throws Exception {
+        final WorkStealingExecutor executor = new WorkStealingExecutor(1, Long.MAX_VALUE, TimeUnit.NANOSECONDS, Executors.defaultThreadFactory());
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            public void run() {
+                running.countDown();
+                try {
+                    Thread.sleep(10000L);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+        });
+        for (int i = 0; i < 5; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                }
+            });
+        }
+        assertTrue(running.await(10L, TimeUnit.SECONDS));
+        final List<Runnable> pending = executor.shutdownNow();
+        assertEquals(5, pending.size());
+        assertTrue(interrupted.await(10L, TimeUnit.SECONDS));
+        assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testIdleThreadsExit() throws Exception {
+        final AtomicInteger liveThreads = new AtomicInteger();
+        final ThreadFactory threadFactory = new ThreadFactory() {
+            public Thread newThread(final Runnable r) {
+                return new Thread(new Runnable() {
+                    public void run() {
+                        liveThreads.incrementAndGet();
+                        try {
+                            r.run();
+                        } finally {
+                            liveThreads.decrementAndGet();
+                        }
+                    }
+                });
+            }
+        };
+        final WorkStealingExecutor executor = new WorkStealingExecutor(2, 50L, TimeUnit.MILLISECONDS, threadFactory);
+        try {
+            final CountDownLatch done = new CountDownLatch(2);
+            for (int i = 0; i < 2; i++) {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        done.countDown();
+                    }
+                });
+            }
+            assertTrue(done.await(10L, TimeUnit.SECONDS));
+            final long deadline = System.currentTimeMillis() + 10000L;
+            while (liveThreads.get() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+            assertEquals(0, liveThreads.get());
+
+            // threads are started again for new tasks
+            final CountDownLatch again = new CountDownLatch(1);
+            executor.execute(new Runnable() {
+                public void run() {
+                    again.countDown();
+                }
+            });
+            assertTrue(again.await(10L, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class TerminationExecutor extends WorkStealingExecutor {
+        private final CountDownLatch terminated = new CountDownLatch(1);
+
+        TerminationExecutor(final int parallelism) {
+            super(parallelism, Long.MAX_VALUE, TimeUnit.NANOSECONDS, Executors.defaultThreadFactory());
+        }
+
+        protected void terminated() {
+            terminated.countDown();
+        }
+    }
+}
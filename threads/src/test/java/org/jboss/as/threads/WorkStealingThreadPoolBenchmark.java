@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.threads.JBossThreadPoolExecutor;
+import org.jboss.threads.QueueExecutor;
+
+/**
+ * Compares the short task throughput of the work stealing thread pool with the executors behind the bounded and
+ * unbounded queue thread pools. This is not run as part of the unit tests; run it directly with
+ * {@code [threads] [submitters] [tasks per submitter]} as arguments.
+ */
+public class WorkStealingThreadPoolBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(final String[] args) throws Exception {
+        final int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        final int submitters = args.length > 1 ? Integer.parseInt(args[1]) : threads;
+        final int tasks = args.length > 2 ? Integer.parseInt(args[2]) : 200000;
+
+        final ThreadFactory threadFactory = Executors.defaultThreadFactory();
+        for (int round = 0; round < ROUNDS; round++) {
+            System.out.printf("Round %d: %d threads, %d submitters, %d tasks per submitter%n",
+                    Integer.valueOf(round + 1), Integer.valueOf(threads), Integer.valueOf(submitters), Integer.valueOf(tasks));
+            run("bounded-queue-thread-pool", new QueueExecutor(threads, threads, 1L, TimeUnit.MINUTES, submitters * tasks, threadFactory,
+                    true, null), submitters, tasks);
+            run("unbounded-queue-thread-pool", new JBossThreadPoolExecutor(threads, threads, 1L, TimeUnit.MINUTES,
+                    new LinkedBlockingQueue<Runnable>(), threadFactory), submitters, tasks);
+            run("work-stealing-thread-pool", new WorkStealingExecutor(threads, 1L, TimeUnit.MINUTES, threadFactory), submitters, tasks);
+        }
+    }
+
+    private static void run(final String name, final ExecutorService executor, final int submitters, final int tasks) throws Exception {
+        try {
+            final long external = measure(executor, submitters, tasks, false);
+            final long nested = measure(executor, submitters, tasks, true);
+            System.out.printf("  %-28s %,12d tasks/s submitted by other threads, %,12d tasks/s submitted by tasks%n", name,
+                    Long.valueOf(external), Long.valueOf(nested));
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1L, TimeUnit.MINUTES);
+        }
+    }
+
+    private static long measure(final ExecutorService executor, final int submitters, final int tasks, final boolean nested) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(submitters);
+        for (int i = 0; i < submitters; i++) {
+            if (nested) {
+                // each task submits the next one, as tasks splitting up work do
+                new Thread(new Runnable() {
+                    public void run() {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        executor.execute(new Runnable() {
+                            private int remaining = tasks;
+
+                            public void run() {
+                                ShortTask.work();
+                                if (--remaining > 0) {
+                                    executor.execute(this);
+                                } else {
+                                    done.countDown();
+                                }
+                            }
+                        });
+                    }
+                }).start();
+            } else {
+                new Thread(new Runnable() {
+                    public void run() {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        final ShortTask task = new ShortTask(tasks, done);
+                        for (int j = 0; j < tasks; j++) {
+                            executor.execute(task);
+                        }
+                    }
+                }).start();
+            }
+        }
+        final long startTime = System.nanoTime();
+        start.countDown();
+        done.await();
+        final long time = System.nanoTime() - startTime;
+        return (long) submitters * tasks * TimeUnit.SECONDS.toNanos(1L) / time;
+    }
+
+    private static final class ShortTask implements Runnable {
+        private static volatile long sink;
+
+        private final AtomicInteger remaining;
+        private final CountDownLatch done;
+
+        private ShortTask(final int tasks, final CountDownLatch done) {
+            remaining = new AtomicInteger(tasks);
+            this.done = done;
+        }
+
+        static void work() {
+            long value = 17L;
+            for (int i = 0; i < 64; i++) {
+                value = value * 31L + i;
+            }
+            sink = value;
+        }
+
+        public void run() {
+            work();
+            if (remaining.decrementAndGet() == 0) {
+                done.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011, Red Hat Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.valves.AccessLogValve;
+import org.jboss.logging.Logger;
+
+/**
+ * Access log valve handing the formatted entries to a bounded queue, which is drained by a background writer thread.
+ * The writer appends the entries of a batch to the buffered log writer and flushes it once per batch, so request
+ * threads never wait for the file system.  Rotation is unchanged, since the writer goes through
+ * {@link AccessLogValve#log(String)}.
+ * <p/>
+ * When the queue is full, request threads either wait for the writer to catch up, or drop the entry and count it.
+ * Once the valve is stopping, entries are no longer queued: they are written by the request thread after the writer
+ * has written everything queued before, so no entry is left behind in the queue.
+ */
+class AsyncAccessLogValve extends AccessLogValve {
+
+    /**
+     * What to do with an entry when the queue is full.
+     */
+    enum Overflow {
+        /** Wait until the writer has made room in the queue. */
+        BLOCK,
+        /** Drop the entry and count it. */
+        DROP,
+        ;
+
+        static Overflow forName(final String name) {
+            return valueOf(name.toUpperCase());
+        }
+    }
+
+    static final int DEFAULT_QUEUE_SIZE = 8192;
+    static final int DEFAULT_BATCH_SIZE = 256;
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.web");
+
+    /** Queued by {@link #stop()} after the last entry, to have the writer exit once everything is written. */
+    private static final String END = new String();
+
+    private final BlockingQueue<String> queue;
+    private final int batchSize;
+    private final Overflow overflow;
+    private final AtomicLong dropped = new AtomicLong();
+    /** Held shared while queueing an entry, and exclusively by {@link #stop()} while it ends the writer. */
+    private final ReadWriteLock queueLock = new ReentrantReadWriteLock();
+
+    private volatile Thread writer;
+
+    AsyncAccessLogValve(final int queueSize, final int batchSize, final Overflow overflow) {
+        if (queueSize < 1) {
+            throw new IllegalArgumentException("queueSize is " + queueSize);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize is " + batchSize);
+        }
+        this.queue = new ArrayBlockingQueue<String>(queueSize);
+        this.batchSize = batchSize;
+        this.overflow = overflow;
+        // flushed by the writer once per batch
+        setBuffered(true);
+    }
+
+    /**
+     * Get the number of entries dropped because the queue was full.
+     *
+     * @return the number of dropped entries
+     */
+    long getDroppedEntries() {
+        return dropped.get();
+    }
+
+    /** {@inheritDoc} */
+    public void log(final String message) {
+        queueLock.readLock().lock();
+        try {
+            if (writer == null) {
+                super.log(message);
+                return;
+            }
+            if (queue.offer(message)) {
+                return;
+            }
+            if (overflow == Overflow.DROP) {
+                dropped.incrementAndGet();
+                return;
+            }
+            boolean interrupted = false;
+            try {
+                for (;;) {
+                    try {
+                        queue.put(message);
+                        return;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        } finally {
+            queueLock.readLock().unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void start() throws LifecycleException {
+        super.start();
+        final Thread thread = new Thread(new Writer(), "Access log writer " + getPrefix());
+        thread.setDaemon(true);
+        thread.start();
+        writer = thread;
+    }
+
+    /** {@inheritDoc} */
+    public void stop() throws LifecycleException {
+        // waits for request threads putting entries into the queue, which the writer is still draining
+        queueLock.writeLock().lock();
+        try {
+            final Thread thread = writer;
+            if (thread != null) {
+                boolean interrupted = false;
+                try {
+                    for (;;) {
+                        try {
+                            queue.put(END);
+                            thread.join();
+                            break;
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                } finally {
+                    writer = null;
+                    // nothing is queued behind the end, unless the writer died before reaching it
+                    final List<String> remaining = new ArrayList<String>();
+                    queue.drainTo(remaining);
+                    write(remaining);
+                    if (interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        } finally {
+            queueLock.writeLock().unlock();
+        }
+        final long count = dropped.get();
+        if (count > 0) {
+            log.warnf("Dropped %d entries of access log %s because its queue was full", Long.valueOf(count), getPrefix());
+        }
+        super.stop();
+    }
+
+    private void write(final List<String> batch) {
+        for (String message : batch) {
+            if (message != END) {
+                super.log(message);
+            }
+        }
+        // flushes the buffered log writer
+        backgroundProcess();
+    }
+
+    private final class Writer implements Runnable {
+
+        public void run() {
+            final List<String> batch = new ArrayList<String>(batchSize);
+            for (;;) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    // only stop() ends the writer
+                    continue;
+                }
+                queue.drainTo(batch, batchSize - 1);
+                boolean end = false;
+                for (String message : batch) {
+                    end |= message == END;
+                }
+                try {
+                    write(batch);
+                } catch (Throwable t) {
+                    log.errorf(t, "Failed to write access log %s", getPrefix());
+                }
+                batch.clear();
+                if (end) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -31,6 +31,8 @@ import java.util.Map;
 enum Attribute {
     UNKNOWN(null),
 
+    ASYNC(CommonAttributes.ASYNC),
+    BATCH_SIZE(CommonAttributes.BATCH_SIZE),
     CHECK_INTERVAL(CommonAttributes.CHECK_INTERVAL),
     DEFAULT_HOST(CommonAttributes.DEFAULT_HOST),
     DEVELOPMENT(CommonAttributes.DEVELOPMENT),
@@ -53,12 +55,14 @@ enum Attribute {
     MODIFIFICATION_TEST_INTERVAL(CommonAttributes.MODIFIFICATION_TEST_INTERVAL),
     MAX_SAVE_POST_SIZE(CommonAttributes.MAX_SAVE_POST_SIZE),
     NAME(CommonAttributes.NAME),
+    OVERFLOW(CommonAttributes.OVERFLOW),
     PATH(CommonAttributes.PATH),
     PATTERN(CommonAttributes.PATTERN),
     PREFIX(CommonAttributes.PREFIX),
     PROTOCOL(CommonAttributes.PROTOCOL),
     PROXY_NAME(CommonAttributes.PROXY_NAME),
     PROXY_PORT(CommonAttributes.PROXY_PORT),
+    QUEUE_SIZE(CommonAttributes.QUEUE_SIZE),
     READ_ONLY(CommonAttributes.READ_ONLY),
     REDIRECT_PORT(CommonAttributes.REDIRECT_PORT),
     RECOMPILE_ON_FAIL(CommonAttributes.RECOMPILE_ON_FAIL),
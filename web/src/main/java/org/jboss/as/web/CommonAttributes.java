@@ -29,6 +29,8 @@ interface CommonAttributes {
 
     String ACCESS_LOG = "access-log";
     String ALIAS = "alias";
+    String ASYNC = "async";
+    String BATCH_SIZE = "batch-size";
     String CHECK_INTERVAL = "check-interval";
     String CONNECTOR = "connector";
     String CONTAINER_CONFIG = "config";
@@ -56,12 +58,14 @@ interface CommonAttributes {
     String MIME_MAPPING = "mime-mapping";
     String MODIFIFICATION_TEST_INTERVAL = "modification-test-interval";
     String NAME = "name";
+    String OVERFLOW = "overflow";
     String PATH = "path";
     String PATTERN = "pattern";
     String PREFIX = "prefix";
     String PROTOCOL = "protocol";
     String PROXY_NAME = "proxy-name";
     String PROXY_PORT = "proxy-port";
+    String QUEUE_SIZE = "queue-size";
     String READ_ONLY = "read-only";
     String RECOMPILE_ON_FAIL = "recompile-on-fail";
     String REDIRECT_PORT = "redirect-por";
@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011, Red Hat Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of the request processing times of a connector.  Times are kept in microsecond buckets whose width grows
+ * with the time, four buckets per power of two, so a percentile is accurate to within a quarter of its value.
+ * Recording only increments atomic counters, so it does not allocate or contend with other requests.
+ * <p/>
+ * The histogram covers every request since the connector started, or since it was last reset by taking a
+ * {@link #snapshot(boolean) snapshot}, so percentiles of recent requests are obtained by resetting it on each read.
+ */
+public final class RequestLatencyHistogram {
+
+    /** Buckets below this index hold a single microsecond value each. */
+    private static final int LINEAR_BUCKETS = 8;
+    /** Enough buckets for times up to {@code 2^40} microseconds, about twelve days. */
+    private static final int BUCKETS = 4 * 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Record the processing time of a request.
+     *
+     * @param nanos the processing time in nanoseconds
+     */
+    void record(final long nanos) {
+        buckets.incrementAndGet(bucket(TimeUnit.NANOSECONDS.toMicros(nanos)));
+        count.incrementAndGet();
+    }
+
+    static int bucket(final long micros) {
+        if (micros < LINEAR_BUCKETS) {
+            return micros < 0L ? 0 : (int) micros;
+        }
+        // the highest bit selects the power of two, the two bits below it the quarter within it
+        final int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        final int bucket = (exponent - 1) * 4 + (int) ((micros >>> (exponent - 2)) & 3);
+        return bucket < BUCKETS ? bucket : BUCKETS - 1;
+    }
+
+    /**
+     * Get the largest time falling into a bucket.
+     */
+    static long upperBound(final int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        final int exponent = bucket / 4 + 1;
+        final long lowerBound = (long) (4 + bucket % 4) << (exponent - 2);
+        return lowerBound + (1L << (exponent - 2)) - 1L;
+    }
+
+    /**
+     * Get a copy of the histogram, as it is at the moment.  A request recorded while the copy is taken is either in
+     * the copy, or remains in this histogram once it is reset.
+     *
+     * @param reset {@code true} to remove the copied requests from this histogram
+     * @return the copy
+     */
+    public RequestLatencyHistogram snapshot(final boolean reset) {
+        final RequestLatencyHistogram snapshot = new RequestLatencyHistogram();
+        long total = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            final long bucketCount = reset ? buckets.getAndSet(i, 0L) : buckets.get(i);
+            snapshot.buckets.set(i, bucketCount);
+            total += bucketCount;
+        }
+        snapshot.count.set(total);
+        if (reset) {
+            count.addAndGet(-total);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Get the number of requests recorded.
+     *
+     * @return the number of requests
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Get the time within which the given share of the recorded requests were processed.
+     *
+     * @param percentile the share of requests, between {@code 0} and {@code 100}
+     * @return the time in microseconds, or {@code 0} if no request was recorded
+     */
+    public long getPercentile(final double percentile) {
+        final long[] counts = new long[BUCKETS];
+        long total = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011, Red Hat Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.servlet.ServletException;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+
+/**
+ * Engine valve recording the processing time of every request in the latency histogram of the connector which
+ * received it.  For asynchronous requests only the time until the request is handed off is recorded.
+ */
+class RequestLatencyValve extends ValveBase {
+
+    private final ConcurrentMap<Connector, RequestLatencyHistogram> histograms = new ConcurrentHashMap<Connector, RequestLatencyHistogram>();
+
+    /** {@inheritDoc} */
+    public void invoke(final Request request, final Response response) throws IOException, ServletException {
+        final long start = System.nanoTime();
+        try {
+            getNext().invoke(request, response);
+        } finally {
+            final RequestLatencyHistogram histogram = histograms.get(request.getConnector());
+            if (histogram != null) {
+                histogram.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    void addConnector(final Connector connector) {
+        histograms.putIfAbsent(connector, new RequestLatencyHistogram());
+    }
+
+    void removeConnector(final Connector connector) {
+        histograms.remove(connector);
+    }
+
+    RequestLatencyHistogram getHistogram(final Connector connector) {
+        return histograms.get(connector);
+    }
+}
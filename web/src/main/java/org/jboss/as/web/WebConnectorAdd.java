@@ -37,6 +37,9 @@ import static org.jboss.as.web.CommonAttributes.SCHEME;
 import static org.jboss.as.web.CommonAttributes.SECURE;
 import static org.jboss.as.web.CommonAttributes.SOCKET_BINDING;
 
+import java.util.concurrent.Executor;
+
+import org.apache.catalina.connector.Connector;
 import org.jboss.as.controller.Cancellable;
 import org.jboss.as.controller.ModelAddOperationHandler;
 import org.jboss.as.controller.OperationContext;
@@ -46,7 +49,9 @@ import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.server.RuntimeOperationContext;
 import org.jboss.as.server.RuntimeOperationHandler;
 import org.jboss.as.server.services.net.SocketBinding;
+import org.jboss.as.threads.ThreadsServices;
 import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController.Mode;
 
 /**
@@ -119,11 +124,14 @@ class WebConnectorAdd implements ModelAddOperationHandler, RuntimeOperationHandl
             if(operation.hasDefined(REDIRECT_PORT)) service.setRedirectPort(operation.get(REDIRECT_PORT).asInt());
             if(operation.hasDefined(MAX_POST_SIZE)) service.setMaxPostSize(operation.get(MAX_POST_SIZE).asInt());
             if(operation.hasDefined(MAX_SAVE_POST_SIZE)) service.setMaxSavePostSize(operation.get(MAX_SAVE_POST_SIZE).asInt());
-            runtimeContext.getServiceTarget().addService(WebSubsystemServices.JBOSS_WEB_CONNECTOR.append(name), service)
+            final ServiceBuilder<Connector> serviceBuilder = runtimeContext.getServiceTarget().addService(WebSubsystemServices.JBOSS_WEB_CONNECTOR.append(name), service)
                 .addDependency(WebSubsystemServices.JBOSS_WEB, WebServer.class, service.getServer())
                 .addDependency(SocketBinding.JBOSS_BINDING_NAME.append(bindingRef), SocketBinding.class, service.getBinding())
-                .setInitialMode(enabled ? Mode.ACTIVE : Mode.NEVER)
-                .install();
+                .setInitialMode(enabled ? Mode.ACTIVE : Mode.NEVER);
+            if(operation.hasDefined(EXECUTOR)) {
+                serviceBuilder.addDependency(ThreadsServices.executorName(operation.get(EXECUTOR).asString()), Executor.class, service.getExecutor());
+            }
+            serviceBuilder.install();
         }
 
         resultHandler.handleResultComplete(compensatingOperation);
@@ -25,6 +25,9 @@ package org.jboss.as.web;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
 import javax.management.AttributeNotFoundException;
 import javax.management.InstanceNotFoundException;
 import javax.management.MBeanException;
@@ -34,6 +37,8 @@ import javax.management.ObjectName;
 import javax.management.ReflectionException;
 
 import org.apache.catalina.connector.Connector;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.coyote.RequestGroupInfo;
 import org.apache.tomcat.util.modeler.Registry;
 import org.jboss.as.controller.Cancellable;
 import org.jboss.as.controller.ModelQueryOperationHandler;
@@ -46,6 +51,9 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceController;
 
 /**
+ * Handler for the request metrics of a web connector.  The counters are read directly from the request group of the
+ * protocol handler, and only looked up through JMX for handlers which do not expose it.
+ *
  * @author Emanuel Muckenhuber
  */
 class WebConnectorMetrics implements ModelQueryOperationHandler, RuntimeOperationHandler {
@@ -56,6 +64,12 @@ class WebConnectorMetrics implements ModelQueryOperationHandler, RuntimeOperatio
     static final String[] ATTRIBUTES = new String[] {"bytesSent", "bytesReceived", "processingTime", "errorCount", "maxTime", "requestCount"};
     static final String BASE_NAME = "jboss.web:type=GlobalRequestProcessor,name=";
 
+    /** The request processing time percentiles, in microseconds, returned by {@link WebConnectorReadMetrics}. */
+    static final String REQUEST_LATENCY = "request-latency";
+    static final String REQUEST_LATENCY_COUNT = "count";
+    static final double[] PERCENTILES = new double[] {50, 90, 99, 99.9};
+    static final String[] PERCENTILE_NAMES = new String[] {"p50", "p90", "p99", "p99.9"};
+
     /** {@inheritDoc} */
     @Override
     public Cancellable execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
@@ -65,20 +79,15 @@ class WebConnectorMetrics implements ModelQueryOperationHandler, RuntimeOperatio
             final String name = address.getLastElement().getValue();
             final String attributeName = operation.require(NAME).asString();
 
-            final RuntimeOperationContext runtimeContext = (RuntimeOperationContext) context;
-            final ServiceController<?> controller = runtimeContext.getServiceRegistry().getService(WebSubsystemServices.JBOSS_WEB_CONNECTOR.append(name));
-            if(controller != null) {
+            final WebConnectorService service = getConnectorService((RuntimeOperationContext) context, name);
+            if(service != null) {
                 try {
-                    final Connector connector = (Connector) controller.getValue();
-                    final int port = connector.getPort();
-                    final ModelNode result = new ModelNode();
-                    result.set("" + getAttribute("http-" + port, attributeName));
-                    resultHandler.handleResultFragment(new String[0], result);
+                    final ModelNode result = getCounter(service, attributeName);
+                    resultHandler.handleResultFragment(NO_LOCATION, result);
                     resultHandler.handleResultComplete(null);
                     return Cancellable.NULL;
                 } catch (Exception e) {
-                    e.printStackTrace();
-                    resultHandler.handleFailed(new ModelNode().set("failed to get metrics" + e.getMessage()));
+                    resultHandler.handleFailed(new ModelNode().set("failed to get metrics " + e.getMessage()));
                     return Cancellable.NULL;
                 }
             }
@@ -88,6 +97,113 @@ class WebConnectorMetrics implements ModelQueryOperationHandler, RuntimeOperatio
         return Cancellable.NULL;
     }
 
+    /**
+     * Get the service of a connector.
+     *
+     * @return the service, or {@code null} if the connector is not started
+     */
+    static WebConnectorService getConnectorService(final RuntimeOperationContext context, final String name) {
+        final ServiceController<?> controller = context.getServiceRegistry().getService(WebSubsystemServices.JBOSS_WEB_CONNECTOR.append(name));
+        if(controller == null || controller.getState() != ServiceController.State.UP) {
+            return null;
+        }
+        return (WebConnectorService) controller.getService();
+    }
+
+    /**
+     * Read all the metrics of a connector.
+     *
+     * @param service the connector service
+     * @param reset {@code true} to reset the request latency percentiles once read
+     * @return the counters, and the request latency percentiles
+     */
+    static ModelNode readMetrics(final WebConnectorService service, final boolean reset) throws Exception {
+        final ModelNode metrics = new ModelNode();
+        for(final String attributeName : ATTRIBUTES) {
+            metrics.get(attributeName).set(getCounter(service, attributeName));
+        }
+        final RequestLatencyHistogram histogram = service.getRequestLatency();
+        if(histogram != null) {
+            final RequestLatencyHistogram latency = histogram.snapshot(reset);
+            final ModelNode node = metrics.get(REQUEST_LATENCY);
+            node.get(REQUEST_LATENCY_COUNT).set(latency.getCount());
+            for(int i = 0; i < PERCENTILES.length; i++) {
+                node.get(PERCENTILE_NAMES[i]).set(latency.getPercentile(PERCENTILES[i]));
+            }
+        }
+        return metrics;
+    }
+
+    static ModelNode getCounter(final WebConnectorService service, final String attributeName) throws Exception {
+        final RequestGroupInfo info = service.getRequestGroupInfo();
+        if(info == null) {
+            final Object value = getAttribute("http-" + service.getValue().getPort(), attributeName);
+            final ModelNode result = new ModelNode();
+            if(value instanceof Number) {
+                result.set(((Number) value).longValue());
+            } else {
+                result.set(String.valueOf(value));
+            }
+            return result;
+        }
+        final ModelNode result = new ModelNode();
+        if("bytesSent".equals(attributeName)) {
+            result.set(info.getBytesSent());
+        } else if("bytesReceived".equals(attributeName)) {
+            result.set(info.getBytesReceived());
+        } else if("processingTime".equals(attributeName)) {
+            result.set(info.getProcessingTime());
+        } else if("errorCount".equals(attributeName)) {
+            result.set(info.getErrorCount());
+        } else if("maxTime".equals(attributeName)) {
+            result.set(info.getMaxTime());
+        } else if("requestCount".equals(attributeName)) {
+            result.set(info.getRequestCount());
+        } else {
+            throw new IllegalArgumentException("Unknown metric " + attributeName);
+        }
+        return result;
+    }
+
+    /**
+     * Find the request group, which aggregates the counters of all the requests, of a protocol handler.  The handlers
+     * do not declare it on the {@code ProtocolHandler} interface; those without an accessor keep it in their connection
+     * handler.
+     *
+     * @param handler the protocol handler
+     * @return the request group, or {@code null} if it cannot be found
+     */
+    static RequestGroupInfo findRequestGroupInfo(final ProtocolHandler handler) {
+        try {
+            final Method method = handler.getClass().getMethod("getRequestGroupInfo");
+            return (RequestGroupInfo) method.invoke(handler);
+        } catch (NoSuchMethodException ignored) {
+            // look for the field below
+        } catch (Exception e) {
+            return null;
+        }
+        try {
+            final Object connectionHandler = getField(handler, "cHandler");
+            final Object global = connectionHandler == null ? null : getField(connectionHandler, "global");
+            return global instanceof RequestGroupInfo ? (RequestGroupInfo) global : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Object getField(final Object object, final String name) throws IllegalAccessException {
+        for(Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+            try {
+                final Field field = clazz.getDeclaredField(name);
+                field.setAccessible(true);
+                return field.get(object);
+            } catch (NoSuchFieldException ignored) {
+                // try the superclass
+            }
+        }
+        return null;
+    }
+
     static final ObjectName createObjectName(final String name) throws MalformedObjectNameException {
         return new ObjectName(BASE_NAME + name);
     }
@@ -0,0 +1,89 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011, Red Hat Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.web.CommonAttributes.CONNECTOR;
+
+import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.server.RuntimeOperationContext;
+import org.jboss.as.server.RuntimeOperationHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+
+/**
+ * {@code OperationHandler} reading all the metrics of a connector in one operation, or of every connector when invoked
+ * on the subsystem, where the result holds the metrics of each started connector under its name.  With the
+ * {@value #RESET} parameter set, the request latency percentiles are reset once read, so that each read covers the
+ * requests since the previous one.
+ */
+class WebConnectorReadMetrics implements ModelQueryOperationHandler, RuntimeOperationHandler {
+
+    static final String OPERATION_NAME = "read-metrics";
+    static final String RESET = "reset";
+
+    static final WebConnectorReadMetrics INSTANCE = new WebConnectorReadMetrics();
+
+    private WebConnectorReadMetrics() {
+        //
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Cancellable execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
+        final ModelNode result = new ModelNode();
+        if(context instanceof RuntimeOperationContext) {
+            final RuntimeOperationContext runtimeContext = (RuntimeOperationContext) context;
+            final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
+            final boolean reset = operation.hasDefined(RESET) && operation.get(RESET).asBoolean();
+            try {
+                if(CONNECTOR.equals(address.getLastElement().getKey())) {
+                    final WebConnectorService service = WebConnectorMetrics.getConnectorService(runtimeContext, address.getLastElement().getValue());
+                    if(service != null) {
+                        result.set(WebConnectorMetrics.readMetrics(service, reset));
+                    }
+                } else {
+                    final ModelNode subModel = context.getSubModel();
+                    if(subModel.hasDefined(CONNECTOR)) {
+                        for(final Property connector : subModel.get(CONNECTOR).asPropertyList()) {
+                            final WebConnectorService service = WebConnectorMetrics.getConnectorService(runtimeContext, connector.getName());
+                            if(service != null) {
+                                result.get(connector.getName()).set(WebConnectorMetrics.readMetrics(service, reset));
+                            }
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                resultHandler.handleFailed(new ModelNode().set("failed to get metrics " + e.getMessage()));
+                return Cancellable.NULL;
+            }
+        }
+        resultHandler.handleResultFragment(WebConnectorMetrics.NO_LOCATION, result);
+        resultHandler.handleResultComplete(null);
+        return Cancellable.NULL;
+    }
+}
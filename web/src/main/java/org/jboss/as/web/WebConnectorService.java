@@ -21,10 +21,12 @@
  */
 package org.jboss.as.web;
 
+import java.lang.reflect.Method;
 import java.net.InetSocketAddress;
 import java.util.concurrent.Executor;
 
 import org.apache.catalina.connector.Connector;
+import org.apache.coyote.RequestGroupInfo;
 import org.jboss.as.server.services.net.SocketBinding;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
@@ -51,6 +53,7 @@ class WebConnectorService implements Service<Connector> {
     private Integer maxSavePostSize = null;
 
     private Connector connector;
+    private RequestGroupInfo requestGroupInfo;
 
     private final InjectedValue<Executor> executor = new InjectedValue<Executor>();
     private final InjectedValue<SocketBinding> binding = new InjectedValue<SocketBinding>();
@@ -83,22 +86,48 @@ class WebConnectorService implements Service<Connector> {
             if(proxyPort != null) connector.setProxyPort(proxyPort);
             if(redirectPort != null) connector.setRedirectPort(redirectPort);
             if(secure != null) connector.setSecure(secure);
-            // TODO set Executor on ProtocolHandler
+            final Executor executor = this.executor.getOptionalValue();
+            if(executor != null) setExecutor(connector, executor);
             // TODO use server socket factory - or integrate with {@code ManagedBinding}
 
             // Register connector, starts the connector automatically?
             getWebServer().addConnector(connector);
             this.connector = connector;
+            this.requestGroupInfo = WebConnectorMetrics.findRequestGroupInfo(connector.getProtocolHandler());
         } catch (Exception e) {
             throw new StartException(e);
         }
     }
 
+    /**
+     * Let the protocol handler of the connector process requests with the given executor rather than a worker pool of
+     * its own.  The executor is used as it is, so changes to the size of a threads subsystem pool apply to the
+     * connector right away.  {@code setExecutor} is not part of the {@code ProtocolHandler} interface, so it is
+     * looked up on the handler.
+     *
+     * @param connector the connector
+     * @param executor the executor
+     * @throws IllegalStateException if the protocol handler cannot use an executor
+     * @throws Exception if setting the executor fails
+     */
+    private void setExecutor(final Connector connector, final Executor executor) throws Exception {
+        final Object protocolHandler = connector.getProtocolHandler();
+        final Method method;
+        try {
+            method = protocolHandler.getClass().getMethod("setExecutor", Executor.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Protocol handler " + protocolHandler.getClass().getName() + " of protocol " + protocol
+                    + " does not support an executor");
+        }
+        method.invoke(protocolHandler, executor);
+    }
+
     /** {@inheritDoc} */
     public synchronized void stop(StopContext context) {
         final Connector connector = this.connector;
         getWebServer().removeConnector(connector);
         this.connector = null;
+        this.requestGroupInfo = null;
     }
 
     /** {@inheritDoc} */
@@ -110,6 +139,25 @@ class WebConnectorService implements Service<Connector> {
         return connector;
     }
 
+    /**
+     * Get the request counters of the protocol handler of the connector.
+     *
+     * @return the counters, or {@code null} if the connector is not started or its protocol handler does not expose them
+     */
+    synchronized RequestGroupInfo getRequestGroupInfo() {
+        return requestGroupInfo;
+    }
+
+    /**
+     * Get the request processing times of the connector.
+     *
+     * @return the latency histogram, or {@code null} if the connector is not started
+     */
+    synchronized RequestLatencyHistogram getRequestLatency() {
+        final Connector connector = this.connector;
+        return connector == null ? null : getWebServer().getRequestLatency(connector);
+    }
+
     protected boolean isEnableLookups() {
         return enableLookups;
     }
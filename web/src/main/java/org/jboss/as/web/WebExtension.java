@@ -56,11 +56,13 @@ public class WebExtension implements Extension {
         final ModelNodeRegistration registration = subsystem.registerSubsystemModel(WebSubsystemProviders.SUBSYSTEM);
         registration.registerOperationHandler(ADD, WebSubsystemAdd.INSTANCE, WebSubsystemProviders.SUBSYSTEM_ADD, false);
         registration.registerOperationHandler(DESCRIBE, WebSubsystemDescribe.INSTANCE, WebSubsystemProviders.SUBSYSTEM_DESCRIBE, false);
+        registration.registerOperationHandler(WebConnectorReadMetrics.OPERATION_NAME, WebConnectorReadMetrics.INSTANCE, WebSubsystemProviders.SUBSYSTEM_READ_METRICS, false);
         subsystem.registerXMLElementWriter(WebSubsystemParser.getInstance());
         // connector
         final ModelNodeRegistration connectors = registration.registerSubModel(connectorPath, WebSubsystemProviders.CONNECTOR);
         connectors.registerOperationHandler(ADD, WebConnectorAdd.INSTANCE, WebSubsystemProviders.CONNECTOR_ADD, false);
         connectors.registerOperationHandler(REMOVE, WebConnectorRemove.INSTANCE, WebSubsystemProviders.CONNECTOR_REMOVE, false);
+        connectors.registerOperationHandler(WebConnectorReadMetrics.OPERATION_NAME, WebConnectorReadMetrics.INSTANCE, WebSubsystemProviders.CONNECTOR_READ_METRICS, false);
         for(final String attributeName : WebConnectorMetrics.ATTRIBUTES) {
             connectors.registerMetric(attributeName, WebConnectorMetrics.INSTANCE);
         }
@@ -68,6 +70,7 @@ public class WebExtension implements Extension {
         final ModelNodeRegistration hosts = registration.registerSubModel(hostPath, WebSubsystemProviders.HOST);
         hosts.registerOperationHandler(ADD, WebVirtualHostAdd.INSTANCE, WebSubsystemProviders.HOST_ADD, false);
         hosts.registerOperationHandler(REMOVE, WebVirtualHostRemove.INSTANCE, WebSubsystemProviders.HOST_REMOVE, false);
+        hosts.registerMetric(WebVirtualHostMetrics.ACCESS_LOG_DROPPED_ENTRIES, WebVirtualHostMetrics.INSTANCE);
     }
 
     /** {@inheritDoc} */
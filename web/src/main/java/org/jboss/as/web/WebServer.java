@@ -45,6 +45,14 @@ public interface WebServer {
      */
     void removeConnector(Connector connector);
 
+    /**
+     * Get the request processing times of a connector.
+     *
+     * @param connector the connector
+     * @return the latency histogram, or {@code null} if the connector was not added
+     */
+    RequestLatencyHistogram getRequestLatency(Connector connector);
+
     /**
      * Add a virtual host.
      *
@@ -53,6 +53,7 @@ class WebServerService implements WebServer, Service<WebServer> {
     private Engine engine;
     private Catalina catalina;
     private StandardService service;
+    private final RequestLatencyValve requestLatencyValve = new RequestLatencyValve();
 
     private final InjectedValue<MBeanServer> mbeanServer = new InjectedValue<MBeanServer>();
     private final InjectedValue<String> pathInjector = new InjectedValue<String>();
@@ -84,6 +85,7 @@ class WebServerService implements WebServer, Service<WebServer> {
         engine.setName(JBOSS_WEB);
         engine.setService(service);
         engine.setDefaultHost(defaultHost);
+        engine.getPipeline().addValve(requestLatencyValve);
 
         service.setContainer(engine);
 
@@ -121,6 +123,7 @@ class WebServerService implements WebServer, Service<WebServer> {
     /** {@inheritDoc} */
     public synchronized void addConnector(Connector connector) {
         final StandardService service = this.service;
+        requestLatencyValve.addConnector(connector);
         service.addConnector(connector);
     }
 
@@ -128,6 +131,12 @@ class WebServerService implements WebServer, Service<WebServer> {
     public synchronized void removeConnector(Connector connector) {
         final StandardService service = this.service;
         service.removeConnector(connector);
+        requestLatencyValve.removeConnector(connector);
+    }
+
+    /** {@inheritDoc} */
+    public RequestLatencyHistogram getRequestLatency(Connector connector) {
+        return requestLatencyValve.getHistogram(connector);
     }
 
     /** {@inheritDoc} */
@@ -35,6 +35,8 @@ import static org.jboss.as.controller.parsing.ParseUtils.unexpectedAttribute;
 import static org.jboss.as.controller.parsing.ParseUtils.unexpectedElement;
 import static org.jboss.as.web.CommonAttributes.ACCESS_LOG;
 import static org.jboss.as.web.CommonAttributes.ALIAS;
+import static org.jboss.as.web.CommonAttributes.ASYNC;
+import static org.jboss.as.web.CommonAttributes.BATCH_SIZE;
 import static org.jboss.as.web.CommonAttributes.CONNECTOR;
 import static org.jboss.as.web.CommonAttributes.CONTAINER_CONFIG;
 import static org.jboss.as.web.CommonAttributes.DEFAULT_HOST;
@@ -42,6 +44,7 @@ import static org.jboss.as.web.CommonAttributes.DISABLED;
 import static org.jboss.as.web.CommonAttributes.ENABLED;
 import static org.jboss.as.web.CommonAttributes.ENABLE_LOOKUPS;
 import static org.jboss.as.web.CommonAttributes.EXECUTOR;
+import static org.jboss.as.web.CommonAttributes.EXTENDED;
 import static org.jboss.as.web.CommonAttributes.FILE_ENCONDING;
 import static org.jboss.as.web.CommonAttributes.JSP_CONFIGURATION;
 import static org.jboss.as.web.CommonAttributes.LISTINGS;
@@ -50,12 +53,20 @@ import static org.jboss.as.web.CommonAttributes.MAX_POST_SIZE;
 import static org.jboss.as.web.CommonAttributes.MAX_SAVE_POST_SIZE;
 import static org.jboss.as.web.CommonAttributes.MIME_MAPPING;
 import static org.jboss.as.web.CommonAttributes.NAME;
+import static org.jboss.as.web.CommonAttributes.OVERFLOW;
+import static org.jboss.as.web.CommonAttributes.PATH;
+import static org.jboss.as.web.CommonAttributes.PATTERN;
+import static org.jboss.as.web.CommonAttributes.PREFIX;
 import static org.jboss.as.web.CommonAttributes.PROTOCOL;
 import static org.jboss.as.web.CommonAttributes.PROXY_NAME;
 import static org.jboss.as.web.CommonAttributes.PROXY_PORT;
+import static org.jboss.as.web.CommonAttributes.QUEUE_SIZE;
 import static org.jboss.as.web.CommonAttributes.READ_ONLY;
 import static org.jboss.as.web.CommonAttributes.REDIRECT_PORT;
+import static org.jboss.as.web.CommonAttributes.RELATIVE_TO;
+import static org.jboss.as.web.CommonAttributes.RESOLVE_HOSTS;
 import static org.jboss.as.web.CommonAttributes.REWRITE;
+import static org.jboss.as.web.CommonAttributes.ROTATE;
 import static org.jboss.as.web.CommonAttributes.SCHEME;
 import static org.jboss.as.web.CommonAttributes.SECRET;
 import static org.jboss.as.web.CommonAttributes.SECURE;
@@ -137,6 +148,9 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
                         writer.writeAttribute(NAME, alias.asString());
                     }
                 }
+                if(config.hasDefined(ACCESS_LOG)) {
+                    writeAccessLog(writer, config.get(ACCESS_LOG));
+                }
                 // TODO other config elements
                 writer.writeEndElement();
             }
@@ -186,6 +200,25 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
         writer.writeEndElement();
     }
 
+    private void writeAccessLog(XMLExtendedStreamWriter writer, ModelNode log) throws XMLStreamException {
+        writer.writeStartElement(Element.ACCESS_LOG.getLocalName());
+        writeAttribute(writer, Attribute.PATTERN.getLocalName(), log);
+        writeAttribute(writer, Attribute.RESOLVE_HOSTS.getLocalName(), log);
+        writeAttribute(writer, Attribute.EXTENDED.getLocalName(), log);
+        writeAttribute(writer, Attribute.PREFIX.getLocalName(), log);
+        writeAttribute(writer, Attribute.ROTATE.getLocalName(), log);
+        writeAttribute(writer, Attribute.ASYNC.getLocalName(), log);
+        writeAttribute(writer, Attribute.QUEUE_SIZE.getLocalName(), log);
+        writeAttribute(writer, Attribute.BATCH_SIZE.getLocalName(), log);
+        writeAttribute(writer, Attribute.OVERFLOW.getLocalName(), log);
+        if(log.hasDefined(PATH) || log.hasDefined(RELATIVE_TO)) {
+            writer.writeEmptyElement(Element.DIRECTORY.getLocalName());
+            writeAttribute(writer, Attribute.PATH.getLocalName(), log);
+            writeAttribute(writer, Attribute.RELATIVE_TO.getLocalName(), log);
+        }
+        writer.writeEndElement();
+    }
+
     private void writeJSPConfiguration(XMLExtendedStreamWriter writer, ModelNode jsp) throws XMLStreamException {
         writer.writeStartElement(Element.JSP_CONFIGURATION.getLocalName());
 
@@ -430,9 +463,83 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
 
     static ModelNode parseHostAccessLog(XMLExtendedStreamReader reader)  throws XMLStreamException {
         final ModelNode log = new ModelNode();
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+            switch (attribute) {
+            case PATTERN:
+                log.get(PATTERN).set(value);
+                break;
+            case RESOLVE_HOSTS:
+                log.get(RESOLVE_HOSTS).set(value);
+                break;
+            case EXTENDED:
+                log.get(EXTENDED).set(value);
+                break;
+            case PREFIX:
+                log.get(PREFIX).set(value);
+                break;
+            case ROTATE:
+                log.get(ROTATE).set(value);
+                break;
+            case ASYNC:
+                log.get(ASYNC).set(value);
+                break;
+            case QUEUE_SIZE:
+                log.get(QUEUE_SIZE).set(value);
+                break;
+            case BATCH_SIZE:
+                log.get(BATCH_SIZE).set(value);
+                break;
+            case OVERFLOW:
+                log.get(OVERFLOW).set(value);
+                break;
+            default:
+                unexpectedAttribute(reader, i);
+            }
+        }
+        while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
+            switch (Namespace.forUri(reader.getNamespaceURI())) {
+            case WEB_1_0: {
+                final Element element = Element.forName(reader.getLocalName());
+                switch (element) {
+                case DIRECTORY:
+                    parseDirectory(reader, log);
+                    break;
+                default:
+                    throw unexpectedElement(reader);
+                }
+                break;
+            }
+            default:
+                throw unexpectedElement(reader);
+            }
+        }
         return log;
     }
 
+    static void parseDirectory(XMLExtendedStreamReader reader, ModelNode node) throws XMLStreamException {
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+            switch (attribute) {
+            case PATH:
+                node.get(PATH).set(value);
+                break;
+            case RELATIVE_TO:
+                node.get(RELATIVE_TO).set(value);
+                break;
+            default:
+                unexpectedAttribute(reader, i);
+            }
+        }
+        requireNoContent(reader);
+    }
+
     static void parseConnector(XMLExtendedStreamReader reader, ModelNode address, List<ModelNode> list) throws XMLStreamException {
         String name = null;
         String protocol = null;
@@ -22,11 +22,19 @@
 
 package org.jboss.as.web;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLY_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUIRED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+
 import java.util.Locale;
 import java.util.ResourceBundle;
 
 import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * The web subsystem description providers.
@@ -100,6 +108,36 @@ class WebSubsystemProviders {
             return subsystem;
         }
     };
+    static final DescriptionProvider CONNECTOR_READ_METRICS = new DescriptionProvider() {
+
+        public ModelNode getModelDescription(Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+
+            final ModelNode operation = new ModelNode();
+            operation.get(OPERATION_NAME).set(WebConnectorReadMetrics.OPERATION_NAME);
+            operation.get(DESCRIPTION).set(bundle.getString("web.connector.read-metrics"));
+            operation.get(REQUEST_PROPERTIES, WebConnectorReadMetrics.RESET, TYPE).set(ModelType.BOOLEAN);
+            operation.get(REQUEST_PROPERTIES, WebConnectorReadMetrics.RESET, DESCRIPTION).set(bundle.getString("web.connector.read-metrics.reset"));
+            operation.get(REQUEST_PROPERTIES, WebConnectorReadMetrics.RESET, REQUIRED).set(false);
+            operation.get(REPLY_PROPERTIES, TYPE).set(ModelType.OBJECT);
+            return operation;
+        }
+    };
+    static final DescriptionProvider SUBSYSTEM_READ_METRICS = new DescriptionProvider() {
+
+        public ModelNode getModelDescription(Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+
+            final ModelNode operation = new ModelNode();
+            operation.get(OPERATION_NAME).set(WebConnectorReadMetrics.OPERATION_NAME);
+            operation.get(DESCRIPTION).set(bundle.getString("web.read-metrics"));
+            operation.get(REQUEST_PROPERTIES, WebConnectorReadMetrics.RESET, TYPE).set(ModelType.BOOLEAN);
+            operation.get(REQUEST_PROPERTIES, WebConnectorReadMetrics.RESET, DESCRIPTION).set(bundle.getString("web.read-metrics.reset"));
+            operation.get(REQUEST_PROPERTIES, WebConnectorReadMetrics.RESET, REQUIRED).set(false);
+            operation.get(REPLY_PROPERTIES, TYPE).set(ModelType.OBJECT);
+            return operation;
+        }
+    };
     static final DescriptionProvider HOST = new DescriptionProvider() {
 
         public ModelNode getModelDescription(Locale locale) {
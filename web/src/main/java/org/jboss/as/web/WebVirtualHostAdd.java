@@ -80,7 +80,7 @@ public class WebVirtualHostAdd implements ModelAddOperationHandler, RuntimeOpera
                 final ModelNode accessLog = operation.get(CommonAttributes.ACCESS_LOG);
                 service.setAccessLog(accessLog.clone());
                 // Create the access log service
-                accessLogService(name, accessLog, serviceTarget);
+                accessLogService(name, operation, serviceTarget);
                 serviceBuilder.addDependency(WebSubsystemServices.JBOSS_WEB_HOST.append(name, CommonAttributes.ACCESS_LOG), String.class, service.getAccessLogPathInjector());
             }
             if(operation.has(CommonAttributes.REWRITE)) {
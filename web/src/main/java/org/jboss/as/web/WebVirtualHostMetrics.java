@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011, Red Hat Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.jboss.as.controller.Cancellable;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.server.RuntimeOperationContext;
+import org.jboss.as.server.RuntimeOperationHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Handler for the runtime metrics of a virtual host.
+ */
+class WebVirtualHostMetrics implements ModelQueryOperationHandler, RuntimeOperationHandler {
+
+    static final WebVirtualHostMetrics INSTANCE = new WebVirtualHostMetrics();
+
+    /** The number of entries an asynchronous access log dropped because its queue was full. */
+    static final String ACCESS_LOG_DROPPED_ENTRIES = "access-log-dropped-entries";
+
+    private WebVirtualHostMetrics() {
+        //
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Cancellable execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
+        if(context instanceof RuntimeOperationContext) {
+            final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
+            final String name = address.getLastElement().getValue();
+            final String attributeName = operation.require(NAME).asString();
+
+            final ServiceController<?> controller = ((RuntimeOperationContext) context).getServiceRegistry().getService(WebSubsystemServices.JBOSS_WEB_HOST.append(name));
+            if(controller != null && controller.getState() == ServiceController.State.UP) {
+                if(! ACCESS_LOG_DROPPED_ENTRIES.equals(attributeName)) {
+                    resultHandler.handleFailed(new ModelNode().set("Unknown metric " + attributeName));
+                    return Cancellable.NULL;
+                }
+                final WebVirtualHostService service = (WebVirtualHostService) controller.getService();
+                resultHandler.handleResultFragment(WebConnectorMetrics.NO_LOCATION, new ModelNode().set(service.getDroppedAccessLogEntries()));
+                resultHandler.handleResultComplete(null);
+                return Cancellable.NULL;
+            }
+        }
+        resultHandler.handleResultFragment(WebConnectorMetrics.NO_LOCATION, new ModelNode().set("no metrics available"));
+        resultHandler.handleResultComplete(null);
+        return Cancellable.NULL;
+    }
+
+}
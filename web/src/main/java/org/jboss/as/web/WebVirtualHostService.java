@@ -51,6 +51,7 @@ class WebVirtualHostService implements Service<Host> {
     private final InjectedValue<WebServer> webServer = new InjectedValue<WebServer>();
 
     private Host host;
+    private AsyncAccessLogValve asyncAccessLog;
 
     public WebVirtualHostService(String name, String[] aliases) {
         this.name = name;
@@ -65,8 +66,13 @@ class WebVirtualHostService implements Service<Host> {
         for(final String alias : aliases) {
             host.addAlias(alias);
         }
+        AsyncAccessLogValve asyncAccessLog = null;
         if(accessLog != null) {
-            host.addValve(createAccessLogValve(accessLogPathInjector.getValue(), accessLog));
+            final Valve valve = createAccessLogValve(accessLogPathInjector.getValue(), accessLog);
+            if(valve instanceof AsyncAccessLogValve) {
+                asyncAccessLog = (AsyncAccessLogValve) valve;
+            }
+            host.addValve(valve);
         }
         if(rewrite != null) {
             host.addValve(createRewriteValve(rewrite));
@@ -78,12 +84,14 @@ class WebVirtualHostService implements Service<Host> {
             throw new StartException(e);
         }
         this.host = host;
+        this.asyncAccessLog = asyncAccessLog;
     }
 
     /** {@inheritDoc} */
     public synchronized void stop(StopContext context) {
         final Host host = this.host;
         this.host = null;
+        this.asyncAccessLog = null;
         final WebServer server = webServer.getValue();
         server.removeHost(host);
     }
@@ -97,6 +105,15 @@ class WebVirtualHostService implements Service<Host> {
         return host;
     }
 
+    /**
+     * Get the number of entries the access log of the host dropped because its queue was full.
+     *
+     * @return the number of dropped entries, {@code 0} if the access log is not asynchronous
+     */
+    synchronized long getDroppedAccessLogEntries() {
+        return asyncAccessLog == null ? 0 : asyncAccessLog.getDroppedEntries();
+    }
+
     void setAccessLog(final ModelNode accessLog) {
         this.accessLog = accessLog;
     }
@@ -118,12 +135,20 @@ class WebVirtualHostService implements Service<Host> {
     }
 
     static Valve createAccessLogValve(final String logDirectory, final ModelNode element) {
-        final AccessLogValve log = new AccessLogValve();
+        final AccessLogValve log;
+        if(element.hasDefined(CommonAttributes.ASYNC) && element.get(CommonAttributes.ASYNC).asBoolean()) {
+            final int queueSize = element.hasDefined(CommonAttributes.QUEUE_SIZE) ? element.get(CommonAttributes.QUEUE_SIZE).asInt() : AsyncAccessLogValve.DEFAULT_QUEUE_SIZE;
+            final int batchSize = element.hasDefined(CommonAttributes.BATCH_SIZE) ? element.get(CommonAttributes.BATCH_SIZE).asInt() : AsyncAccessLogValve.DEFAULT_BATCH_SIZE;
+            final AsyncAccessLogValve.Overflow overflow = element.hasDefined(CommonAttributes.OVERFLOW) ? AsyncAccessLogValve.Overflow.forName(element.get(CommonAttributes.OVERFLOW).asString()) : AsyncAccessLogValve.Overflow.BLOCK;
+            log = new AsyncAccessLogValve(queueSize, batchSize, overflow);
+        } else {
+            log = new AccessLogValve();
+        }
         log.setDirectory(logDirectory);
-        log.setResolveHosts(element.get(CommonAttributes.RESOLVE_HOSTS).asBoolean());
-        log.setRotatable(element.get(CommonAttributes.ROTATE).asBoolean());
-        log.setPattern(element.get(CommonAttributes.PATTERN).asString());
-        log.setPrefix(element.get(CommonAttributes.PREFIX).asString());
+        log.setResolveHosts(element.hasDefined(CommonAttributes.RESOLVE_HOSTS) ? element.get(CommonAttributes.RESOLVE_HOSTS).asBoolean() : false);
+        log.setRotatable(element.hasDefined(CommonAttributes.ROTATE) ? element.get(CommonAttributes.ROTATE).asBoolean() : true);
+        log.setPattern(element.hasDefined(CommonAttributes.PATTERN) ? element.get(CommonAttributes.PATTERN).asString() : "common");
+        log.setPrefix(element.hasDefined(CommonAttributes.PREFIX) ? element.get(CommonAttributes.PREFIX).asString() : "access_log.");
         // TODO extended?
         return log;
     }
@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2010, Red Hat Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web.deployment;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.metadata.parser.util.NoopXmlResolver;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * Cache of the metadata parsed from descriptors in library jars, e.g. TLDs and {@code web-fragment.xml} files, for
+ * the lifetime of the web subsystem.  Metadata is cached under the hash of the content of its descriptor, so the
+ * descriptors of a jar which has not changed since a previous deployment, of this or another web application, are
+ * not parsed again.  Hashing a descriptor is much cheaper than parsing it, and much cheaper than hashing the whole jar.
+ * <p/>
+ * The cached metadata is softly referenced, and at most {@value #MAX_ENTRIES} descriptors are cached.
+ *
+ * @param <T> the metadata type
+ */
+final class ParsedMetaDataCache<T> {
+
+    private static final int MAX_ENTRIES = 4096;
+
+    /**
+     * Parser creating the metadata of a descriptor.
+     *
+     * @param <T> the metadata type
+     */
+    interface Parser<T> {
+        T parse(XMLStreamReader reader) throws Exception;
+    }
+
+    private final Parser<T> parser;
+    private final Map<String, Reference<T>> entries = Collections.synchronizedMap(new LinkedHashMap<String, Reference<T>>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        protected boolean removeEldestEntry(final Map.Entry<String, Reference<T>> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    });
+
+    ParsedMetaDataCache(final Parser<T> parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Get the metadata of a descriptor, parsing it only if a descriptor with the same content has not been parsed yet.
+     * The returned metadata may be shared with other deployments, and must not be modified.
+     *
+     * @param descriptor the descriptor
+     * @return the metadata
+     * @throws DeploymentUnitProcessingException if the descriptor cannot be read or parsed
+     */
+    T get(final VirtualFile descriptor) throws DeploymentUnitProcessingException {
+        final byte[] content;
+        try {
+            content = read(descriptor);
+        } catch (IOException e) {
+            throw new DeploymentUnitProcessingException("Failed to read " + descriptor, e);
+        }
+        final String key = HashUtil.bytesToHexString(sha1(content));
+        final Reference<T> reference = entries.get(key);
+        T metaData = reference == null ? null : reference.get();
+        if (metaData == null) {
+            try {
+                final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+                inputFactory.setXMLResolver(NoopXmlResolver.create());
+                metaData = parser.parse(inputFactory.createXMLStreamReader(new ByteArrayInputStream(content)));
+            } catch (Exception e) {
+                throw new DeploymentUnitProcessingException("Failed to parse " + descriptor, e);
+            }
+            entries.put(key, new SoftReference<T>(metaData));
+        }
+        return metaData;
+    }
+
+    private static byte[] read(final VirtualFile file) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.max(file.getSize(), 1024L));
+        final InputStream in = file.openStream();
+        try {
+            VFSUtils.copyStream(in, out);
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] sha1(final byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
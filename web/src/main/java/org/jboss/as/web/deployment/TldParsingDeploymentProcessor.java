@@ -21,13 +21,10 @@
  */
 package org.jboss.as.web.deployment;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 
 import org.jboss.as.ee.structure.DeploymentType;
@@ -39,7 +36,6 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.metadata.parser.jsp.TldMetaDataParser;
-import org.jboss.metadata.parser.util.NoopXmlResolver;
 import org.jboss.metadata.web.spec.TldMetaData;
 import org.jboss.vfs.VirtualFile;
 
@@ -55,6 +51,13 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
     private static final String LIB = "lib";
     private static final String IMPLICIT_TLD = "implicit.tld";
 
+    private final ParsedMetaDataCache<TldMetaData> tldCache = new ParsedMetaDataCache<TldMetaData>(
+            new ParsedMetaDataCache.Parser<TldMetaData>() {
+                public TldMetaData parse(XMLStreamReader reader) throws Exception {
+                    return TldMetaDataParser.parse(reader);
+                }
+            });
+
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
         if (!DeploymentTypeMarker.isType(DeploymentType.WAR, deploymentUnit)) {
@@ -112,24 +115,7 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
             // Implicit TLDs are different from regular TLDs
             return new TldMetaData();
         }
-        InputStream is = null;
-        try {
-            is = tld.openStream();
-            final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-            inputFactory.setXMLResolver(NoopXmlResolver.create());
-            XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(is);
-            return TldMetaDataParser.parse(xmlReader);
-        } catch (Exception e) {
-            throw new DeploymentUnitProcessingException("Failed to parse " + tld, e);
-        } finally {
-            try {
-                if (is != null) {
-                    is.close();
-                }
-            } catch (IOException e) {
-                // Ignore
-            }
-        }
+        return tldCache.get(tld);
     }
 
 }
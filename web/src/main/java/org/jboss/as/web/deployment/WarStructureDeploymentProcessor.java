@@ -25,7 +25,10 @@ package org.jboss.as.web.deployment;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 import org.jboss.as.ee.structure.DeploymentType;
 import org.jboss.as.ee.structure.DeploymentTypeMarker;
@@ -34,6 +37,7 @@ import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.as.server.deployment.ParallelTasks;
 import org.jboss.as.server.deployment.PrivateSubDeploymentMarker;
 import org.jboss.as.server.deployment.module.IgnoreMetaInfMarker;
 import org.jboss.as.server.deployment.module.ModuleRootMarker;
@@ -44,6 +48,7 @@ import org.jboss.as.server.deployment.module.TempFileProviderService;
 import org.jboss.metadata.web.spec.TldMetaData;
 import org.jboss.metadata.web.spec.WebMetaData;
 import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
 import org.jboss.vfs.VirtualFileFilter;
 import org.jboss.vfs.VisitorAttributes;
@@ -108,7 +113,8 @@ public class WarStructureDeploymentProcessor implements DeploymentUnitProcessor
         try {
 
             // add standard resource roots, this should eventually replace ClassPathEntry
-            final List<ResourceRoot> resourceRoots = createResourceRoots(deploymentRoot, mountHandle);
+            final List<ResourceRoot> resourceRoots = createResourceRoots(deploymentRoot, mountHandle,
+                    phaseContext.getAttachment(Attachments.PROCESSOR_EXECUTOR));
             for (ResourceRoot root : resourceRoots) {
                 deploymentUnit.addToAttachmentList(Attachments.RESOURCE_ROOTS, root);
             }
@@ -134,10 +140,11 @@ public class WarStructureDeploymentProcessor implements DeploymentUnitProcessor
      *
      * @param deploymentRoot the deployment root
      * @param mountHandle the root mount handle
+     * @param executor the executor to mount the WEB-INF/lib archives on, or {@code null} to mount them in the calling thread
      * @return the resource roots
      * @throws IOException for any error
      */
-    private List<ResourceRoot> createResourceRoots(final VirtualFile deploymentRoot, MountHandle mountHandle)
+    private List<ResourceRoot> createResourceRoots(final VirtualFile deploymentRoot, MountHandle mountHandle, final Executor executor)
             throws IOException,
             DeploymentUnitProcessingException {
         final List<ResourceRoot> entries = new ArrayList<ResourceRoot>();
@@ -148,31 +155,51 @@ public class WarStructureDeploymentProcessor implements DeploymentUnitProcessor
         ModuleRootMarker.mark(webInfClassesRoot);
         entries.add(webInfClassesRoot);
         // WEB-INF lib
-        createWebInfLibResources(deploymentRoot, entries);
+        createWebInfLibResources(deploymentRoot, entries, executor);
         return entries;
     }
 
     /**
-     * Create the ResourceRoots for .jars in the WEB-INF/lib folder.
+     * Create the ResourceRoots for .jars in the WEB-INF/lib folder.  The archives are mounted concurrently, and their
+     * resource roots are added in the order of the archives, so the class path does not depend on which mount
+     * completes first.  If an archive cannot be mounted, the archives which have been mounted are closed again.
      *
      * @param deploymentRoot the deployment root
+     * @param executor the executor to mount the archives on, or {@code null} to mount them in the calling thread
      * @throws IOException for any error
      */
-    void createWebInfLibResources(final VirtualFile deploymentRoot, List<ResourceRoot> entries) throws IOException,
+    void createWebInfLibResources(final VirtualFile deploymentRoot, List<ResourceRoot> entries, final Executor executor) throws IOException,
             DeploymentUnitProcessingException {
         final VirtualFile webinfLib = deploymentRoot.getChild(WEB_INF_LIB);
         if(webinfLib.exists()) {
             final List<VirtualFile> archives = webinfLib.getChildren(DEFAULT_WEB_INF_LIB_FILTER);
-            for(final VirtualFile archive : archives) {
-                try {
-                    final Closeable closable = VFS.mountZip(archive, archive, TempFileProviderService.provider());
-                    final ResourceRoot webInfArchiveRoot = new ResourceRoot(archive.getName(), archive, new MountHandle(closable));
-                    ModuleRootMarker.mark(webInfArchiveRoot);
-                    entries.add(webInfArchiveRoot);
-                } catch (IOException e) {
-                    throw new DeploymentUnitProcessingException("failed to process " + archive, e);
+            final ResourceRoot[] roots = new ResourceRoot[archives.size()];
+            final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(archives.size());
+            for(int i = 0; i < roots.length; i++) {
+                final int index = i;
+                final VirtualFile archive = archives.get(i);
+                tasks.add(new Callable<Void>() {
+                    public Void call() throws IOException {
+                        final Closeable closable = VFS.mountZip(archive, archive, TempFileProviderService.provider());
+                        final ResourceRoot webInfArchiveRoot = new ResourceRoot(archive.getName(), archive, new MountHandle(closable));
+                        ModuleRootMarker.mark(webInfArchiveRoot);
+                        roots[index] = webInfArchiveRoot;
+                        return null;
+                    }
+                });
+            }
+            final Throwable[] failures = ParallelTasks.invokeAll(executor, tasks);
+            for(int i = 0; i < failures.length; i++) {
+                if(failures[i] != null) {
+                    for(final ResourceRoot root : roots) {
+                        if(root != null) {
+                            VFSUtils.safeClose(root.getMountHandle());
+                        }
+                    }
+                    throw new DeploymentUnitProcessingException("failed to process " + archives.get(i), failures[i]);
                 }
             }
+            entries.addAll(Arrays.asList(roots));
         }
     }
 }
@@ -21,13 +21,16 @@
  */
 package org.jboss.as.web.deployment;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 
 import org.jboss.as.ee.structure.DeploymentType;
@@ -39,7 +42,6 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.metadata.parser.servlet.WebFragmentMetaDataParser;
-import org.jboss.metadata.parser.util.NoopXmlResolver;
 import org.jboss.metadata.web.spec.WebFragmentMetaData;
 import org.jboss.vfs.VirtualFile;
 
@@ -50,6 +52,13 @@ public class WebFragmentParsingDeploymentProcessor implements DeploymentUnitProc
 
     private static final String WEB_FRAGMENT_XML = "META-INF/web-fragment.xml";
 
+    private final ParsedMetaDataCache<WebFragmentMetaData> fragmentCache = new ParsedMetaDataCache<WebFragmentMetaData>(
+            new ParsedMetaDataCache.Parser<WebFragmentMetaData>() {
+                public WebFragmentMetaData parse(XMLStreamReader reader) throws Exception {
+                    return WebFragmentMetaDataParser.parse(reader);
+                }
+            });
+
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
         if (!DeploymentTypeMarker.isType(DeploymentType.WAR, deploymentUnit)) {
@@ -68,24 +77,8 @@ public class WebFragmentParsingDeploymentProcessor implements DeploymentUnitProc
             if (resourceRoot.getRoot().getLowerCaseName().endsWith(".jar")) {
                 VirtualFile webFragment = resourceRoot.getRoot().getChild(WEB_FRAGMENT_XML);
                 if (webFragment.exists() && webFragment.isFile()) {
-                    InputStream is = null;
-                    try {
-                        is = webFragment.openStream();
-                        final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-                        inputFactory.setXMLResolver(NoopXmlResolver.create());
-                        XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(is);
-                        webFragments.put(resourceRoot.getRootName(), WebFragmentMetaDataParser.parse(xmlReader));
-                    } catch (Exception e) {
-                        throw new DeploymentUnitProcessingException("Failed to parse " + webFragment, e);
-                    } finally {
-                        try {
-                            if (is != null) {
-                                is.close();
-                            }
-                        } catch (IOException e) {
-                            // Ignore
-                        }
-                    }
+                    // the fragment is augmented with the annotations of the jar, so the cached metadata is copied
+                    webFragments.put(resourceRoot.getRootName(), copy(fragmentCache.get(webFragment), webFragment));
                 }
             }
         }
@@ -93,4 +86,22 @@ public class WebFragmentParsingDeploymentProcessor implements DeploymentUnitProc
 
     public void undeploy(final DeploymentUnit context) {
     }
+
+    static WebFragmentMetaData copy(final WebFragmentMetaData metaData, final VirtualFile webFragment)
+    throws DeploymentUnitProcessingException {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(metaData);
+            out.close();
+            final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())) {
+                protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                    return Class.forName(desc.getName(), false, WebFragmentMetaData.class.getClassLoader());
+                }
+            };
+            return (WebFragmentMetaData) in.readObject();
+        } catch (Exception e) {
+            throw new DeploymentUnitProcessingException("Failed to copy the metadata of " + webFragment, e);
+        }
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.catalina.valves.AccessLogValve;
+
+/**
+ * Compares the throughput of the synchronous access log valve with the async one, with request threads handing
+ * formatted entries to the valve. The async valve is measured both until the request threads are done and until
+ * every entry has been written. This is not run as part of the unit tests; run it directly with
+ * {@code [request threads] [entries per thread] [queue size] [batch size]} as arguments.
+ */
+public class AccessLogValveBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final String ENTRY = "127.0.0.1 - - [18/Oct/2011:10:00:00 +0200] \"GET /index.html HTTP/1.1\" 200 1024";
+
+    public static void main(final String[] args) throws Exception {
+        final int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 4;
+        final int entries = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+        final int queueSize = args.length > 2 ? Integer.parseInt(args[2]) : AsyncAccessLogValve.DEFAULT_QUEUE_SIZE;
+        final int batchSize = args.length > 3 ? Integer.parseInt(args[3]) : AsyncAccessLogValve.DEFAULT_BATCH_SIZE;
+
+        final File directory = new File(System.getProperty("java.io.tmpdir"), "access-log-benchmark");
+        directory.mkdirs();
+        for (int round = 0; round < ROUNDS; round++) {
+            System.out.printf("Round %d: %d request threads, %d entries per thread%n", Integer.valueOf(round + 1),
+                    Integer.valueOf(threads), Integer.valueOf(entries));
+            run("sync", new AccessLogValve(), directory, threads, entries);
+            run("async, block on overflow", new AsyncAccessLogValve(queueSize, batchSize, AsyncAccessLogValve.Overflow.BLOCK),
+                    directory, threads, entries);
+            final AsyncAccessLogValve dropping = new AsyncAccessLogValve(queueSize, batchSize, AsyncAccessLogValve.Overflow.DROP);
+            run("async, drop on overflow", dropping, directory, threads, entries);
+            System.out.printf("  %-26s %,12d entries dropped%n", "", Long.valueOf(dropping.getDroppedEntries()));
+        }
+    }
+
+    private static void run(final String name, final AccessLogValve valve, final File directory, final int threads,
+            final int entries) throws Exception {
+        valve.setDirectory(directory.getAbsolutePath());
+        valve.setPrefix(name.replace(' ', '_').replace(',', '_') + ".");
+        valve.start();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < entries; j++) {
+                        valve.log(ENTRY);
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        final long startTime = System.nanoTime();
+        start.countDown();
+        done.await();
+        final long logged = System.nanoTime() - startTime;
+        valve.stop();
+        final long written = System.nanoTime() - startTime;
+        final long total = (long) threads * entries;
+        System.out.printf("  %-26s %,12d entries/s logged by request threads, %,12d entries/s written%n", name,
+                Long.valueOf(total * TimeUnit.SECONDS.toNanos(1L) / logged), Long.valueOf(total * TimeUnit.SECONDS.toNanos(1L) / written));
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link AsyncAccessLogValve}.
+ */
+public class AsyncAccessLogValveTestCase {
+
+    private File directory;
+
+    @Before
+    public void setup() throws Exception {
+        directory = File.createTempFile("access-log", null);
+        directory.delete();
+        directory.mkdir();
+    }
+
+    @After
+    public void cleanup() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testEntriesWrittenInOrder() throws Exception {
+        final AsyncAccessLogValve valve = start(new AsyncAccessLogValve(16, 4, AsyncAccessLogValve.Overflow.BLOCK));
+        final List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            final String entry = "entry " + i;
+            valve.log(entry);
+            expected.add(entry);
+        }
+        valve.stop();
+        assertEquals(expected, readLog());
+        assertEquals(0, valve.getDroppedEntries());
+    }
+
+    @Test
+    public void testDroppedEntriesCounted() throws Exception {
+        final StalledValve valve = start(new StalledValve(2, AsyncAccessLogValve.Overflow.DROP));
+        valve.log("first");
+        assertTrue(valve.stalled.await(5, TimeUnit.SECONDS));
+        valve.log("queued 1");
+        valve.log("queued 2");
+        valve.log("dropped 1");
+        valve.log("dropped 2");
+        assertEquals(2, valve.getDroppedEntries());
+
+        valve.release.countDown();
+        valve.stop();
+        assertEquals(Arrays.asList("first", "queued 1", "queued 2"), readLog());
+    }
+
+    @Test
+    public void testStopFlushesQueuedEntries() throws Exception {
+        final StalledValve valve = start(new StalledValve(4, AsyncAccessLogValve.Overflow.BLOCK));
+        valve.log("first");
+        assertTrue(valve.stalled.await(5, TimeUnit.SECONDS));
+        valve.log("queued 1");
+        valve.log("queued 2");
+
+        final Thread stopping = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    valve.stop();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        stopping.start();
+        valve.release.countDown();
+        stopping.join(5000);
+        assertEquals(Arrays.asList("first", "queued 1", "queued 2"), readLog());
+    }
+
+    @Test
+    public void testBlockedEntryWrittenWhenStopping() throws Exception {
+        final StalledValve valve = start(new StalledValve(1, AsyncAccessLogValve.Overflow.BLOCK));
+        valve.log("first");
+        assertTrue(valve.stalled.await(5, TimeUnit.SECONDS));
+        valve.log("queued");
+
+        // blocks until the writer makes room in the queue
+        final Thread blocked = new Thread(new Runnable() {
+            public void run() {
+                valve.log("blocked");
+            }
+        });
+        blocked.start();
+        while (blocked.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        final Thread stopping = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    valve.stop();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        stopping.start();
+        valve.release.countDown();
+        blocked.join(5000);
+        stopping.join(5000);
+        assertEquals(Arrays.asList("first", "queued", "blocked"), readLog());
+    }
+
+    private <T extends AsyncAccessLogValve> T start(final T valve) throws Exception {
+        valve.setDirectory(directory.getAbsolutePath());
+        valve.setPrefix("test.");
+        valve.start();
+        return valve;
+    }
+
+    private List<String> readLog() throws IOException {
+        final List<String> lines = new ArrayList<String>();
+        for (File file : directory.listFiles()) {
+            final BufferedReader reader = new BufferedReader(new FileReader(file));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(line);
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * A valve whose writer stalls after writing its first batch, until released.
+     */
+    private static class StalledValve extends AsyncAccessLogValve {
+        private final CountDownLatch stalled = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        StalledValve(final int queueSize, final Overflow overflow) {
+            super(queueSize, 1, overflow);
+        }
+
+        @Override
+        public void backgroundProcess() {
+            stalled.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.backgroundProcess();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link RequestLatencyHistogram}.
+ */
+public class RequestLatencyHistogramTestCase {
+
+    @Test
+    public void testBucketsCoverEveryTime() {
+        int previous = 0;
+        for (long micros = 0; micros < 1000000; micros++) {
+            final int bucket = RequestLatencyHistogram.bucket(micros);
+            // buckets are contiguous, so each time falls into the bucket after the one of the previous time or the same
+            assertTrue("bucket of " + micros, bucket == previous || bucket == previous + 1);
+            assertTrue("upper bound of " + micros, micros <= RequestLatencyHistogram.upperBound(bucket));
+            if (bucket > 0) {
+                assertTrue("lower bound of " + micros, micros > RequestLatencyHistogram.upperBound(bucket - 1));
+            }
+            // a bucket is at most a quarter of its times wide
+            assertTrue("width of bucket of " + micros, RequestLatencyHistogram.upperBound(bucket) - micros <= micros / 4);
+            previous = bucket;
+        }
+    }
+
+    @Test
+    public void testOutOfRangeTimes() {
+        assertEquals(0, RequestLatencyHistogram.bucket(-5));
+        final int last = RequestLatencyHistogram.bucket(Long.MAX_VALUE);
+        assertEquals(last, RequestLatencyHistogram.bucket(1L << 41));
+        assertTrue(RequestLatencyHistogram.upperBound(last) >= (1L << 40) - 1);
+    }
+
+    @Test
+    public void testPercentiles() {
+        final RequestLatencyHistogram histogram = new RequestLatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        for (int micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1, histogram.getPercentile(0));
+        assertBetween(500, histogram.getPercentile(50));
+        assertBetween(900, histogram.getPercentile(90));
+        assertBetween(990, histogram.getPercentile(99));
+        assertBetween(1000, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testSnapshot() {
+        final RequestLatencyHistogram histogram = new RequestLatencyHistogram();
+        for (int i = 0; i < 10; i++) {
+            histogram.record(100000L);
+        }
+        final RequestLatencyHistogram copy = histogram.snapshot(false);
+        assertEquals(10, copy.getCount());
+        assertEquals(10, histogram.getCount());
+
+        final RequestLatencyHistogram drained = histogram.snapshot(true);
+        assertEquals(10, drained.getCount());
+        assertBetween(100, drained.getPercentile(50));
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+
+        // only the requests since the reset are covered
+        histogram.record(5000000L);
+        assertEquals(1, histogram.getCount());
+        assertBetween(5000, histogram.getPercentile(50));
+    }
+
+    /**
+     * Assert a percentile is reported as at least the exact time, and at most a quarter more.
+     */
+    private static void assertBetween(final long expected, final long actual) {
+        assertTrue("expected " + expected + " but was " + actual, actual >= expected && actual <= expected + expected / 4);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import javax.xml.stream.XMLStreamReader;
+
+import org.jboss.metadata.parser.jsp.TldMetaDataParser;
+import org.jboss.metadata.parser.servlet.WebFragmentMetaDataParser;
+import org.jboss.metadata.web.spec.TldMetaData;
+import org.jboss.metadata.web.spec.WebFragmentMetaData;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ParsedMetaDataCache}.
+ */
+public class ParsedMetaDataCacheTestCase {
+
+    private File directory;
+    private int parsed;
+
+    @Before
+    public void setup() throws Exception {
+        directory = File.createTempFile("descriptors", null);
+        directory.delete();
+        directory.mkdir();
+    }
+
+    @After
+    public void cleanup() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testTldHitIsShared() throws Exception {
+        final ParsedMetaDataCache<TldMetaData> cache = createTldCache();
+        final VirtualFile first = write("first.tld", tld("test"));
+        final VirtualFile second = write("second.tld", tld("test"));
+
+        final TldMetaData metaData = cache.get(first);
+        assertEquals("test", metaData.getShortName());
+        assertSame(metaData, cache.get(first));
+        // another descriptor with the same content, e.g. in a copy of the jar in another deployment
+        assertSame(metaData, cache.get(second));
+        assertEquals(1, parsed);
+    }
+
+    @Test
+    public void testWebFragmentHitIsCopied() throws Exception {
+        final ParsedMetaDataCache<WebFragmentMetaData> cache = new ParsedMetaDataCache<WebFragmentMetaData>(
+                new ParsedMetaDataCache.Parser<WebFragmentMetaData>() {
+                    public WebFragmentMetaData parse(XMLStreamReader reader) throws Exception {
+                        parsed++;
+                        return WebFragmentMetaDataParser.parse(reader);
+                    }
+                });
+        final VirtualFile descriptor = write("web-fragment.xml", "<web-fragment xmlns=\"http://java.sun.com/xml/ns/javaee\" version=\"3.0\">"
+                + "<name>fragment</name></web-fragment>");
+
+        final WebFragmentMetaData first = WebFragmentParsingDeploymentProcessor.copy(cache.get(descriptor), descriptor);
+        assertEquals("fragment", first.getName());
+        first.setName("changed");
+
+        final WebFragmentMetaData second = WebFragmentParsingDeploymentProcessor.copy(cache.get(descriptor), descriptor);
+        assertNotSame(first, second);
+        assertEquals("fragment", second.getName());
+        assertEquals(1, parsed);
+    }
+
+    @Test
+    public void testContentChangeIsMiss() throws Exception {
+        final ParsedMetaDataCache<TldMetaData> cache = createTldCache();
+        final VirtualFile descriptor = write("test.tld", tld("before"));
+        final TldMetaData before = cache.get(descriptor);
+        assertEquals("before", before.getShortName());
+
+        write("test.tld", tld("after"));
+        final TldMetaData after = cache.get(descriptor);
+        assertNotSame(before, after);
+        assertEquals("after", after.getShortName());
+        assertEquals(2, parsed);
+
+        // the previous content is still cached
+        write("test.tld", tld("before"));
+        assertSame(before, cache.get(descriptor));
+        assertEquals(2, parsed);
+    }
+
+    private ParsedMetaDataCache<TldMetaData> createTldCache() {
+        return new ParsedMetaDataCache<TldMetaData>(new ParsedMetaDataCache.Parser<TldMetaData>() {
+            public TldMetaData parse(XMLStreamReader reader) throws Exception {
+                parsed++;
+                return TldMetaDataParser.parse(reader);
+            }
+        });
+    }
+
+    private static String tld(final String shortName) {
+        return "<taglib xmlns=\"http://java.sun.com/xml/ns/javaee\" version=\"2.1\">"
+                + "<tlib-version>1.0</tlib-version><short-name>" + shortName + "</short-name></taglib>";
+    }
+
+    private VirtualFile write(final String name, final String content) throws IOException {
+        final File file = new File(directory, name);
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        return VFS.getChild(file.toURI());
+    }
+}